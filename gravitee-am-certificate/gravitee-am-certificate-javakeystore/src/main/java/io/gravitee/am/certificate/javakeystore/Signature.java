@@ -29,7 +29,12 @@ public enum Signature {
     SHA384withRSA("SHA-384", AlgorithmId.SHA384_oid, JWSAlgorithm.RS384),
     SHA256withRSA("SHA-256", AlgorithmId.SHA256_oid, JWSAlgorithm.RS256),
     SHA224withRSA("SHA-224", AlgorithmId.SHA224_oid, null),
-    SHA1withRSA("SHA-1", AlgorithmId.SHA_oid, null);
+    SHA1withRSA("SHA-1", AlgorithmId.SHA_oid, null),
+    // elliptic curve signatures are selected from the key type
+    SHA512withECDSA("SHA-512", null, JWSAlgorithm.ES512),
+    SHA384withECDSA("SHA-384", null, JWSAlgorithm.ES384),
+    SHA256withECDSA("SHA-256", null, JWSAlgorithm.ES256),
+    Ed25519("SHA-512", null, JWSAlgorithm.EdDSA);
 
     private String digestOID;
     private ObjectIdentifier algorithmId;
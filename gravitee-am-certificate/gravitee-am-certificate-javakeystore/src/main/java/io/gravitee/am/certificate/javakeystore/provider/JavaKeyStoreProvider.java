@@ -15,13 +15,21 @@
  */
 package io.gravitee.am.certificate.javakeystore.provider;
 
+import com.nimbusds.jose.JOSEException;
+import com.nimbusds.jose.JWSAlgorithm;
+import com.nimbusds.jose.jwk.Curve;
 import com.nimbusds.jose.jwk.JWKSet;
+import com.nimbusds.jose.jwk.KeyType;
+import com.nimbusds.jose.jwk.KeyUse;
+import com.nimbusds.jose.util.Base64URL;
 import io.gravitee.am.certificate.api.CertificateMetadata;
 import io.gravitee.am.certificate.api.CertificateProvider;
 import io.gravitee.am.certificate.api.DefaultKey;
 import io.gravitee.am.certificate.javakeystore.JavaKeyStoreConfiguration;
 import io.gravitee.am.certificate.javakeystore.Signature;
+import io.gravitee.am.model.jose.ECKey;
 import io.gravitee.am.model.jose.JWK;
+import io.gravitee.am.model.jose.OKPKey;
 import io.gravitee.am.model.jose.RSAKey;
 import io.reactivex.Flowable;
 import io.reactivex.Single;
@@ -30,11 +38,19 @@ import org.springframework.beans.factory.annotation.Autowired;
 
 import java.io.*;
 import java.math.BigInteger;
+import java.nio.charset.StandardCharsets;
 import java.security.*;
 import java.security.cert.Certificate;
 import java.security.cert.X509Certificate;
+import java.security.interfaces.ECPublicKey;
 import java.security.interfaces.RSAPublicKey;
+import java.security.spec.ECParameterSpec;
+import java.security.spec.ECPoint;
+import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Base64;
+import java.util.Collections;
+import java.util.List;
 import java.util.Objects;
 import java.util.Set;
 import java.util.stream.Collectors;
@@ -69,28 +85,27 @@ public class JavaKeyStoreProvider implements CertificateProvider, InitializingBe
         KeyStore keystore = KeyStore.getInstance(KeyStore.getDefaultType());
         keystore.load(is, configuration.getStorepass().toCharArray());
         // generate JWK set
-        jwkSet = JWKSet.load(keystore, name -> configuration.getKeypass().toCharArray());
-        keys = getKeys();
+        jwkSet = loadJWKSet(keystore);
         // generate Key pair
         Key key = keystore.getKey(configuration.getAlias(), configuration.getKeypass().toCharArray());
         if (key instanceof PrivateKey) {
             // Get certificate of public key
             Certificate cert = keystore.getCertificate(configuration.getAlias());
-            // Get Signing Algorithm name
-            if (cert instanceof X509Certificate) {
-                signature = getSignature(((X509Certificate) cert).getSigAlgOID());
-            }
-            certificateMetadata.getMetadata().put(CertificateMetadata.DIGEST_ALGORITHM_NAME, signature.getDigestOID());
             // Get public key
             PublicKey publicKey = cert.getPublicKey();
+            // Get Signing Algorithm name
+            signature = getSignature(cert, publicKey);
+            certificateMetadata.getMetadata().put(CertificateMetadata.DIGEST_ALGORITHM_NAME, signature.getDigestOID());
             // create key pair
             keyPair = new KeyPair(publicKey, (PrivateKey) key);
             // create key
             certificateKey = new DefaultKey(configuration.getAlias(), keyPair);
             // get public key
             this.publicKey = getPublicKey();
+            // get JWK set public keys
+            keys = getKeys();
         } else {
-            throw new IllegalArgumentException("A RSA Signer must be supplied");
+            throw new IllegalArgumentException("A private key (RSA, EC or EdDSA) must be supplied");
         }
     }
 
@@ -115,25 +130,86 @@ public class JavaKeyStoreProvider implements CertificateProvider, InitializingBe
     }
 
     private String getPublicKey() throws IOException {
+        PublicKey publicKey = keyPair.getPublic();
         ByteArrayOutputStream out = new ByteArrayOutputStream();
-        /* encode the "ssh-rsa" string */
-        byte[] sshrsa = new byte[]{0, 0, 0, 7, 's', 's', 'h', '-', 'r', 's', 'a'};
-        out.write(sshrsa);
-        /* Encode the public exponent */
-        BigInteger e = ((RSAPublicKey) keyPair.getPublic()).getPublicExponent();
-        byte[] data = e.toByteArray();
-        encodeUInt32(data.length, out);
-        out.write(data);
-        /* Encode the modulus */
-        BigInteger m = ((RSAPublicKey) keyPair.getPublic()).getModulus();
-        data = m.toByteArray();
-        encodeUInt32(data.length, out);
-        out.write(data);
+        if (publicKey instanceof ECPublicKey) {
+            /* encode the "ecdsa-sha2-nistpXXX" and curve identifier strings */
+            ECParameterSpec params = ((ECPublicKey) publicKey).getParams();
+            int fieldSize = params.getCurve().getField().getFieldSize();
+            String curve = "nistp" + fieldSize;
+            encodeString(("ecdsa-sha2-" + curve).getBytes(StandardCharsets.US_ASCII), out);
+            encodeString(curve.getBytes(StandardCharsets.US_ASCII), out);
+            /* Encode the uncompressed public point */
+            int length = (fieldSize + 7) / 8;
+            ECPoint point = ((ECPublicKey) publicKey).getW();
+            ByteArrayOutputStream q = new ByteArrayOutputStream();
+            q.write(0x04);
+            q.write(toUnsignedBytes(point.getAffineX(), length));
+            q.write(toUnsignedBytes(point.getAffineY(), length));
+            encodeString(q.toByteArray(), out);
+        } else if (signature == Signature.Ed25519) {
+            /* encode the "ssh-ed25519" string and the raw public key */
+            encodeString("ssh-ed25519".getBytes(StandardCharsets.US_ASCII), out);
+            encodeString(getEd25519PublicKey(publicKey), out);
+        } else {
+            /* encode the "ssh-rsa" string */
+            byte[] sshrsa = new byte[]{0, 0, 0, 7, 's', 's', 'h', '-', 'r', 's', 'a'};
+            out.write(sshrsa);
+            /* Encode the public exponent */
+            BigInteger e = ((RSAPublicKey) publicKey).getPublicExponent();
+            byte[] data = e.toByteArray();
+            encodeUInt32(data.length, out);
+            out.write(data);
+            /* Encode the modulus */
+            BigInteger m = ((RSAPublicKey) publicKey).getModulus();
+            data = m.toByteArray();
+            encodeUInt32(data.length, out);
+            out.write(data);
+        }
         return Base64.getEncoder().encodeToString(out.toByteArray());
     }
 
     private Set<JWK> getKeys() {
-        return jwkSet.toPublicJWKSet().getKeys().stream().map(this::convert).collect(Collectors.toSet());
+        Set<JWK> keys = jwkSet.toPublicJWKSet().getKeys().stream().map(this::convert).collect(Collectors.toSet());
+        // Octet key pairs are not loaded from the keystore by nimbus
+        if (signature == Signature.Ed25519) {
+            OKPKey jwk = new OKPKey();
+            jwk.setKty(KeyType.OKP.getValue());
+            jwk.setUse(KeyUse.SIGNATURE.identifier());
+            jwk.setAlg(JWSAlgorithm.EdDSA.getName());
+            jwk.setKid(configuration.getAlias());
+            jwk.setCrv(Signature.Ed25519.name());
+            jwk.setX(Base64.getUrlEncoder().withoutPadding().encodeToString(getEd25519PublicKey(keyPair.getPublic())));
+            keys.add(jwk);
+        }
+        return keys;
+    }
+
+    private JWKSet loadJWKSet(KeyStore keystore) throws GeneralSecurityException, JOSEException {
+        // nimbus requires BouncyCastle to load elliptic curve keys from a keystore, build them from the certificate
+        List<com.nimbusds.jose.jwk.JWK> jwks = new ArrayList<>();
+        for (String alias : Collections.list(keystore.aliases())) {
+            Certificate cert = keystore.getCertificate(alias);
+            if (cert == null) {
+                continue;
+            }
+            if (cert.getPublicKey() instanceof RSAPublicKey) {
+                jwks.add(com.nimbusds.jose.jwk.RSAKey.load(keystore, alias, configuration.getKeypass().toCharArray()));
+            } else if (cert.getPublicKey() instanceof ECPublicKey) {
+                ECPublicKey ecPublicKey = (ECPublicKey) cert.getPublicKey();
+                jwks.add(new com.nimbusds.jose.jwk.ECKey.Builder(Curve.forECParameterSpec(ecPublicKey.getParams()), ecPublicKey)
+                        .keyID(alias)
+                        .x509CertChain(Collections.singletonList(com.nimbusds.jose.util.Base64.encode(cert.getEncoded())))
+                        .x509CertSHA256Thumbprint(Base64URL.encode(MessageDigest.getInstance("SHA-256").digest(cert.getEncoded())))
+                        .build());
+            }
+        }
+        return new JWKSet(jwks);
+    }
+
+    private void encodeString(byte[] data, OutputStream out) throws IOException {
+        encodeUInt32(data.length, out);
+        out.write(data);
     }
 
     private void encodeUInt32(int value, OutputStream out) throws IOException {
@@ -146,7 +222,34 @@ public class JavaKeyStoreProvider implements CertificateProvider, InitializingBe
     }
 
     private JWK convert(com.nimbusds.jose.jwk.JWK nimbusJwk) {
-        RSAKey jwk = new RSAKey();
+        JWK jwk;
+        if (nimbusJwk instanceof com.nimbusds.jose.jwk.ECKey) {
+            // specific EC Key
+            com.nimbusds.jose.jwk.ECKey nimbusECJwk = (com.nimbusds.jose.jwk.ECKey) nimbusJwk;
+            ECKey ecJwk = new ECKey();
+            if (nimbusECJwk.getCurve() != null) {
+                ecJwk.setCrv(nimbusECJwk.getCurve().getName());
+            }
+            if (nimbusECJwk.getX() != null) {
+                ecJwk.setX(nimbusECJwk.getX().toString());
+            }
+            if (nimbusECJwk.getY() != null) {
+                ecJwk.setY(nimbusECJwk.getY().toString());
+            }
+            jwk = ecJwk;
+        } else {
+            // specific RSA Key
+            com.nimbusds.jose.jwk.RSAKey nimbusRSAJwk = (com.nimbusds.jose.jwk.RSAKey) nimbusJwk;
+            RSAKey rsaJwk = new RSAKey();
+            if (nimbusRSAJwk.getPublicExponent() != null) {
+                rsaJwk.setE(nimbusRSAJwk.getPublicExponent().toString());
+            }
+            if (nimbusRSAJwk.getModulus() != null) {
+                rsaJwk.setN(nimbusRSAJwk.getModulus().toString());
+            }
+            jwk = rsaJwk;
+        }
+
         if (nimbusJwk.getKeyType() != null) {
             jwk.setKty(nimbusJwk.getKeyType().getValue());
         }
@@ -175,24 +278,41 @@ public class JavaKeyStoreProvider implements CertificateProvider, InitializingBe
             jwk.setX5tS256(nimbusJwk.getX509CertSHA256Thumbprint().toString());
         }
 
-        // specific RSA Key
-        com.nimbusds.jose.jwk.RSAKey nimbusRSAJwk = (com.nimbusds.jose.jwk.RSAKey) nimbusJwk;
-        if (nimbusRSAJwk.getPublicExponent() != null) {
-            jwk.setE(nimbusRSAJwk.getPublicExponent().toString());
+        return jwk;
+    }
+
+    private Signature getSignature(Certificate cert, PublicKey publicKey) {
+        if (publicKey instanceof ECPublicKey) {
+            int fieldSize = ((ECPublicKey) publicKey).getParams().getCurve().getField().getFieldSize();
+            return fieldSize >= 521 ? Signature.SHA512withECDSA : fieldSize >= 384 ? Signature.SHA384withECDSA : Signature.SHA256withECDSA;
         }
-        if (nimbusRSAJwk.getModulus() != null) {
-            jwk.setN(nimbusRSAJwk.getModulus().toString());
+        if ("EdDSA".equals(publicKey.getAlgorithm()) || "Ed25519".equals(publicKey.getAlgorithm())) {
+            return Signature.Ed25519;
         }
-
-        return jwk;
+        return cert instanceof X509Certificate ? getSignature(((X509Certificate) cert).getSigAlgOID()) : Signature.SHA256withRSA;
     }
 
     private Signature getSignature(String signingAlgorithmOID) {
         return Stream.of(Signature.values())
-                .filter(signature -> signature.getAlgorithmId().toString().equals(signingAlgorithmOID))
+                .filter(signature -> signature.getAlgorithmId() != null && signature.getAlgorithmId().toString().equals(signingAlgorithmOID))
                 .findFirst()
                 .orElse(Signature.SHA256withRSA);
     }
 
+    private static byte[] getEd25519PublicKey(PublicKey publicKey) {
+        // X.509 SubjectPublicKeyInfo ends with the 32 bytes raw public key
+        byte[] encoded = publicKey.getEncoded();
+        return Arrays.copyOfRange(encoded, encoded.length - 32, encoded.length);
+    }
 
+    private static byte[] toUnsignedBytes(BigInteger value, int length) {
+        byte[] bytes = value.toByteArray();
+        if (bytes.length == length) {
+            return bytes;
+        }
+        byte[] result = new byte[length];
+        int copy = Math.min(bytes.length, length);
+        System.arraycopy(bytes, bytes.length - copy, result, length - copy, copy);
+        return result;
+    }
 }
@@ -25,7 +25,12 @@ public enum DomainEvent {
 
     DEPLOY,
     UPDATE,
-    UNDEPLOY;
+    UNDEPLOY,
+    /**
+     * The domain has changed without being redeployed. A domain only records its last event, the other changes made
+     * since the previous synchronization are lost : the domain components reload their state from the repositories.
+     */
+    SYNC;
 
     public static DomainEvent actionOf(Action action) {
         DomainEvent domainEvent = null;
@@ -19,8 +19,11 @@ import io.gravitee.am.gateway.handler.auth.idp.IdentityProviderManager;
 import io.gravitee.am.gateway.handler.certificate.CertificateManager;
 import io.gravitee.am.gateway.handler.oauth2.client.ClientService;
 import io.gravitee.am.gateway.handler.oauth2.granter.extensiongrant.ExtensionGrantManager;
+import io.gravitee.am.gateway.handler.oauth2.scope.ScopeService;
+import io.gravitee.am.gateway.handler.oidc.userinfo.UserInfoCache;
 import io.gravitee.am.gateway.handler.spring.HandlerConfiguration;
 import io.gravitee.am.gateway.handler.vertx.VertxSecurityDomainHandler;
+import io.gravitee.am.gateway.service.RoleService;
 import io.gravitee.am.model.Domain;
 import io.gravitee.common.component.LifecycleComponent;
 import org.slf4j.Logger;
@@ -92,6 +95,9 @@ public class SecurityDomainRouterFactory {
         components.add(CertificateManager.class);
         components.add(IdentityProviderManager.class);
         components.add(ExtensionGrantManager.class);
+        components.add(ScopeService.class);
+        components.add(RoleService.class);
+        components.add(UserInfoCache.class);
 
         components.forEach(componentClass -> {
             LifecycleComponent lifecyclecomponent = applicationContext.getBean(componentClass);
@@ -137,11 +137,11 @@ public class UserAuthenticationManagerImpl implements UserAuthenticationManager
     private Maybe<User> enhanceUserWithRoles(User user) {
         List<String> userRoles = user.getRoles();
         if (userRoles != null && !userRoles.isEmpty()) {
-            return roleService.findByIdIn(userRoles)
-                    .map(roles -> {
-                        user.setRolesPermissions(roles);
-                        return user;
-                    }).toMaybe();
+            return roleService.findByIdIn(userRoles, (roles, permissions) -> {
+                user.setRolesPermissions(roles);
+                user.setPermissions(permissions);
+                return user;
+            }).toMaybe();
         }
         return Maybe.just(user);
     }
@@ -0,0 +1,160 @@
+/**
+ * Copyright (C) 2015 The Gravitee team (http://gravitee.io)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.gravitee.am.gateway.handler.cache;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.function.Predicate;
+
+/**
+ * Bounded, thread-safe, least-recently-used cache whose entries carry their own expiration time.
+ *
+ * Keys are spread over a fixed number of segments, each segment being an access-ordered {@link LinkedHashMap}
+ * guarded by its own lock, so concurrent readers on distinct keys rarely contend.
+ *
+ * @author GraviteeSource Team
+ */
+public class LRUCache<K, V> {
+
+    private static final int MAX_SEGMENTS = 16;
+
+    private final Segment<K, V>[] segments;
+    private final int segmentMask;
+
+    @SuppressWarnings("unchecked")
+    public LRUCache(int maximumSize) {
+        if (maximumSize <= 0) {
+            throw new IllegalArgumentException("Cache maximum size must be greater than 0");
+        }
+
+        int segmentCount = 1;
+        while (segmentCount < MAX_SEGMENTS && segmentCount * 2 <= maximumSize) {
+            segmentCount <<= 1;
+        }
+
+        this.segments = new Segment[segmentCount];
+        this.segmentMask = segmentCount - 1;
+        int segmentCapacity = maximumSize / segmentCount;
+        for (int i = 0; i < segmentCount; i++) {
+            segments[i] = new Segment<>(segmentCapacity);
+        }
+    }
+
+    /**
+     * Return the value associated to the key or <code>null</code> if there is none or if it has expired.
+     */
+    public V get(K key) {
+        return segmentFor(key).get(key, System.currentTimeMillis());
+    }
+
+    /**
+     * Associate the value to the key until the given expiration time (epoch milliseconds).
+     */
+    public void put(K key, V value, long expireAt) {
+        if (expireAt <= System.currentTimeMillis()) {
+            return;
+        }
+        segmentFor(key).put(key, new Entry<>(value, expireAt));
+    }
+
+    public void remove(K key) {
+        segmentFor(key).remove(key);
+    }
+
+    /**
+     * Remove every entry whose value matches the given predicate.
+     */
+    public void removeIf(Predicate<? super V> predicate) {
+        for (Segment<K, V> segment : segments) {
+            segment.removeIf(predicate);
+        }
+    }
+
+    public void clear() {
+        for (Segment<K, V> segment : segments) {
+            segment.clear();
+        }
+    }
+
+    public int size() {
+        int size = 0;
+        for (Segment<K, V> segment : segments) {
+            size += segment.size();
+        }
+        return size;
+    }
+
+    private Segment<K, V> segmentFor(K key) {
+        int h = key.hashCode();
+        h ^= (h >>> 16);
+        return segments[h & segmentMask];
+    }
+
+    private static final class Entry<V> {
+        private final V value;
+        private final long expireAt;
+
+        private Entry(V value, long expireAt) {
+            this.value = value;
+            this.expireAt = expireAt;
+        }
+    }
+
+    private static final class Segment<K, V> {
+        private final Map<K, Entry<V>> entries;
+
+        private Segment(int capacity) {
+            this.entries = new LinkedHashMap<K, Entry<V>>(16, 0.75f, true) {
+                @Override
+                protected boolean removeEldestEntry(Map.Entry<K, Entry<V>> eldest) {
+                    return size() > capacity;
+                }
+            };
+        }
+
+        synchronized V get(K key, long now) {
+            Entry<V> entry = entries.get(key);
+            if (entry == null) {
+                return null;
+            }
+            if (entry.expireAt <= now) {
+                entries.remove(key);
+                return null;
+            }
+            return entry.value;
+        }
+
+        synchronized void put(K key, Entry<V> entry) {
+            entries.put(key, entry);
+        }
+
+        synchronized void remove(K key) {
+            entries.remove(key);
+        }
+
+        synchronized void removeIf(Predicate<? super V> predicate) {
+            entries.values().removeIf(entry -> predicate.test(entry.value));
+        }
+
+        synchronized void clear() {
+            entries.clear();
+        }
+
+        synchronized int size() {
+            return entries.size();
+        }
+    }
+}
@@ -15,6 +15,7 @@
  */
 package io.gravitee.am.gateway.handler.certificate;
 
+import io.gravitee.am.gateway.handler.jwt.JwsAlgorithm;
 import io.gravitee.am.gateway.handler.jwt.JwtBuilder;
 import io.gravitee.am.gateway.handler.jwt.JwtParser;
 
@@ -27,6 +28,7 @@ public class CertificateProvider {
     private io.gravitee.am.certificate.api.CertificateProvider provider;
     private JwtParser jwtParser;
     private JwtBuilder jwtBuilder;
+    private JwsAlgorithm signatureAlgorithm;
 
     public CertificateProvider(io.gravitee.am.certificate.api.CertificateProvider provider) {
         this.provider = provider;
@@ -55,4 +57,12 @@ public class CertificateProvider {
     public void setJwtBuilder(JwtBuilder jwtBuilder) {
         this.jwtBuilder = jwtBuilder;
     }
+
+    public JwsAlgorithm getSignatureAlgorithm() {
+        return signatureAlgorithm;
+    }
+
+    public void setSignatureAlgorithm(JwsAlgorithm signatureAlgorithm) {
+        this.signatureAlgorithm = signatureAlgorithm;
+    }
 }
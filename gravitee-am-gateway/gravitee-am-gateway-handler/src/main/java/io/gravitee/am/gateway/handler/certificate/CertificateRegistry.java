@@ -0,0 +1,37 @@
+/**
+ * Copyright (C) 2015 The Gravitee team (http://gravitee.io)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.gravitee.am.gateway.handler.certificate;
+
+import io.reactivex.Maybe;
+
+import java.util.Collection;
+
+/**
+ * Gateway-wide registry of the certificates of every security domain, shared by reference by the domains
+ * {@link CertificateManager}.
+ *
+ * Certificates are indexed by domain and id, their key store is only decoded the first time they are used.
+ *
+ * @author GraviteeSource Team
+ */
+public interface CertificateRegistry {
+
+    Maybe<CertificateProvider> findByDomainAndId(String domain, String id);
+
+    Collection<CertificateProvider> providers(String domain);
+
+    CertificateProvider defaultCertificateProvider();
+}
@@ -0,0 +1,296 @@
+/**
+ * Copyright (C) 2015 The Gravitee team (http://gravitee.io)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.gravitee.am.gateway.handler.certificate.impl;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.gravitee.am.certificate.api.CertificateMetadata;
+import io.gravitee.am.certificate.api.DefaultKey;
+import io.gravitee.am.gateway.core.event.CertificateEvent;
+import io.gravitee.am.gateway.core.event.DomainEvent;
+import io.gravitee.am.gateway.handler.certificate.CertificateProvider;
+import io.gravitee.am.gateway.handler.certificate.CertificateRegistry;
+import io.gravitee.am.gateway.handler.jwt.JwsAlgorithm;
+import io.gravitee.am.gateway.handler.jwt.impl.CompactJwtBuilder;
+import io.gravitee.am.gateway.handler.jwt.impl.CompactJwtParser;
+import io.gravitee.am.gateway.handler.jwt.impl.JJwtParser;
+import io.gravitee.am.model.Certificate;
+import io.gravitee.am.model.Domain;
+import io.gravitee.am.model.common.event.Payload;
+import io.gravitee.am.model.jose.JWK;
+import io.gravitee.am.plugins.certificate.core.CertificatePluginManager;
+import io.gravitee.am.repository.management.api.CertificateRepository;
+import io.gravitee.common.event.Event;
+import io.gravitee.common.event.EventListener;
+import io.gravitee.common.event.EventManager;
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.io.JacksonDeserializer;
+import io.jsonwebtoken.security.Keys;
+import io.reactivex.Flowable;
+import io.reactivex.Maybe;
+import io.reactivex.Single;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.InitializingBean;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+
+import java.security.Key;
+import java.security.KeyPair;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * Certificates are held once for the whole gateway, only for the domains deployed on this node, and kept up to date
+ * through the domain and certificate events. The certificate plugin (and its key store decoding), the JWT builder and
+ * the JWT parser are created when the domain is deployed or the certificate updated, on the sync thread which publishes
+ * those events, so that nothing blocks the Vert.x event loop when a token is signed or verified.
+ *
+ * @author Titouan COMPIEGNE (titouan.compiegne at graviteesource.com)
+ * @author GraviteeSource Team
+ */
+public class CertificateRegistryImpl implements CertificateRegistry, InitializingBean, EventListener<CertificateEvent, Payload> {
+
+    private static final Logger logger = LoggerFactory.getLogger(CertificateRegistryImpl.class);
+    private static final String defaultDigestAlgorithm = "SHA-256";
+
+    @Value("${jwt.secret:s3cR3t4grAv1t3310AMS1g1ingDftK3y}")
+    private String signingKeySecret;
+
+    @Value("${jwt.kid:default-gravitee-AM-key}")
+    private String signingKeyId;
+
+    @Autowired
+    private CertificateRepository certificateRepository;
+
+    @Autowired
+    private CertificatePluginManager certificatePluginManager;
+
+    @Autowired
+    private EventManager eventManager;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    private final ConcurrentMap<String, ConcurrentMap<String, CertificateProvider>> domainsCertificates = new ConcurrentHashMap<>();
+
+    private CertificateProvider defaultCertificateProvider;
+
+    public CertificateRegistryImpl() { }
+
+    public CertificateRegistryImpl(String signingKeySecret, String signingKeyId) {
+        this.signingKeySecret = signingKeySecret;
+        this.signingKeyId = signingKeyId;
+    }
+
+    @Override
+    public Maybe<CertificateProvider> findByDomainAndId(String domain, String id) {
+        if (domain == null || id == null) {
+            return Maybe.empty();
+        }
+        return Maybe.defer(() -> {
+            Map<String, CertificateProvider> domainCertificates = domainsCertificates.get(domain);
+            CertificateProvider certificateProvider = domainCertificates == null ? null : domainCertificates.get(id);
+            return certificateProvider == null ? Maybe.empty() : Maybe.just(certificateProvider);
+        });
+    }
+
+    @Override
+    public Collection<CertificateProvider> providers(String domain) {
+        Map<String, CertificateProvider> domainCertificates = domain == null ? null : domainsCertificates.get(domain);
+        return domainCertificates == null ? Collections.emptyList() : new ArrayList<>(domainCertificates.values());
+    }
+
+    @Override
+    public CertificateProvider defaultCertificateProvider() {
+        return defaultCertificateProvider;
+    }
+
+    @Override
+    public void afterPropertiesSet() {
+        logger.info("Initializing default certificate provider");
+        initDefaultCertificateProvider();
+
+        logger.info("Register event listener for domain and certificate events");
+        EventListener<DomainEvent, Domain> domainEventListener = this::onDomainEvent;
+        eventManager.subscribeForEvents(domainEventListener, DomainEvent.class);
+        eventManager.subscribeForEvents(this, CertificateEvent.class);
+    }
+
+    public void onDomainEvent(Event<DomainEvent, Domain> event) {
+        switch (event.type()) {
+            case DEPLOY:
+            case UPDATE:
+                deployDomain(event.content());
+                break;
+            case UNDEPLOY:
+                domainsCertificates.remove(event.content().getId());
+                break;
+        }
+    }
+
+    @Override
+    public void onEvent(Event<CertificateEvent, Payload> event) {
+        switch (event.type()) {
+            case DEPLOY:
+            case UPDATE:
+                updateCertificate(event.content().getId(), event.content().getDomain(), event.type());
+                break;
+            case UNDEPLOY:
+                removeCertificate(event.content().getId(), event.content().getDomain());
+                break;
+        }
+    }
+
+    private void deployDomain(Domain domain) {
+        if (domainsCertificates.containsKey(domain.getId())) {
+            // certificates of a deployed domain are kept up to date by the certificate events
+            return;
+        }
+
+        logger.info("Initializing certificates for domain {}", domain.getName());
+        ConcurrentMap<String, CertificateProvider> domainCertificates = new ConcurrentHashMap<>();
+        try {
+            certificateRepository.findByDomain(domain.getId()).blockingGet()
+                    .forEach(certificate -> putCertificate(domainCertificates, certificate));
+            logger.info("{} certificates loaded for domain {}", domainCertificates.size(), domain.getName());
+        } catch (Exception ex) {
+            logger.error("Unable to initialize certificates for domain {}", domain.getName(), ex);
+        }
+        domainsCertificates.put(domain.getId(), domainCertificates);
+    }
+
+    private void updateCertificate(String certificateId, String domain, CertificateEvent certificateEvent) {
+        final String eventType = certificateEvent.toString().toLowerCase();
+        if (domain != null && !domainsCertificates.containsKey(domain)) {
+            logger.debug("Ignoring {} certificate event for {}, domain {} is not deployed", eventType, certificateId, domain);
+            return;
+        }
+
+        logger.info("Gateway has received {} certificate event for {}", eventType, certificateId);
+        try {
+            Certificate certificate = certificateRepository.findById(certificateId).blockingGet();
+            if (certificate == null) {
+                logger.error("No certificate found with id {}", certificateId);
+                return;
+            }
+            updateCertificate(certificate);
+            logger.info("Certificate {} {}d for domain {}", certificateId, eventType, certificate.getDomain());
+        } catch (Exception ex) {
+            logger.error("Unable to {} certificate {}", eventType, certificateId, ex);
+        }
+    }
+
+    private void removeCertificate(String certificateId, String domain) {
+        logger.info("Gateway has received certificate event, delete certificate {} of domain {}", certificateId, domain);
+        Map<String, CertificateProvider> domainCertificates = domain == null ? null : domainsCertificates.get(domain);
+        if (domainCertificates != null) {
+            domainCertificates.remove(certificateId);
+        }
+    }
+
+    private void updateCertificate(Certificate certificate) {
+        Map<String, CertificateProvider> domainCertificates = domainsCertificates.get(certificate.getDomain());
+        if (domainCertificates != null) {
+            putCertificate(domainCertificates, certificate);
+        }
+    }
+
+    private void putCertificate(Map<String, CertificateProvider> domainCertificates, Certificate certificate) {
+        try {
+            // the previous provider of the certificate, if any, is dropped : tokens it has verified no longer match
+            domainCertificates.put(certificate.getId(), create(certificate));
+        } catch (Exception ex) {
+            // a certificate which cannot be initialized is not retried until it is updated
+            logger.error("Unable to initialize certificate {} for domain {}", certificate.getId(), certificate.getDomain(), ex);
+            domainCertificates.remove(certificate.getId());
+        }
+    }
+
+    private void initDefaultCertificateProvider() {
+        // create default signing HMAC key
+        Key key = Keys.hmacShaKeyFor(signingKeySecret.getBytes());
+        io.gravitee.am.certificate.api.Key certificateKey = new DefaultKey(signingKeyId, key);
+
+        // create default certificate provider
+        setDefaultCertificateProvider(certificateKey);
+    }
+
+    private void setDefaultCertificateProvider(io.gravitee.am.certificate.api.Key key) {
+        CertificateMetadata certificateMetadata = new CertificateMetadata();
+        certificateMetadata.setMetadata(Collections.singletonMap(CertificateMetadata.DIGEST_ALGORITHM_NAME, defaultDigestAlgorithm));
+
+        io.gravitee.am.certificate.api.CertificateProvider defaultProvider = new io.gravitee.am.certificate.api.CertificateProvider() {
+
+            @Override
+            public Single<io.gravitee.am.certificate.api.Key> key() {
+                return Single.just(key);
+            }
+
+            @Override
+            public Single<String> publicKey() {
+                return null;
+            }
+
+            @Override
+            public Flowable<JWK> keys() {
+                return null;
+            }
+
+            @Override
+            public CertificateMetadata certificateMetadata() {
+                return certificateMetadata;
+            }
+        };
+
+        defaultCertificateProvider = create(defaultProvider);
+    }
+
+    private CertificateProvider create(Certificate certificate) {
+        logger.info("Initializing certificate: {} [{}] for domain {}", certificate.getName(), certificate.getType(), certificate.getDomain());
+        // create underline provider
+        io.gravitee.am.certificate.api.CertificateProvider provider = certificatePluginManager.create(certificate.getType(), certificate.getConfiguration(), certificate.getMetadata());
+
+        // create certificate provider
+        return create(provider);
+    }
+
+    private CertificateProvider create(io.gravitee.am.certificate.api.CertificateProvider provider) {
+        // create certificate provider
+        CertificateProvider certificateProvider = new CertificateProvider(provider);
+
+        // create builder and parser (default to jjwt)
+        io.gravitee.am.certificate.api.Key providerKey = provider.key().blockingGet();
+        Key signingKey = providerKey.getValue() instanceof KeyPair ? ((KeyPair) providerKey.getValue()).getPrivate() : (Key) providerKey.getValue();
+        Key verifyingKey = providerKey.getValue() instanceof KeyPair ? ((KeyPair) providerKey.getValue()).getPublic() : (Key) providerKey.getValue();
+
+        CompactJwtBuilder jwtBuilder = new CompactJwtBuilder(objectMapper, signingKey, providerKey.getKeyId());
+        if (jwtBuilder.getSignatureAlgorithm() == JwsAlgorithm.EdDSA) {
+            // EdDSA is not supported by jjwt
+            certificateProvider.setJwtParser(new CompactJwtParser(objectMapper, verifyingKey, JwsAlgorithm.EdDSA));
+        } else {
+            io.jsonwebtoken.JwtParser jjwtParser = Jwts.parser().deserializeJsonWith(new JacksonDeserializer(objectMapper)).setSigningKey(verifyingKey);
+            certificateProvider.setJwtParser(new JJwtParser(jjwtParser));
+        }
+        certificateProvider.setJwtBuilder(jwtBuilder);
+        certificateProvider.setSignatureAlgorithm(jwtBuilder.getSignatureAlgorithm());
+
+        return certificateProvider;
+    }
+}
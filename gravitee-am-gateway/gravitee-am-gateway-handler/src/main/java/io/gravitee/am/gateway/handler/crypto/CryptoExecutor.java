@@ -0,0 +1,74 @@
+/**
+ * Copyright (C) 2015 The Gravitee team (http://gravitee.io)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.gravitee.am.gateway.handler.crypto;
+
+import io.reactivex.Single;
+
+import java.util.concurrent.Callable;
+
+/**
+ * Bounded thread-pool used to run CPU intensive cryptographic operations (such as RSA signing)
+ * outside of the Vert.x event loop.
+ *
+ * This executor is shared by all the security domains deployed on the gateway.
+ *
+ * @author GraviteeSource Team
+ */
+public interface CryptoExecutor {
+
+    /**
+     * Run the given task on the crypto worker pool.
+     * The result is emitted back on the Vert.x context of the caller (if any).
+     *
+     * If the pool queue is full, the task is rejected and the returned {@link Single} fails with a
+     * {@link io.gravitee.am.gateway.handler.oauth2.exception.TemporarilyUnavailableException}
+     *
+     * @param task the cryptographic operation to execute
+     * @param <T> type of the result
+     * @return the result of the task
+     */
+    <T> Single<T> execute(Callable<T> task);
+
+    /**
+     * @return number of tasks waiting in the queue
+     */
+    int queueSize();
+
+    /**
+     * @return number of threads actively running tasks
+     */
+    int activeCount();
+
+    /**
+     * @return number of tasks completed since startup
+     */
+    long completedCount();
+
+    /**
+     * @return number of tasks rejected because the queue was full
+     */
+    long rejectedCount();
+
+    /**
+     * @return total time spent by the tasks in the queue (in nanoseconds)
+     */
+    long totalWaitTime();
+
+    /**
+     * @return maximum time spent by a task in the queue (in nanoseconds)
+     */
+    long maxWaitTime();
+}
@@ -0,0 +1,167 @@
+/**
+ * Copyright (C) 2015 The Gravitee team (http://gravitee.io)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.gravitee.am.gateway.handler.crypto.impl;
+
+import io.gravitee.am.gateway.handler.crypto.CryptoExecutor;
+import io.gravitee.am.gateway.handler.oauth2.exception.TemporarilyUnavailableException;
+import io.reactivex.Single;
+import io.vertx.core.Context;
+import io.vertx.core.Vertx;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.InitializingBean;
+import org.springframework.beans.factory.annotation.Value;
+
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.Callable;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * @author GraviteeSource Team
+ */
+public class CryptoExecutorImpl implements CryptoExecutor, InitializingBean, DisposableBean {
+
+    private static final Logger logger = LoggerFactory.getLogger(CryptoExecutorImpl.class);
+
+    @Value("${crypto.pool.size:0}")
+    private int poolSize;
+
+    @Value("${crypto.pool.queueCapacity:1024}")
+    private int queueCapacity;
+
+    private ThreadPoolExecutor executor;
+    private final AtomicLong rejectedCount = new AtomicLong();
+    private final LongAdder totalWaitTime = new LongAdder();
+    private final AtomicLong maxWaitTime = new AtomicLong();
+
+    public CryptoExecutorImpl() { }
+
+    public CryptoExecutorImpl(int poolSize, int queueCapacity) {
+        this.poolSize = poolSize;
+        this.queueCapacity = queueCapacity;
+    }
+
+    @Override
+    public <T> Single<T> execute(Callable<T> task) {
+        return Single.create(emitter -> {
+            // keep the caller context to emit the result back on its event loop
+            final Context context = Vertx.currentContext();
+            final long submittedAt = System.nanoTime();
+            try {
+                executor.execute(() -> {
+                    recordWaitTime(System.nanoTime() - submittedAt);
+                    if (emitter.isDisposed()) {
+                        return;
+                    }
+                    try {
+                        T result = task.call();
+                        runOnContext(context, () -> emitter.onSuccess(result));
+                    } catch (Throwable ex) {
+                        runOnContext(context, () -> emitter.onError(ex));
+                    }
+                });
+            } catch (RejectedExecutionException ex) {
+                rejectedCount.incrementAndGet();
+                logger.debug("Crypto worker pool queue is full ({} tasks), reject the task", executor.getQueue().size());
+                emitter.onError(new TemporarilyUnavailableException("The server is currently unable to handle the request due to a temporary overloading", ex));
+            }
+        });
+    }
+
+    @Override
+    public int queueSize() {
+        return executor.getQueue().size();
+    }
+
+    @Override
+    public int activeCount() {
+        return executor.getActiveCount();
+    }
+
+    @Override
+    public long completedCount() {
+        return executor.getCompletedTaskCount();
+    }
+
+    @Override
+    public long rejectedCount() {
+        return rejectedCount.get();
+    }
+
+    @Override
+    public long totalWaitTime() {
+        return totalWaitTime.sum();
+    }
+
+    @Override
+    public long maxWaitTime() {
+        return maxWaitTime.get();
+    }
+
+    @Override
+    public void afterPropertiesSet() {
+        int size = poolSize > 0 ? poolSize : Runtime.getRuntime().availableProcessors();
+        logger.info("Initializing crypto worker pool with {} thread(s) and a queue capacity of {}", size, queueCapacity);
+        executor = new ThreadPoolExecutor(size, size, 0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(queueCapacity), new CryptoThreadFactory(), new ThreadPoolExecutor.AbortPolicy());
+        executor.prestartAllCoreThreads();
+    }
+
+    @Override
+    public void destroy() {
+        if (executor != null) {
+            logger.info("Shutting down crypto worker pool");
+            executor.shutdown();
+        }
+    }
+
+    private void recordWaitTime(long waitTime) {
+        totalWaitTime.add(waitTime);
+        long max;
+        while (waitTime > (max = maxWaitTime.get())) {
+            if (maxWaitTime.compareAndSet(max, waitTime)) {
+                break;
+            }
+        }
+    }
+
+    private static void runOnContext(Context context, Runnable runnable) {
+        if (context != null) {
+            context.runOnContext(v -> runnable.run());
+        } else {
+            runnable.run();
+        }
+    }
+
+    private static class CryptoThreadFactory implements ThreadFactory {
+
+        private final AtomicInteger counter = new AtomicInteger(0);
+
+        @Override
+        public Thread newThread(Runnable r) {
+            Thread thread = new Thread(r, "gio-am-crypto-" + counter.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        }
+    }
+}
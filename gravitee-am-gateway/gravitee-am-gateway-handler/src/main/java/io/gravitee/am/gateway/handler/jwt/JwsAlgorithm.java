@@ -0,0 +1,113 @@
+/**
+ * Copyright (C) 2015 The Gravitee team (http://gravitee.io)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.gravitee.am.gateway.handler.jwt;
+
+import io.jsonwebtoken.SignatureAlgorithm;
+
+import javax.crypto.Mac;
+import java.security.Key;
+import java.security.NoSuchAlgorithmException;
+import java.security.Signature;
+
+/**
+ * JWS algorithms supported to sign and verify tokens.
+ *
+ * See <a href="https://tools.ietf.org/html/rfc7518#section-3.1">3.1. "alg" (Algorithm) Header Parameter Values for JWS</a>
+ * and <a href="https://tools.ietf.org/html/rfc8037#section-3.1">3.1. Signatures (EdDSA)</a>
+ *
+ * @author GraviteeSource Team
+ */
+public enum JwsAlgorithm {
+
+    HS256("HS256", "HmacSHA256"),
+    HS384("HS384", "HmacSHA384"),
+    HS512("HS512", "HmacSHA512"),
+    RS256("RS256", "SHA256withRSA"),
+    RS384("RS384", "SHA384withRSA"),
+    RS512("RS512", "SHA512withRSA"),
+    ES256("ES256", "SHA256withECDSA", 64),
+    ES384("ES384", "SHA384withECDSA", 96),
+    ES512("ES512", "SHA512withECDSA", 132),
+    EdDSA("EdDSA", "EdDSA");
+
+    private final String value;
+    private final String jcaName;
+    private final int signatureLength;
+
+    JwsAlgorithm(String value, String jcaName) {
+        this(value, jcaName, 0);
+    }
+
+    JwsAlgorithm(String value, String jcaName, int signatureLength) {
+        this.value = value;
+        this.jcaName = jcaName;
+        this.signatureLength = signatureLength;
+    }
+
+    public String getValue() {
+        return value;
+    }
+
+    public String getJcaName() {
+        return jcaName;
+    }
+
+    /**
+     * Length of the JWS signature (R | S) for ECDSA algorithms, the JCA providers produce DER encoded signatures.
+     */
+    public int getSignatureLength() {
+        return signatureLength;
+    }
+
+    public boolean isHmac() {
+        return this == HS256 || this == HS384 || this == HS512;
+    }
+
+    public boolean isEllipticCurve() {
+        return signatureLength > 0;
+    }
+
+    /**
+     * @return <code>true</code> if a JCA provider of the running JVM implements the algorithm
+     */
+    public boolean isAvailable() {
+        try {
+            if (isHmac()) {
+                Mac.getInstance(jcaName);
+            } else {
+                Signature.getInstance(jcaName);
+            }
+            return true;
+        } catch (NoSuchAlgorithmException ex) {
+            return false;
+        }
+    }
+
+    /**
+     * Return the strongest algorithm the given key can be used with.
+     */
+    public static JwsAlgorithm forSigningKey(Key key) {
+        if (isEdDSAKey(key)) {
+            return EdDSA;
+        }
+        return valueOf(SignatureAlgorithm.forSigningKey(key).getValue());
+    }
+
+    private static boolean isEdDSAKey(Key key) {
+        String algorithm = key.getAlgorithm();
+        return "EdDSA".equals(algorithm) || "Ed25519".equals(algorithm) || "Ed448".equals(algorithm);
+    }
+}
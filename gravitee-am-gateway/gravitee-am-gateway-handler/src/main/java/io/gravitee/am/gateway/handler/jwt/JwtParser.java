@@ -25,4 +25,12 @@ public interface JwtParser {
 
     JWT parse(String payload);
 
+    /**
+     * Verify and decode an already split token. Parsers able to work on the split parts should override this method,
+     * the default implementation parses the compact serialization again.
+     */
+    default JWT parse(ParsedJwt parsedJwt) {
+        return parse(parsedJwt.getToken());
+    }
+
 }
@@ -56,4 +56,36 @@ public interface JwtService {
      * @return JWT object
      */
     Single<JWT> decode(String jwt);
+
+    /**
+     * Split JWT signed string representation once, header and claims are decoded on demand
+     * @param jwt JWT to parse
+     * @return parsed JWT to share between the steps handling the token
+     */
+    ParsedJwt parse(String jwt);
+
+    /**
+     * Decode parsed JWT to JWT, the signature verification is skipped if the parsed JWT has already been verified
+     * with the client's certificate
+     * @param jwt parsed JWT to decode
+     * @param client client which want to decode the token
+     * @return JWT object
+     */
+    Single<JWT> decodeAndVerify(ParsedJwt jwt, Client client);
+
+    /**
+     * Same as {@link #decodeAndVerify(ParsedJwt, Client)}, but the signature is verified on the crypto worker pool so
+     * that several JWT can be verified in parallel
+     * @param jwt parsed JWT to decode
+     * @param client client which want to decode the token
+     * @return JWT object
+     */
+    Single<JWT> decodeAndVerifyAsync(ParsedJwt jwt, Client client);
+
+    /**
+     * Decode parsed JWT to JWT without signature verification
+     * @param jwt parsed JWT to decode
+     * @return JWT object
+     */
+    Single<JWT> decode(ParsedJwt jwt);
 }
@@ -0,0 +1,147 @@
+/**
+ * Copyright (C) 2015 The Gravitee team (http://gravitee.io)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.gravitee.am.gateway.handler.jwt;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.gravitee.am.common.jwt.JWT;
+import io.gravitee.am.common.jwt.exception.MalformedJwtException;
+import io.gravitee.am.gateway.handler.certificate.CertificateProvider;
+
+import java.io.IOException;
+import java.util.Base64;
+import java.util.Map;
+
+/**
+ * JWS compact serialization split once and shared by every step handling the same token during a request.
+ *
+ * The header and the claims are only decoded when first asked for, the digest of the token is computed once and the
+ * result of the signature verification is kept so that the token is never parsed or verified twice.
+ *
+ * @author GraviteeSource Team
+ */
+public final class ParsedJwt {
+
+    private final String token;
+    private final ObjectMapper objectMapper;
+    private final int headerEnd;
+    private final int payloadEnd;
+
+    private volatile Map<String, Object> header;
+    private volatile JWT claims;
+    private volatile String digest;
+    private volatile CertificateProvider verifiedBy;
+    private volatile JWT verifiedClaims;
+
+    public ParsedJwt(String token, ObjectMapper objectMapper) {
+        this.token = token;
+        this.objectMapper = objectMapper;
+        this.headerEnd = token.indexOf('.');
+        this.payloadEnd = token.lastIndexOf('.');
+    }
+
+    public String getToken() {
+        return token;
+    }
+
+    /**
+     * @return true if the token has the header.payload.signature structure
+     */
+    public boolean isWellFormed() {
+        return headerEnd > 0 && headerEnd != payloadEnd;
+    }
+
+    /**
+     * @return the decoded JOSE header
+     * @throws MalformedJwtException if the header can not be decoded
+     */
+    @SuppressWarnings("unchecked")
+    public Map<String, Object> getHeader() {
+        Map<String, Object> header = this.header;
+        if (header == null) {
+            header = this.header = read(token.substring(0, checkStructure()), Map.class);
+        }
+        return header;
+    }
+
+    /**
+     * @return the decoded claims, without signature verification. The instance is shared, callers must not modify it.
+     * @throws MalformedJwtException if the claims can not be decoded
+     */
+    public JWT getClaims() {
+        JWT claims = this.claims;
+        if (claims == null) {
+            claims = this.claims = read(token.substring(checkStructure() + 1, payloadEnd), JWT.class);
+        }
+        return claims;
+    }
+
+    /**
+     * @return the JWS signing input, i.e. the encoded header and payload
+     */
+    public String getSigningInput() {
+        checkStructure();
+        return token.substring(0, payloadEnd);
+    }
+
+    /**
+     * @return the base64url encoded signature
+     */
+    public String getSignature() {
+        checkStructure();
+        return token.substring(payloadEnd + 1);
+    }
+
+    /**
+     * @return the base64url encoded SHA-256 digest of the whole token
+     */
+    public String getDigest() {
+        String digest = this.digest;
+        if (digest == null) {
+            digest = this.digest = VerifiedJwtCache.digest(token);
+        }
+        return digest;
+    }
+
+    /**
+     * Keep the claims of the token once its signature has been verified by the given certificate provider.
+     */
+    public void verified(CertificateProvider certificateProvider, JWT jwt) {
+        this.verifiedClaims = jwt;
+        this.verifiedBy = certificateProvider;
+    }
+
+    /**
+     * @return the verified claims if the token has already been verified by the given certificate provider, null otherwise
+     */
+    public JWT getVerifiedClaims(CertificateProvider certificateProvider) {
+        return verifiedBy == certificateProvider ? verifiedClaims : null;
+    }
+
+    private int checkStructure() {
+        if (!isWellFormed()) {
+            throw new MalformedJwtException("Token is malformed");
+        }
+        return headerEnd;
+    }
+
+    private <T> T read(String base64Url, Class<T> type) {
+        try {
+            return objectMapper.readValue(Base64.getUrlDecoder().decode(base64Url), type);
+        } catch (IOException | IllegalArgumentException ex) {
+            throw new MalformedJwtException("Token is malformed", ex);
+        }
+    }
+}
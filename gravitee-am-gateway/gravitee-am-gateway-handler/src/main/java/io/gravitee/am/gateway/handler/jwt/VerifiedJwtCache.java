@@ -0,0 +1,175 @@
+/**
+ * Copyright (C) 2015 The Gravitee team (http://gravitee.io)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.gravitee.am.gateway.handler.jwt;
+
+import io.gravitee.am.common.jwt.JWT;
+import io.gravitee.am.gateway.handler.cache.LRUCache;
+import io.gravitee.am.gateway.handler.certificate.CertificateProvider;
+import io.gravitee.am.model.Domain;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.InitializingBean;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Base64;
+
+/**
+ * Cache of already verified JWT for the security domain.
+ *
+ * Entries are keyed by the SHA-256 digest of the whole compact token and only returned if the token was verified
+ * by the same certificate provider, they expire with the token itself.
+ *
+ * @author GraviteeSource Team
+ */
+public class VerifiedJwtCache implements InitializingBean {
+
+    private static final ThreadLocal<MessageDigest> SHA_256 = ThreadLocal.withInitial(() -> {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 algorithm is not supported", e);
+        }
+    });
+
+    @Value("${jwt.cache.enabled:true}")
+    private boolean enabled;
+
+    @Value("${jwt.cache.maxSize:10000}")
+    private int maxSize;
+
+    @Autowired
+    private Domain domain;
+
+    @Autowired(required = false)
+    private MeterRegistry meterRegistry;
+
+    private LRUCache<String, VerifiedJwt> cache;
+
+    private Counter hits;
+
+    private Counter misses;
+
+    public VerifiedJwtCache() { }
+
+    public VerifiedJwtCache(boolean enabled, int maxSize) {
+        this.enabled = enabled;
+        this.maxSize = maxSize;
+    }
+
+    @Override
+    public void afterPropertiesSet() {
+        if (enabled) {
+            cache = new LRUCache<>(maxSize);
+        }
+
+        if (meterRegistry != null) {
+            hits = Counter.builder("am.jwt.cache.requests")
+                    .tag("domain", domain.getId())
+                    .tag("result", "hit")
+                    .description("Number of JWT verifications served from the cache")
+                    .register(meterRegistry);
+            misses = Counter.builder("am.jwt.cache.requests")
+                    .tag("domain", domain.getId())
+                    .tag("result", "miss")
+                    .description("Number of JWT verifications not found in the cache")
+                    .register(meterRegistry);
+        }
+    }
+
+    /**
+     * Return a copy of the claims of the token if it has already been verified by the given certificate provider.
+     */
+    public JWT get(String token, CertificateProvider certificateProvider) {
+        return cache == null ? null : getByDigest(digest(token), certificateProvider);
+    }
+
+    /**
+     * Same as {@link #get(String, CertificateProvider)}, reusing the digest already computed for the parsed token.
+     */
+    public JWT get(ParsedJwt parsedJwt, CertificateProvider certificateProvider) {
+        return cache == null ? null : getByDigest(parsedJwt.getDigest(), certificateProvider);
+    }
+
+    private JWT getByDigest(String digest, CertificateProvider certificateProvider) {
+        VerifiedJwt verifiedJwt = cache.get(digest);
+        if (verifiedJwt == null || verifiedJwt.certificateProvider != certificateProvider) {
+            if (misses != null) {
+                misses.increment();
+            }
+            return null;
+        }
+
+        if (hits != null) {
+            hits.increment();
+        }
+        return new JWT(verifiedJwt.jwt);
+    }
+
+    /**
+     * Keep the claims of a token verified by the given certificate provider, up to its expiration time.
+     * Tokens without expiration time are not cached.
+     */
+    public void put(String token, CertificateProvider certificateProvider, JWT jwt) {
+        if (cache == null || jwt.getExp() <= 0) {
+            return;
+        }
+
+        cache.put(digest(token), new VerifiedJwt(certificateProvider, new JWT(jwt)), jwt.getExp() * 1000);
+    }
+
+    /**
+     * Same as {@link #put(String, CertificateProvider, JWT)}, reusing the digest already computed for the parsed token.
+     */
+    public void put(ParsedJwt parsedJwt, CertificateProvider certificateProvider, JWT jwt) {
+        if (cache == null || jwt.getExp() <= 0) {
+            return;
+        }
+
+        cache.put(parsedJwt.getDigest(), new VerifiedJwt(certificateProvider, new JWT(jwt)), jwt.getExp() * 1000);
+    }
+
+    /**
+     * Remove every token verified by the given certificate provider.
+     */
+    public void invalidate(CertificateProvider certificateProvider) {
+        if (cache != null) {
+            cache.removeIf(verifiedJwt -> verifiedJwt.certificateProvider == certificateProvider);
+        }
+    }
+
+    public int size() {
+        return cache == null ? 0 : cache.size();
+    }
+
+    static String digest(String token) {
+        byte[] hash = SHA_256.get().digest(token.getBytes(StandardCharsets.UTF_8));
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(hash);
+    }
+
+    private static final class VerifiedJwt {
+        private final CertificateProvider certificateProvider;
+        private final JWT jwt;
+
+        private VerifiedJwt(CertificateProvider certificateProvider, JWT jwt) {
+            this.certificateProvider = certificateProvider;
+            this.jwt = jwt;
+        }
+    }
+}
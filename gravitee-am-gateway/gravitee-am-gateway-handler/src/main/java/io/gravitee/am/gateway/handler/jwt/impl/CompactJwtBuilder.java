@@ -0,0 +1,212 @@
+/**
+ * Copyright (C) 2015 The Gravitee team (http://gravitee.io)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.gravitee.am.gateway.handler.jwt.impl;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.gravitee.am.common.jwt.JWT;
+import io.gravitee.am.gateway.handler.jwt.JwsAlgorithm;
+import io.gravitee.am.gateway.handler.jwt.JwtBuilder;
+import io.jsonwebtoken.JwsHeader;
+
+import javax.crypto.Mac;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
+import java.security.Key;
+import java.security.PrivateKey;
+import java.security.Signature;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Thread-safe JWS compact serializer bound to a single signing key.
+ *
+ * The JOSE header is serialized and base64url-encoded once, the claims are streamed by Jackson into a per-thread
+ * buffer and signed with a per-thread {@link Signature} (or {@link Mac} for HMAC keys).
+ * ECDSA signatures are transcoded from DER to the JWS R | S format.
+ *
+ * See <a href="https://tools.ietf.org/html/rfc7515#section-7.1">7.1. JWS Compact Serialization</a>
+ *
+ * @author GraviteeSource Team
+ */
+public class CompactJwtBuilder implements JwtBuilder {
+
+    private static final byte[] BASE64URL_ALPHABET = "ABCDEFGHIJKLMNOPQRSTUVWXYZabcdefghijklmnopqrstuvwxyz0123456789-_".getBytes(StandardCharsets.US_ASCII);
+    private static final int DEFAULT_BUFFER_SIZE = 1024;
+
+    private final ObjectMapper objectMapper;
+    private final Key signingKey;
+    private final JwsAlgorithm signatureAlgorithm;
+    private final byte[] encodedHeader;
+    private final ThreadLocal<SignerContext> contexts;
+
+    public CompactJwtBuilder(ObjectMapper objectMapper, Key signingKey, String keyId) {
+        this.objectMapper = objectMapper;
+        this.signingKey = signingKey;
+        this.signatureAlgorithm = JwsAlgorithm.forSigningKey(signingKey);
+        this.encodedHeader = encodeHeader(keyId);
+        this.contexts = ThreadLocal.withInitial(SignerContext::new);
+    }
+
+    @Override
+    public String sign(JWT payload) {
+        SignerContext context = contexts.get();
+        try {
+            // serialize claims
+            ByteArrayBuffer json = context.json;
+            json.reset();
+            objectMapper.writeValue(json, payload);
+
+            // signing input : BASE64URL(header) '.' BASE64URL(payload)
+            ByteArrayBuffer token = context.token;
+            token.reset();
+            token.write(encodedHeader, 0, encodedHeader.length);
+            token.write('.');
+            token.writeBase64Url(json.buf, 0, json.count);
+
+            byte[] signature = context.sign(token.buf, token.count);
+
+            // signature : '.' BASE64URL(signature)
+            token.write('.');
+            token.writeBase64Url(signature, 0, signature.length);
+
+            return new String(token.buf, 0, token.count, StandardCharsets.US_ASCII);
+        } catch (IOException ex) {
+            throw new IllegalStateException("Unable to serialize JWT claims", ex);
+        } catch (GeneralSecurityException ex) {
+            throw new IllegalStateException("Unable to sign JWT", ex);
+        }
+    }
+
+    public JwsAlgorithm getSignatureAlgorithm() {
+        return signatureAlgorithm;
+    }
+
+    private byte[] encodeHeader(String keyId) {
+        Map<String, Object> header = new LinkedHashMap<>();
+        if (keyId != null) {
+            header.put(JwsHeader.KEY_ID, keyId);
+        }
+        header.put(JwsHeader.ALGORITHM, signatureAlgorithm.getValue());
+        try {
+            byte[] json = objectMapper.writeValueAsBytes(header);
+            ByteArrayBuffer buffer = new ByteArrayBuffer(json.length * 2);
+            buffer.writeBase64Url(json, 0, json.length);
+            return Arrays.copyOf(buffer.buf, buffer.count);
+        } catch (IOException ex) {
+            throw new IllegalStateException("Unable to serialize JWS header", ex);
+        }
+    }
+
+    /**
+     * Per-thread signing state, {@link Signature} and {@link Mac} instances are not thread-safe.
+     */
+    private class SignerContext {
+
+        private final ByteArrayBuffer json = new ByteArrayBuffer(DEFAULT_BUFFER_SIZE);
+        private final ByteArrayBuffer token = new ByteArrayBuffer(DEFAULT_BUFFER_SIZE * 2);
+        private Signature signature;
+        private Mac mac;
+
+        private SignerContext() {
+            try {
+                if (signatureAlgorithm.isHmac()) {
+                    mac = Mac.getInstance(signatureAlgorithm.getJcaName());
+                    mac.init(signingKey);
+                } else {
+                    signature = Signature.getInstance(signatureAlgorithm.getJcaName());
+                    signature.initSign((PrivateKey) signingKey);
+                }
+            } catch (GeneralSecurityException ex) {
+                throw new IllegalStateException("Unable to initialize signer for algorithm " + signatureAlgorithm.getValue(), ex);
+            }
+        }
+
+        private byte[] sign(byte[] data, int length) throws GeneralSecurityException {
+            if (mac != null) {
+                mac.update(data, 0, length);
+                return mac.doFinal();
+            }
+            signature.update(data, 0, length);
+            byte[] signed = signature.sign();
+            return signatureAlgorithm.isEllipticCurve() ? EllipticCurveSignatures.toConcat(signed, signatureAlgorithm.getSignatureLength()) : signed;
+        }
+    }
+
+    /**
+     * Growable byte buffer, reused across calls to avoid allocations.
+     */
+    private static class ByteArrayBuffer extends OutputStream {
+
+        private byte[] buf;
+        private int count;
+
+        private ByteArrayBuffer(int size) {
+            buf = new byte[size];
+        }
+
+        private void reset() {
+            count = 0;
+        }
+
+        @Override
+        public void write(int b) {
+            ensureCapacity(count + 1);
+            buf[count++] = (byte) b;
+        }
+
+        @Override
+        public void write(byte[] b, int off, int len) {
+            ensureCapacity(count + len);
+            System.arraycopy(b, off, buf, count, len);
+            count += len;
+        }
+
+        private void writeBase64Url(byte[] src, int off, int len) {
+            ensureCapacity(count + ((len + 2) / 3) * 4);
+            int end = off + len - len % 3;
+            int i = off;
+            while (i < end) {
+                int bits = (src[i++] & 0xff) << 16 | (src[i++] & 0xff) << 8 | (src[i++] & 0xff);
+                buf[count++] = BASE64URL_ALPHABET[(bits >>> 18) & 0x3f];
+                buf[count++] = BASE64URL_ALPHABET[(bits >>> 12) & 0x3f];
+                buf[count++] = BASE64URL_ALPHABET[(bits >>> 6) & 0x3f];
+                buf[count++] = BASE64URL_ALPHABET[bits & 0x3f];
+            }
+            // remaining bytes (no padding)
+            int remaining = off + len - end;
+            if (remaining == 1) {
+                int b0 = src[i] & 0xff;
+                buf[count++] = BASE64URL_ALPHABET[b0 >> 2];
+                buf[count++] = BASE64URL_ALPHABET[(b0 << 4) & 0x3f];
+            } else if (remaining == 2) {
+                int b0 = src[i] & 0xff;
+                int b1 = src[i + 1] & 0xff;
+                buf[count++] = BASE64URL_ALPHABET[b0 >> 2];
+                buf[count++] = BASE64URL_ALPHABET[(b0 << 4) & 0x3f | (b1 >> 4)];
+                buf[count++] = BASE64URL_ALPHABET[(b1 << 2) & 0x3f];
+            }
+        }
+
+        private void ensureCapacity(int minCapacity) {
+            if (minCapacity > buf.length) {
+                buf = Arrays.copyOf(buf, Math.max(buf.length << 1, minCapacity));
+            }
+        }
+    }
+}
@@ -0,0 +1,130 @@
+/**
+ * Copyright (C) 2015 The Gravitee team (http://gravitee.io)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.gravitee.am.gateway.handler.jwt.impl;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.gravitee.am.common.jwt.JWT;
+import io.gravitee.am.common.jwt.exception.ExpiredJwtException;
+import io.gravitee.am.common.jwt.exception.JwtException;
+import io.gravitee.am.common.jwt.exception.MalformedJwtException;
+import io.gravitee.am.common.jwt.exception.SignatureException;
+import io.gravitee.am.gateway.handler.jwt.JwsAlgorithm;
+import io.gravitee.am.gateway.handler.jwt.JwtParser;
+import io.gravitee.am.gateway.handler.jwt.ParsedJwt;
+import io.jsonwebtoken.JwsHeader;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import javax.crypto.Mac;
+import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
+import java.security.Key;
+import java.security.MessageDigest;
+import java.security.PublicKey;
+import java.security.Signature;
+import java.util.Base64;
+import java.util.Map;
+
+/**
+ * JWS compact serialization parser bound to a single verification key, used for algorithms the jjwt library
+ * does not support (EdDSA).
+ *
+ * @author GraviteeSource Team
+ */
+public class CompactJwtParser implements JwtParser {
+
+    private static final Logger logger = LoggerFactory.getLogger(CompactJwtParser.class);
+
+    private final ObjectMapper objectMapper;
+    private final Key verifyingKey;
+    private final JwsAlgorithm signatureAlgorithm;
+
+    public CompactJwtParser(ObjectMapper objectMapper, Key verifyingKey, JwsAlgorithm signatureAlgorithm) {
+        this.objectMapper = objectMapper;
+        this.verifyingKey = verifyingKey;
+        this.signatureAlgorithm = signatureAlgorithm;
+    }
+
+    @Override
+    public JWT parse(String payload) {
+        return parse(new ParsedJwt(payload, objectMapper));
+    }
+
+    @Override
+    public JWT parse(ParsedJwt parsedJwt) {
+        String payload = parsedJwt.getToken();
+        if (!parsedJwt.isWellFormed()) {
+            logger.debug("The following JWT token : {} is malformed", payload);
+            throw new MalformedJwtException("Token is malformed");
+        }
+
+        JWT jwt;
+        try {
+            Map<String, Object> header = parsedJwt.getHeader();
+            if (!signatureAlgorithm.getValue().equals(header.get(JwsHeader.ALGORITHM))) {
+                logger.debug("Verifying JWT token signature : {} has failed, unexpected algorithm {}", payload, header.get(JwsHeader.ALGORITHM));
+                throw new SignatureException("Token's signature is invalid");
+            }
+
+            byte[] signingInput = parsedJwt.getSigningInput().getBytes(StandardCharsets.US_ASCII);
+            byte[] signature = Base64.getUrlDecoder().decode(parsedJwt.getSignature());
+            if (!verify(signingInput, signature)) {
+                logger.debug("Verifying JWT token signature : {} has failed", payload);
+                throw new SignatureException("Token's signature is invalid");
+            }
+
+            // claims are shared by the parsed token, hand out a copy
+            jwt = new JWT(parsedJwt.getClaims());
+        } catch (MalformedJwtException | IllegalArgumentException ex) {
+            logger.debug("The following JWT token : {} is malformed", payload);
+            throw new MalformedJwtException("Token is malformed", ex);
+        } catch (GeneralSecurityException | io.jsonwebtoken.JwtException ex) {
+            logger.debug("Verifying JWT token signature : {} has failed", payload);
+            throw new SignatureException("Token's signature is invalid", ex);
+        }
+
+        long now = System.currentTimeMillis() / 1000;
+        if (jwt.getExp() > 0 && now >= jwt.getExp()) {
+            logger.debug("The following JWT token : {} is expired", payload);
+            throw new ExpiredJwtException("Token is expired");
+        }
+        if (jwt.getNbf() > 0 && now < jwt.getNbf()) {
+            logger.debug("The following JWT token : {} is not yet valid", payload);
+            throw new JwtException("Token is not yet valid");
+        }
+        return jwt;
+    }
+
+    private boolean verify(byte[] signingInput, byte[] signature) throws GeneralSecurityException {
+        if (signatureAlgorithm.isHmac()) {
+            Mac mac = Mac.getInstance(signatureAlgorithm.getJcaName());
+            mac.init(verifyingKey);
+            return MessageDigest.isEqual(mac.doFinal(signingInput), signature);
+        }
+
+        if (signatureAlgorithm.isEllipticCurve()) {
+            if (signature.length != signatureAlgorithm.getSignatureLength()) {
+                return false;
+            }
+            signature = EllipticCurveSignatures.toDER(signature);
+        }
+
+        Signature verifier = Signature.getInstance(signatureAlgorithm.getJcaName());
+        verifier.initVerify((PublicKey) verifyingKey);
+        verifier.update(signingInput);
+        return verifier.verify(signature);
+    }
+}
@@ -0,0 +1,137 @@
+/**
+ * Copyright (C) 2015 The Gravitee team (http://gravitee.io)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.gravitee.am.gateway.handler.jwt.impl;
+
+import java.security.SignatureException;
+
+/**
+ * Conversions between the DER encoded ECDSA signatures of the JCA providers, <code>SEQUENCE { r INTEGER, s INTEGER }</code>,
+ * and the JWS format, the fixed length R | S octet sequence.
+ *
+ * See <a href="https://tools.ietf.org/html/rfc7518#section-3.4">3.4. Digital Signature with ECDSA</a>
+ *
+ * @author GraviteeSource Team
+ */
+final class EllipticCurveSignatures {
+
+    private static final byte SEQUENCE = 0x30;
+    private static final byte INTEGER = 0x02;
+    private static final int LONG_FORM_ONE_OCTET = 0x81;
+
+    private EllipticCurveSignatures() { }
+
+    /**
+     * @param der DER encoded signature
+     * @param length length of the JWS signature
+     * @return the R | S signature
+     */
+    static byte[] toConcat(byte[] der, int length) throws SignatureException {
+        if (der.length < 8 || der[0] != SEQUENCE) {
+            throw new SignatureException("Invalid ECDSA signature format");
+        }
+
+        int offset;
+        if (der[1] > 0) {
+            offset = 2;
+        } else if ((der[1] & 0xff) == LONG_FORM_ONE_OCTET) {
+            offset = 3;
+        } else {
+            throw new SignatureException("Invalid ECDSA signature format");
+        }
+
+        byte[] concat = new byte[length];
+        int next = readInteger(der, offset, concat, 0, length / 2);
+        next = readInteger(der, next, concat, length / 2, length / 2);
+        if (next != der.length) {
+            throw new SignatureException("Invalid ECDSA signature format");
+        }
+        return concat;
+    }
+
+    /**
+     * @param concat R | S signature
+     * @return the DER encoded signature
+     */
+    static byte[] toDER(byte[] concat) throws SignatureException {
+        if (concat.length == 0 || concat.length % 2 != 0) {
+            throw new SignatureException("Invalid ECDSA signature format");
+        }
+
+        int half = concat.length / 2;
+        int rOffset = firstSignificantOctet(concat, 0, half);
+        int sOffset = firstSignificantOctet(concat, half, concat.length);
+        // an INTEGER is signed, a leading zero is needed when the high bit is set
+        int rLength = half - rOffset + ((concat[rOffset] & 0x80) != 0 ? 1 : 0);
+        int sLength = concat.length - sOffset + ((concat[sOffset] & 0x80) != 0 ? 1 : 0);
+        int sequenceLength = 2 + rLength + 2 + sLength;
+        if (sequenceLength > 255) {
+            throw new SignatureException("Invalid ECDSA signature format");
+        }
+
+        byte[] der = new byte[(sequenceLength < 128 ? 2 : 3) + sequenceLength];
+        int offset = 0;
+        der[offset++] = SEQUENCE;
+        if (sequenceLength >= 128) {
+            der[offset++] = (byte) LONG_FORM_ONE_OCTET;
+        }
+        der[offset++] = (byte) sequenceLength;
+        offset = writeInteger(concat, rOffset, half, rLength, der, offset);
+        writeInteger(concat, sOffset, concat.length, sLength, der, offset);
+        return der;
+    }
+
+    private static int readInteger(byte[] der, int offset, byte[] concat, int to, int length) throws SignatureException {
+        if (offset + 2 > der.length || der[offset] != INTEGER) {
+            throw new SignatureException("Invalid ECDSA signature format");
+        }
+        int integerLength = der[offset + 1] & 0xff;
+        int start = offset + 2;
+        int end = start + integerLength;
+        if (integerLength == 0 || end > der.length) {
+            throw new SignatureException("Invalid ECDSA signature format");
+        }
+        // skip the sign octets, the value is right-aligned in its half of the JWS signature
+        int from = firstSignificantOctet(der, start, end);
+        int valueLength = end - from;
+        if (valueLength > length) {
+            throw new SignatureException("Invalid ECDSA signature format");
+        }
+        System.arraycopy(der, from, concat, to + length - valueLength, valueLength);
+        return end;
+    }
+
+    private static int writeInteger(byte[] concat, int from, int to, int integerLength, byte[] der, int offset) {
+        der[offset++] = INTEGER;
+        der[offset++] = (byte) integerLength;
+        int valueLength = to - from;
+        if (integerLength > valueLength) {
+            der[offset++] = 0;
+        }
+        System.arraycopy(concat, from, der, offset, valueLength);
+        return offset + valueLength;
+    }
+
+    /**
+     * @return the index of the first non-zero octet, or of the last octet if they are all zero
+     */
+    private static int firstSignificantOctet(byte[] bytes, int from, int to) {
+        int i = from;
+        while (i < to - 1 && bytes[i] == 0) {
+            i++;
+        }
+        return i;
+    }
+}
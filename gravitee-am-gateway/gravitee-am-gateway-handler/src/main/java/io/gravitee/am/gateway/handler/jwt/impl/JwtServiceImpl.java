@@ -19,7 +19,10 @@ import com.fasterxml.jackson.databind.ObjectMapper;
 import io.gravitee.am.common.jwt.JWT;
 import io.gravitee.am.gateway.handler.certificate.CertificateManager;
 import io.gravitee.am.gateway.handler.certificate.CertificateProvider;
+import io.gravitee.am.gateway.handler.crypto.CryptoExecutor;
 import io.gravitee.am.gateway.handler.jwt.JwtService;
+import io.gravitee.am.gateway.handler.jwt.ParsedJwt;
+import io.gravitee.am.gateway.handler.jwt.VerifiedJwtCache;
 import io.gravitee.am.gateway.handler.oauth2.exception.InvalidTokenException;
 import io.gravitee.am.model.Client;
 import io.reactivex.Single;
@@ -27,9 +30,8 @@ import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
 
-import java.util.Base64;
-import java.util.Map;
 import java.util.Objects;
+import java.util.concurrent.Callable;
 
 /**
  * @author Titouan COMPIEGNE (titouan.compiegne at graviteesource.com)
@@ -45,6 +47,12 @@ public class JwtServiceImpl implements JwtService {
     @Autowired
     private ObjectMapper objectMapper;
 
+    @Autowired
+    private CryptoExecutor cryptoExecutor;
+
+    @Autowired
+    private VerifiedJwtCache verifiedJwtCache;
+
     @Override
     public Single<String> encode(JWT jwt, CertificateProvider certificateProvider) {
         Objects.requireNonNull(certificateProvider, "Certificate provider is required to sign JWT");
@@ -60,33 +68,74 @@ public class JwtServiceImpl implements JwtService {
 
     @Override
     public Single<JWT> decodeAndVerify(String jwt, Client client) {
-        // use findByDomainAndId method because introspect token can be use across domains
-        return certificateManager.findByDomainAndId(client.getDomain(), client.getCertificate())
-                .defaultIfEmpty(certificateManager.defaultCertificateProvider())
-                .flatMapSingle(certificateProvider -> decode(certificateProvider, jwt))
-                .map(claims -> new JWT(claims));
+        return decodeAndVerify(parse(jwt), client);
     }
 
     @Override
     public Single<JWT> decode(String jwt) {
+        return decode(parse(jwt));
+    }
+
+    @Override
+    public ParsedJwt parse(String jwt) {
+        return new ParsedJwt(jwt, objectMapper);
+    }
+
+    @Override
+    public Single<JWT> decodeAndVerify(ParsedJwt jwt, Client client) {
+        return decodeAndVerify(jwt, client, false);
+    }
+
+    @Override
+    public Single<JWT> decodeAndVerifyAsync(ParsedJwt jwt, Client client) {
+        return decodeAndVerify(jwt, client, true);
+    }
+
+    @Override
+    public Single<JWT> decode(ParsedJwt jwt) {
         return Single.create(emitter -> {
             try {
-                String json = new String(Base64.getDecoder().decode(jwt.split("\\.")[1]), "UTF-8");
-                emitter.onSuccess(objectMapper.readValue(json, JWT.class));
+                emitter.onSuccess(new JWT(jwt.getClaims()));
             } catch (Exception ex) {
                 logger.debug("Failed to decode JWT", ex);
                 emitter.onError(new InvalidTokenException("The access token is invalid", ex));
             }
         });
-
     }
 
     private Single<String> sign(CertificateProvider certificateProvider, JWT jwt) {
-        return Single.just(certificateProvider.getJwtBuilder().sign(jwt));
+        // RSA Signer can be very slow, delegate work to the bounded crypto worker pool
+        return cryptoExecutor.execute(() -> certificateProvider.getJwtBuilder().sign(jwt));
     }
 
-    private Single<Map<String, Object>> decode(CertificateProvider certificateProvider, String payload) {
-        return Single.just(certificateProvider.getJwtParser().parse(payload));
+    private Single<JWT> decodeAndVerify(ParsedJwt jwt, Client client, boolean async) {
+        // use findByDomainAndId method because introspect token can be use across domains
+        return certificateManager.findByDomainAndId(client.getDomain(), client.getCertificate())
+                .defaultIfEmpty(certificateManager.defaultCertificateProvider())
+                .flatMapSingle(certificateProvider -> decodeAndVerify(certificateProvider, jwt, async));
+    }
+
+    private Single<JWT> decodeAndVerify(CertificateProvider certificateProvider, ParsedJwt payload, boolean async) {
+        // skip signature verification for tokens already verified by the same certificate, during this request or a previous one
+        JWT verifiedJwt = payload.getVerifiedClaims(certificateProvider);
+        if (verifiedJwt == null) {
+            verifiedJwt = verifiedJwtCache.get(payload, certificateProvider);
+            if (verifiedJwt != null) {
+                payload.verified(certificateProvider, verifiedJwt);
+            }
+        }
+        if (verifiedJwt != null) {
+            return Single.just(new JWT(verifiedJwt));
+        }
+
+        Callable<JWT> verification = () -> certificateProvider.getJwtParser().parse(payload);
+        return (async ? cryptoExecutor.execute(verification) : Single.fromCallable(verification))
+                .map(claims -> {
+                    JWT jwt = new JWT(claims);
+                    verifiedJwtCache.put(payload, certificateProvider, jwt);
+                    payload.verified(certificateProvider, jwt);
+                    return new JWT(jwt);
+                });
     }
 
 }
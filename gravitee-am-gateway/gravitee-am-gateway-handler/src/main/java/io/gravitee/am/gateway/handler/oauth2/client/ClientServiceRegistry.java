@@ -0,0 +1,36 @@
+/**
+ * Copyright (C) 2015 The Gravitee team (http://gravitee.io)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.gravitee.am.gateway.handler.oauth2.client;
+
+/**
+ * Gateway-wide registry of the client services of the deployed security domains.
+ *
+ * Each domain only holds its own clients, lookups of a client of another domain (e.g. token introspection) are
+ * delegated to the client service of that domain through this registry.
+ *
+ * @author GraviteeSource Team
+ */
+public interface ClientServiceRegistry {
+
+    void register(String domain, ClientService clientService);
+
+    void unregister(String domain, ClientService clientService);
+
+    /**
+     * Return the client service of the domain or <code>null</code> if the domain is not deployed on this gateway.
+     */
+    ClientService get(String domain);
+}
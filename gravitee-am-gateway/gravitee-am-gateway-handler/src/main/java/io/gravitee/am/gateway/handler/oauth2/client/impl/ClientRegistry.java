@@ -0,0 +1,97 @@
+/**
+ * Copyright (C) 2015 The Gravitee team (http://gravitee.io)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.gravitee.am.gateway.handler.oauth2.client.impl;
+
+import io.gravitee.am.model.Client;
+
+import java.util.Collection;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.stream.Collectors;
+
+/**
+ * Clients indexed by domain and client_id for the requests, and by internal id for the client events.
+ *
+ * Reads are lock free and constant time whatever the number of clients, updates only touch the entries of the
+ * updated client.
+ *
+ * @author GraviteeSource Team
+ */
+class ClientRegistry {
+
+    private final ConcurrentMap<String, ConcurrentMap<String, Client>> clientsByDomain = new ConcurrentHashMap<>();
+    private final ConcurrentMap<String, Client> clientsById = new ConcurrentHashMap<>();
+
+    Client get(String domain, String clientId) {
+        if (domain == null || clientId == null) {
+            return null;
+        }
+        ConcurrentMap<String, Client> domainClients = clientsByDomain.get(domain);
+        return domainClients == null ? null : domainClients.get(clientId);
+    }
+
+    Client getById(String id) {
+        return id == null ? null : clientsById.get(id);
+    }
+
+    synchronized void put(Client client) {
+        Client previous = clientsById.put(client.getId(), client);
+        if (previous != null && !sameKey(previous, client)) {
+            unindex(previous);
+        }
+        if (client.getDomain() != null && client.getClientId() != null) {
+            clientsByDomain.computeIfAbsent(client.getDomain(), domain -> new ConcurrentHashMap<>()).put(client.getClientId(), client);
+        }
+    }
+
+    synchronized Client remove(String id) {
+        Client previous = id == null ? null : clientsById.remove(id);
+        if (previous != null) {
+            unindex(previous);
+        }
+        return previous;
+    }
+
+    /**
+     * Replace the held clients by the given ones, the clients which are not given anymore are removed.
+     */
+    synchronized void replaceAll(Collection<Client> clients) {
+        Set<String> ids = clients.stream().map(Client::getId).collect(Collectors.toSet());
+        clientsById.keySet().stream().filter(id -> !ids.contains(id)).collect(Collectors.toList()).forEach(this::remove);
+        clients.forEach(this::put);
+    }
+
+    int size() {
+        return clientsById.size();
+    }
+
+    private void unindex(Client client) {
+        if (client.getDomain() == null || client.getClientId() == null) {
+            return;
+        }
+        ConcurrentMap<String, Client> domainClients = clientsByDomain.get(client.getDomain());
+        if (domainClients != null) {
+            domainClients.remove(client.getClientId(), client);
+        }
+    }
+
+    private static boolean sameKey(Client client, Client other) {
+        return Objects.equals(client.getDomain(), other.getDomain())
+                && Objects.equals(client.getClientId(), other.getClientId());
+    }
+}
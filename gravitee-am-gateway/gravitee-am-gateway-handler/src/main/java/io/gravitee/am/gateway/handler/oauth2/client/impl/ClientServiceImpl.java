@@ -16,7 +16,10 @@
 package io.gravitee.am.gateway.handler.oauth2.client.impl;
 
 import io.gravitee.am.gateway.core.event.ClientEvent;
+import io.gravitee.am.gateway.core.event.DomainEvent;
+import io.gravitee.am.gateway.handler.cache.LRUCache;
 import io.gravitee.am.gateway.handler.oauth2.client.ClientService;
+import io.gravitee.am.gateway.handler.oauth2.client.ClientServiceRegistry;
 import io.gravitee.am.model.Client;
 import io.gravitee.am.model.Domain;
 import io.gravitee.am.model.common.event.Payload;
@@ -26,27 +29,52 @@ import io.gravitee.common.event.EventListener;
 import io.gravitee.common.event.EventManager;
 import io.gravitee.common.service.AbstractService;
 import io.reactivex.Maybe;
-import io.reactivex.Observable;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.InitializingBean;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 
-import java.util.Collections;
-import java.util.HashSet;
-import java.util.Set;
-import java.util.concurrent.ConcurrentHashMap;
-import java.util.concurrent.ConcurrentMap;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
 
 /**
+ * Only the clients of the domain are held, according to <code>oauth2.clients.loading</code> :
+ * <ul>
+ *     <li><code>domain</code> (default) : every client of the domain is loaded at startup into a {@link ClientRegistry},
+ *     indexed by client_id.</li>
+ *     <li><code>lazy</code> : clients are loaded on first use into a size-bounded LRU cache, unknown client ids are
+ *     remembered for a shorter time to protect the repository.</li>
+ * </ul>
+ * Both modes are kept up to date through the client events of the domain and are reloaded (or cleared in lazy mode) on
+ * each synchronization of the domain, in case its client event has been overwritten. Clients of other domains are
+ * resolved through the gateway-wide {@link ClientServiceRegistry}.
+ *
  * @author David BRASSELY (david.brassely at graviteesource.com)
  * @author Titouan COMPIEGNE (titouan.compiegne at graviteesource.com)
  * @author GraviteeSource Team
  */
 public class ClientServiceImpl extends AbstractService implements ClientService, InitializingBean, EventListener<ClientEvent, Payload> {
 
+    private static final String LAZY_LOADING = "lazy";
+
     private final Logger logger = LoggerFactory.getLogger(ClientServiceImpl.class);
-    private ConcurrentMap<String, Set<Client>> domainsClients = new ConcurrentHashMap<>();
+    private final ClientRegistry clientRegistry = new ClientRegistry();
+    private final AtomicLong generation = new AtomicLong();
+    private LRUCache<String, Optional<Client>> clientCache;
+
+    @Value("${oauth2.clients.loading:domain}")
+    private String loading = "domain";
+
+    @Value("${oauth2.clients.cache.maxSize:10000}")
+    private int cacheMaxSize = 10000;
+
+    @Value("${oauth2.clients.cache.ttl:3600}")
+    private long cacheTtl = 3600;
+
+    @Value("${oauth2.clients.cache.negativeTtl:60}")
+    private long cacheNegativeTtl = 60;
 
     @Autowired
     private Domain domain;
@@ -54,32 +82,64 @@ public class ClientServiceImpl extends AbstractService implements ClientService,
     @Autowired
     private ClientRepository clientRepository;
 
+    @Autowired
+    private ClientServiceRegistry clientServiceRegistry;
+
     @Autowired
     private EventManager eventManager;
 
+    public ClientServiceImpl() { }
+
+    public ClientServiceImpl(String loading, int cacheMaxSize, long cacheTtl, long cacheNegativeTtl) {
+        this.loading = loading;
+        this.cacheMaxSize = cacheMaxSize;
+        this.cacheTtl = cacheTtl;
+        this.cacheNegativeTtl = cacheNegativeTtl;
+    }
+
     @Override
     public Maybe<Client> findByClientId(String clientId) {
-        return findByDomainAndClientId(domain.getId(), clientId);
+        if (clientId == null) {
+            return Maybe.empty();
+        }
+
+        if (clientCache == null) {
+            Client client = clientRegistry.get(domain.getId(), clientId);
+            return client == null ? Maybe.empty() : Maybe.just(client);
+        }
+
+        Optional<Client> cachedClient = clientCache.get(clientId);
+        if (cachedClient != null) {
+            return cachedClient.map(Maybe::just).orElseGet(Maybe::empty);
+        }
+        return loadClient(clientId);
     }
 
     @Override
     public Maybe<Client> findByDomainAndClientId(String domain, String clientId) {
-        return Observable.fromIterable(domainsClients.get(domain))
-                .filter(client -> client.getClientId().equals(clientId))
-                .firstElement();
+        if (this.domain.getId().equals(domain)) {
+            return findByClientId(clientId);
+        }
+
+        ClientService clientService = clientServiceRegistry.get(domain);
+        if (clientService != null) {
+            return clientService.findByClientId(clientId);
+        }
+
+        // the domain is not deployed on this gateway
+        return domain == null || clientId == null ? Maybe.empty() : clientRepository.findByClientIdAndDomain(clientId, domain);
     }
 
     @Override
     public void afterPropertiesSet() {
-        logger.info("Initializing clients for domain {}", domain.getName());
-        clientRepository.findAll()
-                .subscribe(
-                        clients -> {
-                            updateClients(clients);
-                            logger.info("Clients loaded for domain {}", domain.getName());
-                        },
-                        error -> logger.error("Unable to initialize clients for domain {}", domain.getName(), error));
+        if (LAZY_LOADING.equalsIgnoreCase(loading)) {
+            logger.info("Clients of domain {} will be loaded on demand", domain.getName());
+            clientCache = new LRUCache<>(cacheMaxSize);
+            return;
+        }
 
+        logger.info("Initializing clients for domain {}", domain.getName());
+        loadClients();
     }
 
     @Override
@@ -88,52 +148,109 @@ public class ClientServiceImpl extends AbstractService implements ClientService,
 
         logger.info("Register event listener for client events");
         eventManager.subscribeForEvents(this, ClientEvent.class);
+        EventListener<DomainEvent, Domain> domainEventListener = this::onDomainEvent;
+        eventManager.subscribeForEvents(domainEventListener, DomainEvent.class);
+        clientServiceRegistry.register(domain.getId(), this);
+    }
+
+    @Override
+    protected void doStop() throws Exception {
+        super.doStop();
+
+        clientServiceRegistry.unregister(domain.getId(), this);
     }
 
     @Override
     public void onEvent(Event<ClientEvent, Payload> event) {
+        if (!domain.getId().equals(event.content().getDomain())) {
+            return;
+        }
+
+        generation.incrementAndGet();
         switch (event.type()) {
             case DEPLOY:
             case UPDATE:
                 updateClient(event.content().getId(), event.type());
                 break;
             case UNDEPLOY:
-                removeClient(event.content().getId(), event.content().getDomain());
+                removeClient(event.content().getId());
                 break;
         }
     }
 
+    public void onDomainEvent(Event<DomainEvent, Domain> event) {
+        if (event.type() != DomainEvent.SYNC || !domain.getId().equals(event.content().getId())) {
+            return;
+        }
+
+        logger.debug("Domain {} has been synchronized, reload clients", domain.getName());
+        generation.incrementAndGet();
+        if (clientCache != null) {
+            clientCache.clear();
+        } else {
+            loadClients();
+        }
+    }
+
+    private void loadClients() {
+        clientRepository.findByDomain(domain.getId())
+                .subscribe(
+                        clients -> {
+                            clientRegistry.replaceAll(clients);
+                            logger.info("Clients loaded for domain {}", domain.getName());
+                        },
+                        error -> logger.error("Unable to load clients for domain {}", domain.getName(), error));
+    }
+
+    private Maybe<Client> loadClient(String clientId) {
+        // a client event received during the lookup may have made the loaded client stale, it is then not cached
+        final long loadGeneration = generation.get();
+        return clientRepository.findByClientIdAndDomain(clientId, domain.getId())
+                .doOnSuccess(client -> {
+                    if (loadGeneration == generation.get()) {
+                        clientCache.put(clientId, Optional.of(client), expireAt(cacheTtl));
+                    }
+                })
+                .doOnComplete(() -> {
+                    if (loadGeneration == generation.get()) {
+                        clientCache.put(clientId, Optional.empty(), expireAt(cacheNegativeTtl));
+                    }
+                });
+    }
+
     private void updateClient(String clientId, ClientEvent clientEvent) {
         final String eventType = clientEvent.toString().toLowerCase();
         logger.info("Domain {} has received {} client event for {}", domain.getName(), eventType, clientId);
         clientRepository.findById(clientId)
                 .subscribe(
                         client -> {
-                            updateClients(Collections.singleton(client));
+                            if (clientCache != null) {
+                                // the client_id may have changed, the new one may have been cached as unknown
+                                evict(client.getId());
+                                clientCache.put(client.getClientId(), Optional.of(client), expireAt(cacheTtl));
+                            } else {
+                                clientRegistry.put(client);
+                            }
                             logger.info("Client {} {}d for domain {}", clientId, eventType, domain.getName());
                         },
                         error -> logger.error("Unable to {} client for domain {}", eventType, domain.getName(), error),
                         () -> logger.error("No client found with id {}", clientId));
     }
 
-    private void removeClient(String clientId, String domainId) {
+    private void removeClient(String clientId) {
         logger.info("Domain {} has received client event, delete client {}", domain.getName(), clientId);
-        domainsClients.get(domainId).removeIf(client -> client.getId().equals(clientId));
+        if (clientCache != null) {
+            evict(clientId);
+        } else {
+            clientRegistry.remove(clientId);
+        }
+    }
+
+    private void evict(String id) {
+        clientCache.removeIf(cachedClient -> cachedClient.isPresent() && id.equals(cachedClient.get().getId()));
     }
 
-    private void updateClients(Set<Client> clients) {
-        clients.forEach(client -> {
-            Set<Client> existingDomainClients = domainsClients.get(client.getDomain());
-            if (existingDomainClients != null) {
-                Set<Client> updateClients = new HashSet<>(existingDomainClients);
-                if (updateClients.contains(client)) {
-                    updateClients.remove(client);
-                }
-                updateClients.add(client);
-                domainsClients.put(client.getDomain(), updateClients);
-            } else {
-                domainsClients.put(client.getDomain(), Collections.singleton(client));
-            }
-        });
+    private static long expireAt(long ttl) {
+        return System.currentTimeMillis() + TimeUnit.SECONDS.toMillis(ttl);
     }
 }
@@ -0,0 +1,46 @@
+/**
+ * Copyright (C) 2015 The Gravitee team (http://gravitee.io)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.gravitee.am.gateway.handler.oauth2.client.impl;
+
+import io.gravitee.am.gateway.handler.oauth2.client.ClientService;
+import io.gravitee.am.gateway.handler.oauth2.client.ClientServiceRegistry;
+
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * @author GraviteeSource Team
+ */
+public class ClientServiceRegistryImpl implements ClientServiceRegistry {
+
+    private final ConcurrentMap<String, ClientService> clientServices = new ConcurrentHashMap<>();
+
+    @Override
+    public void register(String domain, ClientService clientService) {
+        // a redeployed domain replaces the client service of its previous context
+        clientServices.put(domain, clientService);
+    }
+
+    @Override
+    public void unregister(String domain, ClientService clientService) {
+        clientServices.remove(domain, clientService);
+    }
+
+    @Override
+    public ClientService get(String domain) {
+        return domain == null ? null : clientServices.get(domain);
+    }
+}
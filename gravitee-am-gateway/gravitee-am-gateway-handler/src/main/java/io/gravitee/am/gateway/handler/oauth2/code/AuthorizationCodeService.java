@@ -30,5 +30,13 @@ public interface AuthorizationCodeService {
 
     Single<AuthorizationCode> create(AuthorizationRequest authorizationRequest, User user);
 
-    Maybe<AuthorizationCode> remove(String code, Client client);
+    /**
+     * Redeem an authorization code, a code can only be redeemed once.
+     *
+     * @param code the authorization code
+     * @param client the client redeeming the code
+     * @return the authorization code or an {@link io.gravitee.am.gateway.handler.oauth2.exception.InvalidGrantException}
+     * if the code is unknown, already redeemed, expired or issued to another client
+     */
+    Maybe<AuthorizationCode> consume(String code, Client client);
 }
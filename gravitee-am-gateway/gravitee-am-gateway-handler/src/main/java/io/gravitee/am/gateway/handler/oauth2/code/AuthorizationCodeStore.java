@@ -0,0 +1,44 @@
+/**
+ * Copyright (C) 2015 The Gravitee team (http://gravitee.io)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.gravitee.am.gateway.handler.oauth2.code;
+
+import io.gravitee.am.repository.oauth2.model.AuthorizationCode;
+import io.reactivex.Maybe;
+import io.reactivex.Single;
+
+/**
+ * Gateway node local store of the authorization codes, used instead of the OAuth 2.0 repository when
+ * <code>authorization.code.store</code> is set to <code>memory</code>.
+ *
+ * Codes are only known by the node which issued them, the load balancer must send the token request of a client to
+ * the node which handled its authorization request.
+ *
+ * @author GraviteeSource Team
+ */
+public interface AuthorizationCodeStore {
+
+    Single<AuthorizationCode> create(AuthorizationCode authorizationCode);
+
+    Maybe<AuthorizationCode> findByCode(String code);
+
+    /**
+     * Remove an authorization code.
+     *
+     * @param code the authorization code
+     * @return the removed authorization code or empty if it does not exist or has expired
+     */
+    Maybe<AuthorizationCode> remove(String code);
+}
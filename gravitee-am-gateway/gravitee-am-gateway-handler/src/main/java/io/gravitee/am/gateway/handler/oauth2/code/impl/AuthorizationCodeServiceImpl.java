@@ -16,16 +16,15 @@
 package io.gravitee.am.gateway.handler.oauth2.code.impl;
 
 import io.gravitee.am.gateway.handler.oauth2.code.AuthorizationCodeService;
+import io.gravitee.am.gateway.handler.oauth2.code.AuthorizationCodeStore;
 import io.gravitee.am.gateway.handler.oauth2.exception.InvalidGrantException;
 import io.gravitee.am.gateway.handler.oauth2.request.AuthorizationRequest;
+import io.gravitee.am.gateway.handler.oauth2.token.TokenService;
 import io.gravitee.am.model.Client;
 import io.gravitee.am.model.User;
-import io.gravitee.am.repository.oauth2.api.AccessTokenRepository;
 import io.gravitee.am.repository.oauth2.api.AuthorizationCodeRepository;
-import io.gravitee.am.repository.oauth2.api.RefreshTokenRepository;
 import io.gravitee.am.repository.oauth2.model.AuthorizationCode;
 import io.gravitee.common.utils.UUID;
-import io.reactivex.Completable;
 import io.reactivex.Maybe;
 import io.reactivex.Single;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -39,17 +38,22 @@ import java.util.Date;
  */
 public class AuthorizationCodeServiceImpl implements AuthorizationCodeService {
 
+    private static final String MEMORY_STORE = "memory";
+
     @Value("${authorization.code.validity:60000}")
     private int authorizationCodeValidity;
 
+    @Value("${authorization.code.store:repository}")
+    private String authorizationCodeStoreType = "repository";
+
     @Autowired
     private AuthorizationCodeRepository authorizationCodeRepository;
 
     @Autowired
-    private AccessTokenRepository accessTokenRepository;
+    private AuthorizationCodeStore authorizationCodeStore;
 
     @Autowired
-    private RefreshTokenRepository refreshTokenRepository;
+    private TokenService tokenService;
 
     @Override
     public Single<AuthorizationCode> create(AuthorizationRequest authorizationRequest, User user) {
@@ -62,36 +66,36 @@ public class AuthorizationCodeServiceImpl implements AuthorizationCodeService {
         authorizationCode.setExpireAt(new Date(System.currentTimeMillis() + authorizationCodeValidity));
         authorizationCode.setCreatedAt(new Date());
 
-        return authorizationCodeRepository.create(authorizationCode);
+        return isMemoryStore() ? authorizationCodeStore.create(authorizationCode) : authorizationCodeRepository.create(authorizationCode);
     }
 
     @Override
-    public Maybe<AuthorizationCode> remove(String code, Client client) {
-        return authorizationCodeRepository.findByCode(code)
-                .switchIfEmpty(handleInvalidCode(code))
+    public Maybe<AuthorizationCode> consume(String code, Client client) {
+        // find and delete the code in a single atomic operation so that concurrent requests can not both redeem it
+        Maybe<AuthorizationCode> consumedCode = isMemoryStore() ? authorizationCodeStore.remove(code) : authorizationCodeRepository.consume(code);
+        return consumedCode
+                .switchIfEmpty(Maybe.defer(() -> handleInvalidCode(code)))
                 .flatMap(authorizationCode -> {
+                    if (authorizationCode.getExpireAt() != null && authorizationCode.getExpireAt().before(new Date())) {
+                        return Maybe.error(new InvalidGrantException("The authorization code " + code + " is expired."));
+                    }
                     if (!authorizationCode.getClientId().equals(client.getClientId())) {
                         return Maybe.error(new InvalidGrantException("The authorization code " + code + " does not belong to the client " + client.getClientId() + "."));
                     }
                     return Maybe.just(authorizationCode);
-                })
-                .flatMap(authorizationCode -> authorizationCodeRepository.delete(authorizationCode.getId()));
+                });
     }
 
-
     private Maybe<AuthorizationCode> handleInvalidCode(String code) {
         // The client MUST NOT use the authorization code more than once.
         // If an authorization code is used more than once, the authorization server MUST deny the request and SHOULD
         // revoke (when possible) all tokens previously issued based on that authorization code.
         // https://tools.ietf.org/html/rfc6749#section-4.1.2
-        return accessTokenRepository.findByAuthorizationCode(code)
-                .flatMapCompletable(accessToken -> {
-                    Completable deleteAccessTokenAction = accessTokenRepository.delete(accessToken.getToken());
-                    if (accessToken.getRefreshToken() != null) {
-                        deleteAccessTokenAction.andThen(refreshTokenRepository.delete(accessToken.getRefreshToken()));
-                    }
-                    return deleteAccessTokenAction;
-                })
+        return tokenService.revokeByAuthorizationCode(code)
                 .andThen(Maybe.error(new InvalidGrantException("The authorization code " + code + " is invalid.")));
     }
+
+    private boolean isMemoryStore() {
+        return MEMORY_STORE.equalsIgnoreCase(authorizationCodeStoreType);
+    }
 }
@@ -0,0 +1,136 @@
+/**
+ * Copyright (C) 2015 The Gravitee team (http://gravitee.io)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.gravitee.am.gateway.handler.oauth2.code.impl;
+
+import io.gravitee.am.gateway.handler.oauth2.code.AuthorizationCodeStore;
+import io.gravitee.am.repository.oauth2.model.AuthorizationCode;
+import io.netty.util.HashedWheelTimer;
+import io.netty.util.Timeout;
+import io.reactivex.Maybe;
+import io.reactivex.Single;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.InitializingBean;
+import org.springframework.beans.factory.annotation.Value;
+
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Authorization codes are kept in memory and removed by a hashed wheel timer once expired. The expiration date is
+ * also checked on lookup so that the wheel precision does not extend the code validity.
+ *
+ * @author GraviteeSource Team
+ */
+public class AuthorizationCodeStoreImpl implements AuthorizationCodeStore, InitializingBean, DisposableBean {
+
+    @Value("${authorization.code.expiry.tickDuration:100}")
+    private long tickDuration = 100L;
+
+    @Value("${authorization.code.expiry.wheelSize:512}")
+    private int wheelSize = 512;
+
+    private final ConcurrentMap<String, Entry> authorizationCodes = new ConcurrentHashMap<>();
+    private HashedWheelTimer timer;
+
+    public AuthorizationCodeStoreImpl() { }
+
+    public AuthorizationCodeStoreImpl(long tickDuration, int wheelSize) {
+        this.tickDuration = tickDuration;
+        this.wheelSize = wheelSize;
+    }
+
+    @Override
+    public void afterPropertiesSet() {
+        ThreadFactory threadFactory = Executors.defaultThreadFactory();
+        timer = new HashedWheelTimer(runnable -> {
+            Thread thread = threadFactory.newThread(runnable);
+            thread.setName("gio.am-authorization-code-expiry");
+            thread.setDaemon(true);
+            return thread;
+        }, tickDuration, TimeUnit.MILLISECONDS, wheelSize);
+    }
+
+    @Override
+    public void destroy() {
+        timer.stop();
+        authorizationCodes.clear();
+    }
+
+    @Override
+    public Single<AuthorizationCode> create(AuthorizationCode authorizationCode) {
+        return Single.fromCallable(() -> {
+            Entry entry = new Entry(authorizationCode);
+            Entry previous = authorizationCodes.put(authorizationCode.getCode(), entry);
+            if (previous != null) {
+                previous.cancel();
+            }
+            long delay = Math.max(0, authorizationCode.getExpireAt().getTime() - System.currentTimeMillis());
+            entry.timeout = timer.newTimeout(timeout -> authorizationCodes.remove(authorizationCode.getCode(), entry), delay, TimeUnit.MILLISECONDS);
+            return authorizationCode;
+        });
+    }
+
+    @Override
+    public Maybe<AuthorizationCode> findByCode(String code) {
+        return Maybe.fromCallable(() -> {
+            Entry entry = authorizationCodes.get(code);
+            return entry == null || entry.isExpired() ? null : entry.authorizationCode;
+        });
+    }
+
+    @Override
+    public Maybe<AuthorizationCode> remove(String code) {
+        return Maybe.fromCallable(() -> {
+            Entry entry = authorizationCodes.remove(code);
+            if (entry == null) {
+                return null;
+            }
+            entry.cancel();
+            return entry.isExpired() ? null : entry.authorizationCode;
+        });
+    }
+
+    /**
+     * @return the number of stored codes, including the expired ones not yet removed by the timer
+     */
+    public int size() {
+        return authorizationCodes.size();
+    }
+
+    private static final class Entry {
+
+        private final AuthorizationCode authorizationCode;
+        private volatile Timeout timeout;
+
+        private Entry(AuthorizationCode authorizationCode) {
+            this.authorizationCode = authorizationCode;
+        }
+
+        private void cancel() {
+            Timeout timeout = this.timeout;
+            if (timeout != null) {
+                timeout.cancel();
+            }
+        }
+
+        private boolean isExpired() {
+            return authorizationCode.getExpireAt().getTime() <= System.currentTimeMillis();
+        }
+    }
+}
@@ -74,7 +74,7 @@ public class AuthorizationCodeTokenGranter extends AbstractTokenGranter {
         }
 
         return super.parseRequest(tokenRequest, client)
-                .flatMap(tokenRequest1 -> authorizationCodeService.remove(code, client)
+                .flatMap(tokenRequest1 -> authorizationCodeService.consume(code, client)
                         .map(authorizationCode -> {
                             checkRedirectUris(tokenRequest1, authorizationCode);
                             checkPCE(tokenRequest1, authorizationCode);
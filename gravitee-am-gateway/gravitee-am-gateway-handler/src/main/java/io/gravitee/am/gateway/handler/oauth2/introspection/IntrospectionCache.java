@@ -0,0 +1,52 @@
+/**
+ * Copyright (C) 2015 The Gravitee team (http://gravitee.io)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.gravitee.am.gateway.handler.oauth2.introspection;
+
+import io.gravitee.am.gateway.handler.jwt.ParsedJwt;
+
+/**
+ * Introspection responses recently returned to the protected resources, indexed by token and calling client.
+ *
+ * @author GraviteeSource Team
+ */
+public interface IntrospectionCache {
+
+    /**
+     * Find the response previously returned to the client for the same token.
+     *
+     * @param token the introspected token
+     * @param clientId the client calling the introspection endpoint
+     * @return the introspection response, active or not, or null if there is none or if it has expired.
+     * The response is shared and must not be modified
+     */
+    IntrospectionResponse get(ParsedJwt token, String clientId);
+
+    /**
+     * Keep the response returned to the client, at most until the token expires.
+     *
+     * @param token the introspected token
+     * @param clientId the client calling the introspection endpoint
+     * @param response the introspection response
+     */
+    void put(ParsedJwt token, String clientId, IntrospectionResponse response);
+
+    /**
+     * Remove the responses returned for the token to every client, typically once the token has been revoked.
+     *
+     * @param token the token
+     */
+    void evict(ParsedJwt token);
+}
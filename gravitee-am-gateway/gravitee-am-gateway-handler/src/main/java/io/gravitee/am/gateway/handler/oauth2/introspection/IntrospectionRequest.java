@@ -27,6 +27,8 @@ public class IntrospectionRequest {
 
     private TokenTypeHint hint;
 
+    private String clientId;
+
     public IntrospectionRequest(final String token) {
         this.token = token;
     }
@@ -42,4 +44,15 @@ public class IntrospectionRequest {
     public void setHint(TokenTypeHint hint) {
         this.hint = hint;
     }
+
+    /**
+     * @return the client calling the introspection endpoint
+     */
+    public String getClientId() {
+        return clientId;
+    }
+
+    public void setClientId(String clientId) {
+        this.clientId = clientId;
+    }
 }
@@ -17,6 +17,8 @@ package io.gravitee.am.gateway.handler.oauth2.introspection;
 
 import io.reactivex.Single;
 
+import java.util.List;
+
 /**
  * @author David BRASSELY (david.brassely at graviteesource.com)
  * @author GraviteeSource Team
@@ -24,4 +26,12 @@ import io.reactivex.Single;
 public interface IntrospectionService {
 
     Single<IntrospectionResponse> introspect(IntrospectionRequest request);
+
+    /**
+     * Introspect several tokens at once.
+     *
+     * @param requests the introspection requests
+     * @return the introspection responses, in the order of the requests
+     */
+    Single<List<IntrospectionResponse>> introspect(List<IntrospectionRequest> requests);
 }
@@ -0,0 +1,125 @@
+/**
+ * Copyright (C) 2015 The Gravitee team (http://gravitee.io)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.gravitee.am.gateway.handler.oauth2.introspection.impl;
+
+import io.gravitee.am.gateway.handler.cache.LRUCache;
+import io.gravitee.am.gateway.handler.jwt.ParsedJwt;
+import io.gravitee.am.gateway.handler.oauth2.introspection.IntrospectionCache;
+import io.gravitee.am.gateway.handler.oauth2.introspection.IntrospectionResponse;
+import org.springframework.beans.factory.InitializingBean;
+import org.springframework.beans.factory.annotation.Value;
+
+/**
+ * Entries are keyed by the digest of the token and the identifier of the calling client, so that a hit is a single
+ * lookup without any token store or user store access.
+ *
+ * Active responses are kept for a short time and never beyond the expiration of the token, inactive responses
+ * (invalid, expired or revoked tokens) for an even shorter time. Tokens revoked through the revocation endpoint of this
+ * gateway are evicted right away. Tokens revoked on another node, or in bulk by the management API (for a client, an
+ * end-user or a domain), stay active here for up to the configured time to live. The cache is therefore disabled
+ * unless resource servers can accept that delay.
+ *
+ * @author GraviteeSource Team
+ */
+public class IntrospectionCacheImpl implements IntrospectionCache, InitializingBean {
+
+    @Value("${oauth2.introspection.cache.enabled:false}")
+    private boolean enabled;
+
+    @Value("${oauth2.introspection.cache.maxSize:10000}")
+    private int maxSize;
+
+    @Value("${oauth2.introspection.cache.ttl:30}")
+    private int ttl;
+
+    @Value("${oauth2.introspection.cache.negativeTtl:10}")
+    private int negativeTtl;
+
+    private LRUCache<String, Entry> cache;
+
+    public IntrospectionCacheImpl() { }
+
+    public IntrospectionCacheImpl(boolean enabled, int maxSize, int ttl, int negativeTtl) {
+        this.enabled = enabled;
+        this.maxSize = maxSize;
+        this.ttl = ttl;
+        this.negativeTtl = negativeTtl;
+    }
+
+    @Override
+    public void afterPropertiesSet() {
+        if (enabled) {
+            cache = new LRUCache<>(maxSize);
+        }
+    }
+
+    @Override
+    public IntrospectionResponse get(ParsedJwt token, String clientId) {
+        if (cache == null) {
+            return null;
+        }
+
+        Entry entry = cache.get(key(token.getDigest(), clientId));
+        return entry == null ? null : entry.response;
+    }
+
+    @Override
+    public void put(ParsedJwt token, String clientId, IntrospectionResponse response) {
+        if (cache == null) {
+            return;
+        }
+
+        long expireAt;
+        if (response.isActive()) {
+            expireAt = System.currentTimeMillis() + ttl * 1000L;
+            if (response.getExpireAt() != null) {
+                expireAt = Math.min(expireAt, response.getExpireAt() * 1000L);
+            }
+        } else {
+            expireAt = System.currentTimeMillis() + negativeTtl * 1000L;
+        }
+
+        String digest = token.getDigest();
+        cache.put(key(digest, clientId), new Entry(digest, response), expireAt);
+    }
+
+    @Override
+    public void evict(ParsedJwt token) {
+        if (cache != null) {
+            // revocations are rare compared to introspections, scan the entries rather than indexing them twice
+            String digest = token.getDigest();
+            cache.removeIf(entry -> entry.digest.equals(digest));
+        }
+    }
+
+    public int size() {
+        return cache == null ? 0 : cache.size();
+    }
+
+    private static String key(String digest, String clientId) {
+        return digest + ' ' + clientId;
+    }
+
+    private static final class Entry {
+        private final String digest;
+        private final IntrospectionResponse response;
+
+        private Entry(String digest, IntrospectionResponse response) {
+            this.digest = digest;
+            this.response = response;
+        }
+    }
+}
@@ -15,17 +15,29 @@
  */
 package io.gravitee.am.gateway.handler.oauth2.introspection.impl;
 
+import io.gravitee.am.gateway.handler.jwt.JwtService;
+import io.gravitee.am.gateway.handler.jwt.ParsedJwt;
+import io.gravitee.am.gateway.handler.oauth2.exception.InvalidTokenException;
+import io.gravitee.am.gateway.handler.oauth2.introspection.IntrospectionCache;
 import io.gravitee.am.gateway.handler.oauth2.introspection.IntrospectionRequest;
 import io.gravitee.am.gateway.handler.oauth2.introspection.IntrospectionResponse;
 import io.gravitee.am.gateway.handler.oauth2.introspection.IntrospectionService;
+import io.gravitee.am.gateway.handler.oauth2.token.Token;
 import io.gravitee.am.gateway.handler.oauth2.token.TokenService;
 import io.gravitee.am.gateway.handler.oauth2.token.impl.AccessToken;
 import io.gravitee.am.gateway.service.UserService;
 import io.gravitee.am.model.User;
 import io.reactivex.Maybe;
+import io.reactivex.Observable;
 import io.reactivex.Single;
 import org.springframework.beans.factory.annotation.Autowired;
 
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Set;
+import java.util.stream.Collectors;
+
 /**
  * @author David BRASSELY (david.brassely at graviteesource.com)
  * @author Titouan COMPIEGNE (titouan.compiegne at graviteesource.com)
@@ -39,9 +51,21 @@ public class IntrospectionServiceImpl implements IntrospectionService {
     @Autowired
     private UserService userService;
 
+    @Autowired
+    private JwtService jwtService;
+
+    @Autowired
+    private IntrospectionCache introspectionCache;
+
     @Override
     public Single<IntrospectionResponse> introspect(IntrospectionRequest introspectionRequest) {
-        return tokenService.introspect(introspectionRequest.getToken())
+        final ParsedJwt parsedToken = jwtService.parse(introspectionRequest.getToken());
+        final IntrospectionResponse cachedResponse = introspectionCache.get(parsedToken, introspectionRequest.getClientId());
+        if (cachedResponse != null) {
+            return Single.just(cachedResponse);
+        }
+
+        return tokenService.introspect(parsedToken)
                 .filter(token -> token.getExpiresIn() > 0)
                 .flatMap(token -> {
                     AccessToken accessToken = (AccessToken) token;
@@ -56,10 +80,68 @@ public class IntrospectionServiceImpl implements IntrospectionService {
                     }
                 })
                 .defaultIfEmpty(new IntrospectionResponse())
+                // only invalid tokens are remembered as inactive, other errors may be transient
+                .onErrorResumeNext(ex -> ex instanceof InvalidTokenException ? Maybe.just(new IntrospectionResponse()) : Maybe.error(ex))
+                .doOnSuccess(introspectionResponse -> introspectionCache.put(parsedToken, introspectionRequest.getClientId(), introspectionResponse))
                 .onErrorResumeNext(Maybe.just(new IntrospectionResponse()))
                 .toSingle();
     }
 
+    @Override
+    public Single<List<IntrospectionResponse>> introspect(List<IntrospectionRequest> introspectionRequests) {
+        final int size = introspectionRequests.size();
+        final List<ParsedJwt> parsedTokens = new ArrayList<>(size);
+        final IntrospectionResponse[] introspectionResponses = new IntrospectionResponse[size];
+        final List<ParsedJwt> uncachedTokens = new ArrayList<>(size);
+        for (int i = 0; i < size; i++) {
+            IntrospectionRequest introspectionRequest = introspectionRequests.get(i);
+            ParsedJwt parsedToken = jwtService.parse(introspectionRequest.getToken());
+            parsedTokens.add(parsedToken);
+            introspectionResponses[i] = introspectionCache.get(parsedToken, introspectionRequest.getClientId());
+            if (introspectionResponses[i] == null) {
+                uncachedTokens.add(parsedToken);
+            }
+        }
+
+        if (uncachedTokens.isEmpty()) {
+            return Single.just(Arrays.asList(introspectionResponses));
+        }
+
+        return tokenService.introspect(uncachedTokens)
+                .flatMap(tokens -> {
+                    // each end-user is loaded once, whatever the number of its tokens
+                    Set<String> subjects = tokens.values().stream()
+                            .filter(token -> token.getExpiresIn() > 0 && token.getSubject() != null)
+                            .map(Token::getSubject)
+                            .collect(Collectors.toSet());
+                    return Observable.fromIterable(subjects)
+                            .flatMapMaybe(subject -> userService.findById(subject))
+                            .toMap(User::getId)
+                            .map(users -> {
+                                for (int i = 0; i < size; i++) {
+                                    if (introspectionResponses[i] != null) {
+                                        continue;
+                                    }
+                                    Token token = tokens.get(parsedTokens.get(i));
+                                    introspectionResponses[i] = token == null || token.getExpiresIn() <= 0 ?
+                                            new IntrospectionResponse() :
+                                            convert((AccessToken) token, token.getSubject() != null ? users.get(token.getSubject()) : null);
+                                    introspectionCache.put(parsedTokens.get(i), introspectionRequests.get(i).getClientId(), introspectionResponses[i]);
+                                }
+                                return Arrays.asList(introspectionResponses);
+                            });
+                })
+                // other errors may be transient, the tokens are reported as inactive but not remembered
+                .onErrorReturn(ex -> {
+                    for (int i = 0; i < size; i++) {
+                        if (introspectionResponses[i] == null) {
+                            introspectionResponses[i] = new IntrospectionResponse();
+                        }
+                    }
+                    return Arrays.asList(introspectionResponses);
+                });
+    }
+
     private IntrospectionResponse convert(AccessToken accessToken, User user) {
         IntrospectionResponse introspectionResponse = new IntrospectionResponse();
         introspectionResponse.setActive(true);
@@ -70,7 +70,8 @@ public abstract class AbstractRequestResolver<R extends BaseRequest> {
         if (endUser != null && client.isEnhanceScopesWithUserPermissions()) {
             Set<Role> roles = endUser.getRolesPermissions();
             if (roles != null && !roles.isEmpty()) {
-                Set<String> permissions = roles.stream()
+                // permissions are resolved once per role combination by the role service
+                Set<String> permissions = endUser.getPermissions() != null ? endUser.getPermissions() : roles.stream()
                         .map(role -> role.getPermissions() != null ? role.getPermissions() : Collections.<String>emptyList())
                         .flatMap(List::stream)
                         .collect(Collectors.toSet());
@@ -0,0 +1,49 @@
+/**
+ * Copyright (C) 2015 The Gravitee team (http://gravitee.io)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.gravitee.am.gateway.handler.oauth2.revocation;
+
+import io.gravitee.am.gateway.handler.oauth2.token.Token;
+import io.reactivex.Completable;
+
+/**
+ * Revocation list of the access tokens of the domain.
+ *
+ * Stateless access tokens are not stored, once revoked they are kept in this list until they expire.
+ * The list is shared between gateway nodes through the OAuth 2.0 repository.
+ *
+ * @author GraviteeSource Team
+ */
+public interface RevokedTokenService {
+
+    /**
+     * Add the access token to the revocation list.
+     *
+     * @param accessToken the access token to revoke
+     * @return the action completes once the revocation has been stored for the other gateway nodes
+     */
+    Completable revoke(Token accessToken);
+
+    /**
+     * Check if the access token has been revoked.
+     *
+     * This check is performed in memory, tokens revoked by other gateway nodes are seen
+     * after at most the configured synchronization interval.
+     *
+     * @param tokenId the access token identifier (jti claim)
+     * @return <code>true</code> if the access token has been revoked
+     */
+    boolean isRevoked(String tokenId);
+}
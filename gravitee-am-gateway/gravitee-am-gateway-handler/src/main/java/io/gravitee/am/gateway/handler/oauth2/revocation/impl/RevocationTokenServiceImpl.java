@@ -15,11 +15,16 @@
  */
 package io.gravitee.am.gateway.handler.oauth2.revocation.impl;
 
+import io.gravitee.am.gateway.handler.jwt.JwtService;
+import io.gravitee.am.gateway.handler.jwt.ParsedJwt;
 import io.gravitee.am.gateway.handler.oauth2.exception.InvalidGrantException;
 import io.gravitee.am.gateway.handler.oauth2.exception.InvalidTokenException;
+import io.gravitee.am.gateway.handler.oauth2.introspection.IntrospectionCache;
 import io.gravitee.am.gateway.handler.oauth2.revocation.RevocationTokenRequest;
 import io.gravitee.am.gateway.handler.oauth2.revocation.RevocationTokenService;
+import io.gravitee.am.gateway.handler.oauth2.revocation.RevokedTokenService;
 import io.gravitee.am.gateway.handler.oauth2.token.TokenService;
+import io.gravitee.am.gateway.handler.oauth2.utils.OpaqueTokenUtils;
 import io.gravitee.am.gateway.handler.oauth2.utils.TokenTypeHint;
 import io.gravitee.am.model.Client;
 import io.reactivex.Completable;
@@ -39,14 +44,25 @@ public class RevocationTokenServiceImpl implements RevocationTokenService {
     @Autowired
     private TokenService tokenService;
 
+    @Autowired
+    private JwtService jwtService;
+
+    @Autowired
+    private IntrospectionCache introspectionCache;
+
+    @Autowired
+    private RevokedTokenService revokedTokenService;
+
     @Override
     public Completable revoke(RevocationTokenRequest request, Client client) {
         String token = request.getToken();
+        // the same token is looked up as an access token and as a refresh token, split it only once
+        ParsedJwt parsedToken = jwtService.parse(token);
 
         // Check the refresh_token store first. Fall back to the access token store if we don't
         // find anything. See RFC 7009, Sec 2.1: https://tools.ietf.org/html/rfc7009#section-2.1
         if (request.getHint() != null && request.getHint().equals(TokenTypeHint.REFRESH_TOKEN)) {
-            return revokeRefreshToken(token, client)
+            return revokeRefreshToken(parsedToken, client)
                     .onErrorResumeNext(throwable -> {
                         // if the token was not issued to the client making the revocation request
                         // the request is refused and the client is informed of the error
@@ -64,7 +80,7 @@ public class RevocationTokenServiceImpl implements RevocationTokenService {
                         }
 
                         // fallback to access token
-                        return revokeAccessToken(token, client);
+                        return revokeAccessToken(parsedToken, client);
                     })
                     .onErrorResumeNext(throwable -> {
                         // Note: invalid tokens do not cause an error response since the client
@@ -82,7 +98,7 @@ public class RevocationTokenServiceImpl implements RevocationTokenService {
 
         // The user didn't hint that this is a refresh token, so it MAY be an access
         // token. If we don't find an access token... check if it's a refresh token.
-        return revokeAccessToken(token, client)
+        return revokeAccessToken(parsedToken, client)
                 .onErrorResumeNext(throwable -> {
                     // if the token was not issued to the client making the revocation request
                     // the request is refused and the client is informed of the error
@@ -100,7 +116,7 @@ public class RevocationTokenServiceImpl implements RevocationTokenService {
                     }
 
                     // fallback to refresh token
-                    return revokeRefreshToken(token, client);
+                    return revokeRefreshToken(parsedToken, client);
                 })
                 .onErrorResumeNext(throwable -> {
                     // Note: invalid tokens do not cause an error response since the client
@@ -117,7 +133,7 @@ public class RevocationTokenServiceImpl implements RevocationTokenService {
 
     }
 
-    private Completable revokeAccessToken(String token, Client client) {
+    private Completable revokeAccessToken(ParsedJwt token, Client client) {
         return tokenService.getAccessToken(token, client)
                 .switchIfEmpty(Maybe.error(new InvalidTokenException("Unknown access token")))
                 .flatMapCompletable(accessToken -> {
@@ -127,11 +143,24 @@ public class RevocationTokenServiceImpl implements RevocationTokenService {
                         return Completable.error(new InvalidGrantException("Cannot revoke tokens issued to other clients."));
                     }
 
-                    return tokenService.deleteAccessToken(accessToken.getValue());
-                });
+                    // opaque access tokens only exist in the token store
+                    if (OpaqueTokenUtils.isOpaque(accessToken.getValue())) {
+                        return tokenService.deleteAccessToken(accessToken.getValue());
+                    }
+
+                    // stateless access tokens are not stored, the revocation list is the only way to reject them.
+                    // Stored tokens are also listed so that they stay revoked if the client switches to stateless tokens.
+                    if (client.isStatelessAccessToken()) {
+                        return revokedTokenService.revoke(accessToken);
+                    }
+                    return tokenService.deleteAccessToken(accessToken.getValue())
+                            .andThen(revokedTokenService.revoke(accessToken));
+                })
+                // resource servers must not get the revoked token reported as active from the introspection cache
+                .doOnComplete(() -> introspectionCache.evict(token));
     }
 
-    private Completable revokeRefreshToken(String token, Client client) {
+    private Completable revokeRefreshToken(ParsedJwt token, Client client) {
         return tokenService.getRefreshToken(token, client)
                 .switchIfEmpty(Maybe.error(new InvalidTokenException("Unknown refresh token")))
                 .flatMapCompletable(refreshToken -> {
@@ -0,0 +1,164 @@
+/**
+ * Copyright (C) 2015 The Gravitee team (http://gravitee.io)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.gravitee.am.gateway.handler.oauth2.revocation.impl;
+
+import io.gravitee.am.gateway.handler.cache.BloomFilter;
+import io.gravitee.am.gateway.handler.oauth2.revocation.RevokedTokenService;
+import io.gravitee.am.gateway.handler.oauth2.token.Token;
+import io.gravitee.am.model.Domain;
+import io.gravitee.am.repository.oauth2.api.RevokedTokenRepository;
+import io.gravitee.am.repository.oauth2.model.RevokedToken;
+import io.gravitee.common.utils.UUID;
+import io.reactivex.Completable;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.InitializingBean;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+
+import java.util.Date;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Revoked tokens are kept in a map (token id to expiration time) fronted by a {@link BloomFilter}
+ * so that the lookup of a valid token, by far the most frequent one, is answered by the filter alone.
+ *
+ * Revocations of the other gateway nodes are pulled from the repository when a lookup happens
+ * after the synchronization interval, no timer is bound to the domain.
+ *
+ * @author GraviteeSource Team
+ */
+public class RevokedTokenServiceImpl implements RevokedTokenService, InitializingBean {
+
+    private static final Logger logger = LoggerFactory.getLogger(RevokedTokenServiceImpl.class);
+    private static final double FALSE_POSITIVE_PROBABILITY = 0.01;
+    // revocations are read again over this window to tolerate clock drift between gateway nodes
+    private static final long CLOCK_SKEW = 30_000L;
+
+    @Value("${oauth2.revocation.expectedSize:10000}")
+    private int expectedSize = 10000;
+
+    @Value("${oauth2.revocation.sync.interval:5000}")
+    private long syncInterval = 5000L;
+
+    @Autowired
+    private Domain domain;
+
+    @Autowired
+    private RevokedTokenRepository revokedTokenRepository;
+
+    private final ConcurrentMap<String, Long> revokedTokens = new ConcurrentHashMap<>();
+    private final AtomicBoolean syncing = new AtomicBoolean();
+    private volatile BloomFilter filter;
+    private volatile long nextSync;
+    private volatile long lastSync;
+
+    @Override
+    public void afterPropertiesSet() {
+        filter = new BloomFilter(expectedSize, FALSE_POSITIVE_PROBABILITY);
+        sync();
+    }
+
+    @Override
+    public Completable revoke(Token accessToken) {
+        final Date now = new Date();
+        final Date expireAt = accessToken.getExpireAt();
+
+        // the revocation is applied locally first, the repository only serves the other nodes
+        add(accessToken.getValue(), expireAt != null ? expireAt.getTime() : Long.MAX_VALUE);
+
+        RevokedToken revokedToken = new RevokedToken();
+        revokedToken.setId(UUID.random().toString());
+        revokedToken.setToken(accessToken.getValue());
+        revokedToken.setDomain(domain.getId());
+        revokedToken.setClient(accessToken.getClientId());
+        revokedToken.setCreatedAt(now);
+        revokedToken.setExpireAt(expireAt);
+        return revokedTokenRepository.create(revokedToken).toCompletable();
+    }
+
+    @Override
+    public boolean isRevoked(String tokenId) {
+        if (System.currentTimeMillis() >= nextSync) {
+            sync();
+        }
+
+        return filter.mightContain(tokenId) && revokedTokens.containsKey(tokenId);
+    }
+
+    int size() {
+        return revokedTokens.size();
+    }
+
+    private synchronized void add(String tokenId, long expireAt) {
+        // the map is updated before the filter so that a positive answer of the filter is always backed by the map
+        revokedTokens.put(tokenId, expireAt);
+        if (revokedTokens.size() > filter.expectedInsertions()) {
+            rebuildFilter();
+        } else {
+            filter.put(tokenId);
+        }
+    }
+
+    private synchronized void purge() {
+        final long now = System.currentTimeMillis();
+        boolean purged = false;
+        for (Iterator<Map.Entry<String, Long>> it = revokedTokens.entrySet().iterator(); it.hasNext(); ) {
+            if (it.next().getValue() <= now) {
+                it.remove();
+                purged = true;
+            }
+        }
+
+        // expired tokens are rejected by their exp claim, drop them from the filter to keep its false positive rate low
+        if (purged) {
+            rebuildFilter();
+        }
+    }
+
+    private void rebuildFilter() {
+        BloomFilter newFilter = new BloomFilter(Math.max(expectedSize, revokedTokens.size() * 2), FALSE_POSITIVE_PROBABILITY);
+        revokedTokens.keySet().forEach(newFilter::put);
+        filter = newFilter;
+    }
+
+    private void sync() {
+        if (!syncing.compareAndSet(false, true)) {
+            return;
+        }
+
+        final long startedAt = System.currentTimeMillis();
+        final Date since = new Date(lastSync > 0 ? lastSync - CLOCK_SKEW : 0);
+        nextSync = startedAt + syncInterval;
+        revokedTokenRepository.findByDomainAndCreatedAtAfter(domain.getId(), since)
+                .subscribe(
+                        revokedToken -> add(revokedToken.getToken(),
+                                revokedToken.getExpireAt() != null ? revokedToken.getExpireAt().getTime() : Long.MAX_VALUE),
+                        error -> {
+                            logger.error("Unable to synchronize revoked tokens for domain {}", domain.getName(), error);
+                            syncing.set(false);
+                        },
+                        () -> {
+                            lastSync = startedAt;
+                            purge();
+                            syncing.set(false);
+                        });
+    }
+}
@@ -16,15 +16,32 @@
 package io.gravitee.am.gateway.handler.oauth2.scope;
 
 import io.gravitee.am.model.oauth2.Scope;
+import io.gravitee.common.service.Service;
+import io.reactivex.Maybe;
 import io.reactivex.Single;
 
 import java.util.Set;
 
 /**
+ * Scopes of the domain, loaded when the domain starts and kept up to date through scope events.
+ *
  * @author Titouan COMPIEGNE (titouan.compiegne at graviteesource.com)
  * @author GraviteeSource Team
  */
-public interface ScopeService {
+public interface ScopeService extends Service {
 
+    /**
+     * Get the scopes of the domain, sorted by key.
+     *
+     * @return the scopes of the domain
+     */
     Single<Set<Scope>> getAll();
+
+    /**
+     * Find a scope of the domain by its key (case insensitive).
+     *
+     * @param key the scope key
+     * @return the scope or empty if the domain has no such scope
+     */
+    Maybe<Scope> findByKey(String key);
 }
@@ -15,20 +15,50 @@
  */
 package io.gravitee.am.gateway.handler.oauth2.scope.impl;
 
+import io.gravitee.am.gateway.core.event.DomainEvent;
+import io.gravitee.am.gateway.core.event.ScopeEvent;
 import io.gravitee.am.gateway.handler.oauth2.scope.ScopeService;
 import io.gravitee.am.model.Domain;
+import io.gravitee.am.model.common.event.Payload;
 import io.gravitee.am.model.oauth2.Scope;
 import io.gravitee.am.repository.management.api.ScopeRepository;
+import io.gravitee.common.event.Event;
+import io.gravitee.common.event.EventListener;
+import io.gravitee.common.event.EventManager;
+import io.gravitee.common.service.AbstractService;
+import io.reactivex.Maybe;
 import io.reactivex.Single;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.InitializingBean;
 import org.springframework.beans.factory.annotation.Autowired;
 
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.stream.Collectors;
 
 /**
+ * Scopes are indexed by id (to apply the scope events) and by lower case key. The key index and the sorted set of
+ * scopes are rebuilt on each change, which is rare, so that reads are lock free and never hit the repository.
+ * Scopes are reloaded on each synchronization of the domain, in case its scope event has been overwritten.
+ *
  * @author Titouan COMPIEGNE (titouan.compiegne at graviteesource.com)
  * @author GraviteeSource Team
  */
-public class ScopeServiceImpl implements ScopeService {
+public class ScopeServiceImpl extends AbstractService implements ScopeService, InitializingBean, EventListener<ScopeEvent, Payload> {
+
+    private static final Logger logger = LoggerFactory.getLogger(ScopeServiceImpl.class);
+    private static final Comparator<Scope> BY_KEY = Comparator.comparing(Scope::getKey, Comparator.nullsLast(Comparator.naturalOrder()));
+
+    private final ConcurrentMap<String, Scope> scopes = new ConcurrentHashMap<>();
+    private volatile Map<String, Scope> scopesByKey = Collections.emptyMap();
+    private volatile Set<Scope> sortedScopes = Collections.emptySet();
 
     @Autowired
     private ScopeRepository scopeRepository;
@@ -36,8 +66,104 @@ public class ScopeServiceImpl implements ScopeService {
     @Autowired
     private Domain domain;
 
+    @Autowired
+    private EventManager eventManager;
+
     @Override
     public Single<Set<Scope>> getAll() {
-        return scopeRepository.findByDomain(domain.getId());
+        return Single.just(sortedScopes);
+    }
+
+    @Override
+    public Maybe<Scope> findByKey(String key) {
+        Scope scope = key == null ? null : scopesByKey.get(key.toLowerCase());
+        return scope == null ? Maybe.empty() : Maybe.just(scope);
+    }
+
+    @Override
+    public void afterPropertiesSet() {
+        logger.info("Initializing scopes for domain {}", domain.getName());
+        loadScopes();
+    }
+
+    @Override
+    protected void doStart() throws Exception {
+        super.doStart();
+
+        logger.info("Register event listener for scope events");
+        eventManager.subscribeForEvents(this, ScopeEvent.class);
+        EventListener<DomainEvent, Domain> domainEventListener = this::onDomainEvent;
+        eventManager.subscribeForEvents(domainEventListener, DomainEvent.class);
+    }
+
+    public void onDomainEvent(Event<DomainEvent, Domain> event) {
+        if (event.type() == DomainEvent.SYNC && domain.getId().equals(event.content().getId())) {
+            logger.debug("Domain {} has been synchronized, reload scopes", domain.getName());
+            loadScopes();
+        }
+    }
+
+    @Override
+    public void onEvent(Event<ScopeEvent, Payload> event) {
+        if (!domain.getId().equals(event.content().getDomain())) {
+            return;
+        }
+
+        switch (event.type()) {
+            case DEPLOY:
+            case UPDATE:
+                updateScope(event.content().getId(), event.type());
+                break;
+            case UNDEPLOY:
+                removeScope(event.content().getId());
+                break;
+        }
+    }
+
+    private void loadScopes() {
+        scopeRepository.findByDomain(domain.getId())
+                .subscribe(
+                        domainScopes -> {
+                            Set<String> ids = domainScopes.stream().map(Scope::getId).collect(Collectors.toSet());
+                            scopes.keySet().retainAll(ids);
+                            domainScopes.forEach(scope -> scopes.put(scope.getId(), scope));
+                            refresh();
+                            logger.info("Scopes loaded for domain {}", domain.getName());
+                        },
+                        error -> logger.error("Unable to load scopes for domain {}", domain.getName(), error));
+    }
+
+    private void updateScope(String scopeId, ScopeEvent scopeEvent) {
+        final String eventType = scopeEvent.toString().toLowerCase();
+        logger.info("Domain {} has received {} scope event for {}", domain.getName(), eventType, scopeId);
+        scopeRepository.findById(scopeId)
+                .subscribe(
+                        scope -> {
+                            scopes.put(scope.getId(), scope);
+                            refresh();
+                            logger.info("Scope {} {}d for domain {}", scopeId, eventType, domain.getName());
+                        },
+                        error -> logger.error("Unable to {} scope for domain {}", eventType, domain.getName(), error),
+                        () -> logger.error("No scope found with id {}", scopeId));
+    }
+
+    private void removeScope(String scopeId) {
+        logger.info("Domain {} has received scope event, delete scope {}", domain.getName(), scopeId);
+        if (scopes.remove(scopeId) != null) {
+            refresh();
+        }
+    }
+
+    private synchronized void refresh() {
+        Map<String, Scope> byKey = new HashMap<>();
+        Set<Scope> sorted = new LinkedHashSet<>();
+        scopes.values().stream().sorted(BY_KEY).forEach(scope -> {
+            if (scope.getKey() != null) {
+                byKey.put(scope.getKey().toLowerCase(), scope);
+            }
+            sorted.add(scope);
+        });
+        scopesByKey = Collections.unmodifiableMap(byKey);
+        sortedScopes = Collections.unmodifiableSet(sorted);
     }
 }
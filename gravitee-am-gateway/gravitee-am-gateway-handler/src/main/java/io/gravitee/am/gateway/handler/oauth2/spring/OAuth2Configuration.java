@@ -27,14 +27,20 @@ import io.gravitee.am.gateway.handler.oauth2.granter.CompositeTokenGranter;
 import io.gravitee.am.gateway.handler.oauth2.granter.TokenGranter;
 import io.gravitee.am.gateway.handler.oauth2.granter.extensiongrant.ExtensionGrantManager;
 import io.gravitee.am.gateway.handler.oauth2.granter.extensiongrant.impl.ExtensionGrantManagerImpl;
+import io.gravitee.am.gateway.handler.oauth2.introspection.IntrospectionCache;
 import io.gravitee.am.gateway.handler.oauth2.introspection.IntrospectionService;
+import io.gravitee.am.gateway.handler.oauth2.introspection.impl.IntrospectionCacheImpl;
 import io.gravitee.am.gateway.handler.oauth2.introspection.impl.IntrospectionServiceImpl;
 import io.gravitee.am.gateway.handler.oauth2.revocation.RevocationTokenService;
+import io.gravitee.am.gateway.handler.oauth2.revocation.RevokedTokenService;
 import io.gravitee.am.gateway.handler.oauth2.revocation.impl.RevocationTokenServiceImpl;
+import io.gravitee.am.gateway.handler.oauth2.revocation.impl.RevokedTokenServiceImpl;
 import io.gravitee.am.gateway.handler.oauth2.scope.ScopeService;
 import io.gravitee.am.gateway.handler.oauth2.scope.impl.ScopeServiceImpl;
+import io.gravitee.am.gateway.handler.oauth2.token.ClientCredentialsTokenCache;
 import io.gravitee.am.gateway.handler.oauth2.token.TokenEnhancer;
 import io.gravitee.am.gateway.handler.oauth2.token.TokenService;
+import io.gravitee.am.gateway.handler.oauth2.token.impl.ClientCredentialsTokenCacheImpl;
 import io.gravitee.am.gateway.handler.oauth2.token.impl.TokenEnhancerImpl;
 import io.gravitee.am.gateway.handler.oauth2.token.impl.TokenServiceImpl;
 import org.springframework.context.annotation.Bean;
@@ -62,11 +68,21 @@ public class OAuth2Configuration {
         return new TokenServiceImpl();
     }
 
+    @Bean
+    public ClientCredentialsTokenCache clientCredentialsTokenCache() {
+        return new ClientCredentialsTokenCacheImpl();
+    }
+
     @Bean
     public IntrospectionService introspectionService() {
         return new IntrospectionServiceImpl();
     }
 
+    @Bean
+    public IntrospectionCache introspectionCache() {
+        return new IntrospectionCacheImpl();
+    }
+
     @Bean
     public AuthorizationCodeService authorizationCodeService() {
         return new AuthorizationCodeServiceImpl();
@@ -99,4 +115,9 @@ public class OAuth2Configuration {
     public RevocationTokenService revocationTokenService() {
         return new RevocationTokenServiceImpl();
     }
+
+    @Bean
+    public RevokedTokenService revokedTokenService() {
+        return new RevokedTokenServiceImpl();
+    }
 }
@@ -0,0 +1,52 @@
+/**
+ * Copyright (C) 2015 The Gravitee team (http://gravitee.io)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.gravitee.am.gateway.handler.oauth2.token;
+
+import io.gravitee.am.model.Client;
+import io.reactivex.Maybe;
+
+import java.util.Date;
+import java.util.Set;
+
+/**
+ * Access tokens issued with the client credentials grant to the clients which opted in
+ * (see {@link Client#isReuseClientCredentialsToken()}), indexed by client and requested scopes.
+ *
+ * @author GraviteeSource Team
+ */
+public interface ClientCredentialsTokenCache {
+
+    /**
+     * Find the access token previously issued to the client for the same scopes.
+     *
+     * @param client the OAuth 2.0 client
+     * @param scopes the requested scopes
+     * @return the access token response (with an up to date expires_in) or empty if there is no token
+     * which is still valid for long enough, or if it has been revoked
+     */
+    Maybe<Token> get(Client client, Set<String> scopes);
+
+    /**
+     * Keep an access token issued to the client.
+     *
+     * @param client the OAuth 2.0 client
+     * @param scopes the requested scopes
+     * @param tokenId the access token identifier (jti claim or opaque token value)
+     * @param expireAt the access token expiration date
+     * @param token the access token response
+     */
+    void put(Client client, Set<String> scopes, String tokenId, Date expireAt, Token token);
+}
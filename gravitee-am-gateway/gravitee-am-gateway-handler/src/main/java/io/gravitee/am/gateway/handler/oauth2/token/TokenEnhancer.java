@@ -26,5 +26,15 @@ import io.reactivex.Single;
  */
 public interface TokenEnhancer {
 
-    Single<Token> enhance(Token accessToken, OAuth2Request oAuth2Request, Client client, User endUser);
+    /**
+     * Enhance the access token response, additional tokens are signed concurrently with the pending access token
+     * whenever they do not depend on its value.
+     *
+     * @param accessToken pending access token response (not subscribed yet)
+     * @param oAuth2Request oauth2 token or authorization request
+     * @param client oauth2 client
+     * @param endUser oauth2 resource owner
+     * @return enhanced access token response
+     */
+    Single<Token> enhance(Single<Token> accessToken, OAuth2Request oAuth2Request, Client client, User endUser);
 }
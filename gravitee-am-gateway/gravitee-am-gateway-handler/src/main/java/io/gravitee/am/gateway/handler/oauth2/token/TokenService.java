@@ -15,6 +15,7 @@
  */
 package io.gravitee.am.gateway.handler.oauth2.token;
 
+import io.gravitee.am.gateway.handler.jwt.ParsedJwt;
 import io.gravitee.am.gateway.handler.oauth2.request.OAuth2Request;
 import io.gravitee.am.gateway.handler.oauth2.request.TokenRequest;
 import io.gravitee.am.model.Client;
@@ -23,6 +24,9 @@ import io.reactivex.Completable;
 import io.reactivex.Maybe;
 import io.reactivex.Single;
 
+import java.util.List;
+import java.util.Map;
+
 /**
  * @author David BRASSELY (david.brassely at graviteesource.com)
  * @author Titouan COMPIEGNE (titouan.compiegne at graviteesource.com)
@@ -36,6 +40,21 @@ public interface TokenService {
 
     Maybe<Token> introspect(String token);
 
+    Maybe<Token> getAccessToken(ParsedJwt accessToken, Client client);
+
+    Maybe<Token> getRefreshToken(ParsedJwt refreshToken, Client client);
+
+    Maybe<Token> introspect(ParsedJwt token);
+
+    /**
+     * Introspect several access tokens at once, the JWT signatures are verified in parallel on the crypto worker pool
+     * and the stored access tokens are looked up with a single query.
+     *
+     * @param tokens the access tokens to introspect
+     * @return the valid access tokens, invalid or unknown tokens have no entry
+     */
+    Single<Map<ParsedJwt, Token>> introspect(List<ParsedJwt> tokens);
+
     Single<Token> create(OAuth2Request oAuth2Request, Client client, User endUser);
 
     Single<Token> refresh(String refreshToken, TokenRequest tokenRequest, Client client);
@@ -43,4 +62,12 @@ public interface TokenService {
     Completable deleteAccessToken(String accessToken);
 
     Completable deleteRefreshToken(String refreshToken);
+
+    Completable revokeByAuthorizationCode(String authorizationCode);
+
+    Completable revokeByClientAndSubject(String domain, String clientId, String subject);
+
+    Completable revokeByClient(String domain, String clientId);
+
+    Completable revokeByDomain(String domain);
 }
@@ -0,0 +1,175 @@
+/**
+ * Copyright (C) 2015 The Gravitee team (http://gravitee.io)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.gravitee.am.gateway.handler.oauth2.token.impl;
+
+import io.gravitee.am.gateway.core.event.ClientEvent;
+import io.gravitee.am.gateway.handler.cache.LRUCache;
+import io.gravitee.am.gateway.handler.oauth2.revocation.RevokedTokenService;
+import io.gravitee.am.gateway.handler.oauth2.token.ClientCredentialsTokenCache;
+import io.gravitee.am.gateway.handler.oauth2.token.Token;
+import io.gravitee.am.model.Client;
+import io.gravitee.am.model.Domain;
+import io.gravitee.am.model.common.event.Payload;
+import io.gravitee.am.repository.oauth2.api.AccessTokenRepository;
+import io.gravitee.common.event.Event;
+import io.gravitee.common.event.EventListener;
+import io.gravitee.common.event.EventManager;
+import io.reactivex.Maybe;
+import org.springframework.beans.factory.InitializingBean;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+
+import java.util.Date;
+import java.util.HashMap;
+import java.util.Set;
+import java.util.TreeSet;
+
+/**
+ * One entry per client and set of scopes, replaced when the access token gets close to its expiration
+ * or when the client settings change. At most <code>oauth2.clientCredentials.reuse.maxSize</code> entries are kept
+ * (least recently used first out), they expire with their access token and are dropped on client update or deletion.
+ *
+ * Revoked access tokens are never returned: the revocation list is checked in memory and the stored access tokens
+ * (which can also be revoked in bulk from the management API) are looked up by identifier, so that no access token is
+ * written nor signed for a reused token.
+ *
+ * @author GraviteeSource Team
+ */
+public class ClientCredentialsTokenCacheImpl implements ClientCredentialsTokenCache, InitializingBean, EventListener<ClientEvent, Payload> {
+
+    @Value("${oauth2.clientCredentials.reuse.minRemainingTime:60}")
+    private int minRemainingTime = 60;
+
+    @Value("${oauth2.clientCredentials.reuse.maxSize:10000}")
+    private int maxSize = 10000;
+
+    @Autowired
+    private AccessTokenRepository accessTokenRepository;
+
+    @Autowired
+    private RevokedTokenService revokedTokenService;
+
+    @Autowired
+    private Domain domain;
+
+    @Autowired
+    private EventManager eventManager;
+
+    private LRUCache<String, Entry> tokens;
+
+    public ClientCredentialsTokenCacheImpl() { }
+
+    public ClientCredentialsTokenCacheImpl(int minRemainingTime, int maxSize) {
+        this.minRemainingTime = minRemainingTime;
+        this.maxSize = maxSize;
+    }
+
+    @Override
+    public void afterPropertiesSet() {
+        tokens = new LRUCache<>(maxSize);
+        eventManager.subscribeForEvents(this, ClientEvent.class);
+    }
+
+    @Override
+    public void onEvent(Event<ClientEvent, Payload> event) {
+        if (!domain.getId().equals(event.content().getDomain())) {
+            return;
+        }
+
+        switch (event.type()) {
+            case UPDATE:
+            case UNDEPLOY:
+                final String clientId = event.content().getId();
+                tokens.removeIf(entry -> clientId.equals(entry.clientId));
+                break;
+        }
+    }
+
+    @Override
+    public Maybe<Token> get(Client client, Set<String> scopes) {
+        final String key = key(client, scopes);
+        final Entry entry = tokens.get(key);
+        if (entry == null) {
+            return Maybe.empty();
+        }
+
+        final long now = System.currentTimeMillis();
+        if (entry.clientUpdatedAt != updatedAt(client) || revokedTokenService.isRevoked(entry.tokenId)) {
+            tokens.remove(key);
+            return Maybe.empty();
+        }
+
+        if (client.isStatelessAccessToken()) {
+            return Maybe.just(entry.copy(now));
+        }
+        return accessTokenRepository.findByToken(entry.tokenId)
+                .map(accessToken -> entry.copy(System.currentTimeMillis()))
+                .switchIfEmpty(Maybe.fromAction(() -> tokens.remove(key)));
+    }
+
+    @Override
+    public void put(Client client, Set<String> scopes, String tokenId, Date expireAt, Token token) {
+        if (expireAt == null) {
+            return;
+        }
+        // the access token is not returned anymore once it gets close to its expiration
+        tokens.put(key(client, scopes), new Entry(client.getId(), tokenId, expireAt.getTime(), updatedAt(client), token),
+                expireAt.getTime() - minRemainingTime * 1000L);
+    }
+
+    public int size() {
+        return tokens.size();
+    }
+
+    private static String key(Client client, Set<String> scopes) {
+        if (scopes == null || scopes.isEmpty()) {
+            return client.getClientId();
+        }
+        // the same scopes may be requested in any order
+        return client.getClientId() + ' ' + String.join(" ", new TreeSet<>(scopes));
+    }
+
+    private static long updatedAt(Client client) {
+        return client.getUpdatedAt() != null ? client.getUpdatedAt().getTime() : 0L;
+    }
+
+    private static final class Entry {
+        private final String clientId;
+        private final String tokenId;
+        private final long expireAt;
+        private final long clientUpdatedAt;
+        private final Token token;
+
+        private Entry(String clientId, String tokenId, long expireAt, long clientUpdatedAt, Token token) {
+            this.clientId = clientId;
+            this.tokenId = tokenId;
+            this.expireAt = expireAt;
+            this.clientUpdatedAt = clientUpdatedAt;
+            this.token = token;
+        }
+
+        private Token copy(long now) {
+            AccessToken accessToken = new AccessToken(token.getValue());
+            accessToken.setTokenType(token.getTokenType());
+            accessToken.setScope(token.getScope());
+            accessToken.setExpiresIn((int) ((expireAt - now) / 1000L));
+            if (token.getAdditionalInformation() != null) {
+                accessToken.setAdditionalInformation(new HashMap<>(token.getAdditionalInformation()));
+            }
+            return accessToken;
+        }
+    }
+}
@@ -39,25 +39,33 @@ public class TokenEnhancerImpl implements TokenEnhancer {
     private IDTokenService idTokenService;
 
     @Override
-    public Single<Token> enhance(Token accessToken, OAuth2Request oAuth2Request, Client client, User endUser) {
+    public Single<Token> enhance(Single<Token> accessToken, OAuth2Request oAuth2Request, Client client, User endUser) {
         // enhance token with ID token
         if (oAuth2Request.shouldGenerateIDToken()) {
             return enhanceIDToken(accessToken, client, endUser, oAuth2Request);
         } else {
-            return Single.just(accessToken);
+            return accessToken;
         }
     }
 
-    private Single<Token> enhanceIDToken(Token accessToken, Client client, User user, OAuth2Request oAuth2Request) {
+    private Single<Token> enhanceIDToken(Single<Token> accessToken, Client client, User user, OAuth2Request oAuth2Request) {
         if (oAuth2Request.isSupportAtHashValue()) {
-            oAuth2Request.getContext().put(Claims.at_hash, accessToken.getValue());
+            // at_hash is computed from the signed access token, the ID token can only be created afterwards
+            return accessToken.flatMap(accessToken1 -> {
+                oAuth2Request.getContext().put(Claims.at_hash, accessToken1.getValue());
+                return idTokenService.create(oAuth2Request, client, user)
+                        .map(idToken -> addIDToken(accessToken1, idToken));
+            });
         }
-        return idTokenService.create(oAuth2Request, client, user)
-                .flatMap(idToken -> {
-                    Map<String, Object> additionalInformation = new HashMap<>(accessToken.getAdditionalInformation());
-                    additionalInformation.put(OAuth2Constants.ID_TOKEN, idToken);
-                    ((AccessToken) accessToken).setAdditionalInformation(additionalInformation);
-                    return Single.just(accessToken);
-                });
+
+        // sign the ID token while the access (and refresh) token is being signed
+        return Single.zip(accessToken, idTokenService.create(oAuth2Request, client, user), this::addIDToken);
+    }
+
+    private Token addIDToken(Token accessToken, String idToken) {
+        Map<String, Object> additionalInformation = new HashMap<>(accessToken.getAdditionalInformation());
+        additionalInformation.put(OAuth2Constants.ID_TOKEN, idToken);
+        ((AccessToken) accessToken).setAdditionalInformation(additionalInformation);
+        return accessToken;
     }
 }
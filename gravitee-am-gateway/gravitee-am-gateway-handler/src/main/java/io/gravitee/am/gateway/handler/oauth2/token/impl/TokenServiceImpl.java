@@ -18,18 +18,24 @@ package io.gravitee.am.gateway.handler.oauth2.token.impl;
 import io.gravitee.am.common.jwt.Claims;
 import io.gravitee.am.common.jwt.JWT;
 import io.gravitee.am.common.jwt.exception.JwtException;
+import io.gravitee.am.common.oauth2.GrantType;
 import io.gravitee.am.gateway.handler.jwt.JwtService;
+import io.gravitee.am.gateway.handler.jwt.ParsedJwt;
 import io.gravitee.am.gateway.handler.oauth2.client.ClientService;
 import io.gravitee.am.gateway.handler.oauth2.exception.InvalidGrantException;
 import io.gravitee.am.gateway.handler.oauth2.exception.InvalidTokenException;
 import io.gravitee.am.gateway.handler.oauth2.request.OAuth2Request;
 import io.gravitee.am.gateway.handler.oauth2.request.TokenRequest;
+import io.gravitee.am.gateway.handler.oauth2.revocation.RevokedTokenService;
+import io.gravitee.am.gateway.handler.oauth2.token.ClientCredentialsTokenCache;
 import io.gravitee.am.gateway.handler.oauth2.token.Token;
 import io.gravitee.am.gateway.handler.oauth2.token.TokenEnhancer;
 import io.gravitee.am.gateway.handler.oauth2.token.TokenService;
 import io.gravitee.am.gateway.handler.oauth2.utils.OAuth2Constants;
 import io.gravitee.am.gateway.handler.oauth2.utils.OIDCParameters;
+import io.gravitee.am.gateway.handler.oauth2.utils.OpaqueTokenUtils;
 import io.gravitee.am.model.Client;
+import io.gravitee.am.model.TokenFormat;
 import io.gravitee.am.model.User;
 import io.gravitee.am.repository.oauth2.api.AccessTokenRepository;
 import io.gravitee.am.repository.oauth2.api.RefreshTokenRepository;
@@ -37,13 +43,19 @@ import io.gravitee.common.util.MultiValueMap;
 import io.gravitee.common.utils.UUID;
 import io.reactivex.Completable;
 import io.reactivex.Maybe;
+import io.reactivex.Observable;
 import io.reactivex.Single;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
 
 import java.util.Collections;
 import java.util.Date;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
 import java.util.Set;
+import java.util.stream.Collectors;
 
 /**
  * @author David BRASSELY (david.brassely at graviteesource.com)
@@ -73,37 +85,77 @@ public class TokenServiceImpl implements TokenService {
     @Autowired
     private ClientService clientService;
 
+    @Autowired
+    private RevokedTokenService revokedTokenService;
+
+    @Autowired
+    private ClientCredentialsTokenCache clientCredentialsTokenCache;
+
     @Override
     public Maybe<Token> getAccessToken(String token, Client client) {
-        return jwtService.decodeAndVerify(token, client)
-                .onErrorResumeNext(ex -> {
-                    if (ex instanceof JwtException) {
-                        return Single.error(new InvalidTokenException(ex.getMessage(), ex));
-                    }
-                    return Single.error(ex);
-                })
-                .flatMapMaybe(jwt -> accessTokenRepository.findByToken(jwt.getJti()).map(accessToken -> convertAccessToken(jwt)));
+        return getAccessToken(jwtService.parse(token), client);
     }
 
     @Override
     public Maybe<Token> getRefreshToken(String refreshToken, Client client) {
-        return jwtService.decodeAndVerify(refreshToken, client)
-                .onErrorResumeNext(ex -> {
-                    if (ex instanceof JwtException) {
-                        return Single.error(new InvalidTokenException(ex.getMessage(), ex));
-                    }
-                    return Single.error(ex);
-                })
-                .flatMapMaybe(jwt -> refreshTokenRepository.findByToken(jwt.getJti()).map(refreshToken1 -> convertRefreshToken(jwt)));
+        return getRefreshToken(jwtService.parse(refreshToken), client);
     }
 
     @Override
     public Maybe<Token> introspect(String token) {
-        // any client can introspect a token, we first need to decode the token to get the client's certificate to verify the token
-        return jwtService.decode(token)
-                .flatMapMaybe(jwt -> clientService.findByDomainAndClientId(jwt.getDomain(), jwt.getAud()))
-                .switchIfEmpty(Maybe.error(new InvalidTokenException("Invalid or unknown client for this token")))
-                .flatMap(client -> getAccessToken(token, client));
+        return introspect(jwtService.parse(token));
+    }
+
+    @Override
+    public Maybe<Token> getAccessToken(ParsedJwt token, Client client) {
+        if (OpaqueTokenUtils.isOpaque(token.getToken())) {
+            return getOpaqueAccessToken(token.getToken());
+        }
+
+        return getJwtAccessToken(token, client);
+    }
+
+    @Override
+    public Maybe<Token> getRefreshToken(ParsedJwt refreshToken, Client client) {
+        return decodeRefreshToken(refreshToken, client)
+                .flatMapMaybe(jwt -> refreshTokenRepository.findByToken(jwt.getJti()).map(refreshToken1 -> convertRefreshToken(jwt)));
+    }
+
+    @Override
+    public Maybe<Token> introspect(ParsedJwt token) {
+        if (OpaqueTokenUtils.isOpaque(token.getToken())) {
+            return getOpaqueAccessToken(token.getToken());
+        }
+
+        return introspectJwt(token);
+    }
+
+    @Override
+    public Single<Map<ParsedJwt, Token>> introspect(List<ParsedJwt> tokens) {
+        // verify every JWT access token first, in parallel on the crypto worker pool, then check the stored access tokens
+        // with a single query
+        return Observable.fromIterable(tokens)
+                .flatMapMaybe(token -> resolve(token).onErrorComplete(ex -> ex instanceof InvalidTokenException))
+                .toList()
+                .flatMap(resolvedTokens -> {
+                    Set<String> storedTokenIds = resolvedTokens.stream()
+                            .filter(resolvedToken -> resolvedToken.storedTokenId != null)
+                            .map(resolvedToken -> resolvedToken.storedTokenId)
+                            .collect(Collectors.toSet());
+                    Single<Map<String, io.gravitee.am.repository.oauth2.model.AccessToken>> storedTokens = storedTokenIds.isEmpty() ?
+                            Single.just(Collections.emptyMap()) :
+                            accessTokenRepository.findByTokenIn(storedTokenIds).toMap(io.gravitee.am.repository.oauth2.model.AccessToken::getToken);
+                    return storedTokens.map(storedTokens1 -> {
+                        Map<ParsedJwt, Token> introspectedTokens = new HashMap<>();
+                        for (ResolvedToken resolvedToken : resolvedTokens) {
+                            Token token = resolvedToken.convert(storedTokens1);
+                            if (token != null) {
+                                introspectedTokens.put(resolvedToken.token, token);
+                            }
+                        }
+                        return introspectedTokens;
+                    });
+                });
     }
 
     @Override
@@ -111,26 +163,37 @@ public class TokenServiceImpl implements TokenService {
         // store access token and refresh token (if exits)
         // encode access/refresh token in JWT compact string format
         // convert to access token response format
+        // sign all the tokens of the response concurrently
+        if (isReusable(oAuth2Request, client, endUser)) {
+            return clientCredentialsTokenCache.get(client, oAuth2Request.getScopes())
+                    // nothing is stored nor signed unless there is no access token to reuse
+                    .switchIfEmpty(Maybe.defer(() -> storeAccessToken(oAuth2Request, client, null, null)
+                            .flatMap(accessToken -> tokenEnhancer.enhance(convert(accessToken, null, client, oAuth2Request), oAuth2Request, client, null)
+                                    .doOnSuccess(token -> clientCredentialsTokenCache.put(client, oAuth2Request.getScopes(), accessToken.getToken(), accessToken.getExpireAt(), token)))
+                            .toMaybe()))
+                    .toSingle();
+        }
+
         return Single.just(oAuth2Request.isSupportRefreshToken())
                 .flatMap(supportRefreshToken -> {
                     if (supportRefreshToken) {
-                        return storeRefreshToken(client, endUser)
+                        return storeRefreshToken(oAuth2Request, client, endUser)
                                 .flatMap(refreshToken -> storeAccessToken(oAuth2Request, client, endUser, refreshToken.getToken())
-                                        .flatMap(accessToken -> convert(accessToken, refreshToken, client, oAuth2Request)));
+                                        .flatMap(accessToken -> tokenEnhancer.enhance(convert(accessToken, refreshToken, client, oAuth2Request), oAuth2Request, client, endUser)));
                     } else {
                         return storeAccessToken(oAuth2Request, client, endUser, null)
-                                .flatMap(accessToken -> convert(accessToken, null, client, oAuth2Request));
+                                .flatMap(accessToken -> tokenEnhancer.enhance(convert(accessToken, null, client, oAuth2Request), oAuth2Request, client, endUser));
                     }
-                })
-                .flatMap(accessToken1 -> tokenEnhancer.enhance(accessToken1, oAuth2Request, client, endUser));
+                });
     }
 
     @Override
     public Single<Token> refresh(String refreshToken, TokenRequest tokenRequest, Client client) {
         // invalid_grant : The provided authorization grant (e.g., authorization code, resource owner credentials) or refresh token is
         // invalid, expired, revoked or was issued to another client.
-        return getRefreshToken(refreshToken, client)
-                .switchIfEmpty(Single.error(new InvalidGrantException("Refresh token is invalid")))
+        // expiration and client are checked from the verified JWT claims, before consuming the stored refresh token
+        return decodeRefreshToken(jwtService.parse(refreshToken), client)
+                .map(this::convertRefreshToken)
                 .flatMap(refreshToken1 -> {
                     if (refreshToken1.getExpireAt().before(new Date())) {
                         throw new InvalidGrantException("Refresh token is expired");
@@ -139,9 +202,10 @@ public class TokenServiceImpl implements TokenService {
                         throw new InvalidGrantException("Refresh token was issued to another client");
                     }
 
-                    // refresh token is used only once
-                    return refreshTokenRepository.delete(refreshToken1.getValue())
-                            .andThen(Single.just(refreshToken1));
+                    // refresh token is used only once, find and delete it atomically so that concurrent requests can not both use it
+                    return refreshTokenRepository.consume(refreshToken1.getValue())
+                            .map(consumedRefreshToken -> refreshToken1)
+                            .switchIfEmpty(Single.error(new InvalidGrantException("Refresh token is invalid")));
                 });
     }
 
@@ -155,8 +219,110 @@ public class TokenServiceImpl implements TokenService {
         return refreshTokenRepository.delete(refreshToken);
     }
 
+    @Override
+    public Completable revokeByAuthorizationCode(String authorizationCode) {
+        return Completable.mergeArray(
+                accessTokenRepository.deleteByAuthorizationCode(authorizationCode),
+                refreshTokenRepository.deleteByAuthorizationCode(authorizationCode));
+    }
+
+    @Override
+    public Completable revokeByClientAndSubject(String domain, String clientId, String subject) {
+        return Completable.mergeArray(
+                accessTokenRepository.deleteByDomainAndClientIdAndSubject(domain, clientId, subject),
+                refreshTokenRepository.deleteByDomainAndClientIdAndSubject(domain, clientId, subject));
+    }
+
+    @Override
+    public Completable revokeByClient(String domain, String clientId) {
+        return Completable.mergeArray(
+                accessTokenRepository.deleteByDomainAndClientId(domain, clientId),
+                refreshTokenRepository.deleteByDomainAndClientId(domain, clientId));
+    }
+
+    @Override
+    public Completable revokeByDomain(String domain) {
+        return Completable.mergeArray(
+                accessTokenRepository.deleteByDomain(domain),
+                refreshTokenRepository.deleteByDomain(domain));
+    }
+
+    /**
+     * Verify a JWT access token with the certificate of the client and check it has not been revoked
+     * @param token parsed access token
+     * @param client oauth2 client which issued the token
+     * @return access token if it is valid
+     */
+    private Maybe<Token> getJwtAccessToken(ParsedJwt token, Client client) {
+        return jwtService.decodeAndVerify(token, client)
+                .onErrorResumeNext(TokenServiceImpl::toInvalidToken)
+                .flatMapMaybe(jwt -> {
+                    // stateless access tokens are self-contained, only the revocation list has to be checked
+                    if (client.isStatelessAccessToken()) {
+                        return revokedTokenService.isRevoked(jwt.getJti()) ? Maybe.empty() : Maybe.just(convertAccessToken(jwt));
+                    }
+                    return accessTokenRepository.findByToken(jwt.getJti()).map(accessToken -> convertAccessToken(jwt));
+                });
+    }
+
+    private Maybe<Token> introspectJwt(ParsedJwt token) {
+        // any client can introspect a token, we first need to decode the token to get the client's certificate to verify the token.
+        // The token is split once, its claims are decoded once and reused by the signature verification
+        return jwtService.decode(token)
+                .flatMapMaybe(jwt -> clientService.findByDomainAndClientId(jwt.getDomain(), jwt.getAud()))
+                .switchIfEmpty(Maybe.error(new InvalidTokenException("Invalid or unknown client for this token")))
+                .flatMap(client -> getJwtAccessToken(token, client));
+    }
+
+    /**
+     * Resolve an access token without reading the token store, see {@link #introspect(List)}
+     * @param token access token to resolve
+     * @return the resolved access token or empty if it has been revoked
+     */
+    private Maybe<ResolvedToken> resolve(ParsedJwt token) {
+        if (OpaqueTokenUtils.isOpaque(token.getToken())) {
+            return Maybe.just(new ResolvedToken(token, token.getToken(), null));
+        }
+
+        return jwtService.decode(token)
+                .flatMapMaybe(jwt -> clientService.findByDomainAndClientId(jwt.getDomain(), jwt.getAud()))
+                .switchIfEmpty(Maybe.error(new InvalidTokenException("Invalid or unknown client for this token")))
+                .flatMap(client -> jwtService.decodeAndVerifyAsync(token, client)
+                        .onErrorResumeNext(TokenServiceImpl::toInvalidToken)
+                        .flatMapMaybe(jwt -> {
+                            // stateless access tokens are self-contained, only the revocation list has to be checked
+                            if (client.isStatelessAccessToken()) {
+                                return revokedTokenService.isRevoked(jwt.getJti()) ? Maybe.empty() : Maybe.just(new ResolvedToken(token, null, convertAccessToken(jwt)));
+                            }
+                            return Maybe.just(new ResolvedToken(token, jwt.getJti(), convertAccessToken(jwt)));
+                        }));
+    }
+
+    /**
+     * Resolve an opaque access token by its handle
+     * @param token opaque access token
+     * @return access token if it exists and has not expired
+     */
+    private Maybe<Token> getOpaqueAccessToken(String token) {
+        return accessTokenRepository.findByToken(token)
+                .filter(accessToken -> accessToken.getExpireAt() == null || accessToken.getExpireAt().after(new Date()))
+                .map(this::convertAccessToken);
+    }
+
+    /**
+     * Map the failures of the JWT decoding and verification to an invalid token error
+     * @param ex decoding or verification failure
+     * @return the error to propagate
+     */
+    private static <T> Single<T> toInvalidToken(Throwable ex) {
+        if (ex instanceof JwtException) {
+            return Single.error(new InvalidTokenException(ex.getMessage(), ex));
+        }
+        return Single.error(ex);
+    }
+
     /**
-     * Store access token
+     * Store access token (unless the client uses stateless access tokens)
      * @param oAuth2Request oauth2 token or authorization request
      * @param client oauth2 client
      * @param endUser oauth2 resource owner
@@ -164,48 +330,69 @@ public class TokenServiceImpl implements TokenService {
      * @return access token
      */
     private Single<io.gravitee.am.repository.oauth2.model.AccessToken> storeAccessToken(OAuth2Request oAuth2Request, Client client, User endUser, String refreshToken) {
+        final boolean opaque = isOpaque(client);
         io.gravitee.am.repository.oauth2.model.AccessToken accessToken = new io.gravitee.am.repository.oauth2.model.AccessToken();
-        accessToken.setId(UUID.random().toString());
-        accessToken.setToken(UUID.random().toString());
+        // the token value is the identifier of the stored token
+        final String token = opaque ? OpaqueTokenUtils.generate() : UUID.random().toString();
+        accessToken.setId(token);
+        accessToken.setToken(token);
         accessToken.setDomain(client.getDomain());
         accessToken.setClient(client.getClientId());
         accessToken.setSubject(endUser != null ? endUser.getId() : null);
         accessToken.setCreatedAt(new Date());
         accessToken.setExpireAt(new Date(System.currentTimeMillis() + (getAccessTokenValiditySeconds(client) * 1000L)));
         // set authorization code
-        if (oAuth2Request.getRequestParameters() != null) {
-            MultiValueMap<String, String> requestParameters = oAuth2Request.getRequestParameters();
-            String authorizationCode = requestParameters.getFirst(OAuth2Constants.CODE);
-            if (authorizationCode != null) {
-                accessToken.setAuthorizationCode(authorizationCode);
-            }
-        }
+        accessToken.setAuthorizationCode(getAuthorizationCode(oAuth2Request));
         // set refresh token
         if (refreshToken != null) {
             accessToken.setRefreshToken(refreshToken);
         }
+        // opaque access tokens carry nothing, keep what the JWT claims would have held
+        if (opaque) {
+            if (oAuth2Request.getScopes() != null && !oAuth2Request.getScopes().isEmpty()) {
+                accessToken.setScopes(new HashSet<>(oAuth2Request.getScopes()));
+            }
+            if (oAuth2Request.getRequestParameters() != null) {
+                accessToken.setClaims(oAuth2Request.getRequestParameters().getFirst(OIDCParameters.CLAIMS));
+            }
+        } else if (client.isStatelessAccessToken()) {
+            return Single.just(accessToken);
+        }
         return accessTokenRepository.create(accessToken);
     }
 
     /**
      * Store refresh token
+     * @param oAuth2Request oauth2 token or authorization request
      * @param client oauth2 client
      * @param endUser oauth2 resource owner
      * @return refresh token
      */
-    private Single<io.gravitee.am.repository.oauth2.model.RefreshToken> storeRefreshToken(Client client, User endUser) {
+    private Single<io.gravitee.am.repository.oauth2.model.RefreshToken> storeRefreshToken(OAuth2Request oAuth2Request, Client client, User endUser) {
         io.gravitee.am.repository.oauth2.model.RefreshToken refreshToken = new io.gravitee.am.repository.oauth2.model.RefreshToken();
-        refreshToken.setId(UUID.random().toString());
-        refreshToken.setToken(UUID.random().toString());
+        final String token = UUID.random().toString();
+        refreshToken.setId(token);
+        refreshToken.setToken(token);
         refreshToken.setDomain(client.getDomain());
         refreshToken.setClient(client.getClientId());
         refreshToken.setSubject(endUser != null ? endUser.getId() : null);
         refreshToken.setCreatedAt(new Date());
         refreshToken.setExpireAt(new Date(System.currentTimeMillis() + (getRefreshTokenValiditySeconds(client) * 1000L)));
+        refreshToken.setAuthorizationCode(getAuthorizationCode(oAuth2Request));
 
         return refreshTokenRepository.create(refreshToken);
     }
 
+    /**
+     * Authorization code exchanged for the tokens, if any
+     * @param oAuth2Request oauth2 token or authorization request
+     * @return authorization code or null
+     */
+    private String getAuthorizationCode(OAuth2Request oAuth2Request) {
+        MultiValueMap<String, String> requestParameters = oAuth2Request.getRequestParameters();
+        return requestParameters != null ? requestParameters.getFirst(OAuth2Constants.CODE) : null;
+    }
+
     /**
      * Convert to access token response format
      * @param accessToken access token (compact JWT format)
@@ -214,15 +401,16 @@ public class TokenServiceImpl implements TokenService {
      * @return access token response format
      */
     private Single<Token> convert(io.gravitee.am.repository.oauth2.model.AccessToken accessToken, io.gravitee.am.repository.oauth2.model.RefreshToken refreshToken, Client client, OAuth2Request oAuth2Request) {
-        return jwtService.encode(convert(accessToken, oAuth2Request), client)
-                .flatMap(encodedAccessToken -> {
-                    if (refreshToken != null) {
-                        return jwtService.encode(convert(refreshToken, oAuth2Request), client)
-                                .map(encodedRefreshToken -> convert(accessToken, encodedAccessToken, encodedRefreshToken, oAuth2Request));
-                    } else {
-                        return Single.just(convert(accessToken, encodedAccessToken, null, oAuth2Request));
-                    }
-                }); // RSA Signer can be very slow, delegate work to a bounded thread-pool
+        // opaque access tokens are not signed, the handle is the token
+        Single<String> encodedAccessToken = isOpaque(client) ?
+                Single.just(accessToken.getToken()) : jwtService.encode(convert(accessToken, oAuth2Request), client);
+        if (refreshToken == null) {
+            return encodedAccessToken.map(encodedAccessToken1 -> convert(accessToken, encodedAccessToken1, null, oAuth2Request));
+        }
+
+        // sign access and refresh tokens concurrently
+        return Single.zip(encodedAccessToken, jwtService.encode(convert(refreshToken, oAuth2Request), client),
+                (encodedAccessToken1, encodedRefreshToken) -> convert(accessToken, encodedAccessToken1, encodedRefreshToken, oAuth2Request));
     }
 
     /**
@@ -263,6 +451,17 @@ public class TokenServiceImpl implements TokenService {
         return convert(accessToken, jwt);
     }
 
+    /**
+     * Verify a JWT refresh token with the certificate of the client
+     * @param refreshToken parsed refresh token
+     * @param client oauth2 client which issued the token
+     * @return decoded refresh token if its signature and expiration are valid
+     */
+    private Single<JWT> decodeRefreshToken(ParsedJwt refreshToken, Client client) {
+        return jwtService.decodeAndVerify(refreshToken, client)
+                .onErrorResumeNext(TokenServiceImpl::toInvalidToken);
+    }
+
     /**
      * Convert JWT object to Refresh Token
      * @param jwt jwt to convert
@@ -273,6 +472,29 @@ public class TokenServiceImpl implements TokenService {
         return convert(refreshToken, jwt);
     }
 
+    /**
+     * Convert stored opaque access token to Access Token
+     * @param accessToken access token to convert
+     * @return access token response format
+     */
+    private Token convertAccessToken(io.gravitee.am.repository.oauth2.model.AccessToken accessToken) {
+        AccessToken token = new AccessToken(accessToken.getToken());
+        token.setClientId(accessToken.getClient());
+        token.setSubject(accessToken.getSubject() != null ? accessToken.getSubject() : accessToken.getClient());
+        if (accessToken.getScopes() != null && !accessToken.getScopes().isEmpty()) {
+            token.setScope(String.join(" ", accessToken.getScopes()));
+        }
+        token.setCreatedAt(accessToken.getCreatedAt());
+        token.setExpireAt(accessToken.getExpireAt());
+        token.setExpiresIn(accessToken.getExpireAt() != null ? Long.valueOf((accessToken.getExpireAt().getTime() - System.currentTimeMillis()) / 1000L).intValue() : 0);
+
+        // set add additional information (currently only claims parameter)
+        if (accessToken.getClaims() != null) {
+            token.setAdditionalInformation(Collections.singletonMap(Claims.claims, accessToken.getClaims()));
+        }
+        return token;
+    }
+
     private Token convert(Token token, JWT jwt) {
         token.setClientId(jwt.getAud());
         token.setSubject(jwt.getSub());
@@ -323,6 +545,26 @@ public class TokenServiceImpl implements TokenService {
         return jwt;
     }
 
+    /**
+     * Client credentials access tokens can be returned again to the clients which opted in,
+     * unless the request carries parameters which end up in the access token
+     * @param oAuth2Request oauth2 token request
+     * @param client oauth2 client
+     * @param endUser oauth2 resource owner
+     * @return true if an access token previously issued for the same scopes can be returned
+     */
+    private boolean isReusable(OAuth2Request oAuth2Request, Client client, User endUser) {
+        return client.isReuseClientCredentialsToken()
+                && endUser == null
+                && !oAuth2Request.isSupportRefreshToken()
+                && GrantType.CLIENT_CREDENTIALS.equals(oAuth2Request.getGrantType())
+                && (oAuth2Request.getRequestParameters() == null || oAuth2Request.getRequestParameters().getFirst(OIDCParameters.CLAIMS) == null);
+    }
+
+    private boolean isOpaque(Client client) {
+        return TokenFormat.OPAQUE.format().equals(client.getTokenFormat());
+    }
+
     /**
      * Get access token validity in seconds
      * @param client client which set this option
@@ -342,4 +584,38 @@ public class TokenServiceImpl implements TokenService {
         int validitySeconds = client.getRefreshTokenValiditySeconds();
         return validitySeconds > 0 ? validitySeconds : refreshTokenValiditySeconds;
     }
+
+    /**
+     * Access token resolved by {@link #resolve(ParsedJwt)}, which may still have to be found in the token store.
+     */
+    private final class ResolvedToken {
+        private final ParsedJwt token;
+        private final String storedTokenId;
+        private final Token accessToken;
+
+        private ResolvedToken(ParsedJwt token, String storedTokenId, Token accessToken) {
+            this.token = token;
+            this.storedTokenId = storedTokenId;
+            this.accessToken = accessToken;
+        }
+
+        private Token convert(Map<String, io.gravitee.am.repository.oauth2.model.AccessToken> storedTokens) {
+            if (storedTokenId == null) {
+                return accessToken;
+            }
+
+            io.gravitee.am.repository.oauth2.model.AccessToken storedToken = storedTokens.get(storedTokenId);
+            if (storedToken == null) {
+                return null;
+            }
+            if (accessToken != null) {
+                return accessToken;
+            }
+            // opaque access tokens only exist in the token store
+            if (storedToken.getExpireAt() != null && !storedToken.getExpireAt().after(new Date())) {
+                return null;
+            }
+            return convertAccessToken(storedToken);
+        }
+    }
 }
@@ -0,0 +1,53 @@
+/**
+ * Copyright (C) 2015 The Gravitee team (http://gravitee.io)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.gravitee.am.gateway.handler.oauth2.utils;
+
+import java.security.SecureRandom;
+import java.util.Base64;
+
+/**
+ * Opaque access tokens are random reference handles, they are resolved against the OAuth 2.0 repository
+ * instead of being decoded and verified like JWT access tokens.
+ *
+ * @author GraviteeSource Team
+ */
+public final class OpaqueTokenUtils {
+
+    private static final int HANDLE_LENGTH = 32;
+    // base64url length of the handle, without padding
+    private static final int ENCODED_HANDLE_LENGTH = 43;
+    private static final SecureRandom secureRandom = new SecureRandom();
+    private static final Base64.Encoder encoder = Base64.getUrlEncoder().withoutPadding();
+
+    private OpaqueTokenUtils() { }
+
+    /**
+     * Generate a new URL-safe handle of 32 random bytes.
+     */
+    public static String generate() {
+        byte[] bytes = new byte[HANDLE_LENGTH];
+        secureRandom.nextBytes(bytes);
+        return encoder.encodeToString(bytes);
+    }
+
+    /**
+     * Check the token has the shape of an opaque handle.
+     * A JWT compact serialization always contains dot separators, an opaque handle never does.
+     */
+    public static boolean isOpaque(String token) {
+        return token != null && token.length() == ENCODED_HANDLE_LENGTH && token.indexOf('.') == -1;
+    }
+}
@@ -0,0 +1,115 @@
+/**
+ * Copyright (C) 2015 The Gravitee team (http://gravitee.io)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.gravitee.am.gateway.handler.oidc.claims;
+
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.function.BiConsumer;
+
+/**
+ * Claims to return for a given combination of scopes, claims request parameter and client settings.
+ *
+ * A projection is compiled once and applied to the attributes of every end-user requesting the same claims. When it
+ * does not request specific claims, every attribute of the end-user is returned.
+ *
+ * @author GraviteeSource Team
+ */
+public final class ClaimsProjection {
+
+    public static final ClaimsProjection ALL = new ClaimsProjection(null, null, null);
+
+    /**
+     * Claims returned under their own name when the end-user has them.
+     */
+    private final String[] claims;
+
+    /**
+     * Claims returned under a custom name, with the non null value of the end-user attribute at the same index.
+     */
+    private final String[] mappedClaims;
+    private final Object[] mappedAttributes;
+
+    /**
+     * Client settings the projection has been compiled with, used to detect client updates.
+     */
+    private final Object source;
+
+    /**
+     * @param claims claims returned under their own name, null to return every end-user attribute
+     * @param mappedClaims claims returned under a custom name, keyed by claim name and valued by attribute name
+     * @param source client settings the projection is compiled with
+     */
+    public ClaimsProjection(Collection<String> claims, Map<String, Object> mappedClaims, Object source) {
+        this.claims = claims == null ? null : claims.toArray(new String[0]);
+        this.mappedClaims = mappedClaims == null ? new String[0] : mappedClaims.keySet().toArray(new String[0]);
+        this.mappedAttributes = mappedClaims == null ? new Object[0] : mappedClaims.values().toArray();
+        this.source = source;
+    }
+
+    /**
+     * @return true if only specific claims are requested, false if every end-user attribute is returned
+     */
+    public boolean isSpecific() {
+        return claims != null;
+    }
+
+    /**
+     * Build the claims of an end-user.
+     *
+     * @param attributes end-user attributes
+     * @return a new map of claims
+     */
+    public Map<String, Object> project(Map<String, Object> attributes) {
+        if (!isSpecific()) {
+            return new HashMap<>(attributes);
+        }
+
+        Map<String, Object> result = new HashMap<>();
+        project(attributes, result::putIfAbsent);
+        return result;
+    }
+
+    /**
+     * Pass the claims of an end-user to the given consumer, in the order they have been requested. A claim may be
+     * passed more than once, the first value is expected to win.
+     *
+     * @param attributes end-user attributes
+     * @param consumer claims consumer
+     */
+    public void project(Map<String, Object> attributes, BiConsumer<String, Object> consumer) {
+        if (!isSpecific()) {
+            attributes.forEach(consumer);
+            return;
+        }
+
+        for (String claim : claims) {
+            if (attributes.containsKey(claim)) {
+                consumer.accept(claim, attributes.get(claim));
+            }
+        }
+        for (int i = 0; i < mappedClaims.length; i++) {
+            Object value = attributes.get(mappedAttributes[i]);
+            if (value != null) {
+                consumer.accept(mappedClaims[i], value);
+            }
+        }
+    }
+
+    public Object getSource() {
+        return source;
+    }
+}
@@ -0,0 +1,50 @@
+/**
+ * Copyright (C) 2015 The Gravitee team (http://gravitee.io)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.gravitee.am.gateway.handler.oidc.claims;
+
+import io.gravitee.am.model.Client;
+
+import java.util.Set;
+
+/**
+ * Resolve the claims requested through scope values and the claims request parameter, see
+ * <a href="https://openid.net/specs/openid-connect-core-1_0.html#ScopeClaims">5.4. Requesting Claims using Scope Values</a>
+ * and <a href="https://openid.net/specs/openid-connect-core-1_0.html#ClaimsParameter">5.5. Requesting Claims using the "claims" Request Parameter</a>
+ *
+ * @author GraviteeSource Team
+ */
+public interface ClaimsProjectionService {
+
+    /**
+     * Claims returned by the UserInfo Endpoint.
+     *
+     * @param scope space separated scopes of the access token
+     * @param claims claims request parameter of the authorization request, may be null
+     * @return the claims projection
+     */
+    ClaimsProjection userInfo(String scope, String claims);
+
+    /**
+     * End-User claims added to the ID Token. If no claims request parameter is present, the ID token custom claims
+     * of the client are used.
+     *
+     * @param client client requesting the ID Token
+     * @param scopes requested scopes
+     * @param claims claims request parameter, may be null
+     * @return the claims projection
+     */
+    ClaimsProjection idToken(Client client, Set<String> scopes, String claims);
+}
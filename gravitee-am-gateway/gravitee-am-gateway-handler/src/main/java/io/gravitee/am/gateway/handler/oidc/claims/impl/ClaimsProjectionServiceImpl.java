@@ -0,0 +1,160 @@
+/**
+ * Copyright (C) 2015 The Gravitee team (http://gravitee.io)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.gravitee.am.gateway.handler.oidc.claims.impl;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.gravitee.am.common.oidc.Scope;
+import io.gravitee.am.gateway.handler.cache.LRUCache;
+import io.gravitee.am.gateway.handler.oidc.claims.ClaimsProjection;
+import io.gravitee.am.gateway.handler.oidc.claims.ClaimsProjectionService;
+import io.gravitee.am.gateway.handler.oidc.request.ClaimsRequest;
+import io.gravitee.am.model.Client;
+import org.springframework.beans.factory.InitializingBean;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+
+import java.util.*;
+import java.util.function.Function;
+
+/**
+ * Projections are compiled on first use and kept by target, client, scopes and claims request parameter. The
+ * projection of an ID Token is compiled again when the custom claims of its client have changed.
+ *
+ * @author GraviteeSource Team
+ */
+public class ClaimsProjectionServiceImpl implements ClaimsProjectionService, InitializingBean {
+
+    private static final String USERINFO = "userinfo";
+    private static final String ID_TOKEN = "id_token";
+
+    @Value("${oidc.claims.cache.maxSize:1000}")
+    private int maxSize;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    private LRUCache<String, ClaimsProjection> cache;
+
+    public ClaimsProjectionServiceImpl() { }
+
+    public ClaimsProjectionServiceImpl(ObjectMapper objectMapper, int maxSize) {
+        this.objectMapper = objectMapper;
+        this.maxSize = maxSize;
+    }
+
+    @Override
+    public void afterPropertiesSet() {
+        if (maxSize > 0) {
+            cache = new LRUCache<>(maxSize);
+        }
+    }
+
+    @Override
+    public ClaimsProjection userInfo(String scope, String claims) {
+        Set<String> scopes = scope == null ? null : new HashSet<>(Arrays.asList(scope.trim().split("\\s+")));
+        String key = key(USERINFO, null, scopes, claims);
+        ClaimsProjection projection = cache == null ? null : cache.get(key);
+        if (projection == null) {
+            projection = compile(scopes, claims, ClaimsRequest::getUserInfoClaims, null);
+            put(key, projection);
+        }
+        return projection;
+    }
+
+    @Override
+    public ClaimsProjection idToken(Client client, Set<String> scopes, String claims) {
+        String key = key(ID_TOKEN, client.getClientId(), scopes, claims);
+        ClaimsProjection projection = cache == null ? null : cache.get(key);
+        if (projection == null || projection.getSource() != client.getIdTokenCustomClaims()) {
+            projection = compile(scopes, claims, ClaimsRequest::getIdTokenClaims, client.getIdTokenCustomClaims());
+            put(key, projection);
+        }
+        return projection;
+    }
+
+    /**
+     * Claims requested by scope values come first, then the claims of the claims request parameter. Without claims
+     * request parameter, the custom claims (if any) are added.
+     */
+    private ClaimsProjection compile(Set<String> scopes, String claimsValue,
+                                     Function<ClaimsRequest, Map<String, Object>> requestedClaims,
+                                     Map<String, Object> customClaims) {
+        Set<String> claims = new LinkedHashSet<>();
+        Map<String, Object> mappedClaims = new LinkedHashMap<>();
+        boolean requestForSpecificClaims = false;
+
+        // 1. process the request using scope values
+        if (scopes != null) {
+            scopes.stream()
+                    .map(scope -> scope.toUpperCase())
+                    .filter(Scope::exists)
+                    .map(Scope::valueOf)
+                    .forEach(scope -> claims.addAll(scope.getClaims()));
+            requestForSpecificClaims = !claims.isEmpty();
+        }
+
+        // 2. process the request using the claims values
+        if (claimsValue != null) {
+            Map<String, Object> claimsRequest = parse(claimsValue, requestedClaims);
+            if (claimsRequest != null) {
+                claims.addAll(claimsRequest.keySet());
+            }
+            requestForSpecificClaims = claimsRequest != null;
+        // 3. If not present, check if the client has enabled the mapping claims.
+        } else if (customClaims != null && !customClaims.isEmpty()) {
+            mappedClaims.putAll(customClaims);
+            requestForSpecificClaims = true;
+        }
+
+        // 4. Else send all user claims
+        if (!requestForSpecificClaims) {
+            return customClaims == null ? ClaimsProjection.ALL : new ClaimsProjection(null, null, customClaims);
+        }
+        return new ClaimsProjection(claims, mappedClaims, customClaims);
+    }
+
+    private Map<String, Object> parse(String claimsValue, Function<ClaimsRequest, Map<String, Object>> requestedClaims) {
+        try {
+            ClaimsRequest claimsRequest = objectMapper.readValue(claimsValue, ClaimsRequest.class);
+            return claimsRequest == null ? null : requestedClaims.apply(claimsRequest);
+        } catch (Exception e) {
+            // Any members used that are not understood MUST be ignored.
+            return null;
+        }
+    }
+
+    private void put(String key, ClaimsProjection projection) {
+        if (cache != null) {
+            cache.put(key, projection, Long.MAX_VALUE);
+        }
+    }
+
+    /**
+     * Scopes are sorted so that the same scopes requested in any order share the same projection.
+     */
+    private static String key(String target, String clientId, Set<String> scopes, String claims) {
+        StringBuilder key = new StringBuilder(target).append('\n');
+        if (clientId != null) {
+            key.append(clientId);
+        }
+        key.append('\n');
+        if (scopes != null) {
+            key.append(String.join(" ", new TreeSet<>(scopes)));
+        }
+        // an empty claims request parameter is not the same as no claims request parameter
+        return claims == null ? key.toString() : key.append('\n').append(claims).toString();
+    }
+}
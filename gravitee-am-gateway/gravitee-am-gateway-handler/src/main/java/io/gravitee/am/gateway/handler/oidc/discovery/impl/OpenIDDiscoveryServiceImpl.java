@@ -21,15 +21,19 @@ import io.gravitee.am.common.oauth2.ResponseType;
 import io.gravitee.am.common.oidc.ClaimType;
 import io.gravitee.am.common.oidc.ClientAuthenticationMethod;
 import io.gravitee.am.common.oidc.Scope;
+import io.gravitee.am.gateway.handler.certificate.CertificateManager;
+import io.gravitee.am.gateway.handler.certificate.CertificateProvider;
+import io.gravitee.am.gateway.handler.jwt.JwsAlgorithm;
 import io.gravitee.am.gateway.handler.oidc.discovery.OpenIDDiscoveryService;
 import io.gravitee.am.gateway.handler.oidc.discovery.OpenIDProviderMetadata;
 import io.gravitee.am.model.Domain;
-import io.jsonwebtoken.SignatureAlgorithm;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
 
 import java.util.Arrays;
 import java.util.Collection;
+import java.util.List;
+import java.util.Objects;
 import java.util.stream.Collectors;
 import java.util.stream.Stream;
 
@@ -53,6 +57,9 @@ public class OpenIDDiscoveryServiceImpl implements OpenIDDiscoveryService {
     @Autowired
     private Domain domain;
 
+    @Autowired
+    private CertificateManager certificateManager;
+
     @Override
     public OpenIDProviderMetadata getConfiguration(String basePath) {
         OpenIDProviderMetadata openIDProviderMetadata = new OpenIDProviderMetadata();
@@ -73,7 +80,7 @@ public class OpenIDDiscoveryServiceImpl implements OpenIDDiscoveryService {
         openIDProviderMetadata.setScopesSupported(Stream.of(Scope.values()).map(Scope::getName).collect(Collectors.toList()));
         openIDProviderMetadata.setResponseTypesSupported(Arrays.asList(ResponseType.CODE, ResponseType.TOKEN, io.gravitee.am.common.oidc.ResponseType.ID_TOKEN, io.gravitee.am.common.oidc.ResponseType.ID_TOKEN_TOKEN, io.gravitee.am.common.oidc.ResponseType.CODE_ID_TOKEN, io.gravitee.am.common.oidc.ResponseType.CODE_TOKEN, io.gravitee.am.common.oidc.ResponseType.CODE_ID_TOKEN_TOKEN));
         openIDProviderMetadata.setGrantTypesSupported(Arrays.asList(GrantType.CLIENT_CREDENTIALS, GrantType.PASSWORD, GrantType.IMPLICIT, GrantType.AUTHORIZATION_CODE, GrantType.REFRESH_TOKEN, GrantType.JWT_BEARER));
-        openIDProviderMetadata.setIdTokenSigningAlgValuesSupported(Arrays.asList(SignatureAlgorithm.RS256.getValue(), SignatureAlgorithm.RS512.getValue(), SignatureAlgorithm.HS512.getValue()));
+        openIDProviderMetadata.setIdTokenSigningAlgValuesSupported(getIdTokenSigningAlgValuesSupported());
         openIDProviderMetadata.setTokenEndpointAuthMethodsSupported(Arrays.asList(ClientAuthenticationMethod.CLIENT_SECRET_BASIC, ClientAuthenticationMethod.CLIENT_SECRET_POST));
         openIDProviderMetadata.setClaimTypesSupported(Arrays.asList(ClaimType.NORMAL));
         openIDProviderMetadata.setClaimsSupported(Stream.of(Scope.values()).map(Scope::getClaims).flatMap(Collection::stream).distinct().collect(Collectors.toList()));
@@ -83,6 +90,21 @@ public class OpenIDDiscoveryServiceImpl implements OpenIDDiscoveryService {
         return openIDProviderMetadata;
     }
 
+    /**
+     * ID Tokens are signed with the certificate of the client or with the default HMAC key, only the algorithms of
+     * these keys which the JVM can sign with are advertised.
+     */
+    private List<String> getIdTokenSigningAlgValuesSupported() {
+        return Stream.concat(certificateManager.providers().stream(), Stream.of(certificateManager.defaultCertificateProvider()))
+                .map(CertificateProvider::getSignatureAlgorithm)
+                .filter(Objects::nonNull)
+                .distinct()
+                .filter(JwsAlgorithm::isAvailable)
+                .sorted()
+                .map(JwsAlgorithm::getValue)
+                .collect(Collectors.toList());
+    }
+
     private String getEndpointAbsoluteURL(String basePath, String endpointPath) {
         return basePath + domain.getPath() + endpointPath;
     }
@@ -16,9 +16,11 @@
 package io.gravitee.am.gateway.handler.oidc.jwk.impl;
 
 import io.gravitee.am.gateway.handler.certificate.CertificateManager;
+import io.gravitee.am.gateway.handler.oidc.jwk.ECKey;
 import io.gravitee.am.gateway.handler.oidc.jwk.JWK;
 import io.gravitee.am.gateway.handler.oidc.jwk.JWKSet;
 import io.gravitee.am.gateway.handler.oidc.jwk.JWKSetService;
+import io.gravitee.am.gateway.handler.oidc.jwk.OKPKey;
 import io.gravitee.am.gateway.handler.oidc.jwk.RSAKey;
 import io.reactivex.Flowable;
 import io.reactivex.Single;
@@ -48,7 +50,31 @@ public class JWKSetServiceImpl implements JWKSetService {
     }
 
     private JWK convert(io.gravitee.am.model.jose.JWK jwk) {
-        JWK jwk1 = new RSAKey();
+        JWK jwk1;
+        if (jwk instanceof io.gravitee.am.model.jose.ECKey) {
+            // specific EC Key
+            io.gravitee.am.model.jose.ECKey ecKey = (io.gravitee.am.model.jose.ECKey) jwk;
+            ECKey ecJwk = new ECKey();
+            ecJwk.setCrv(ecKey.getCrv());
+            ecJwk.setX(ecKey.getX());
+            ecJwk.setY(ecKey.getY());
+            jwk1 = ecJwk;
+        } else if (jwk instanceof io.gravitee.am.model.jose.OKPKey) {
+            // specific Octet Key Pair (EdDSA)
+            io.gravitee.am.model.jose.OKPKey okpKey = (io.gravitee.am.model.jose.OKPKey) jwk;
+            OKPKey okpJwk = new OKPKey();
+            okpJwk.setCrv(okpKey.getCrv());
+            okpJwk.setX(okpKey.getX());
+            jwk1 = okpJwk;
+        } else {
+            // specific RSA Key
+            io.gravitee.am.model.jose.RSAKey rsaKey = (io.gravitee.am.model.jose.RSAKey) jwk;
+            RSAKey rsaJwk = new RSAKey();
+            rsaJwk.setE(rsaKey.getE());
+            rsaJwk.setN(rsaKey.getN());
+            jwk1 = rsaJwk;
+        }
+
         jwk1.setKty(jwk.getKty());
         jwk1.setUse(jwk.getUse());
         jwk1.setKeyOps(jwk.getKeyOps());
@@ -59,10 +85,6 @@ public class JWKSetServiceImpl implements JWKSetService {
         jwk1.setX5t(jwk.getX5t());
         jwk1.setX5tS256(jwk.getX5tS256());
 
-        // specific RSA Key
-        ((RSAKey) jwk1).setE(((io.gravitee.am.model.jose.RSAKey)jwk).getE());
-        ((RSAKey) jwk1).setN(((io.gravitee.am.model.jose.RSAKey)jwk).getN());
-
         return jwk1;
     }
 }
@@ -15,6 +15,8 @@
  */
 package io.gravitee.am.gateway.handler.oidc.spring;
 
+import io.gravitee.am.gateway.handler.oidc.claims.ClaimsProjectionService;
+import io.gravitee.am.gateway.handler.oidc.claims.impl.ClaimsProjectionServiceImpl;
 import io.gravitee.am.gateway.handler.oidc.discovery.OpenIDDiscoveryService;
 import io.gravitee.am.gateway.handler.oidc.discovery.impl.OpenIDDiscoveryServiceImpl;
 import io.gravitee.am.gateway.handler.oidc.flow.CompositeFlow;
@@ -25,6 +27,8 @@ import io.gravitee.am.gateway.handler.oidc.idtoken.IDTokenService;
 import io.gravitee.am.gateway.handler.oidc.idtoken.impl.IDTokenServiceImpl;
 import io.gravitee.am.gateway.handler.oidc.jwk.JWKSetService;
 import io.gravitee.am.gateway.handler.oidc.jwk.impl.JWKSetServiceImpl;
+import io.gravitee.am.gateway.handler.oidc.userinfo.UserInfoCache;
+import io.gravitee.am.gateway.handler.oidc.userinfo.impl.UserInfoCacheImpl;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 
@@ -45,11 +49,21 @@ public class OpenIDConfiguration {
         return new JWKSetServiceImpl();
     }
 
+    @Bean
+    public ClaimsProjectionService claimsProjectionService() {
+        return new ClaimsProjectionServiceImpl();
+    }
+
     @Bean
     public IDTokenService idTokenService() {
         return new IDTokenServiceImpl();
     }
 
+    @Bean
+    public UserInfoCache userInfoCache() {
+        return new UserInfoCacheImpl();
+    }
+
     @Bean
     public Flow flow() {
         return new CompositeFlow();
@@ -0,0 +1,49 @@
+/**
+ * Copyright (C) 2015 The Gravitee team (http://gravitee.io)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.gravitee.am.gateway.handler.oidc.userinfo;
+
+import io.vertx.core.buffer.Buffer;
+
+/**
+ * Claims of an end-user returned by the UserInfo Endpoint, already serialized.
+ *
+ * @author GraviteeSource Team
+ */
+public final class UserInfo {
+
+    private final Buffer body;
+
+    private final String etag;
+
+    public UserInfo(Buffer body, String etag) {
+        this.body = body;
+        this.etag = etag;
+    }
+
+    /**
+     * @return compact JSON representation of the claims, shared between responses and never modified
+     */
+    public Buffer getBody() {
+        return body;
+    }
+
+    /**
+     * @return strong entity tag of the body
+     */
+    public String getETag() {
+        return etag;
+    }
+}
@@ -0,0 +1,46 @@
+/**
+ * Copyright (C) 2015 The Gravitee team (http://gravitee.io)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.gravitee.am.gateway.handler.oidc.userinfo;
+
+import io.gravitee.am.gateway.handler.oidc.claims.ClaimsProjection;
+import io.gravitee.common.service.Service;
+import io.reactivex.Maybe;
+
+/**
+ * Claims of the end-users of the domain returned by the UserInfo Endpoint, kept by subject so that polling clients
+ * do not read the end-user again. Entries are evicted when the end-user logs in on this gateway and expire after a
+ * short time to live otherwise.
+ *
+ * @author GraviteeSource Team
+ */
+public interface UserInfoCache extends Service {
+
+    /**
+     * Return the claims of an end-user, loading the end-user if its claims are not cached.
+     *
+     * @param subject technical identifier of the end-user
+     * @param projection claims to return
+     * @return the claims of the end-user or empty if there is no such end-user
+     */
+    Maybe<UserInfo> get(String subject, ClaimsProjection projection);
+
+    /**
+     * Forget the claims of an end-user.
+     *
+     * @param subject technical identifier of the end-user
+     */
+    void evict(String subject);
+}
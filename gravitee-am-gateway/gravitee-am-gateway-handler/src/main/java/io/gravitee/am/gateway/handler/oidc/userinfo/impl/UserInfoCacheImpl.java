@@ -0,0 +1,204 @@
+/**
+ * Copyright (C) 2015 The Gravitee team (http://gravitee.io)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.gravitee.am.gateway.handler.oidc.userinfo.impl;
+
+import io.gravitee.am.common.oidc.StandardClaims;
+import io.gravitee.am.gateway.core.event.UserEvent;
+import io.gravitee.am.gateway.handler.cache.LRUCache;
+import io.gravitee.am.gateway.handler.oauth2.exception.InvalidRequestException;
+import io.gravitee.am.gateway.handler.oidc.claims.ClaimsProjection;
+import io.gravitee.am.gateway.handler.oidc.userinfo.UserInfo;
+import io.gravitee.am.gateway.handler.oidc.userinfo.UserInfoCache;
+import io.gravitee.am.gateway.service.UserService;
+import io.gravitee.am.model.Domain;
+import io.gravitee.am.model.User;
+import io.gravitee.am.model.common.event.Payload;
+import io.gravitee.common.event.Event;
+import io.gravitee.common.event.EventListener;
+import io.gravitee.common.event.EventManager;
+import io.gravitee.common.service.AbstractService;
+import io.reactivex.Maybe;
+import io.vertx.core.buffer.Buffer;
+import io.vertx.core.json.Json;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.InitializingBean;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Arrays;
+import java.util.Base64;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Entries hold the attributes of an end-user and the responses already rendered from them, one per claims projection.
+ *
+ * End-users updated by a login on this gateway are evicted right away. Updates and deletions made through the
+ * management API or by a login on another gateway node are not propagated: the end-user stays cached here for at most
+ * the configured time to live, which is kept short for that reason.
+ *
+ * @author GraviteeSource Team
+ */
+public class UserInfoCacheImpl extends AbstractService implements UserInfoCache, InitializingBean, EventListener<UserEvent, Payload> {
+
+    private static final int MAX_PROJECTIONS_PER_USER = 8;
+
+    private final Logger logger = LoggerFactory.getLogger(UserInfoCacheImpl.class);
+
+    @Value("${oidc.userinfo.cache.enabled:true}")
+    private boolean enabled;
+
+    @Value("${oidc.userinfo.cache.maxSize:10000}")
+    private int maxSize;
+
+    @Value("${oidc.userinfo.cache.ttl:30}")
+    private int ttl;
+
+    @Autowired
+    private Domain domain;
+
+    @Autowired
+    private UserService userService;
+
+    @Autowired
+    private EventManager eventManager;
+
+    private LRUCache<String, Entry> cache;
+
+    private final AtomicLong generation = new AtomicLong();
+
+    public UserInfoCacheImpl() { }
+
+    public UserInfoCacheImpl(boolean enabled, int maxSize, int ttl) {
+        this.enabled = enabled;
+        this.maxSize = maxSize;
+        this.ttl = ttl;
+    }
+
+    @Override
+    public void afterPropertiesSet() {
+        if (enabled) {
+            cache = new LRUCache<>(maxSize);
+        }
+    }
+
+    @Override
+    protected void doStart() throws Exception {
+        super.doStart();
+
+        logger.info("Register event listener for user events");
+        eventManager.subscribeForEvents(this, UserEvent.class);
+    }
+
+    @Override
+    public void onEvent(Event<UserEvent, Payload> event) {
+        if (!domain.getId().equals(event.content().getDomain())) {
+            return;
+        }
+
+        switch (event.type()) {
+            case UPDATE:
+            case UNDEPLOY:
+                evict(event.content().getId());
+                break;
+        }
+    }
+
+    @Override
+    public Maybe<UserInfo> get(String subject, ClaimsProjection projection) {
+        if (cache == null) {
+            return userService.findById(subject).map(user -> new Entry(attributes(user)).render(subject, projection));
+        }
+
+        Entry entry = cache.get(subject);
+        if (entry != null) {
+            return Maybe.just(entry.render(subject, projection));
+        }
+
+        // a user event received during the lookup may have made the loaded end-user stale, it is then not cached
+        final long loadGeneration = generation.get();
+        return userService.findById(subject)
+                .map(user -> {
+                    Entry loadedEntry = new Entry(attributes(user));
+                    if (loadGeneration == generation.get()) {
+                        cache.put(subject, loadedEntry, System.currentTimeMillis() + ttl * 1000L);
+                    }
+                    return loadedEntry.render(subject, projection);
+                });
+    }
+
+    @Override
+    public void evict(String subject) {
+        generation.incrementAndGet();
+        if (cache != null) {
+            cache.remove(subject);
+        }
+    }
+
+    public int size() {
+        return cache == null ? 0 : cache.size();
+    }
+
+    private static Map<String, Object> attributes(User user) {
+        Map<String, Object> attributes = user.getAdditionalInformation();
+        if (attributes == null || attributes.isEmpty() || !attributes.containsKey(StandardClaims.SUB)) {
+            // The sub (subject) Claim MUST always be returned in the UserInfo Response.
+            // https://openid.net/specs/openid-connect-core-1_0.html#UserInfoResponse
+            throw new InvalidRequestException("UserInfo response is missing required claims");
+        }
+        return attributes;
+    }
+
+    private static String etag(Buffer body) {
+        try {
+            byte[] digest = MessageDigest.getInstance("SHA-256").digest(body.getBytes());
+            return '"' + Base64.getUrlEncoder().withoutPadding().encodeToString(Arrays.copyOf(digest, 16)) + '"';
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 algorithm is not supported", e);
+        }
+    }
+
+    private static final class Entry {
+        private final Map<String, Object> attributes;
+        private final ConcurrentMap<ClaimsProjection, UserInfo> responses = new ConcurrentHashMap<>();
+
+        private Entry(Map<String, Object> attributes) {
+            this.attributes = attributes;
+        }
+
+        private UserInfo render(String subject, ClaimsProjection projection) {
+            UserInfo userInfo = responses.get(projection);
+            if (userInfo == null) {
+                Map<String, Object> claims = projection.project(attributes);
+                // Exchange the sub claim from the identity provider to its technical id
+                claims.put(StandardClaims.SUB, subject);
+
+                Buffer body = Json.encodeToBuffer(claims);
+                userInfo = new UserInfo(body, etag(body));
+                if (responses.size() >= MAX_PROJECTIONS_PER_USER) {
+                    responses.clear();
+                }
+                responses.put(projection, userInfo);
+            }
+            return userInfo;
+        }
+    }
+}
@@ -20,6 +20,7 @@ import io.gravitee.am.gateway.handler.auth.idp.IdentityProviderManager;
 import io.gravitee.am.gateway.handler.auth.idp.impl.IdentityProviderManagerImpl;
 import io.gravitee.am.gateway.handler.auth.impl.UserAuthenticationManagerImpl;
 import io.gravitee.am.gateway.handler.jwt.JwtService;
+import io.gravitee.am.gateway.handler.jwt.VerifiedJwtCache;
 import io.gravitee.am.gateway.handler.jwt.impl.JwtServiceImpl;
 import io.gravitee.am.gateway.handler.oauth2.spring.OAuth2Configuration;
 import io.gravitee.am.gateway.handler.oidc.spring.OpenIDConfiguration;
@@ -56,4 +57,9 @@ public class HandlerConfiguration {
     public JwtService jwtService() {
         return new JwtServiceImpl();
     }
+
+    @Bean
+    public VerifiedJwtCache verifiedJwtCache() {
+        return new VerifiedJwtCache();
+    }
 }
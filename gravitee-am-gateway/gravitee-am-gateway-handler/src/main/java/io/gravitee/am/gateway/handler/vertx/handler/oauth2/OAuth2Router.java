@@ -31,6 +31,7 @@ import io.gravitee.am.gateway.handler.vertx.auth.handler.impl.ClientChainAuthHan
 import io.gravitee.am.gateway.handler.vertx.auth.provider.ClientAuthenticationProvider;
 import io.gravitee.am.gateway.handler.vertx.handler.oauth2.endpoint.ErrorHandlerEndpoint;
 import io.gravitee.am.gateway.handler.vertx.handler.oauth2.endpoint.authorization.*;
+import io.gravitee.am.gateway.handler.vertx.handler.oauth2.endpoint.introspection.BatchIntrospectionEndpointHandler;
 import io.gravitee.am.gateway.handler.vertx.handler.oauth2.endpoint.introspection.CheckTokenEndpointHandler;
 import io.gravitee.am.gateway.handler.vertx.handler.oauth2.endpoint.introspection.IntrospectionEndpointHandler;
 import io.gravitee.am.gateway.handler.vertx.handler.oauth2.endpoint.revocation.RevocationTokenEndpointHandler;
@@ -48,6 +49,7 @@ import io.vertx.reactivex.ext.web.handler.AuthHandler;
 import io.vertx.reactivex.ext.web.handler.ChainAuthHandler;
 import io.vertx.reactivex.ext.web.templ.ThymeleafTemplateEngine;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 
 /**
  * @author David BRASSELY (david.brassely at graviteesource.com)
@@ -91,6 +93,9 @@ public class OAuth2Router {
     @Autowired
     private Vertx vertx;
 
+    @Value("${oauth2.introspection.batch.maxSize:100}")
+    private int batchIntrospectionMaxSize;
+
     public Router route(AuthProvider userAuthProvider) {
         // Create the OAuth 2.0 router
         final Router router = Router.router(vertx);
@@ -121,6 +126,7 @@ public class OAuth2Router {
         Handler<RoutingContext> checkTokenEndpoint = new CheckTokenEndpointHandler(tokenService);
         Handler<RoutingContext> introspectionEndpoint = new IntrospectionEndpointHandler();
         ((IntrospectionEndpointHandler) introspectionEndpoint).setIntrospectionService(introspectionService);
+        Handler<RoutingContext> batchIntrospectionEndpoint = new BatchIntrospectionEndpointHandler(introspectionService, batchIntrospectionMaxSize);
 
         // Revocation token endpoint
         Handler<RoutingContext> revocationTokenEndpoint = new RevocationTokenEndpointHandler(revocationTokenService);
@@ -147,6 +153,11 @@ public class OAuth2Router {
                 .consumes(MediaType.APPLICATION_FORM_URLENCODED)
                 .handler(clientAuthHandler)
                 .handler(introspectionEndpoint);
+        router.route(HttpMethod.POST, "/introspect/batch")
+                .consumes(MediaType.APPLICATION_FORM_URLENCODED)
+                .consumes(MediaType.APPLICATION_JSON)
+                .handler(clientAuthHandler)
+                .handler(batchIntrospectionEndpoint);
         router.route(HttpMethod.POST, "/revoke")
                 .consumes(MediaType.APPLICATION_FORM_URLENCODED)
                 .handler(clientAuthHandler)
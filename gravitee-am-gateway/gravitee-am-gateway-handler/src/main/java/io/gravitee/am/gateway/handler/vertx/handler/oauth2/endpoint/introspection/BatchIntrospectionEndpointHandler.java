@@ -0,0 +1,117 @@
+/**
+ * Copyright (C) 2015 The Gravitee team (http://gravitee.io)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.gravitee.am.gateway.handler.vertx.handler.oauth2.endpoint.introspection;
+
+import io.gravitee.am.gateway.handler.oauth2.exception.InvalidClientException;
+import io.gravitee.am.gateway.handler.oauth2.exception.InvalidRequestException;
+import io.gravitee.am.gateway.handler.oauth2.introspection.IntrospectionRequest;
+import io.gravitee.am.gateway.handler.oauth2.introspection.IntrospectionService;
+import io.gravitee.am.gateway.handler.vertx.auth.user.Client;
+import io.gravitee.common.http.HttpHeaders;
+import io.gravitee.common.http.MediaType;
+import io.vertx.core.Handler;
+import io.vertx.core.json.DecodeException;
+import io.vertx.core.json.Json;
+import io.vertx.core.json.JsonArray;
+import io.vertx.reactivex.core.buffer.Buffer;
+import io.vertx.reactivex.ext.auth.User;
+import io.vertx.reactivex.ext.web.RoutingContext;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Introspection of several tokens with a single request, the caller is authenticated once.
+ *
+ * The tokens are sent either as a JSON array of strings or as repeated <code>token</code> form parameters (tokens of
+ * the query string are ignored so that they do not end up in access logs), the response is the JSON array of the
+ * introspection responses (see <a href="https://tools.ietf.org/html/rfc7662#section-2.2"></a>) in the same order.
+ * The JWT signatures are verified in parallel on the crypto worker pool.
+ *
+ * @author GraviteeSource Team
+ */
+public class BatchIntrospectionEndpointHandler implements Handler<RoutingContext> {
+
+    private final static String TOKEN_PARAM = "token";
+
+    private final IntrospectionService introspectionService;
+
+    private final int maxSize;
+
+    public BatchIntrospectionEndpointHandler(IntrospectionService introspectionService, int maxSize) {
+        this.introspectionService = introspectionService;
+        this.maxSize = maxSize;
+    }
+
+    @Override
+    public void handle(RoutingContext context) {
+        User authenticatedUser = context.user();
+        if (authenticatedUser == null || ! (authenticatedUser.getDelegate() instanceof Client)) {
+            throw new InvalidClientException();
+        }
+
+        String clientId = ((Client) authenticatedUser.getDelegate()).getClientId();
+        List<IntrospectionRequest> introspectionRequests = new ArrayList<>();
+        for (String token : parseTokens(context)) {
+            IntrospectionRequest introspectionRequest = new IntrospectionRequest(token);
+            introspectionRequest.setClientId(clientId);
+            introspectionRequests.add(introspectionRequest);
+        }
+
+        introspectionService
+                .introspect(introspectionRequests)
+                .subscribe(
+                        introspectionResponses -> context.response()
+                                .putHeader(HttpHeaders.CACHE_CONTROL, "no-store")
+                                .putHeader(HttpHeaders.PRAGMA, "no-cache")
+                                .putHeader(HttpHeaders.CONTENT_TYPE, MediaType.APPLICATION_JSON)
+                                .end(Buffer.newInstance(Json.encodeToBuffer(introspectionResponses))),
+                        context::fail);
+    }
+
+    private List<String> parseTokens(RoutingContext context) {
+        List<String> tokens;
+        String contentType = context.request().getHeader(HttpHeaders.CONTENT_TYPE);
+        if (contentType != null && contentType.startsWith(MediaType.APPLICATION_JSON)) {
+            JsonArray body;
+            try {
+                body = context.getBodyAsJsonArray();
+            } catch (DecodeException ex) {
+                throw new InvalidRequestException("The request body must be a JSON array of tokens");
+            }
+            if (body == null) {
+                throw new InvalidRequestException("The request body must be a JSON array of tokens");
+            }
+            tokens = new ArrayList<>(body.size());
+            for (Object token : body) {
+                if (!(token instanceof String)) {
+                    throw new InvalidRequestException("The request body must be a JSON array of tokens");
+                }
+                tokens.add((String) token);
+            }
+        } else {
+            tokens = context.request().formAttributes().getAll(TOKEN_PARAM);
+        }
+
+        if (tokens.isEmpty()) {
+            throw new InvalidRequestException("Missing parameter: token");
+        }
+        if (tokens.size() > maxSize) {
+            throw new InvalidRequestException("Too many tokens, at most " + maxSize + " tokens can be introspected at once");
+        }
+        return tokens;
+    }
+}
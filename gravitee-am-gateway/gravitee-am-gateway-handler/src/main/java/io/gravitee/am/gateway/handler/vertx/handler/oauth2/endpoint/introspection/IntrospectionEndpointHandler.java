@@ -54,8 +54,11 @@ public class IntrospectionEndpointHandler implements Handler<RoutingContext> {
             throw new InvalidClientException();
         }
 
+        IntrospectionRequest introspectionRequest = createRequest(context);
+        introspectionRequest.setClientId(((Client) authenticatedUser.getDelegate()).getClientId());
+
         introspectionService
-                .introspect(createRequest(context))
+                .introspect(introspectionRequest)
                 .doOnSuccess(introspectionResponse -> context.response()
                         .putHeader(HttpHeaders.CACHE_CONTROL, "no-store")
                         .putHeader(HttpHeaders.PRAGMA, "no-cache")
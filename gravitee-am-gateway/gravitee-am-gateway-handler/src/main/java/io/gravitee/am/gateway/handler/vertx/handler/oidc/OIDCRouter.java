@@ -18,13 +18,14 @@ package io.gravitee.am.gateway.handler.vertx.handler.oidc;
 import io.gravitee.am.gateway.handler.jwt.JwtService;
 import io.gravitee.am.gateway.handler.oauth2.client.ClientService;
 import io.gravitee.am.gateway.handler.oauth2.token.TokenService;
+import io.gravitee.am.gateway.handler.oidc.claims.ClaimsProjectionService;
 import io.gravitee.am.gateway.handler.oidc.discovery.OpenIDDiscoveryService;
 import io.gravitee.am.gateway.handler.oidc.jwk.JWKSetService;
+import io.gravitee.am.gateway.handler.oidc.userinfo.UserInfoCache;
 import io.gravitee.am.gateway.handler.vertx.handler.oidc.endpoint.ProviderConfigurationEndpoint;
 import io.gravitee.am.gateway.handler.vertx.handler.oidc.endpoint.ProviderJWKSetEndpoint;
 import io.gravitee.am.gateway.handler.vertx.handler.oidc.endpoint.UserInfoEndpoint;
 import io.gravitee.am.gateway.handler.vertx.handler.oidc.handler.UserInfoRequestParseHandler;
-import io.gravitee.am.gateway.service.UserService;
 import io.gravitee.common.http.MediaType;
 import io.vertx.core.Handler;
 import io.vertx.core.http.HttpMethod;
@@ -58,7 +59,10 @@ public class OIDCRouter {
     private TokenService tokenService;
 
     @Autowired
-    private UserService userService;
+    private UserInfoCache userInfoCache;
+
+    @Autowired
+    private ClaimsProjectionService claimsProjectionService;
 
     @Autowired
     private ClientService clientService;
@@ -85,7 +89,7 @@ public class OIDCRouter {
                 .handler(openIDProviderConfigurationEndpoint);
 
         // UserInfo Endpoint
-        Handler<RoutingContext> userInfoEndpoint = new UserInfoEndpoint(userService);
+        Handler<RoutingContext> userInfoEndpoint = new UserInfoEndpoint(userInfoCache, claimsProjectionService);
         Handler<RoutingContext> userInfoRequestParseHandler = new UserInfoRequestParseHandler(tokenService, clientService, jwtService);
         router.route("/userinfo").handler(CorsHandler.newInstance(corsHandler()));
         router
@@ -16,22 +16,21 @@
 package io.gravitee.am.gateway.handler.vertx.handler.oidc.endpoint;
 
 import io.gravitee.am.common.jwt.Claims;
-import io.gravitee.am.common.oidc.Scope;
-import io.gravitee.am.common.oidc.StandardClaims;
-import io.gravitee.am.gateway.handler.oauth2.exception.InvalidRequestException;
 import io.gravitee.am.gateway.handler.oauth2.exception.InvalidTokenException;
 import io.gravitee.am.gateway.handler.oauth2.token.Token;
 import io.gravitee.am.gateway.handler.oauth2.token.impl.AccessToken;
-import io.gravitee.am.gateway.handler.oidc.request.ClaimsRequest;
-import io.gravitee.am.gateway.service.UserService;
+import io.gravitee.am.gateway.handler.oidc.claims.ClaimsProjection;
+import io.gravitee.am.gateway.handler.oidc.claims.ClaimsProjectionService;
+import io.gravitee.am.gateway.handler.oidc.userinfo.UserInfoCache;
 import io.gravitee.common.http.HttpHeaders;
+import io.gravitee.common.http.HttpStatusCode;
 import io.gravitee.common.http.MediaType;
 import io.vertx.core.Handler;
-import io.vertx.core.json.Json;
+import io.vertx.reactivex.core.buffer.Buffer;
+import io.vertx.reactivex.core.http.HttpServerResponse;
 import io.vertx.reactivex.ext.web.RoutingContext;
 
-import java.util.*;
-import java.util.stream.Collectors;
+import java.util.Map;
 
 /**
  * The UserInfo Endpoint is an OAuth 2.0 Protected Resource that returns Claims about the authenticated End-User.
@@ -46,117 +45,64 @@ import java.util.stream.Collectors;
  */
 public class UserInfoEndpoint implements Handler<RoutingContext> {
 
-    private UserService userService;
+    private UserInfoCache userInfoCache;
+
+    private ClaimsProjectionService claimsProjectionService;
 
     public UserInfoEndpoint() {
     }
 
-    public UserInfoEndpoint(UserService userService) {
-        this.userService = userService;
+    public UserInfoEndpoint(UserInfoCache userInfoCache, ClaimsProjectionService claimsProjectionService) {
+        this.userInfoCache = userInfoCache;
+        this.claimsProjectionService = claimsProjectionService;
     }
 
     @Override
     public void handle(RoutingContext context) {
         AccessToken accessToken = context.get(Token.ACCESS_TOKEN);
         String subject = accessToken.getSubject();
-        userService.findById(subject)
-                .map(user -> {
-                    Map<String, Object> userClaims = user.getAdditionalInformation() == null ? new HashMap<>() : new HashMap<>(user.getAdditionalInformation());
-                    if (userClaims.isEmpty() || !userClaims.containsKey(StandardClaims.SUB)) {
-                        // The sub (subject) Claim MUST always be returned in the UserInfo Response.
-                        // https://openid.net/specs/openid-connect-core-1_0.html#UserInfoResponse
-                        throw new InvalidRequestException("UserInfo response is missing required claims");
-                    }
-
-                    // Exchange the sub claim from the identity provider to its technical id
-                    userClaims.put(StandardClaims.SUB, subject);
-
-                    // prepare requested claims
-                    Map<String, Object> requestedClaims = new HashMap<>();
-                    // SUB claim is required
-                    requestedClaims.put(StandardClaims.SUB, subject);
 
-                    boolean requestForSpecificClaims = false;
-                    // processing claims list
-                    // 1. process the request using scope values
-                    if (accessToken.getScope() != null) {
-                        final Set<String> scopes = new HashSet(Arrays.asList(accessToken.getScope().split("\\s+")));
-                        requestForSpecificClaims = processScopesRequest(scopes, userClaims, requestedClaims);
-                    }
-                    // 2. process the request using the claims values (If present, the listed Claims are being requested to be added to any Claims that are being requested using scope values.
-                    // If not present, the Claims being requested from the UserInfo Endpoint are only those requested using scope values.)
-                    Map<String, Object> requestedParameters = accessToken.getAdditionalInformation();
-                    if (requestedParameters != null && requestedParameters.get(Claims.claims) != null) {
-                        requestForSpecificClaims = processClaimsRequest((String) requestedParameters.get(Claims.claims), userClaims, requestedClaims);
-                    }
+        // claims requested using scope values and the claims values of the authorization request
+        Map<String, Object> requestedParameters = accessToken.getAdditionalInformation();
+        String claimsValue = requestedParameters == null ? null : (String) requestedParameters.get(Claims.claims);
+        ClaimsProjection projection = claimsProjectionService.userInfo(accessToken.getScope(), claimsValue);
 
-                    return (requestForSpecificClaims) ? requestedClaims : userClaims;
-                 })
+        userInfoCache.get(subject, projection)
                 .subscribe(
-                        claims -> context.response()
-                                .putHeader(HttpHeaders.CACHE_CONTROL, "no-store")
-                                .putHeader(HttpHeaders.PRAGMA, "no-cache")
-                                .putHeader(HttpHeaders.CONTENT_TYPE, MediaType.APPLICATION_JSON)
-                                .end(Json.encodePrettily(claims)),
+                        userInfo -> {
+                            HttpServerResponse response = context.response()
+                                    .putHeader(HttpHeaders.CACHE_CONTROL, "private, no-cache")
+                                    .putHeader(HttpHeaders.PRAGMA, "no-cache")
+                                    .putHeader(HttpHeaders.ETAG, userInfo.getETag());
+                            if (matches(context.request().getHeader(HttpHeaders.IF_NONE_MATCH), userInfo.getETag())) {
+                                response.setStatusCode(HttpStatusCode.NOT_MODIFIED_304).end();
+                            } else {
+                                response
+                                        .putHeader(HttpHeaders.CONTENT_TYPE, MediaType.APPLICATION_JSON)
+                                        .end(Buffer.newInstance(userInfo.getBody()));
+                            }
+                        },
                         error -> context.fail(error),
                         () -> context.fail(new InvalidTokenException("No user found for this token"))
                 );
-
     }
 
     /**
-     * For OpenID Connect, scopes can be used to request that specific sets of information be made available as Claim Values.
-     *
-     * @param scopes scopes request parameter
-     * @param userClaims user full claims list
-     * @param requestedClaims requested claims
-     * @return true if OpenID Connect scopes have been found
+     * See <a href="https://tools.ietf.org/html/rfc7232#section-3.2">3.2. If-None-Match</a>
      */
-    private boolean processScopesRequest(Set<String> scopes, final Map<String, Object> userClaims, Map<String, Object> requestedClaims) {
-        // get requested scopes claims
-        final List<String> scopesClaims = scopes.stream()
-                .map(scope -> scope.toUpperCase())
-                .filter(scope -> Scope.exists(scope) && !Scope.valueOf(scope).getClaims().isEmpty())
-                .map(scope -> Scope.valueOf(scope))
-                .map(scope -> scope.getClaims())
-                .flatMap(List::stream)
-                .collect(Collectors.toList());
-
-        // no OpenID Connect scopes requested continue
-        if (scopesClaims.isEmpty()) {
+    private static boolean matches(String ifNoneMatch, String etag) {
+        if (ifNoneMatch == null) {
             return false;
         }
-
-        // return specific available sets of information made by scope value request
-        scopesClaims.forEach(scopeClaim -> {
-            if (userClaims.containsKey(scopeClaim)) {
-                requestedClaims.putIfAbsent(scopeClaim, userClaims.get(scopeClaim));
+        for (String value : ifNoneMatch.split(",")) {
+            value = value.trim();
+            // weak comparison
+            if (value.startsWith("W/")) {
+                value = value.substring(2);
             }
-        });
-
-        return true;
-    }
-
-    /**
-     * Handle claims request previously made during the authorization request
-     * @param claimsValue claims request parameter
-     * @param userClaims user full claims list
-     * @param requestedClaims requested claims
-     * @return true if userinfo claims have been found
-     */
-    private boolean processClaimsRequest(String claimsValue, final Map<String, Object> userClaims, Map<String, Object> requestedClaims) {
-        try {
-            ClaimsRequest claimsRequest = Json.decodeValue(claimsValue, ClaimsRequest.class);
-            if (claimsRequest != null && claimsRequest.getUserInfoClaims() != null) {
-                claimsRequest.getUserInfoClaims().forEach((key, value) -> {
-                    if (userClaims.containsKey(key)) {
-                        requestedClaims.putIfAbsent(key, userClaims.get(key));
-                    }
-                });
+            if ("*".equals(value) || etag.equals(value)) {
                 return true;
             }
-        } catch (Exception e) {
-            // Any members used that are not understood MUST be ignored.
         }
         return false;
     }
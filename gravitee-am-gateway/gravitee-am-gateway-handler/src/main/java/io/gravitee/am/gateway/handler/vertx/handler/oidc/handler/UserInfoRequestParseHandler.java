@@ -16,12 +16,15 @@
 package io.gravitee.am.gateway.handler.vertx.handler.oidc.handler;
 
 import io.gravitee.am.gateway.handler.jwt.JwtService;
+import io.gravitee.am.gateway.handler.jwt.ParsedJwt;
 import io.gravitee.am.gateway.handler.oauth2.client.ClientService;
 import io.gravitee.am.gateway.handler.oauth2.exception.InvalidRequestException;
 import io.gravitee.am.gateway.handler.oauth2.exception.InvalidTokenException;
 import io.gravitee.am.gateway.handler.oauth2.token.Token;
 import io.gravitee.am.gateway.handler.oauth2.token.TokenService;
 import io.gravitee.am.gateway.handler.oauth2.token.impl.AccessToken;
+import io.gravitee.am.gateway.handler.oauth2.utils.OpaqueTokenUtils;
+import io.gravitee.am.model.Client;
 import io.gravitee.common.http.HttpHeaders;
 import io.reactivex.Maybe;
 import io.vertx.core.AsyncResult;
@@ -111,30 +114,47 @@ public class UserInfoRequestParseHandler implements Handler<RoutingContext> {
     }
 
     private void decodeAccessToken(String accessToken, Handler<AsyncResult<Token>> handler) {
-        jwtService.decode(accessToken)
-                .flatMapMaybe(jwt -> clientService.findByClientId(jwt.getAud()).switchIfEmpty(Maybe.error(new InvalidTokenException("Invalid or unknown client for this token"))))
-                .flatMap(client -> tokenService.getAccessToken(accessToken, client)
-                        .map(accessToken1 -> {
-                            String subject = accessToken1.getSubject();
-                            // The UserInfo Endpoint is an OAuth 2.0 Protected Resource that returns Claims about the authenticated End-User
-                            if (subject.equals(client.getId())) {
-                                throw new InvalidRequestException("The access token was not issued for an End-User");
-                            }
-
-                            if (accessToken1.getExpiresIn() == 0) {
-                                throw new InvalidTokenException("The access token expired");
-                            }
-                            // The Access Token must be obtained from an OpenID Connect Authentication Request (i.e should have at least openid scope)
-                            // https://openid.net/specs/openid-connect-core-1_0.html#UserInfoRequest
-                            if (accessToken1.getScope() == null || !Arrays.asList(accessToken1.getScope().split("\\s+")).contains(OPENID_SCOPE)) {
-                                throw new InvalidTokenException("Invalid access token scopes. The access token should have at least 'openid' scope");
-                            }
-                            return accessToken1;
-                        })
-                )
+        final Maybe<Token> resolvedAccessToken;
+        if (OpaqueTokenUtils.isOpaque(accessToken)) {
+            // opaque access tokens are resolved by their handle, no decoding required
+            resolvedAccessToken = tokenService.introspect(accessToken)
+                    .flatMap(accessToken1 -> findClient(accessToken1.getClientId())
+                            .map(client -> checkAccessToken(accessToken1, client)));
+        } else {
+            // the token is split once, its claims are shared between the client lookup and the signature verification
+            final ParsedJwt parsedJwt = jwtService.parse(accessToken);
+            resolvedAccessToken = jwtService.decode(parsedJwt)
+                    .flatMapMaybe(jwt -> findClient(jwt.getAud()))
+                    .flatMap(client -> tokenService.getAccessToken(parsedJwt, client)
+                            .map(accessToken1 -> checkAccessToken(accessToken1, client)));
+        }
+
+        resolvedAccessToken
                 .subscribe(
                         accessToken1 -> handler.handle(Future.succeededFuture(accessToken1)),
                         error -> handler.handle(Future.failedFuture(error)),
                         () -> handler.handle(Future.failedFuture(new InvalidTokenException("The access token is invalid"))));
     }
+
+    private Maybe<Client> findClient(String clientId) {
+        return clientService.findByClientId(clientId).switchIfEmpty(Maybe.error(new InvalidTokenException("Invalid or unknown client for this token")));
+    }
+
+    private Token checkAccessToken(Token accessToken, Client client) {
+        String subject = accessToken.getSubject();
+        // The UserInfo Endpoint is an OAuth 2.0 Protected Resource that returns Claims about the authenticated End-User
+        if (subject.equals(client.getId())) {
+            throw new InvalidRequestException("The access token was not issued for an End-User");
+        }
+
+        if (accessToken.getExpiresIn() == 0) {
+            throw new InvalidTokenException("The access token expired");
+        }
+        // The Access Token must be obtained from an OpenID Connect Authentication Request (i.e should have at least openid scope)
+        // https://openid.net/specs/openid-connect-core-1_0.html#UserInfoRequest
+        if (accessToken.getScope() == null || !Arrays.asList(accessToken.getScope().split("\\s+")).contains(OPENID_SCOPE)) {
+            throw new InvalidTokenException("Invalid access token scopes. The access token should have at least 'openid' scope");
+        }
+        return accessToken;
+    }
 }
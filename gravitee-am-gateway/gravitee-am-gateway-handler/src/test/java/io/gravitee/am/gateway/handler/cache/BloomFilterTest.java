@@ -0,0 +1,59 @@
+/**
+ * Copyright (C) 2015 The Gravitee team (http://gravitee.io)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.gravitee.am.gateway.handler.cache;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+/**
+ * @author GraviteeSource Team
+ */
+public class BloomFilterTest {
+
+    @Test
+    public void shouldContainInsertedValues() {
+        BloomFilter filter = new BloomFilter(1000, 0.01);
+        for (int i = 0; i < 1000; i++) {
+            filter.put("token-" + i);
+        }
+
+        for (int i = 0; i < 1000; i++) {
+            Assert.assertTrue(filter.mightContain("token-" + i));
+        }
+    }
+
+    @Test
+    public void shouldRespectFalsePositiveProbability() {
+        BloomFilter filter = new BloomFilter(1000, 0.01);
+        for (int i = 0; i < 1000; i++) {
+            filter.put("token-" + i);
+        }
+
+        int falsePositives = 0;
+        for (int i = 0; i < 10000; i++) {
+            if (filter.mightContain("other-" + i)) {
+                falsePositives++;
+            }
+        }
+        // 1% expected, leave room for the hash distribution
+        Assert.assertTrue("too many false positives: " + falsePositives, falsePositives < 300);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void shouldNotCreate_invalidProbability() {
+        new BloomFilter(1000, 1);
+    }
+}
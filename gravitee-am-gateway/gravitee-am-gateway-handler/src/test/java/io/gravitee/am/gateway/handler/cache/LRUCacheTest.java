@@ -0,0 +1,85 @@
+/**
+ * Copyright (C) 2015 The Gravitee team (http://gravitee.io)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.gravitee.am.gateway.handler.cache;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+/**
+ * @author GraviteeSource Team
+ */
+public class LRUCacheTest {
+
+    @Test
+    public void shouldGetValue() {
+        LRUCache<String, String> cache = new LRUCache<>(10);
+        cache.put("key", "value", System.currentTimeMillis() + 60_000);
+
+        Assert.assertEquals("value", cache.get("key"));
+        Assert.assertNull(cache.get("unknown"));
+    }
+
+    @Test
+    public void shouldNotGetExpiredValue() throws Exception {
+        LRUCache<String, String> cache = new LRUCache<>(10);
+        cache.put("key", "value", System.currentTimeMillis() + 10);
+        cache.put("expired", "value", System.currentTimeMillis() - 1);
+
+        Assert.assertEquals(1, cache.size());
+        Thread.sleep(20);
+        Assert.assertNull(cache.get("key"));
+        Assert.assertEquals(0, cache.size());
+    }
+
+    @Test
+    public void shouldEvictLeastRecentlyUsed() {
+        LRUCache<Integer, String> cache = new LRUCache<>(1);
+        long expireAt = System.currentTimeMillis() + 60_000;
+        cache.put(1, "one", expireAt);
+        cache.put(2, "two", expireAt);
+
+        Assert.assertEquals(1, cache.size());
+        Assert.assertNull(cache.get(1));
+        Assert.assertEquals("two", cache.get(2));
+    }
+
+    @Test
+    public void shouldBeBounded() {
+        LRUCache<Integer, Integer> cache = new LRUCache<>(100);
+        long expireAt = System.currentTimeMillis() + 60_000;
+        for (int i = 0; i < 1000; i++) {
+            cache.put(i, i, expireAt);
+        }
+
+        Assert.assertTrue(cache.size() <= 100);
+        Assert.assertEquals(Integer.valueOf(999), cache.get(999));
+    }
+
+    @Test
+    public void shouldRemoveIf() {
+        LRUCache<Integer, Integer> cache = new LRUCache<>(100);
+        long expireAt = System.currentTimeMillis() + 60_000;
+        for (int i = 0; i < 10; i++) {
+            cache.put(i, i, expireAt);
+        }
+
+        cache.removeIf(value -> value % 2 == 0);
+
+        Assert.assertEquals(5, cache.size());
+        Assert.assertNull(cache.get(2));
+        Assert.assertEquals(Integer.valueOf(3), cache.get(3));
+    }
+}
@@ -0,0 +1,188 @@
+/**
+ * Copyright (C) 2015 The Gravitee team (http://gravitee.io)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.gravitee.am.gateway.handler.certificate;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.gravitee.am.certificate.api.CertificateMetadata;
+import io.gravitee.am.certificate.api.DefaultKey;
+import io.gravitee.am.gateway.core.event.CertificateEvent;
+import io.gravitee.am.gateway.core.event.DomainEvent;
+import io.gravitee.am.gateway.handler.certificate.impl.CertificateRegistryImpl;
+import io.gravitee.am.model.Certificate;
+import io.gravitee.am.model.Domain;
+import io.gravitee.am.model.common.event.Action;
+import io.gravitee.am.model.common.event.Payload;
+import io.gravitee.am.plugins.certificate.core.CertificatePluginManager;
+import io.gravitee.am.repository.management.api.CertificateRepository;
+import io.gravitee.common.event.EventManager;
+import io.gravitee.common.event.impl.SimpleEvent;
+import io.jsonwebtoken.security.Keys;
+import io.reactivex.Maybe;
+import io.reactivex.Single;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.Spy;
+import org.mockito.runners.MockitoJUnitRunner;
+
+import java.util.Arrays;
+import java.util.HashSet;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertSame;
+import static org.mockito.Matchers.any;
+import static org.mockito.Matchers.anyString;
+import static org.mockito.Mockito.*;
+
+/**
+ * @author GraviteeSource Team
+ */
+@RunWith(MockitoJUnitRunner.class)
+public class CertificateRegistryTest {
+
+    @InjectMocks
+    private CertificateRegistryImpl certificateRegistry = new CertificateRegistryImpl("s3cR3t4grAv1t3310AMS1g1ingDftK3y", "default-gravitee-AM-key");
+
+    @Mock
+    private CertificateRepository certificateRepository;
+
+    @Mock
+    private CertificatePluginManager certificatePluginManager;
+
+    @Mock
+    private EventManager eventManager;
+
+    @Spy
+    private ObjectMapper objectMapper = new ObjectMapper();
+
+    @Before
+    public void setUp() {
+        io.gravitee.am.certificate.api.CertificateProvider provider = mock(io.gravitee.am.certificate.api.CertificateProvider.class);
+        when(provider.key()).thenReturn(Single.just(new DefaultKey("kid", Keys.hmacShaKeyFor("s3cR3t4grAv1t3310AMS1g1ingDftK3y".getBytes()))));
+        when(provider.certificateMetadata()).thenReturn(new CertificateMetadata());
+        when(certificatePluginManager.create(anyString(), anyString(), any())).thenReturn(provider);
+        when(certificateRepository.findByDomain("domain-1")).thenReturn(Single.just(new HashSet<>(Arrays.asList(
+                certificate("cert-1", "domain-1"),
+                certificate("cert-2", "domain-1")))));
+        when(certificateRepository.findByDomain("domain-2")).thenReturn(Single.just(new HashSet<>(Arrays.asList(
+                certificate("cert-3", "domain-2")))));
+
+        certificateRegistry.afterPropertiesSet();
+        certificateRegistry.onDomainEvent(new SimpleEvent<>(DomainEvent.DEPLOY, domain("domain-1")));
+        certificateRegistry.onDomainEvent(new SimpleEvent<>(DomainEvent.DEPLOY, domain("domain-2")));
+    }
+
+    @Test
+    public void shouldCreateProvidersOnDomainDeploy() {
+        verify(certificatePluginManager, times(3)).create(anyString(), anyString(), any());
+        assertNotNull(certificateRegistry.defaultCertificateProvider());
+
+        CertificateProvider certificateProvider = certificateRegistry.findByDomainAndId("domain-1", "cert-1").blockingGet();
+        assertNotNull(certificateProvider.getJwtBuilder());
+        assertNotNull(certificateProvider.getJwtParser());
+
+        certificateRegistry.findByDomainAndId("domain-1", "cert-1").test().assertValue(certificateProvider);
+        verify(certificatePluginManager, times(3)).create(anyString(), anyString(), any());
+    }
+
+    @Test
+    public void shouldOnlyLoadDeployedDomains() {
+        verify(certificateRepository, never()).findAll();
+
+        certificateRegistry.onDomainEvent(new SimpleEvent<>(DomainEvent.UPDATE, domain("domain-1")));
+        verify(certificateRepository, times(1)).findByDomain("domain-1");
+
+        certificateRegistry.onEvent(new SimpleEvent<>(CertificateEvent.DEPLOY, new Payload("cert-4", "domain-3", Action.CREATE)));
+        verify(certificateRepository, never()).findById("cert-4");
+        assertEquals(0, certificateRegistry.providers("domain-3").size());
+    }
+
+    @Test
+    public void shouldUndeployDomain() {
+        certificateRegistry.onDomainEvent(new SimpleEvent<>(DomainEvent.UNDEPLOY, domain("domain-1")));
+
+        assertEquals(0, certificateRegistry.providers("domain-1").size());
+        assertEquals(1, certificateRegistry.providers("domain-2").size());
+    }
+
+    @Test
+    public void shouldNotFindCertificate_unknownDomain() {
+        certificateRegistry.findByDomainAndId("unknown", "cert-1").test().assertNoValues().assertComplete();
+        certificateRegistry.findByDomainAndId("domain-2", "cert-1").test().assertNoValues().assertComplete();
+    }
+
+    @Test
+    public void shouldListDomainProviders() {
+        assertEquals(2, certificateRegistry.providers("domain-1").size());
+        assertEquals(1, certificateRegistry.providers("domain-2").size());
+        assertEquals(0, certificateRegistry.providers("unknown").size());
+    }
+
+    @Test
+    public void shouldNotRetryFailedCertificate() {
+        reset(certificatePluginManager);
+        when(certificatePluginManager.create(anyString(), anyString(), any())).thenThrow(new IllegalStateException("invalid key store"));
+        when(certificateRepository.findByDomain("domain-3")).thenReturn(Single.just(new HashSet<>(Arrays.asList(
+                certificate("cert-3", "domain-3")))));
+
+        certificateRegistry.onDomainEvent(new SimpleEvent<>(DomainEvent.DEPLOY, domain("domain-3")));
+
+        certificateRegistry.findByDomainAndId("domain-3", "cert-3").test().assertNoValues().assertComplete();
+        certificateRegistry.findByDomainAndId("domain-3", "cert-3").test().assertNoValues().assertComplete();
+
+        verify(certificatePluginManager, times(1)).create(anyString(), anyString(), any());
+    }
+
+    @Test
+    public void shouldUpdateCertificate() {
+        CertificateProvider certificateProvider = certificateRegistry.findByDomainAndId("domain-1", "cert-1").blockingGet();
+        when(certificateRepository.findById("cert-1")).thenReturn(Maybe.just(certificate("cert-1", "domain-1")));
+
+        certificateRegistry.onEvent(new SimpleEvent<>(CertificateEvent.UPDATE, new Payload("cert-1", "domain-1", Action.UPDATE)));
+
+        assertNotSame(certificateProvider, certificateRegistry.findByDomainAndId("domain-1", "cert-1").blockingGet());
+        assertSame(certificateRegistry.findByDomainAndId("domain-1", "cert-2").blockingGet(), certificateRegistry.findByDomainAndId("domain-1", "cert-2").blockingGet());
+    }
+
+    @Test
+    public void shouldRemoveCertificate() {
+        certificateRegistry.onEvent(new SimpleEvent<>(CertificateEvent.UNDEPLOY, new Payload("cert-1", "domain-1", Action.DELETE)));
+
+        certificateRegistry.findByDomainAndId("domain-1", "cert-1").test().assertNoValues();
+        certificateRegistry.findByDomainAndId("domain-1", "cert-2").test().assertValueCount(1);
+    }
+
+    private static Domain domain(String id) {
+        Domain domain = new Domain();
+        domain.setId(id);
+        domain.setName(id);
+        return domain;
+    }
+
+    private static Certificate certificate(String id, String domain) {
+        Certificate certificate = new Certificate();
+        certificate.setId(id);
+        certificate.setDomain(domain);
+        certificate.setName(id);
+        certificate.setType("javakeystore-am-certificate");
+        certificate.setConfiguration("{}");
+        return certificate;
+    }
+}
@@ -0,0 +1,93 @@
+/**
+ * Copyright (C) 2015 The Gravitee team (http://gravitee.io)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.gravitee.am.gateway.handler.crypto;
+
+import io.gravitee.am.gateway.handler.crypto.impl.CryptoExecutorImpl;
+import io.gravitee.am.gateway.handler.oauth2.exception.TemporarilyUnavailableException;
+import io.reactivex.observers.TestObserver;
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * @author GraviteeSource Team
+ */
+public class CryptoExecutorTest {
+
+    private CryptoExecutorImpl cryptoExecutor;
+
+    @After
+    public void tearDown() {
+        if (cryptoExecutor != null) {
+            cryptoExecutor.destroy();
+        }
+    }
+
+    @Test
+    public void shouldExecute() {
+        cryptoExecutor = new CryptoExecutorImpl(1, 10);
+        cryptoExecutor.afterPropertiesSet();
+
+        TestObserver<String> testObserver = cryptoExecutor.execute(() -> Thread.currentThread().getName()).test();
+        testObserver.awaitTerminalEvent();
+        testObserver.assertComplete();
+        testObserver.assertValue(threadName -> threadName.startsWith("gio-am-crypto-"));
+    }
+
+    @Test
+    public void shouldPropagateError() {
+        cryptoExecutor = new CryptoExecutorImpl(1, 10);
+        cryptoExecutor.afterPropertiesSet();
+
+        TestObserver<String> testObserver = cryptoExecutor.<String>execute(() -> { throw new IllegalStateException("signing failed"); }).test();
+        testObserver.awaitTerminalEvent();
+        testObserver.assertError(IllegalStateException.class);
+    }
+
+    @Test
+    public void shouldReject_queueFull() throws Exception {
+        cryptoExecutor = new CryptoExecutorImpl(1, 1);
+        cryptoExecutor.afterPropertiesSet();
+
+        CountDownLatch running = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+
+        // occupy the single worker thread
+        TestObserver<Boolean> blocking = cryptoExecutor.execute(() -> {
+            running.countDown();
+            return release.await(5, TimeUnit.SECONDS);
+        }).test();
+        Assert.assertTrue(running.await(5, TimeUnit.SECONDS));
+
+        // fill the queue
+        TestObserver<String> queued = cryptoExecutor.execute(() -> "queued").test();
+        Assert.assertEquals(1, cryptoExecutor.queueSize());
+
+        // no more room
+        TestObserver<String> rejected = cryptoExecutor.execute(() -> "rejected").test();
+        rejected.assertError(TemporarilyUnavailableException.class);
+        Assert.assertEquals(1, cryptoExecutor.rejectedCount());
+
+        release.countDown();
+        blocking.awaitTerminalEvent();
+        queued.awaitTerminalEvent();
+        queued.assertValue("queued");
+        Assert.assertTrue(cryptoExecutor.maxWaitTime() > 0);
+    }
+}
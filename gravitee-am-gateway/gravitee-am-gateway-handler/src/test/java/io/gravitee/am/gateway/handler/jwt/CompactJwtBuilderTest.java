@@ -0,0 +1,139 @@
+/**
+ * Copyright (C) 2015 The Gravitee team (http://gravitee.io)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.gravitee.am.gateway.handler.jwt;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.gravitee.am.common.jwt.JWT;
+import io.gravitee.am.gateway.handler.jwt.impl.CompactJwtBuilder;
+import io.gravitee.am.gateway.handler.jwt.impl.CompactJwtParser;
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.Jws;
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.security.Keys;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.security.Key;
+import java.security.KeyPair;
+import java.security.KeyPairGenerator;
+import java.security.spec.ECGenParameterSpec;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+/**
+ * @author GraviteeSource Team
+ */
+public class CompactJwtBuilderTest {
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    @Test
+    public void shouldSign_rsa() throws Exception {
+        KeyPairGenerator keyPairGenerator = KeyPairGenerator.getInstance("RSA");
+        keyPairGenerator.initialize(2048);
+        KeyPair keyPair = keyPairGenerator.generateKeyPair();
+
+        JwtBuilder jwtBuilder = new CompactJwtBuilder(objectMapper, keyPair.getPrivate(), "my-kid");
+        String token = jwtBuilder.sign(jwt("subject"));
+
+        Jws<Claims> jws = Jwts.parser().setSigningKey(keyPair.getPublic()).parseClaimsJws(token);
+        Assert.assertEquals("RS256", jws.getHeader().getAlgorithm());
+        Assert.assertEquals("my-kid", jws.getHeader().getKeyId());
+        Assert.assertEquals("subject", jws.getBody().getSubject());
+        Assert.assertEquals("read write", jws.getBody().get("scope"));
+    }
+
+    @Test
+    public void shouldSign_ecdsa() throws Exception {
+        KeyPairGenerator keyPairGenerator = KeyPairGenerator.getInstance("EC");
+        keyPairGenerator.initialize(new ECGenParameterSpec("secp256r1"));
+        KeyPair keyPair = keyPairGenerator.generateKeyPair();
+
+        JwtBuilder jwtBuilder = new CompactJwtBuilder(objectMapper, keyPair.getPrivate(), "my-ec-kid");
+        String token = jwtBuilder.sign(jwt("subject"));
+
+        Jws<Claims> jws = Jwts.parser().setSigningKey(keyPair.getPublic()).parseClaimsJws(token);
+        Assert.assertEquals("ES256", jws.getHeader().getAlgorithm());
+        Assert.assertEquals("my-ec-kid", jws.getHeader().getKeyId());
+        Assert.assertEquals("subject", jws.getBody().getSubject());
+    }
+
+    @Test
+    public void shouldSign_ecdsa_p521() throws Exception {
+        KeyPairGenerator keyPairGenerator = KeyPairGenerator.getInstance("EC");
+        keyPairGenerator.initialize(new ECGenParameterSpec("secp521r1"));
+        KeyPair keyPair = keyPairGenerator.generateKeyPair();
+
+        JwtBuilder jwtBuilder = new CompactJwtBuilder(objectMapper, keyPair.getPrivate(), "my-ec-kid");
+        // the DER length of P-521 signatures may use the long form, sign a few times to go through both forms
+        for (int i = 0; i < 20; i++) {
+            String token = jwtBuilder.sign(jwt("subject"));
+
+            Jws<Claims> jws = Jwts.parser().setSigningKey(keyPair.getPublic()).parseClaimsJws(token);
+            Assert.assertEquals("ES512", jws.getHeader().getAlgorithm());
+            Assert.assertEquals("subject", new CompactJwtParser(objectMapper, keyPair.getPublic(), JwsAlgorithm.ES512).parse(token).getSub());
+        }
+    }
+
+    @Test
+    public void shouldSign_hmac() {
+        Key key = Keys.hmacShaKeyFor("s3cR3t4grAv1t3310AMS1g1ingDftK3y".getBytes());
+
+        JwtBuilder jwtBuilder = new CompactJwtBuilder(objectMapper, key, "default-gravitee-AM-key");
+        String token = jwtBuilder.sign(jwt("subject"));
+
+        Jws<Claims> jws = Jwts.parser().setSigningKey(key).parseClaimsJws(token);
+        Assert.assertEquals("HS256", jws.getHeader().getAlgorithm());
+        Assert.assertEquals("subject", jws.getBody().getSubject());
+    }
+
+    @Test
+    public void shouldSign_concurrently() throws Exception {
+        Key key = Keys.hmacShaKeyFor("s3cR3t4grAv1t3310AMS1g1ingDftK3y".getBytes());
+        JwtBuilder jwtBuilder = new CompactJwtBuilder(objectMapper, key, "default-gravitee-AM-key");
+
+        ExecutorService executorService = Executors.newFixedThreadPool(4);
+        try {
+            List<Future<Boolean>> results = new ArrayList<>();
+            for (int i = 0; i < 200; i++) {
+                final String subject = "subject-" + i;
+                Callable<Boolean> task = () -> subject.equals(Jwts.parser().setSigningKey(key).parseClaimsJws(jwtBuilder.sign(jwt(subject))).getBody().getSubject());
+                results.add(executorService.submit(task));
+            }
+            for (Future<Boolean> result : results) {
+                Assert.assertTrue(result.get());
+            }
+        } finally {
+            executorService.shutdownNow();
+        }
+    }
+
+    private static JWT jwt(String subject) {
+        JWT jwt = new JWT();
+        jwt.setIss("http://gravitee.am");
+        jwt.setSub(subject);
+        jwt.setAud("client-id");
+        jwt.setIat(System.currentTimeMillis() / 1000);
+        jwt.setExp(System.currentTimeMillis() / 1000 + 3600);
+        jwt.setJti("token-id");
+        jwt.setScope("read write");
+        return jwt;
+    }
+}
@@ -0,0 +1,108 @@
+/**
+ * Copyright (C) 2015 The Gravitee team (http://gravitee.io)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.gravitee.am.gateway.handler.jwt;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.gravitee.am.common.jwt.JWT;
+import io.gravitee.am.common.jwt.exception.ExpiredJwtException;
+import io.gravitee.am.common.jwt.exception.MalformedJwtException;
+import io.gravitee.am.common.jwt.exception.SignatureException;
+import io.gravitee.am.gateway.handler.jwt.impl.CompactJwtBuilder;
+import io.gravitee.am.gateway.handler.jwt.impl.CompactJwtParser;
+import org.junit.Assert;
+import org.junit.Assume;
+import org.junit.Test;
+
+import java.security.GeneralSecurityException;
+import java.security.KeyPair;
+import java.security.KeyPairGenerator;
+import java.security.spec.ECGenParameterSpec;
+
+/**
+ * @author GraviteeSource Team
+ */
+public class CompactJwtParserTest {
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    @Test
+    public void shouldParse_ecdsa() throws Exception {
+        KeyPair keyPair = ecKeyPair();
+        String token = new CompactJwtBuilder(objectMapper, keyPair.getPrivate(), "my-ec-kid").sign(jwt(60));
+
+        JWT jwt = new CompactJwtParser(objectMapper, keyPair.getPublic(), JwsAlgorithm.ES256).parse(token);
+        Assert.assertEquals("subject", jwt.getSub());
+    }
+
+    @Test
+    public void shouldParse_eddsa() throws Exception {
+        KeyPair keyPair;
+        try {
+            keyPair = KeyPairGenerator.getInstance("Ed25519").generateKeyPair();
+        } catch (GeneralSecurityException ex) {
+            // EdDSA requires Java 15+
+            Assume.assumeNoException(ex);
+            return;
+        }
+
+        CompactJwtBuilder jwtBuilder = new CompactJwtBuilder(objectMapper, keyPair.getPrivate(), "my-okp-kid");
+        Assert.assertEquals(JwsAlgorithm.EdDSA, jwtBuilder.getSignatureAlgorithm());
+
+        JWT jwt = new CompactJwtParser(objectMapper, keyPair.getPublic(), JwsAlgorithm.EdDSA).parse(jwtBuilder.sign(jwt(60)));
+        Assert.assertEquals("subject", jwt.getSub());
+    }
+
+    @Test(expected = SignatureException.class)
+    public void shouldNotParse_invalidSignature() throws Exception {
+        String token = new CompactJwtBuilder(objectMapper, ecKeyPair().getPrivate(), "my-ec-kid").sign(jwt(60));
+
+        new CompactJwtParser(objectMapper, ecKeyPair().getPublic(), JwsAlgorithm.ES256).parse(token);
+    }
+
+    @Test(expected = SignatureException.class)
+    public void shouldNotParse_unexpectedAlgorithm() throws Exception {
+        KeyPair keyPair = ecKeyPair();
+        String token = new CompactJwtBuilder(objectMapper, keyPair.getPrivate(), "my-ec-kid").sign(jwt(60));
+
+        new CompactJwtParser(objectMapper, keyPair.getPublic(), JwsAlgorithm.ES384).parse(token);
+    }
+
+    @Test(expected = ExpiredJwtException.class)
+    public void shouldNotParse_expired() throws Exception {
+        KeyPair keyPair = ecKeyPair();
+        String token = new CompactJwtBuilder(objectMapper, keyPair.getPrivate(), "my-ec-kid").sign(jwt(-60));
+
+        new CompactJwtParser(objectMapper, keyPair.getPublic(), JwsAlgorithm.ES256).parse(token);
+    }
+
+    @Test(expected = MalformedJwtException.class)
+    public void shouldNotParse_malformed() throws Exception {
+        new CompactJwtParser(objectMapper, ecKeyPair().getPublic(), JwsAlgorithm.ES256).parse("not-a-token");
+    }
+
+    private static KeyPair ecKeyPair() throws GeneralSecurityException {
+        KeyPairGenerator keyPairGenerator = KeyPairGenerator.getInstance("EC");
+        keyPairGenerator.initialize(new ECGenParameterSpec("secp256r1"));
+        return keyPairGenerator.generateKeyPair();
+    }
+
+    private static JWT jwt(long expiresIn) {
+        JWT jwt = new JWT();
+        jwt.setSub("subject");
+        jwt.setExp(System.currentTimeMillis() / 1000 + expiresIn);
+        return jwt;
+    }
+}
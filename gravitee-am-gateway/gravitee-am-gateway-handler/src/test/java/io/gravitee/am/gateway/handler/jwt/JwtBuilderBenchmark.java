@@ -0,0 +1,116 @@
+/**
+ * Copyright (C) 2015 The Gravitee team (http://gravitee.io)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.gravitee.am.gateway.handler.jwt;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.gravitee.am.common.jwt.JWT;
+import io.gravitee.am.gateway.handler.jwt.impl.CompactJwtBuilder;
+import io.gravitee.am.gateway.handler.jwt.impl.JJwtBuilder;
+import io.jsonwebtoken.JwsHeader;
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.io.JacksonSerializer;
+import io.jsonwebtoken.security.Keys;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.security.Key;
+import java.security.KeyPairGenerator;
+import java.security.NoSuchAlgorithmException;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compare the jjwt based {@link JJwtBuilder} with the {@link CompactJwtBuilder}.
+ *
+ * Run it from the IDE or with :
+ * <pre>
+ * mvn test-compile exec:java -Dexec.classpathScope=test -Dexec.mainClass=io.gravitee.am.gateway.handler.jwt.JwtBuilderBenchmark
+ * </pre>
+ *
+ * Note : the jjwt builder is shared here for the sake of comparison, it is not safe for concurrent use.
+ *
+ * @author GraviteeSource Team
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class JwtBuilderBenchmark {
+
+    /**
+     * RSA measures the overall cost, HMAC exposes the serialization overhead.
+     */
+    @Param({"RSA", "HMAC"})
+    private String keyType;
+
+    private JwtBuilder jjwtBuilder;
+    private JwtBuilder compactJwtBuilder;
+    private JWT jwt;
+
+    @Setup
+    public void setup() throws NoSuchAlgorithmException {
+        ObjectMapper objectMapper = new ObjectMapper();
+        Key signingKey;
+        if ("RSA".equals(keyType)) {
+            KeyPairGenerator keyPairGenerator = KeyPairGenerator.getInstance("RSA");
+            keyPairGenerator.initialize(2048);
+            signingKey = keyPairGenerator.generateKeyPair().getPrivate();
+        } else {
+            signingKey = Keys.hmacShaKeyFor("s3cR3t4grAv1t3310AMS1g1ingDftK3y".getBytes());
+        }
+
+        jjwtBuilder = new JJwtBuilder(Jwts.builder().serializeToJsonWith(new JacksonSerializer(objectMapper))
+                .signWith(signingKey).setHeaderParam(JwsHeader.KEY_ID, "benchmark"));
+        compactJwtBuilder = new CompactJwtBuilder(objectMapper, signingKey, "benchmark");
+
+        jwt = new JWT();
+        jwt.setIss("http://gravitee.am");
+        jwt.setSub("5c1f4f4b-9b3e-4a7e-9f4b-4b9e3a7e9f4b");
+        jwt.setAud("my-client");
+        jwt.setDomain("my-domain");
+        jwt.setIat(System.currentTimeMillis() / 1000);
+        jwt.setExp(System.currentTimeMillis() / 1000 + 7200);
+        jwt.setJti("b6d6a4d4-3e4f-4a7e-9f4b-4b9e3a7e9f4b");
+        jwt.setScope("openid profile email");
+    }
+
+    @Benchmark
+    public String jjwt() {
+        return jjwtBuilder.sign(jwt);
+    }
+
+    @Benchmark
+    public String compact() {
+        return compactJwtBuilder.sign(jwt);
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder().include(JwtBuilderBenchmark.class.getSimpleName()).build()).run();
+    }
+}
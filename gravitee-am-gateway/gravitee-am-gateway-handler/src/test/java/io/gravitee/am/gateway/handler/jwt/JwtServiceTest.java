@@ -0,0 +1,180 @@
+/**
+ * Copyright (C) 2015 The Gravitee team (http://gravitee.io)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.gravitee.am.gateway.handler.jwt;
+
+import io.gravitee.am.common.jwt.JWT;
+import io.gravitee.am.common.jwt.exception.SignatureException;
+import io.gravitee.am.gateway.handler.certificate.CertificateManager;
+import io.gravitee.am.gateway.handler.certificate.CertificateProvider;
+import io.gravitee.am.gateway.handler.crypto.impl.CryptoExecutorImpl;
+import io.gravitee.am.gateway.handler.jwt.impl.JwtServiceImpl;
+import io.gravitee.am.gateway.handler.oauth2.exception.InvalidTokenException;
+import io.gravitee.am.model.Client;
+import io.reactivex.Maybe;
+import io.reactivex.observers.TestObserver;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.Spy;
+import org.mockito.runners.MockitoJUnitRunner;
+
+import static org.mockito.Mockito.*;
+
+/**
+ * @author GraviteeSource Team
+ */
+@RunWith(MockitoJUnitRunner.class)
+public class JwtServiceTest {
+
+    @InjectMocks
+    private JwtService jwtService = new JwtServiceImpl();
+
+    @Spy
+    private VerifiedJwtCache verifiedJwtCache = new VerifiedJwtCache(true, 100);
+
+    @Spy
+    private CryptoExecutorImpl cryptoExecutor = new CryptoExecutorImpl(1, 10);
+
+    @Mock
+    private CertificateManager certificateManager;
+
+    @Mock
+    private CertificateProvider certificateProvider;
+
+    @Mock
+    private JwtParser jwtParser;
+
+    private Client client;
+
+    @Before
+    public void init() {
+        verifiedJwtCache.afterPropertiesSet();
+        cryptoExecutor.afterPropertiesSet();
+
+        client = new Client();
+        client.setDomain("domain");
+        client.setCertificate("certificate");
+
+        when(certificateManager.findByDomainAndId("domain", "certificate")).thenReturn(Maybe.just(certificateProvider));
+        when(certificateManager.defaultCertificateProvider()).thenReturn(mock(CertificateProvider.class));
+        when(certificateProvider.getJwtParser()).thenReturn(jwtParser);
+    }
+
+    @Test
+    public void shouldVerifySignatureOnce() {
+        when(jwtParser.parse(any(ParsedJwt.class))).thenReturn(claims(System.currentTimeMillis() / 1000 + 60));
+
+        TestObserver<JWT> testObserver = jwtService.decodeAndVerify("token", client).test();
+        testObserver.awaitTerminalEvent();
+        testObserver.assertValue(jwt -> "user".equals(jwt.getSub()));
+
+        TestObserver<JWT> testObserver2 = jwtService.decodeAndVerify("token", client).test();
+        testObserver2.awaitTerminalEvent();
+        testObserver2.assertValue(jwt -> "user".equals(jwt.getSub()));
+
+        verify(jwtParser, times(1)).parse(any(ParsedJwt.class));
+    }
+
+    @After
+    public void tearDown() {
+        cryptoExecutor.destroy();
+    }
+
+    @Test
+    public void shouldVerifySignatureOnWorker() {
+        when(jwtParser.parse(any(ParsedJwt.class))).thenReturn(claims(System.currentTimeMillis() / 1000 + 60));
+        ParsedJwt parsedJwt = jwtService.parse("token");
+
+        TestObserver<JWT> testObserver = jwtService.decodeAndVerifyAsync(parsedJwt, client).test();
+        testObserver.awaitTerminalEvent();
+        testObserver.assertValue(jwt -> "user".equals(jwt.getSub()));
+
+        jwtService.decodeAndVerifyAsync(parsedJwt, client).test().awaitTerminalEvent();
+        verify(cryptoExecutor, times(1)).execute(any());
+        verify(jwtParser, times(1)).parse(parsedJwt);
+    }
+
+    @Test
+    public void shouldVerifySignature_tokenWithoutExpiration() {
+        when(jwtParser.parse(any(ParsedJwt.class))).thenReturn(claims(0));
+
+        jwtService.decodeAndVerify("token", client).test().awaitTerminalEvent();
+        jwtService.decodeAndVerify("token", client).test().awaitTerminalEvent();
+
+        verify(jwtParser, times(2)).parse(any(ParsedJwt.class));
+    }
+
+    @Test
+    public void shouldVerifySignature_certificateChanged() {
+        when(jwtParser.parse(any(ParsedJwt.class))).thenReturn(claims(System.currentTimeMillis() / 1000 + 60));
+        jwtService.decodeAndVerify("token", client).test().awaitTerminalEvent();
+
+        CertificateProvider newCertificateProvider = mock(CertificateProvider.class);
+        JwtParser newJwtParser = mock(JwtParser.class);
+        when(newCertificateProvider.getJwtParser()).thenReturn(newJwtParser);
+        when(newJwtParser.parse(any(ParsedJwt.class))).thenThrow(new SignatureException("invalid signature"));
+        when(certificateManager.findByDomainAndId("domain", "certificate")).thenReturn(Maybe.just(newCertificateProvider));
+
+        TestObserver<JWT> testObserver = jwtService.decodeAndVerify("token", client).test();
+        testObserver.awaitTerminalEvent();
+        testObserver.assertError(SignatureException.class);
+    }
+
+    @Test
+    public void shouldVerifySignature_certificateInvalidated() {
+        when(jwtParser.parse(any(ParsedJwt.class))).thenReturn(claims(System.currentTimeMillis() / 1000 + 60));
+        jwtService.decodeAndVerify("token", client).test().awaitTerminalEvent();
+
+        verifiedJwtCache.invalidate(certificateProvider);
+        jwtService.decodeAndVerify("token", client).test().awaitTerminalEvent();
+
+        verify(jwtParser, times(2)).parse(any(ParsedJwt.class));
+    }
+
+    @Test
+    public void shouldVerifySignatureOnce_parsedJwt() {
+        when(jwtParser.parse(any(ParsedJwt.class))).thenReturn(claims(0));
+        ParsedJwt parsedJwt = jwtService.parse("token");
+
+        jwtService.decodeAndVerify(parsedJwt, client).test().awaitTerminalEvent();
+        TestObserver<JWT> testObserver = jwtService.decodeAndVerify(parsedJwt, client).test();
+        testObserver.awaitTerminalEvent();
+        testObserver.assertValue(jwt -> "user".equals(jwt.getSub()));
+
+        // the verification result is carried by the parsed token, even for tokens the cache does not keep
+        verify(jwtParser, times(1)).parse(parsedJwt);
+        verify(verifiedJwtCache, times(1)).get(parsedJwt, certificateProvider);
+    }
+
+    @Test
+    public void shouldDecode_malformedToken() {
+        TestObserver<JWT> testObserver = jwtService.decode("not-a-token").test();
+        testObserver.awaitTerminalEvent();
+        testObserver.assertError(InvalidTokenException.class);
+    }
+
+    private static JWT claims(long exp) {
+        JWT jwt = new JWT();
+        jwt.setSub("user");
+        if (exp > 0) {
+            jwt.setExp(exp);
+        }
+        return jwt;
+    }
+}
@@ -0,0 +1,79 @@
+/**
+ * Copyright (C) 2015 The Gravitee team (http://gravitee.io)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.gravitee.am.gateway.handler.jwt;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.gravitee.am.common.jwt.JWT;
+import io.gravitee.am.common.jwt.exception.MalformedJwtException;
+import io.gravitee.am.gateway.handler.certificate.CertificateProvider;
+import org.junit.Test;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+
+import static org.junit.Assert.*;
+import static org.mockito.Mockito.mock;
+
+/**
+ * @author GraviteeSource Team
+ */
+public class ParsedJwtTest {
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    @Test
+    public void shouldDecodeParts() {
+        String token = encode("{\"alg\":\"HS256\"}") + "." + encode("{\"sub\":\"user\",\"aud\":\"client\"}") + ".signature";
+        ParsedJwt parsedJwt = new ParsedJwt(token, objectMapper);
+
+        assertTrue(parsedJwt.isWellFormed());
+        assertEquals("HS256", parsedJwt.getHeader().get("alg"));
+        assertEquals("user", parsedJwt.getClaims().getSub());
+        assertSame(parsedJwt.getClaims(), parsedJwt.getClaims());
+        assertEquals(token.substring(0, token.lastIndexOf('.')), parsedJwt.getSigningInput());
+        assertEquals("signature", parsedJwt.getSignature());
+        assertEquals(VerifiedJwtCache.digest(token), parsedJwt.getDigest());
+    }
+
+    @Test(expected = MalformedJwtException.class)
+    public void shouldNotDecode_malformedToken() {
+        ParsedJwt parsedJwt = new ParsedJwt("not-a-token", objectMapper);
+
+        assertFalse(parsedJwt.isWellFormed());
+        parsedJwt.getClaims();
+    }
+
+    @Test(expected = MalformedJwtException.class)
+    public void shouldNotDecode_invalidClaims() {
+        new ParsedJwt(encode("{\"alg\":\"HS256\"}") + ".not-json.signature", objectMapper).getClaims();
+    }
+
+    @Test
+    public void shouldKeepVerificationResult() {
+        ParsedJwt parsedJwt = new ParsedJwt("header.payload.signature", objectMapper);
+        CertificateProvider certificateProvider = mock(CertificateProvider.class);
+        JWT jwt = new JWT();
+
+        assertNull(parsedJwt.getVerifiedClaims(certificateProvider));
+        parsedJwt.verified(certificateProvider, jwt);
+        assertSame(jwt, parsedJwt.getVerifiedClaims(certificateProvider));
+        assertNull(parsedJwt.getVerifiedClaims(mock(CertificateProvider.class)));
+    }
+
+    private static String encode(String json) {
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(json.getBytes(StandardCharsets.UTF_8));
+    }
+}
@@ -15,9 +15,216 @@
  */
 package io.gravitee.am.gateway.handler.oauth2.client;
 
+import io.gravitee.am.gateway.core.event.ClientEvent;
+import io.gravitee.am.gateway.core.event.DomainEvent;
+import io.gravitee.am.gateway.handler.oauth2.client.impl.ClientServiceImpl;
+import io.gravitee.am.model.Client;
+import io.gravitee.am.model.Domain;
+import io.gravitee.am.model.common.event.Action;
+import io.gravitee.am.model.common.event.Payload;
+import io.gravitee.am.repository.management.api.ClientRepository;
+import io.gravitee.common.event.impl.SimpleEvent;
+import io.reactivex.Maybe;
+import io.reactivex.Single;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.runners.MockitoJUnitRunner;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashSet;
+
+import static org.mockito.Matchers.anyString;
+import static org.mockito.Mockito.*;
+
 /**
  * @author David BRASSELY (david.brassely at graviteesource.com)
  * @author GraviteeSource Team
  */
+@RunWith(MockitoJUnitRunner.class)
 public class ClientServiceTest {
+
+    private static final String DOMAIN = "domain-id";
+
+    @InjectMocks
+    private ClientServiceImpl clientService = new ClientServiceImpl();
+
+    @InjectMocks
+    private ClientServiceImpl lazyClientService = new ClientServiceImpl("lazy", 100, 3600, 60);
+
+    @Mock
+    private ClientRepository clientRepository;
+
+    @Mock
+    private Domain domain;
+
+    @Mock
+    private ClientServiceRegistry clientServiceRegistry;
+
+    @Before
+    public void setUp() {
+        when(domain.getId()).thenReturn(DOMAIN);
+        when(clientRepository.findByDomain(DOMAIN)).thenReturn(Single.just(new HashSet<>(Arrays.asList(
+                client("id-1", DOMAIN, "client-1"),
+                client("id-2", DOMAIN, "client-2")))));
+    }
+
+    @Test
+    public void shouldFindByClientId() {
+        clientService.afterPropertiesSet();
+
+        clientService.findByClientId("client-1").test().assertValue(client -> "id-1".equals(client.getId()));
+    }
+
+    @Test
+    public void shouldFindByDomainAndClientId_otherDomain() {
+        ClientService otherClientService = mock(ClientService.class);
+        when(otherClientService.findByClientId("client-1")).thenReturn(Maybe.just(client("id-3", "other-domain", "client-1")));
+        when(clientServiceRegistry.get("other-domain")).thenReturn(otherClientService);
+        clientService.afterPropertiesSet();
+
+        clientService.findByDomainAndClientId("other-domain", "client-1").test().assertValue(client -> "id-3".equals(client.getId()));
+        verify(clientRepository, never()).findByClientIdAndDomain(anyString(), anyString());
+    }
+
+    @Test
+    public void shouldFindByDomainAndClientId_domainNotDeployed() {
+        when(clientRepository.findByClientIdAndDomain("client-1", "unknown-domain")).thenReturn(Maybe.empty());
+        clientService.afterPropertiesSet();
+
+        clientService.findByDomainAndClientId("unknown-domain", "client-1").test().assertNoValues().assertComplete();
+    }
+
+    @Test
+    public void shouldNotFindByClientId_unknownClient() {
+        clientService.afterPropertiesSet();
+
+        clientService.findByClientId("unknown").test().assertNoValues().assertComplete();
+        verify(clientRepository, never()).findByClientIdAndDomain(anyString(), anyString());
+    }
+
+    @Test
+    public void shouldDeployClient() {
+        clientService.afterPropertiesSet();
+        when(clientRepository.findById("id-4")).thenReturn(Maybe.just(client("id-4", DOMAIN, "client-4")));
+
+        clientService.onEvent(new SimpleEvent<>(ClientEvent.DEPLOY, new Payload("id-4", DOMAIN, Action.CREATE)));
+
+        clientService.findByClientId("client-4").test().assertValue(client -> "id-4".equals(client.getId()));
+    }
+
+    @Test
+    public void shouldUpdateClient_clientIdChanged() {
+        clientService.afterPropertiesSet();
+        when(clientRepository.findById("id-2")).thenReturn(Maybe.just(client("id-2", DOMAIN, "client-2-renamed")));
+
+        clientService.onEvent(new SimpleEvent<>(ClientEvent.UPDATE, new Payload("id-2", DOMAIN, Action.UPDATE)));
+
+        clientService.findByClientId("client-2").test().assertNoValues();
+        clientService.findByClientId("client-2-renamed").test().assertValue(client -> "id-2".equals(client.getId()));
+    }
+
+    @Test
+    public void shouldUndeployClient() {
+        clientService.afterPropertiesSet();
+
+        clientService.onEvent(new SimpleEvent<>(ClientEvent.UNDEPLOY, new Payload("id-1", DOMAIN, Action.DELETE)));
+
+        clientService.findByClientId("client-1").test().assertNoValues();
+        clientService.findByClientId("client-2").test().assertValue(client -> "id-2".equals(client.getId()));
+    }
+
+    @Test
+    public void shouldIgnoreOtherDomainEvent() {
+        clientService.afterPropertiesSet();
+
+        clientService.onEvent(new SimpleEvent<>(ClientEvent.UNDEPLOY, new Payload("id-1", "other-domain", Action.DELETE)));
+
+        clientService.findByClientId("client-1").test().assertValue(client -> "id-1".equals(client.getId()));
+    }
+
+    @Test
+    public void shouldReloadClients_deleteEventOverwritten() {
+        clientService.afterPropertiesSet();
+        // the client has been deleted but the domain last event is the one of a later scope update
+        when(clientRepository.findByDomain(DOMAIN)).thenReturn(Single.just(Collections.singleton(client("id-2", DOMAIN, "client-2"))));
+
+        clientService.onDomainEvent(new SimpleEvent<>(DomainEvent.SYNC, domain));
+
+        clientService.findByClientId("client-1").test().assertNoValues();
+        clientService.findByClientId("client-2").test().assertValue(client -> "id-2".equals(client.getId()));
+    }
+
+    @Test
+    public void shouldClearClients_lazyLoading_domainSync() {
+        lazyClientService.afterPropertiesSet();
+        when(clientRepository.findByClientIdAndDomain("client-1", DOMAIN)).thenReturn(Maybe.just(client("id-1", DOMAIN, "client-1")));
+        lazyClientService.findByClientId("client-1").test().assertValueCount(1);
+
+        lazyClientService.onDomainEvent(new SimpleEvent<>(DomainEvent.SYNC, domain));
+        when(clientRepository.findByClientIdAndDomain("client-1", DOMAIN)).thenReturn(Maybe.empty());
+
+        lazyClientService.findByClientId("client-1").test().assertNoValues();
+        verify(clientRepository, never()).findByDomain(anyString());
+    }
+
+    @Test
+    public void shouldLoadClientOnDemand() {
+        lazyClientService.afterPropertiesSet();
+        when(clientRepository.findByClientIdAndDomain("client-1", DOMAIN)).thenReturn(Maybe.just(client("id-1", DOMAIN, "client-1")));
+
+        lazyClientService.findByClientId("client-1").test().assertValue(client -> "id-1".equals(client.getId()));
+        lazyClientService.findByClientId("client-1").test().assertValue(client -> "id-1".equals(client.getId()));
+
+        verify(clientRepository, never()).findByDomain(anyString());
+        verify(clientRepository, times(1)).findByClientIdAndDomain("client-1", DOMAIN);
+    }
+
+    @Test
+    public void shouldCacheUnknownClient() {
+        lazyClientService.afterPropertiesSet();
+        when(clientRepository.findByClientIdAndDomain("unknown", DOMAIN)).thenReturn(Maybe.empty());
+
+        lazyClientService.findByClientId("unknown").test().assertNoValues().assertComplete();
+        lazyClientService.findByClientId("unknown").test().assertNoValues().assertComplete();
+
+        verify(clientRepository, times(1)).findByClientIdAndDomain("unknown", DOMAIN);
+    }
+
+    @Test
+    public void shouldDeployUnknownClient_lazyLoading() {
+        lazyClientService.afterPropertiesSet();
+        when(clientRepository.findByClientIdAndDomain("client-4", DOMAIN)).thenReturn(Maybe.empty());
+        lazyClientService.findByClientId("client-4").test().assertNoValues();
+
+        when(clientRepository.findById("id-4")).thenReturn(Maybe.just(client("id-4", DOMAIN, "client-4")));
+        lazyClientService.onEvent(new SimpleEvent<>(ClientEvent.DEPLOY, new Payload("id-4", DOMAIN, Action.CREATE)));
+
+        lazyClientService.findByClientId("client-4").test().assertValue(client -> "id-4".equals(client.getId()));
+        verify(clientRepository, times(1)).findByClientIdAndDomain("client-4", DOMAIN);
+    }
+
+    @Test
+    public void shouldUndeployClient_lazyLoading() {
+        lazyClientService.afterPropertiesSet();
+        when(clientRepository.findByClientIdAndDomain("client-1", DOMAIN)).thenReturn(Maybe.just(client("id-1", DOMAIN, "client-1")));
+        lazyClientService.findByClientId("client-1").test().assertValueCount(1);
+
+        lazyClientService.onEvent(new SimpleEvent<>(ClientEvent.UNDEPLOY, new Payload("id-1", DOMAIN, Action.DELETE)));
+        when(clientRepository.findByClientIdAndDomain("client-1", DOMAIN)).thenReturn(Maybe.empty());
+
+        lazyClientService.findByClientId("client-1").test().assertNoValues();
+        verify(clientRepository, times(2)).findByClientIdAndDomain("client-1", DOMAIN);
+    }
+
+    private static Client client(String id, String domain, String clientId) {
+        Client client = new Client();
+        client.setId(id);
+        client.setDomain(domain);
+        client.setClientId(clientId);
+        return client;
+    }
 }
@@ -0,0 +1,95 @@
+/**
+ * Copyright (C) 2015 The Gravitee team (http://gravitee.io)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.gravitee.am.gateway.handler.oauth2.client.impl;
+
+import io.gravitee.am.model.Client;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measure the client lookup by client_id as the number of clients of the domain grows, and the cost of a client
+ * update.
+ *
+ * Run it from the IDE or with :
+ * <pre>
+ * mvn test-compile exec:java -Dexec.classpathScope=test -Dexec.mainClass=io.gravitee.am.gateway.handler.oauth2.client.impl.ClientRegistryBenchmark
+ * </pre>
+ *
+ * @author GraviteeSource Team
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ClientRegistryBenchmark {
+
+    private static final String DOMAIN = "my-domain";
+
+    @Param({"10", "1000", "100000", "1000000"})
+    private int clients;
+
+    private ClientRegistry clientRegistry;
+    private String[] clientIds;
+
+    @Setup
+    public void setup() {
+        clientRegistry = new ClientRegistry();
+        clientIds = new String[clients];
+        for (int i = 0; i < clients; i++) {
+            clientIds[i] = "client-" + i;
+            clientRegistry.put(client(i));
+        }
+    }
+
+    @Benchmark
+    public Client findByClientId() {
+        return clientRegistry.get(DOMAIN, clientIds[ThreadLocalRandom.current().nextInt(clients)]);
+    }
+
+    @Benchmark
+    public void updateClient() {
+        clientRegistry.put(client(ThreadLocalRandom.current().nextInt(clients)));
+    }
+
+    private static Client client(int i) {
+        Client client = new Client();
+        client.setId("id-" + i);
+        client.setDomain(DOMAIN);
+        client.setClientId("client-" + i);
+        return client;
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder().include(ClientRegistryBenchmark.class.getSimpleName()).build()).run();
+    }
+}
@@ -18,16 +18,13 @@ package io.gravitee.am.gateway.handler.oauth2.code;
 import io.gravitee.am.gateway.handler.oauth2.code.impl.AuthorizationCodeServiceImpl;
 import io.gravitee.am.gateway.handler.oauth2.exception.InvalidGrantException;
 import io.gravitee.am.gateway.handler.oauth2.request.AuthorizationRequest;
+import io.gravitee.am.gateway.handler.oauth2.token.TokenService;
 import io.gravitee.am.model.Client;
 import io.gravitee.am.model.User;
-import io.gravitee.am.repository.oauth2.api.AccessTokenRepository;
 import io.gravitee.am.repository.oauth2.api.AuthorizationCodeRepository;
-import io.gravitee.am.repository.oauth2.api.RefreshTokenRepository;
-import io.gravitee.am.repository.oauth2.model.AccessToken;
 import io.gravitee.am.repository.oauth2.model.AuthorizationCode;
 import io.reactivex.Completable;
 import io.reactivex.Maybe;
-import io.reactivex.Observable;
 import io.reactivex.Single;
 import io.reactivex.observers.TestObserver;
 import org.junit.Test;
@@ -36,8 +33,7 @@ import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.runners.MockitoJUnitRunner;
 
-import java.util.Arrays;
-import java.util.List;
+import java.util.Date;
 
 import static org.mockito.Matchers.any;
 import static org.mockito.Mockito.*;
@@ -56,10 +52,10 @@ public class AuthorizationCodeServiceTest {
     private AuthorizationCodeRepository authorizationCodeRepository;
 
     @Mock
-    private AccessTokenRepository accessTokenRepository;
+    private AuthorizationCodeStore authorizationCodeStore;
 
     @Mock
-    private RefreshTokenRepository refreshTokenRepository;
+    private TokenService tokenService;
 
     @Test
     public void shouldCreate_noExistingCode() {
@@ -76,14 +72,12 @@ public class AuthorizationCodeServiceTest {
         testObserver.assertNoErrors();
 
         verify(authorizationCodeRepository, times(1)).create(any());
+        verify(authorizationCodeStore, never()).create(any());
     }
 
 
     @Test
-    public void shouldRemove_existingCode() {
-        AuthorizationRequest authorizationRequest = new AuthorizationRequest();
-        authorizationRequest.setClientId("my-client-id");
-
+    public void shouldConsume_existingCode() {
         Client client = new Client();
         client.setClientId("my-client-id");
 
@@ -91,93 +85,64 @@ public class AuthorizationCodeServiceTest {
         authorizationCode.setCode("my-code");
         authorizationCode.setClientId("my-client-id");
 
-        when(authorizationCodeRepository.findByCode(any())).thenReturn(Maybe.just(authorizationCode));
-        when(authorizationCodeRepository.delete(anyString())).thenReturn(Maybe.just(authorizationCode));
-        when(accessTokenRepository.findByAuthorizationCode(anyString())).thenReturn(Observable.empty());
+        when(authorizationCodeRepository.consume("my-code")).thenReturn(Maybe.just(authorizationCode));
 
-        TestObserver<AuthorizationCode> testObserver = authorizationCodeService.remove(authorizationCode.getCode(), client).test();
+        TestObserver<AuthorizationCode> testObserver = authorizationCodeService.consume(authorizationCode.getCode(), client).test();
         testObserver.assertComplete();
         testObserver.assertNoErrors();
+        testObserver.assertValue(authorizationCode);
 
-        verify(authorizationCodeRepository, times(1)).findByCode(any());
-        verify(authorizationCodeRepository, times(1)).delete(any());
-        verify(accessTokenRepository, times(1)).findByAuthorizationCode(anyString());
-        verify(accessTokenRepository, never()).delete(anyString());
-        verify(refreshTokenRepository, never()).delete(anyString());
+        verify(authorizationCodeRepository, times(1)).consume("my-code");
+        verify(authorizationCodeRepository, never()).findByCode(any());
+        verify(authorizationCodeRepository, never()).delete(any());
+        verify(tokenService, never()).revokeByAuthorizationCode(anyString());
     }
 
     @Test
-    public void shouldRemove_invalidCode_existingTokens_noRefreshToken() {
-        AuthorizationRequest authorizationRequest = new AuthorizationRequest();
-        authorizationRequest.setClientId("my-client-id");
-
+    public void shouldNotConsume_anotherClientCode() {
         Client client = new Client();
         client.setClientId("my-client-id");
 
         AuthorizationCode authorizationCode = new AuthorizationCode();
         authorizationCode.setCode("my-code");
-        authorizationCode.setClientId("my-client-id");
-
-        AccessToken accessToken = new AccessToken();
-        accessToken.setToken("my-access-token-1");
-        accessToken.setAuthorizationCode("my-code");
-
-        AccessToken accessToken2 = new AccessToken();
-        accessToken2.setToken("my-access-token-2");
-        accessToken2.setAuthorizationCode("my-code");
-
-        List<AccessToken> tokens = Arrays.asList(accessToken, accessToken2);
+        authorizationCode.setClientId("other-client-id");
 
-        when(authorizationCodeRepository.findByCode(any())).thenReturn(Maybe.empty());
-        when(accessTokenRepository.findByAuthorizationCode(anyString())).thenReturn(Observable.fromIterable(tokens));
-        when(accessTokenRepository.delete(anyString())).thenReturn(Completable.complete());
+        when(authorizationCodeRepository.consume("my-code")).thenReturn(Maybe.just(authorizationCode));
 
-        TestObserver<AuthorizationCode> testObserver = authorizationCodeService.remove(authorizationCode.getCode(), client).test();
+        TestObserver<AuthorizationCode> testObserver = authorizationCodeService.consume(authorizationCode.getCode(), client).test();
         testObserver.assertError(InvalidGrantException.class);
 
-        verify(authorizationCodeRepository, times(1)).findByCode(any());
-        verify(accessTokenRepository, times(1)).findByAuthorizationCode(anyString());
-        verify(accessTokenRepository, times(2)).delete(anyString());
-        verify(authorizationCodeRepository, never()).delete(any());
-        verify(refreshTokenRepository, never()).delete(anyString());
+        verify(tokenService, never()).revokeByAuthorizationCode(anyString());
     }
 
     @Test
-    public void shouldRemove_invalidCode_existingTokens_refreshTokens() {
-        AuthorizationRequest authorizationRequest = new AuthorizationRequest();
-        authorizationRequest.setClientId("my-client-id");
-
+    public void shouldNotConsume_expiredCode() {
         Client client = new Client();
         client.setClientId("my-client-id");
 
         AuthorizationCode authorizationCode = new AuthorizationCode();
         authorizationCode.setCode("my-code");
         authorizationCode.setClientId("my-client-id");
+        authorizationCode.setExpireAt(new Date(System.currentTimeMillis() - 1000));
 
-        AccessToken accessToken = new AccessToken();
-        accessToken.setToken("my-access-token-1");
-        accessToken.setAuthorizationCode("my-code");
-        accessToken.setRefreshToken("my-refresh-token-1");
+        when(authorizationCodeRepository.consume("my-code")).thenReturn(Maybe.just(authorizationCode));
 
-        AccessToken accessToken2 = new AccessToken();
-        accessToken2.setToken("my-access-token-2");
-        accessToken2.setAuthorizationCode("my-code");
-        accessToken2.setRefreshToken("my-refresh-token-2");
+        TestObserver<AuthorizationCode> testObserver = authorizationCodeService.consume(authorizationCode.getCode(), client).test();
+        testObserver.assertError(InvalidGrantException.class);
+    }
 
-        List<AccessToken> tokens = Arrays.asList(accessToken, accessToken2);
+    @Test
+    public void shouldConsume_invalidCode_revokeTokens() {
+        Client client = new Client();
+        client.setClientId("my-client-id");
 
-        when(authorizationCodeRepository.findByCode(any())).thenReturn(Maybe.empty());
-        when(accessTokenRepository.findByAuthorizationCode(anyString())).thenReturn(Observable.fromIterable(tokens));
-        when(accessTokenRepository.delete(anyString())).thenReturn(Completable.complete());
-        when(refreshTokenRepository.delete(anyString())).thenReturn(Completable.complete());
+        when(authorizationCodeRepository.consume("my-code")).thenReturn(Maybe.empty());
+        when(tokenService.revokeByAuthorizationCode("my-code")).thenReturn(Completable.complete());
 
-        TestObserver<AuthorizationCode> testObserver = authorizationCodeService.remove(authorizationCode.getCode(), client).test();
+        TestObserver<AuthorizationCode> testObserver = authorizationCodeService.consume("my-code", client).test();
         testObserver.assertError(InvalidGrantException.class);
 
-        verify(authorizationCodeRepository, times(1)).findByCode(any());
-        verify(accessTokenRepository, times(1)).findByAuthorizationCode(anyString());
-        verify(accessTokenRepository, times(2)).delete(anyString());
-        verify(refreshTokenRepository, times(2)).delete(anyString());
-        verify(authorizationCodeRepository, never()).delete(any());
+        verify(authorizationCodeRepository, times(1)).consume("my-code");
+        verify(tokenService, times(1)).revokeByAuthorizationCode("my-code");
     }
 }
@@ -0,0 +1,92 @@
+/**
+ * Copyright (C) 2015 The Gravitee team (http://gravitee.io)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.gravitee.am.gateway.handler.oauth2.code;
+
+import io.gravitee.am.gateway.handler.oauth2.code.impl.AuthorizationCodeStoreImpl;
+import io.gravitee.am.repository.oauth2.model.AuthorizationCode;
+import io.reactivex.observers.TestObserver;
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.Date;
+
+/**
+ * @author GraviteeSource Team
+ */
+public class AuthorizationCodeStoreTest {
+
+    private AuthorizationCodeStoreImpl authorizationCodeStore;
+
+    @Before
+    public void init() {
+        authorizationCodeStore = new AuthorizationCodeStoreImpl(10, 64);
+        authorizationCodeStore.afterPropertiesSet();
+    }
+
+    @After
+    public void destroy() {
+        authorizationCodeStore.destroy();
+    }
+
+    @Test
+    public void shouldCreateAndFind() {
+        authorizationCodeStore.create(authorizationCode("my-code", 60000)).test().assertComplete();
+
+        TestObserver<AuthorizationCode> testObserver = authorizationCodeStore.findByCode("my-code").test();
+        testObserver.assertComplete();
+        testObserver.assertValue(authorizationCode -> "my-code".equals(authorizationCode.getCode()));
+    }
+
+    @Test
+    public void shouldRemoveOnce() {
+        authorizationCodeStore.create(authorizationCode("my-code", 60000)).test().assertComplete();
+
+        authorizationCodeStore.remove("my-code").test().assertValueCount(1);
+        authorizationCodeStore.remove("my-code").test().assertComplete().assertNoValues();
+        authorizationCodeStore.findByCode("my-code").test().assertComplete().assertNoValues();
+    }
+
+    @Test
+    public void shouldNotFindExpired() {
+        authorizationCodeStore.create(authorizationCode("my-code", -1)).test().assertComplete();
+
+        authorizationCodeStore.findByCode("my-code").test().assertComplete().assertNoValues();
+        authorizationCodeStore.remove("my-code").test().assertComplete().assertNoValues();
+    }
+
+    @Test
+    public void shouldExpire() throws InterruptedException {
+        authorizationCodeStore.create(authorizationCode("my-code", 20)).test().assertComplete();
+
+        long deadline = System.currentTimeMillis() + 5000;
+        while (authorizationCodeStore.size() > 0 && System.currentTimeMillis() < deadline) {
+            Thread.sleep(10);
+        }
+
+        Assert.assertEquals(0, authorizationCodeStore.size());
+    }
+
+    private static AuthorizationCode authorizationCode(String code, long validity) {
+        AuthorizationCode authorizationCode = new AuthorizationCode();
+        authorizationCode.setCode(code);
+        authorizationCode.setClientId("my-client-id");
+        authorizationCode.setCreatedAt(new Date());
+        authorizationCode.setExpireAt(new Date(System.currentTimeMillis() + validity));
+        return authorizationCode;
+    }
+}
@@ -0,0 +1,98 @@
+/**
+ * Copyright (C) 2015 The Gravitee team (http://gravitee.io)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.gravitee.am.gateway.handler.oauth2.introspection;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.gravitee.am.gateway.handler.jwt.ParsedJwt;
+import io.gravitee.am.gateway.handler.oauth2.introspection.impl.IntrospectionCacheImpl;
+import org.junit.Before;
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+
+/**
+ * @author GraviteeSource Team
+ */
+public class IntrospectionCacheTest {
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    private IntrospectionCacheImpl introspectionCache;
+
+    @Before
+    public void init() {
+        introspectionCache = new IntrospectionCacheImpl(true, 100, 30, 10);
+        introspectionCache.afterPropertiesSet();
+    }
+
+    @Test
+    public void shouldGet_sameClient() {
+        IntrospectionResponse response = active(System.currentTimeMillis() / 1000 + 60);
+        introspectionCache.put(token("token"), "client-id", response);
+
+        assertSame(response, introspectionCache.get(token("token"), "client-id"));
+        assertNull(introspectionCache.get(token("token"), "other-client-id"));
+        assertNull(introspectionCache.get(token("other-token"), "client-id"));
+    }
+
+    @Test
+    public void shouldGet_inactive() {
+        introspectionCache.put(token("token"), "client-id", new IntrospectionResponse());
+
+        assertFalse(introspectionCache.get(token("token"), "client-id").isActive());
+    }
+
+    @Test
+    public void shouldNotGet_tokenExpired() {
+        introspectionCache.put(token("token"), "client-id", active(System.currentTimeMillis() / 1000 - 1));
+
+        assertNull(introspectionCache.get(token("token"), "client-id"));
+    }
+
+    @Test
+    public void shouldEvict_everyClient() {
+        introspectionCache.put(token("token"), "client-id", active(System.currentTimeMillis() / 1000 + 60));
+        introspectionCache.put(token("token"), "other-client-id", active(System.currentTimeMillis() / 1000 + 60));
+        introspectionCache.put(token("other-token"), "client-id", active(System.currentTimeMillis() / 1000 + 60));
+
+        introspectionCache.evict(token("token"));
+
+        assertNull(introspectionCache.get(token("token"), "client-id"));
+        assertNull(introspectionCache.get(token("token"), "other-client-id"));
+        assertNotNull(introspectionCache.get(token("other-token"), "client-id"));
+        assertEquals(1, introspectionCache.size());
+    }
+
+    @Test
+    public void shouldNotGet_disabled() {
+        introspectionCache = new IntrospectionCacheImpl(false, 100, 30, 10);
+        introspectionCache.afterPropertiesSet();
+        introspectionCache.put(token("token"), "client-id", active(System.currentTimeMillis() / 1000 + 60));
+
+        assertNull(introspectionCache.get(token("token"), "client-id"));
+    }
+
+    private ParsedJwt token(String token) {
+        return new ParsedJwt(token, objectMapper);
+    }
+
+    private static IntrospectionResponse active(long exp) {
+        IntrospectionResponse response = new IntrospectionResponse();
+        response.setActive(true);
+        response.setExpireAt(exp);
+        return response;
+    }
+}
@@ -0,0 +1,162 @@
+/**
+ * Copyright (C) 2015 The Gravitee team (http://gravitee.io)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.gravitee.am.gateway.handler.oauth2.introspection;
+
+import io.gravitee.am.gateway.handler.jwt.JwtService;
+import io.gravitee.am.gateway.handler.jwt.ParsedJwt;
+import io.gravitee.am.gateway.handler.jwt.impl.JwtServiceImpl;
+import io.gravitee.am.gateway.handler.oauth2.exception.InvalidTokenException;
+import io.gravitee.am.gateway.handler.oauth2.introspection.impl.IntrospectionCacheImpl;
+import io.gravitee.am.gateway.handler.oauth2.introspection.impl.IntrospectionServiceImpl;
+import io.gravitee.am.gateway.handler.oauth2.token.Token;
+import io.gravitee.am.gateway.handler.oauth2.token.TokenService;
+import io.gravitee.am.gateway.handler.oauth2.token.impl.AccessToken;
+import io.gravitee.am.gateway.service.UserService;
+import io.reactivex.Maybe;
+import io.reactivex.Single;
+import io.reactivex.observers.TestObserver;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.mockito.ArgumentMatcher;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.Spy;
+import org.mockito.runners.MockitoJUnitRunner;
+
+import java.util.Arrays;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.mockito.Matchers.any;
+import static org.mockito.Matchers.anyListOf;
+import static org.mockito.Matchers.argThat;
+import static org.mockito.Mockito.*;
+
+/**
+ * @author GraviteeSource Team
+ */
+@RunWith(MockitoJUnitRunner.class)
+public class IntrospectionServiceTest {
+
+    @InjectMocks
+    private IntrospectionService introspectionService = new IntrospectionServiceImpl();
+
+    @Mock
+    private TokenService tokenService;
+
+    @Mock
+    private UserService userService;
+
+    @Spy
+    private JwtService jwtService = new JwtServiceImpl();
+
+    @Spy
+    private IntrospectionCache introspectionCache = new IntrospectionCacheImpl(true, 100, 30, 10);
+
+    @Before
+    public void init() {
+        ((IntrospectionCacheImpl) introspectionCache).afterPropertiesSet();
+    }
+
+    @Test
+    public void shouldIntrospectOnce() {
+        AccessToken accessToken = new AccessToken("token");
+        accessToken.setClientId("client-id");
+        accessToken.setCreatedAt(new Date());
+        accessToken.setExpireAt(new Date(System.currentTimeMillis() + 60000));
+        accessToken.setExpiresIn(60);
+        when(tokenService.introspect(any(ParsedJwt.class))).thenReturn(Maybe.just(accessToken));
+
+        introspect("token", "client-id").assertValue(IntrospectionResponse::isActive);
+        introspect("token", "client-id").assertValue(IntrospectionResponse::isActive);
+
+        verify(tokenService, times(1)).introspect(any(ParsedJwt.class));
+    }
+
+    @Test
+    public void shouldIntrospectOnce_invalidToken() {
+        when(tokenService.introspect(any(ParsedJwt.class))).thenReturn(Maybe.error(new InvalidTokenException("The access token is invalid")));
+
+        introspect("token", "client-id").assertValue(response -> !response.isActive());
+        introspect("token", "client-id").assertValue(response -> !response.isActive());
+
+        verify(tokenService, times(1)).introspect(any(ParsedJwt.class));
+    }
+
+    @Test
+    public void shouldNotCache_technicalError() {
+        when(tokenService.introspect(any(ParsedJwt.class))).thenReturn(Maybe.error(new IllegalStateException()));
+
+        introspect("token", "client-id").assertValue(response -> !response.isActive());
+        introspect("token", "client-id").assertValue(response -> !response.isActive());
+
+        verify(tokenService, times(2)).introspect(any(ParsedJwt.class));
+    }
+
+    @Test
+    public void shouldIntrospect_batch() {
+        when(tokenService.introspect(any(ParsedJwt.class))).thenReturn(Maybe.just(accessToken("cached")));
+        introspect("cached", "client-id").assertValue(IntrospectionResponse::isActive);
+
+        when(tokenService.introspect(anyListOf(ParsedJwt.class))).thenAnswer(invocation -> {
+            List<ParsedJwt> tokens = (List<ParsedJwt>) invocation.getArguments()[0];
+            Map<ParsedJwt, Token> result = new HashMap<>();
+            tokens.stream()
+                    .filter(token -> "fresh".equals(token.getToken()))
+                    .forEach(token -> result.put(token, accessToken("fresh")));
+            return Single.just(result);
+        });
+
+        TestObserver<List<IntrospectionResponse>> testObserver = introspectionService.introspect(Arrays.asList(
+                request("cached", "client-id"), request("fresh", "client-id"), request("unknown", "client-id"))).test();
+        testObserver.awaitTerminalEvent();
+        testObserver.assertValue(responses -> responses.size() == 3
+                && responses.get(0).isActive()
+                && responses.get(1).isActive()
+                && !responses.get(2).isActive());
+
+        verify(tokenService, times(1)).introspect(argThat(new ArgumentMatcher<List<ParsedJwt>>() {
+            @Override
+            public boolean matches(Object argument) {
+                return ((List) argument).size() == 2;
+            }
+        }));
+    }
+
+    private AccessToken accessToken(String token) {
+        AccessToken accessToken = new AccessToken(token);
+        accessToken.setClientId("client-id");
+        accessToken.setCreatedAt(new Date());
+        accessToken.setExpireAt(new Date(System.currentTimeMillis() + 60000));
+        accessToken.setExpiresIn(60);
+        return accessToken;
+    }
+
+    private IntrospectionRequest request(String token, String clientId) {
+        IntrospectionRequest introspectionRequest = new IntrospectionRequest(token);
+        introspectionRequest.setClientId(clientId);
+        return introspectionRequest;
+    }
+
+    private TestObserver<IntrospectionResponse> introspect(String token, String clientId) {
+        TestObserver<IntrospectionResponse> testObserver = introspectionService.introspect(request(token, clientId)).test();
+        testObserver.awaitTerminalEvent();
+        return testObserver;
+    }
+}
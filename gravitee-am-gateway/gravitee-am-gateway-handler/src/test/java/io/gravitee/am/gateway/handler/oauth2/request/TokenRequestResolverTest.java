@@ -66,6 +66,27 @@ public class TokenRequestResolverTest {
         testObserver.assertNoErrors();
     }
 
+    @Test
+    public void shouldResolveTokenRequest_withUserResolvedPermissions() {
+        final String scope = "read";
+        final String userScope = "user";
+        TokenRequest tokenRequest = new TokenRequest();
+        tokenRequest.setScopes(new HashSet<>(Arrays.asList(scope, userScope)));
+        Client client = new Client();
+        client.setEnhanceScopesWithUserPermissions(true);
+        client.setScopes(Collections.singletonList(scope));
+
+        // permissions resolved by the role service take precedence over the role definitions
+        User user = new User();
+        user.setRolesPermissions(Collections.singleton(new Role()));
+        user.setPermissions(Collections.singleton(userScope));
+
+        TestObserver<TokenRequest> testObserver = tokenRequestResolver.resolve(tokenRequest, client, user).test();
+        testObserver.assertComplete();
+        testObserver.assertNoErrors();
+        testObserver.assertValue(request -> request.getScopes().equals(new HashSet<>(Arrays.asList(scope, userScope))));
+    }
+
     @Test
     public void shouldResolveTokenRequest_emptyScope() {
         TokenRequest tokenRequest = new TokenRequest();
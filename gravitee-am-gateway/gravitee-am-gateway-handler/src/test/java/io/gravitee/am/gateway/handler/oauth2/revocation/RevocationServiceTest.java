@@ -15,7 +15,11 @@
  */
 package io.gravitee.am.gateway.handler.oauth2.revocation;
 
+import io.gravitee.am.gateway.handler.jwt.JwtService;
+import io.gravitee.am.gateway.handler.jwt.ParsedJwt;
+import io.gravitee.am.gateway.handler.jwt.impl.JwtServiceImpl;
 import io.gravitee.am.gateway.handler.oauth2.exception.InvalidGrantException;
+import io.gravitee.am.gateway.handler.oauth2.introspection.IntrospectionCache;
 import io.gravitee.am.gateway.handler.oauth2.revocation.impl.RevocationTokenServiceImpl;
 import io.gravitee.am.gateway.handler.oauth2.token.Token;
 import io.gravitee.am.gateway.handler.oauth2.token.TokenService;
@@ -30,6 +34,7 @@ import org.junit.Test;
 import org.junit.runner.RunWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
+import org.mockito.Spy;
 import org.mockito.runners.MockitoJUnitRunner;
 
 import static org.mockito.Matchers.anyString;
@@ -48,6 +53,15 @@ public class RevocationServiceTest {
     @Mock
     private TokenService tokenService;
 
+    @Spy
+    private JwtService jwtService = new JwtServiceImpl();
+
+    @Mock
+    private IntrospectionCache introspectionCache;
+
+    @Mock
+    private RevokedTokenService revokedTokenService;
+
     @Test
     public void shouldNotRevoke_WrongRequestedClientId() {
         final RevocationTokenRequest revocationTokenRequest = new RevocationTokenRequest("token");
@@ -58,17 +72,17 @@ public class RevocationServiceTest {
         Client client = new Client();
         client.setClientId("wrong-client-id");
 
-        when(tokenService.getAccessToken("token", client)).thenReturn(Maybe.just(accessToken));
-        when(tokenService.getRefreshToken("token", client)).thenReturn(Maybe.empty());
+        when(tokenService.getAccessToken(any(ParsedJwt.class), eq(client))).thenReturn(Maybe.just(accessToken));
+        when(tokenService.getRefreshToken(any(ParsedJwt.class), eq(client))).thenReturn(Maybe.empty());
 
         TestObserver testObserver = revocationTokenService.revoke(revocationTokenRequest, client).test();
 
         testObserver.assertNotComplete();
         testObserver.assertError(InvalidGrantException.class);
 
-        verify(tokenService, times(1)).getAccessToken("token", client);
+        verify(tokenService, times(1)).getAccessToken(any(ParsedJwt.class), eq(client));
         verify(tokenService, never()).deleteAccessToken(anyString());
-        verify(tokenService, never()).getRefreshToken("token", client);
+        verify(tokenService, never()).getRefreshToken(any(ParsedJwt.class), eq(client));
         verify(tokenService, never()).deleteRefreshToken(anyString());
     }
 
@@ -79,17 +93,17 @@ public class RevocationServiceTest {
         Client client = new Client();
         client.setClientId("client-id");
 
-        when(tokenService.getAccessToken("token", client)).thenReturn(Maybe.empty());
-        when(tokenService.getRefreshToken("token", client)).thenReturn(Maybe.empty());
+        when(tokenService.getAccessToken(any(ParsedJwt.class), eq(client))).thenReturn(Maybe.empty());
+        when(tokenService.getRefreshToken(any(ParsedJwt.class), eq(client))).thenReturn(Maybe.empty());
 
         TestObserver testObserver = revocationTokenService.revoke(revocationTokenRequest, client).test();
 
         testObserver.assertComplete();
         testObserver.assertNoErrors();
 
-        verify(tokenService, times(1)).getAccessToken("token", client);
+        verify(tokenService, times(1)).getAccessToken(any(ParsedJwt.class), eq(client));
         verify(tokenService, never()).deleteAccessToken(anyString());
-        verify(tokenService, times(1)).getRefreshToken("token", client);
+        verify(tokenService, times(1)).getRefreshToken(any(ParsedJwt.class), eq(client));
         verify(tokenService, never()).deleteRefreshToken(anyString());
 
     }
@@ -104,21 +118,48 @@ public class RevocationServiceTest {
         AccessToken accessToken = new AccessToken("token");
         accessToken.setClientId("client-id");
 
-        when(tokenService.getAccessToken("token", client)).thenReturn(Maybe.just(accessToken));
+        when(tokenService.getAccessToken(any(ParsedJwt.class), eq(client))).thenReturn(Maybe.just(accessToken));
         when(tokenService.deleteAccessToken("token")).thenReturn(Completable.complete());
+        when(revokedTokenService.revoke(accessToken)).thenReturn(Completable.complete());
 
         TestObserver testObserver = revocationTokenService.revoke(revocationTokenRequest, client).test();
 
         testObserver.assertComplete();
         testObserver.assertNoErrors();
 
-        verify(tokenService, times(1)).getAccessToken("token", client);
+        verify(tokenService, times(1)).getAccessToken(any(ParsedJwt.class), eq(client));
         verify(tokenService, times(1)).deleteAccessToken("token");
-        verify(tokenService, never()).getRefreshToken(anyString(), any());
+        verify(revokedTokenService, times(1)).revoke(accessToken);
+        verify(introspectionCache, times(1)).evict(any(ParsedJwt.class));
+        verify(tokenService, never()).getRefreshToken(any(ParsedJwt.class), any());
         verify(tokenService, never()).deleteRefreshToken(anyString());
 
     }
 
+    @Test
+    public void shouldRevoke_statelessAccessToken() {
+        final RevocationTokenRequest revocationTokenRequest = new RevocationTokenRequest("token");
+
+        Client client = new Client();
+        client.setClientId("client-id");
+        client.setStatelessAccessToken(true);
+
+        AccessToken accessToken = new AccessToken("token");
+        accessToken.setClientId("client-id");
+
+        when(tokenService.getAccessToken(any(ParsedJwt.class), eq(client))).thenReturn(Maybe.just(accessToken));
+        when(revokedTokenService.revoke(accessToken)).thenReturn(Completable.complete());
+
+        TestObserver testObserver = revocationTokenService.revoke(revocationTokenRequest, client).test();
+
+        testObserver.assertComplete();
+        testObserver.assertNoErrors();
+
+        verify(revokedTokenService, times(1)).revoke(accessToken);
+        verify(tokenService, never()).deleteAccessToken(anyString());
+        verify(tokenService, never()).getRefreshToken(any(ParsedJwt.class), any());
+    }
+
     @Test
     public void shouldRevoke_refreshToken() {
         final RevocationTokenRequest revocationTokenRequest = new RevocationTokenRequest("token");
@@ -130,7 +171,7 @@ public class RevocationServiceTest {
         Token refreshToken = new RefreshToken("token");
         refreshToken.setClientId("client-id");
 
-        when(tokenService.getRefreshToken("token", client)).thenReturn(Maybe.just(refreshToken));
+        when(tokenService.getRefreshToken(any(ParsedJwt.class), eq(client))).thenReturn(Maybe.just(refreshToken));
         when(tokenService.deleteRefreshToken("token")).thenReturn(Completable.complete());
 
         TestObserver testObserver = revocationTokenService.revoke(revocationTokenRequest, client).test();
@@ -138,9 +179,9 @@ public class RevocationServiceTest {
         testObserver.assertComplete();
         testObserver.assertNoErrors();
 
-        verify(tokenService, times(1)).getRefreshToken("token", client);
+        verify(tokenService, times(1)).getRefreshToken(any(ParsedJwt.class), eq(client));
         verify(tokenService, times(1)).deleteRefreshToken("token");
-        verify(tokenService, never()).getAccessToken("token", client);
+        verify(tokenService, never()).getAccessToken(any(ParsedJwt.class), eq(client));
         verify(tokenService, never()).deleteAccessToken("token");
 
     }
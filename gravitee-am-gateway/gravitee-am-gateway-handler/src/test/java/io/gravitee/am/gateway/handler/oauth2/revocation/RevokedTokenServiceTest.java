@@ -0,0 +1,98 @@
+/**
+ * Copyright (C) 2015 The Gravitee team (http://gravitee.io)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.gravitee.am.gateway.handler.oauth2.revocation;
+
+import io.gravitee.am.gateway.handler.oauth2.revocation.impl.RevokedTokenServiceImpl;
+import io.gravitee.am.gateway.handler.oauth2.token.impl.AccessToken;
+import io.gravitee.am.model.Domain;
+import io.gravitee.am.repository.oauth2.api.RevokedTokenRepository;
+import io.gravitee.am.repository.oauth2.model.RevokedToken;
+import io.reactivex.Observable;
+import io.reactivex.Single;
+import io.reactivex.observers.TestObserver;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.runners.MockitoJUnitRunner;
+
+import java.util.Date;
+
+import static org.mockito.Matchers.any;
+import static org.mockito.Matchers.eq;
+import static org.mockito.Mockito.*;
+
+/**
+ * @author GraviteeSource Team
+ */
+@RunWith(MockitoJUnitRunner.class)
+public class RevokedTokenServiceTest {
+
+    @InjectMocks
+    private RevokedTokenServiceImpl revokedTokenService = new RevokedTokenServiceImpl();
+
+    @Mock
+    private Domain domain;
+
+    @Mock
+    private RevokedTokenRepository revokedTokenRepository;
+
+    @Before
+    public void init() {
+        when(domain.getId()).thenReturn("domain-id");
+    }
+
+    @Test
+    public void shouldRevoke() {
+        when(revokedTokenRepository.findByDomainAndCreatedAtAfter(eq("domain-id"), any())).thenReturn(Observable.empty());
+        when(revokedTokenRepository.create(any())).thenAnswer(invocation -> Single.just(invocation.getArguments()[0]));
+        revokedTokenService.afterPropertiesSet();
+
+        AccessToken accessToken = new AccessToken("token-id");
+        accessToken.setClientId("client-id");
+        accessToken.setExpireAt(new Date(System.currentTimeMillis() + 60000));
+
+        TestObserver testObserver = revokedTokenService.revoke(accessToken).test();
+        testObserver.assertComplete();
+
+        Assert.assertTrue(revokedTokenService.isRevoked("token-id"));
+        Assert.assertFalse(revokedTokenService.isRevoked("other-token-id"));
+        ArgumentCaptor<RevokedToken> revokedTokenCaptor = ArgumentCaptor.forClass(RevokedToken.class);
+        verify(revokedTokenRepository, times(1)).create(revokedTokenCaptor.capture());
+        Assert.assertEquals("token-id", revokedTokenCaptor.getValue().getToken());
+        Assert.assertEquals("domain-id", revokedTokenCaptor.getValue().getDomain());
+    }
+
+    @Test
+    public void shouldLoadRevokedTokens_fromOtherNodes() {
+        RevokedToken revokedToken = new RevokedToken();
+        revokedToken.setToken("token-id");
+        revokedToken.setExpireAt(new Date(System.currentTimeMillis() + 60000));
+
+        RevokedToken expiredToken = new RevokedToken();
+        expiredToken.setToken("expired-token-id");
+        expiredToken.setExpireAt(new Date(System.currentTimeMillis() - 1000));
+
+        when(revokedTokenRepository.findByDomainAndCreatedAtAfter(eq("domain-id"), any())).thenReturn(Observable.just(revokedToken, expiredToken));
+        revokedTokenService.afterPropertiesSet();
+
+        Assert.assertTrue(revokedTokenService.isRevoked("token-id"));
+        Assert.assertFalse(revokedTokenService.isRevoked("expired-token-id"));
+    }
+}
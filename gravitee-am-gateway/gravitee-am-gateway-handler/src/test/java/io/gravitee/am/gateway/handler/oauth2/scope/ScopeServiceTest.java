@@ -0,0 +1,157 @@
+/**
+ * Copyright (C) 2015 The Gravitee team (http://gravitee.io)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.gravitee.am.gateway.handler.oauth2.scope;
+
+import io.gravitee.am.gateway.core.event.DomainEvent;
+import io.gravitee.am.gateway.core.event.ScopeEvent;
+import io.gravitee.am.gateway.handler.oauth2.scope.impl.ScopeServiceImpl;
+import io.gravitee.am.model.Domain;
+import io.gravitee.am.model.common.event.Action;
+import io.gravitee.am.model.common.event.Payload;
+import io.gravitee.am.model.oauth2.Scope;
+import io.gravitee.am.repository.management.api.ScopeRepository;
+import io.gravitee.common.event.impl.SimpleEvent;
+import io.reactivex.Maybe;
+import io.reactivex.Single;
+import io.reactivex.observers.TestObserver;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.runners.MockitoJUnitRunner;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.Set;
+
+import static org.mockito.Mockito.*;
+
+/**
+ * @author GraviteeSource Team
+ */
+@RunWith(MockitoJUnitRunner.class)
+public class ScopeServiceTest {
+
+    private static final String DOMAIN = "domain1";
+
+    @InjectMocks
+    private ScopeServiceImpl scopeService = new ScopeServiceImpl();
+
+    @Mock
+    private ScopeRepository scopeRepository;
+
+    @Mock
+    private Domain domain;
+
+    @Before
+    public void init() {
+        when(domain.getId()).thenReturn(DOMAIN);
+        when(scopeRepository.findByDomain(DOMAIN)).thenReturn(Single.just(new HashSet<>(Arrays.asList(scope("2", "write"), scope("1", "read")))));
+        scopeService.afterPropertiesSet();
+    }
+
+    @Test
+    public void shouldGetAll_sortedByKey() {
+        TestObserver<Set<Scope>> testObserver = scopeService.getAll().test();
+
+        testObserver.assertComplete();
+        testObserver.assertValue(scopes -> scopes.size() == 2 && "read".equals(scopes.iterator().next().getKey()));
+        verify(scopeRepository, times(1)).findByDomain(DOMAIN);
+    }
+
+    @Test
+    public void shouldFindByKey_ignoreCase() {
+        TestObserver<Scope> testObserver = scopeService.findByKey("READ").test();
+
+        testObserver.assertComplete();
+        testObserver.assertValue(scope -> "1".equals(scope.getId()));
+    }
+
+    @Test
+    public void shouldNotFindByKey_unknownScope() {
+        TestObserver<Scope> testObserver = scopeService.findByKey("unknown").test();
+
+        testObserver.assertComplete();
+        testObserver.assertNoValues();
+    }
+
+    @Test
+    public void shouldDeployScope() {
+        when(scopeRepository.findById("3")).thenReturn(Maybe.just(scope("3", "admin")));
+
+        scopeService.onEvent(new SimpleEvent<>(ScopeEvent.DEPLOY, new Payload("3", DOMAIN, Action.CREATE)));
+
+        scopeService.findByKey("admin").test().assertValue(scope -> "3".equals(scope.getId()));
+        scopeService.getAll().test().assertValue(scopes -> scopes.size() == 3);
+    }
+
+    @Test
+    public void shouldUpdateScope_keyChanged() {
+        when(scopeRepository.findById("1")).thenReturn(Maybe.just(scope("1", "read-only")));
+
+        scopeService.onEvent(new SimpleEvent<>(ScopeEvent.UPDATE, new Payload("1", DOMAIN, Action.UPDATE)));
+
+        scopeService.findByKey("read").test().assertNoValues();
+        scopeService.findByKey("read-only").test().assertValue(scope -> "1".equals(scope.getId()));
+        scopeService.getAll().test().assertValue(scopes -> scopes.size() == 2);
+    }
+
+    @Test
+    public void shouldUndeployScope() {
+        scopeService.onEvent(new SimpleEvent<>(ScopeEvent.UNDEPLOY, new Payload("1", DOMAIN, Action.DELETE)));
+
+        scopeService.findByKey("read").test().assertNoValues();
+        scopeService.getAll().test().assertValue(scopes -> scopes.size() == 1);
+    }
+
+    @Test
+    public void shouldReloadScopes_deleteEventOverwritten() {
+        // the scope has been deleted but the domain last event is the one of a later role update
+        when(scopeRepository.findByDomain(DOMAIN)).thenReturn(Single.just(Collections.singleton(scope("2", "write"))));
+
+        scopeService.onDomainEvent(new SimpleEvent<>(DomainEvent.SYNC, domain));
+
+        scopeService.findByKey("read").test().assertNoValues();
+        scopeService.getAll().test().assertValue(scopes -> scopes.size() == 1);
+    }
+
+    @Test
+    public void shouldNotReloadScopes_otherDomainSync() {
+        Domain otherDomain = new Domain();
+        otherDomain.setId("domain2");
+
+        scopeService.onDomainEvent(new SimpleEvent<>(DomainEvent.SYNC, otherDomain));
+
+        verify(scopeRepository, times(1)).findByDomain(DOMAIN);
+    }
+
+    @Test
+    public void shouldIgnoreOtherDomainEvents() {
+        scopeService.onEvent(new SimpleEvent<>(ScopeEvent.UNDEPLOY, new Payload("1", "domain2", Action.DELETE)));
+
+        scopeService.findByKey("read").test().assertValueCount(1);
+        verify(scopeRepository, never()).findById(anyString());
+    }
+
+    private static Scope scope(String id, String key) {
+        Scope scope = new Scope(key);
+        scope.setId(id);
+        scope.setDomain(DOMAIN);
+        return scope;
+    }
+}
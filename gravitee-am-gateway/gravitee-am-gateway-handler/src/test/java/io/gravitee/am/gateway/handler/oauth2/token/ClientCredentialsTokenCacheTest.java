@@ -0,0 +1,207 @@
+/**
+ * Copyright (C) 2015 The Gravitee team (http://gravitee.io)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.gravitee.am.gateway.handler.oauth2.token;
+
+import io.gravitee.am.gateway.core.event.ClientEvent;
+import io.gravitee.am.gateway.handler.oauth2.revocation.RevokedTokenService;
+import io.gravitee.am.gateway.handler.oauth2.token.impl.AccessToken;
+import io.gravitee.am.gateway.handler.oauth2.token.impl.ClientCredentialsTokenCacheImpl;
+import io.gravitee.am.model.Client;
+import io.gravitee.am.model.Domain;
+import io.gravitee.am.model.common.event.Action;
+import io.gravitee.am.model.common.event.Payload;
+import io.gravitee.am.repository.oauth2.api.AccessTokenRepository;
+import io.gravitee.common.event.EventManager;
+import io.gravitee.common.event.impl.SimpleEvent;
+import io.reactivex.Maybe;
+import io.reactivex.observers.TestObserver;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.runners.MockitoJUnitRunner;
+
+import java.util.Arrays;
+import java.util.Date;
+import java.util.LinkedHashSet;
+import java.util.Set;
+
+import static org.mockito.Mockito.*;
+
+/**
+ * @author GraviteeSource Team
+ */
+@RunWith(MockitoJUnitRunner.class)
+public class ClientCredentialsTokenCacheTest {
+
+    @InjectMocks
+    private ClientCredentialsTokenCacheImpl clientCredentialsTokenCache = new ClientCredentialsTokenCacheImpl(60, 4);
+
+    @Mock
+    private AccessTokenRepository accessTokenRepository;
+
+    @Mock
+    private RevokedTokenService revokedTokenService;
+
+    @Mock
+    private Domain domain;
+
+    @Mock
+    private EventManager eventManager;
+
+    @Before
+    public void setUp() {
+        when(domain.getId()).thenReturn("my-domain");
+        clientCredentialsTokenCache.afterPropertiesSet();
+    }
+
+    @Test
+    public void shouldNotGet_unknownClient() {
+        TestObserver<Token> testObserver = clientCredentialsTokenCache.get(client(true), scopes("read")).test();
+
+        testObserver.assertComplete();
+        testObserver.assertNoValues();
+    }
+
+    @Test
+    public void shouldGet_statelessToken() {
+        Client client = client(true);
+        AccessToken token = new AccessToken("encoded-token");
+        token.setScope("read write");
+        clientCredentialsTokenCache.put(client, scopes("read", "write"), "token-id", new Date(System.currentTimeMillis() + 3600_000), token);
+
+        // scopes requested in another order
+        TestObserver<Token> testObserver = clientCredentialsTokenCache.get(client, scopes("write", "read")).test();
+
+        testObserver.assertComplete();
+        testObserver.assertValue(accessToken -> "encoded-token".equals(accessToken.getValue())
+                && "read write".equals(accessToken.getScope())
+                && accessToken.getExpiresIn() > 3500 && accessToken.getExpiresIn() <= 3600);
+        verify(accessTokenRepository, never()).findByToken(anyString());
+    }
+
+    @Test
+    public void shouldNotGet_otherScopes() {
+        Client client = client(true);
+        clientCredentialsTokenCache.put(client, scopes("read", "write"), "token-id", new Date(System.currentTimeMillis() + 3600_000), new AccessToken("encoded-token"));
+
+        TestObserver<Token> testObserver = clientCredentialsTokenCache.get(client, scopes("read")).test();
+
+        testObserver.assertComplete();
+        testObserver.assertNoValues();
+    }
+
+    @Test
+    public void shouldNotGet_almostExpired() {
+        Client client = client(true);
+        clientCredentialsTokenCache.put(client, scopes("read"), "token-id", new Date(System.currentTimeMillis() + 10_000), new AccessToken("encoded-token"));
+
+        TestObserver<Token> testObserver = clientCredentialsTokenCache.get(client, scopes("read")).test();
+
+        testObserver.assertComplete();
+        testObserver.assertNoValues();
+        Assert.assertEquals(0, clientCredentialsTokenCache.size());
+    }
+
+    @Test
+    public void shouldNotGet_revoked() {
+        Client client = client(true);
+        clientCredentialsTokenCache.put(client, scopes("read"), "token-id", new Date(System.currentTimeMillis() + 3600_000), new AccessToken("encoded-token"));
+        when(revokedTokenService.isRevoked("token-id")).thenReturn(true);
+
+        TestObserver<Token> testObserver = clientCredentialsTokenCache.get(client, scopes("read")).test();
+
+        testObserver.assertComplete();
+        testObserver.assertNoValues();
+        Assert.assertEquals(0, clientCredentialsTokenCache.size());
+    }
+
+    @Test
+    public void shouldNotGet_clientUpdated() {
+        Client client = client(true);
+        clientCredentialsTokenCache.put(client, scopes("read"), "token-id", new Date(System.currentTimeMillis() + 3600_000), new AccessToken("encoded-token"));
+        client.setUpdatedAt(new Date(client.getUpdatedAt().getTime() + 1000));
+
+        TestObserver<Token> testObserver = clientCredentialsTokenCache.get(client, scopes("read")).test();
+
+        testObserver.assertComplete();
+        testObserver.assertNoValues();
+    }
+
+    @Test
+    public void shouldGet_storedToken() {
+        Client client = client(false);
+        clientCredentialsTokenCache.put(client, scopes("read"), "token-id", new Date(System.currentTimeMillis() + 3600_000), new AccessToken("encoded-token"));
+        when(accessTokenRepository.findByToken("token-id")).thenReturn(Maybe.just(new io.gravitee.am.repository.oauth2.model.AccessToken()));
+
+        TestObserver<Token> testObserver = clientCredentialsTokenCache.get(client, scopes("read")).test();
+
+        testObserver.assertComplete();
+        testObserver.assertValue(accessToken -> "encoded-token".equals(accessToken.getValue()));
+    }
+
+    @Test
+    public void shouldNotGet_storedTokenDeleted() {
+        Client client = client(false);
+        clientCredentialsTokenCache.put(client, scopes("read"), "token-id", new Date(System.currentTimeMillis() + 3600_000), new AccessToken("encoded-token"));
+        when(accessTokenRepository.findByToken("token-id")).thenReturn(Maybe.empty());
+
+        TestObserver<Token> testObserver = clientCredentialsTokenCache.get(client, scopes("read")).test();
+
+        testObserver.assertComplete();
+        testObserver.assertNoValues();
+        Assert.assertEquals(0, clientCredentialsTokenCache.size());
+    }
+
+    @Test
+    public void shouldBoundEntries() {
+        Client client = client(true);
+        for (int i = 0; i < 100; i++) {
+            clientCredentialsTokenCache.put(client, scopes("scope-" + i), "token-" + i, new Date(System.currentTimeMillis() + 3600_000), new AccessToken("encoded-token"));
+        }
+
+        Assert.assertTrue(clientCredentialsTokenCache.size() <= 4);
+        clientCredentialsTokenCache.get(client, scopes("scope-99")).test().assertValueCount(1);
+    }
+
+    @Test
+    public void shouldNotGet_clientUpdateEvent() {
+        Client client = client(true);
+        clientCredentialsTokenCache.put(client, scopes("read"), "token-id", new Date(System.currentTimeMillis() + 3600_000), new AccessToken("encoded-token"));
+
+        clientCredentialsTokenCache.onEvent(new SimpleEvent<>(ClientEvent.UNDEPLOY, new Payload("client-id", "other-domain", Action.DELETE)));
+        Assert.assertEquals(1, clientCredentialsTokenCache.size());
+
+        clientCredentialsTokenCache.onEvent(new SimpleEvent<>(ClientEvent.UPDATE, new Payload("client-id", "my-domain", Action.UPDATE)));
+        Assert.assertEquals(0, clientCredentialsTokenCache.size());
+    }
+
+    private static Client client(boolean stateless) {
+        Client client = new Client();
+        client.setId("client-id");
+        client.setClientId("my-client-id");
+        client.setReuseClientCredentialsToken(true);
+        client.setStatelessAccessToken(stateless);
+        client.setUpdatedAt(new Date());
+        return client;
+    }
+
+    private static Set<String> scopes(String... scopes) {
+        return new LinkedHashSet<>(Arrays.asList(scopes));
+    }
+}
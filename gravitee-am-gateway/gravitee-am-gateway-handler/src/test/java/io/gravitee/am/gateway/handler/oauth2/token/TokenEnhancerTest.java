@@ -15,6 +15,8 @@
  */
 package io.gravitee.am.gateway.handler.oauth2.token;
 
+import io.gravitee.am.common.oidc.ResponseType;
+import io.gravitee.am.common.oidc.idtoken.Claims;
 import io.gravitee.am.gateway.handler.oauth2.request.OAuth2Request;
 import io.gravitee.am.gateway.handler.oauth2.token.impl.AccessToken;
 import io.gravitee.am.gateway.handler.oauth2.token.impl.TokenEnhancerImpl;
@@ -22,6 +24,8 @@ import io.gravitee.am.gateway.handler.oidc.idtoken.IDTokenService;
 import io.gravitee.am.model.Client;
 import io.reactivex.Single;
 import io.reactivex.observers.TestObserver;
+import io.reactivex.subjects.SingleSubject;
+import org.junit.Assert;
 import org.junit.Test;
 import org.junit.runner.RunWith;
 import org.mockito.InjectMocks;
@@ -55,7 +59,7 @@ public class TokenEnhancerTest {
 
         Token accessToken = new AccessToken("token-id");
 
-        TestObserver<Token> testObserver = tokenEnhancer.enhance(accessToken, oAuth2Request, client, null).test();
+        TestObserver<Token> testObserver = tokenEnhancer.enhance(Single.just(accessToken), oAuth2Request, client, null).test();
 
         testObserver.assertComplete();
         testObserver.assertNoErrors();
@@ -76,7 +80,7 @@ public class TokenEnhancerTest {
 
         when(idTokenService.create(any(), any(), any())).thenReturn(Single.just(idTokenPayload));
 
-        TestObserver<Token> testObserver = tokenEnhancer.enhance(accessToken, oAuth2Request, client, null).test();
+        TestObserver<Token> testObserver = tokenEnhancer.enhance(Single.just(accessToken), oAuth2Request, client, null).test();
 
         testObserver.assertComplete();
         testObserver.assertNoErrors();
@@ -84,4 +88,53 @@ public class TokenEnhancerTest {
 
         verify(idTokenService, times(1)).create(any(), any(), any());
     }
+
+    @Test
+    public void shouldEnhanceToken_withIDToken_signedConcurrently() {
+        OAuth2Request oAuth2Request = new OAuth2Request();
+        oAuth2Request.setClientId("client-id");
+        oAuth2Request.setScopes(Collections.singleton("openid"));
+
+        Client client = new Client();
+
+        SingleSubject<Token> pendingAccessToken = SingleSubject.create();
+
+        when(idTokenService.create(any(), any(), any())).thenReturn(Single.just("payload"));
+
+        TestObserver<Token> testObserver = tokenEnhancer.enhance(pendingAccessToken, oAuth2Request, client, null).test();
+
+        // ID token is requested before the access token is signed
+        verify(idTokenService, times(1)).create(any(), any(), any());
+        testObserver.assertNotComplete();
+
+        pendingAccessToken.onSuccess(new AccessToken("token-id"));
+
+        testObserver.assertComplete();
+        testObserver.assertValue(accessToken1 -> "payload".equals(accessToken1.getAdditionalInformation().get("id_token")));
+    }
+
+    @Test
+    public void shouldEnhanceToken_withIDToken_atHash() {
+        OAuth2Request oAuth2Request = new OAuth2Request();
+        oAuth2Request.setClientId("client-id");
+        oAuth2Request.setResponseType(ResponseType.ID_TOKEN_TOKEN);
+        oAuth2Request.setScopes(Collections.singleton("openid"));
+
+        Client client = new Client();
+
+        SingleSubject<Token> pendingAccessToken = SingleSubject.create();
+
+        when(idTokenService.create(any(), any(), any())).thenReturn(Single.just("payload"));
+
+        TestObserver<Token> testObserver = tokenEnhancer.enhance(pendingAccessToken, oAuth2Request, client, null).test();
+
+        // at_hash requires the signed access token
+        verify(idTokenService, never()).create(any(), any(), any());
+
+        pendingAccessToken.onSuccess(new AccessToken("token-id"));
+
+        testObserver.assertComplete();
+        testObserver.assertValue(accessToken1 -> accessToken1.getAdditionalInformation().containsKey("id_token"));
+        Assert.assertEquals("token-id", oAuth2Request.getContext().get(Claims.at_hash));
+    }
 }
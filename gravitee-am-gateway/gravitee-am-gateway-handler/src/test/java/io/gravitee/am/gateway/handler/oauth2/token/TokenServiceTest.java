@@ -16,21 +16,29 @@
 package io.gravitee.am.gateway.handler.oauth2.token;
 
 import io.gravitee.am.common.jwt.JWT;
+import io.gravitee.am.common.oauth2.GrantType;
 import io.gravitee.am.gateway.handler.jwt.JwtService;
+import io.gravitee.am.gateway.handler.jwt.ParsedJwt;
+import io.gravitee.am.gateway.handler.oauth2.client.ClientService;
 import io.gravitee.am.gateway.handler.oauth2.exception.InvalidGrantException;
 import io.gravitee.am.gateway.handler.oauth2.request.OAuth2Request;
 import io.gravitee.am.gateway.handler.oauth2.request.TokenRequest;
+import io.gravitee.am.gateway.handler.oauth2.revocation.RevokedTokenService;
 import io.gravitee.am.gateway.handler.oauth2.token.impl.AccessToken;
 import io.gravitee.am.gateway.handler.oauth2.token.impl.TokenServiceImpl;
+import io.gravitee.am.gateway.handler.oauth2.utils.OpaqueTokenUtils;
 import io.gravitee.am.model.Client;
+import io.gravitee.am.model.TokenFormat;
 import io.gravitee.am.repository.oauth2.api.AccessTokenRepository;
 import io.gravitee.am.repository.oauth2.api.RefreshTokenRepository;
 import io.gravitee.am.repository.oauth2.model.RefreshToken;
 import io.reactivex.Completable;
 import io.reactivex.Maybe;
+import io.reactivex.Observable;
 import io.reactivex.Single;
 import io.reactivex.observers.TestObserver;
 import org.junit.Assert;
+import org.junit.Before;
 import org.junit.Test;
 import org.junit.runner.RunWith;
 import org.mockito.ArgumentCaptor;
@@ -38,7 +46,10 @@ import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.runners.MockitoJUnitRunner;
 
+import java.util.Arrays;
+import java.util.Collections;
 import java.util.Date;
+import java.util.Map;
 
 import static org.mockito.Matchers.any;
 import static org.mockito.Mockito.*;
@@ -65,6 +76,20 @@ public class TokenServiceTest {
     @Mock
     private JwtService jwtService;
 
+    @Mock
+    private RevokedTokenService revokedTokenService;
+
+    @Mock
+    private ClientCredentialsTokenCache clientCredentialsTokenCache;
+
+    @Mock
+    private ClientService clientService;
+
+    @Before
+    public void setUp() {
+        when(jwtService.parse(anyString())).thenAnswer(invocation -> new ParsedJwt((String) invocation.getArguments()[0], null));
+    }
+
     @Test
     public void shouldCreate() {
         OAuth2Request oAuth2Request = new OAuth2Request();
@@ -89,6 +114,236 @@ public class TokenServiceTest {
         Assert.assertTrue("client should be client_id", client.getClientId().equals(accessTokenCaptor.getValue().getClient()));
     }
 
+    @Test
+    public void shouldCreate_stateless() {
+        OAuth2Request oAuth2Request = new OAuth2Request();
+
+        Client client = new Client();
+        client.setClientId("my-client-id");
+        client.setStatelessAccessToken(true);
+
+        when(jwtService.encode(any(), any(Client.class))).thenReturn(Single.just(""));
+        when(tokenEnhancer.enhance(any(), any(), any(), any())).thenReturn(Single.just(new AccessToken("token-id")));
+
+        TestObserver<Token> testObserver = tokenService.create(oAuth2Request, client, null).test();
+        testObserver.assertComplete();
+        testObserver.assertNoErrors();
+
+        verify(accessTokenRepository, never()).create(any());
+    }
+
+    @Test
+    public void shouldCreate_reuseClientCredentialsToken() {
+        OAuth2Request oAuth2Request = new OAuth2Request();
+        oAuth2Request.setGrantType(GrantType.CLIENT_CREDENTIALS);
+
+        Client client = new Client();
+        client.setClientId("my-client-id");
+        client.setReuseClientCredentialsToken(true);
+
+        when(clientCredentialsTokenCache.get(client, oAuth2Request.getScopes())).thenReturn(Maybe.just(new AccessToken("token-id")));
+
+        TestObserver<Token> testObserver = tokenService.create(oAuth2Request, client, null).test();
+        testObserver.assertComplete();
+        testObserver.assertValue(token -> "token-id".equals(token.getValue()));
+
+        verify(accessTokenRepository, never()).create(any());
+        verify(jwtService, never()).encode(any(), any(Client.class));
+    }
+
+    @Test
+    public void shouldCreate_reuseClientCredentialsToken_noPreviousToken() {
+        OAuth2Request oAuth2Request = new OAuth2Request();
+        oAuth2Request.setGrantType(GrantType.CLIENT_CREDENTIALS);
+
+        Client client = new Client();
+        client.setClientId("my-client-id");
+        client.setReuseClientCredentialsToken(true);
+
+        io.gravitee.am.repository.oauth2.model.AccessToken storedToken = new io.gravitee.am.repository.oauth2.model.AccessToken();
+        storedToken.setToken("token-id");
+        storedToken.setExpireAt(new Date(System.currentTimeMillis() + 60000));
+        AccessToken accessToken = new AccessToken("encoded-token");
+
+        when(clientCredentialsTokenCache.get(client, oAuth2Request.getScopes())).thenReturn(Maybe.empty());
+        when(jwtService.encode(any(), any(Client.class))).thenReturn(Single.just("encoded-token"));
+        when(accessTokenRepository.create(any())).thenReturn(Single.just(storedToken));
+        when(tokenEnhancer.enhance(any(), any(), any(), any())).thenReturn(Single.just(accessToken));
+
+        TestObserver<Token> testObserver = tokenService.create(oAuth2Request, client, null).test();
+        testObserver.assertComplete();
+        testObserver.assertValue(accessToken);
+
+        verify(accessTokenRepository, times(1)).create(any());
+        verify(clientCredentialsTokenCache, times(1)).put(client, oAuth2Request.getScopes(), "token-id", storedToken.getExpireAt(), accessToken);
+    }
+
+    @Test
+    public void shouldCreate_notReuseToken_otherGrantType() {
+        OAuth2Request oAuth2Request = new OAuth2Request();
+        oAuth2Request.setGrantType(GrantType.PASSWORD);
+
+        Client client = new Client();
+        client.setClientId("my-client-id");
+        client.setReuseClientCredentialsToken(true);
+
+        when(jwtService.encode(any(), any(Client.class))).thenReturn(Single.just(""));
+        when(accessTokenRepository.create(any())).thenReturn(Single.just(new io.gravitee.am.repository.oauth2.model.AccessToken()));
+        when(tokenEnhancer.enhance(any(), any(), any(), any())).thenReturn(Single.just(new AccessToken("token-id")));
+
+        TestObserver<Token> testObserver = tokenService.create(oAuth2Request, client, null).test();
+        testObserver.assertComplete();
+
+        verify(accessTokenRepository, times(1)).create(any());
+        verifyZeroInteractions(clientCredentialsTokenCache);
+    }
+
+    @Test
+    public void shouldGetAccessToken_stateless() {
+        Client client = new Client();
+        client.setClientId("my-client-id");
+        client.setStatelessAccessToken(true);
+
+        JWT jwt = new JWT();
+        jwt.setJti("token-id");
+        jwt.setAud("my-client-id");
+        jwt.setExp(System.currentTimeMillis() / 1000l + 60);
+
+        when(jwtService.decodeAndVerify(any(ParsedJwt.class), any())).thenReturn(Single.just(jwt));
+        when(revokedTokenService.isRevoked("token-id")).thenReturn(false);
+
+        TestObserver<Token> testObserver = tokenService.getAccessToken("token", client).test();
+        testObserver.assertComplete();
+        testObserver.assertValue(token -> "token-id".equals(token.getValue()));
+
+        verify(accessTokenRepository, never()).findByToken(any());
+    }
+
+    @Test
+    public void shouldNotGetAccessToken_statelessRevoked() {
+        Client client = new Client();
+        client.setClientId("my-client-id");
+        client.setStatelessAccessToken(true);
+
+        JWT jwt = new JWT();
+        jwt.setJti("token-id");
+        jwt.setAud("my-client-id");
+        jwt.setExp(System.currentTimeMillis() / 1000l + 60);
+
+        when(jwtService.decodeAndVerify(any(ParsedJwt.class), any())).thenReturn(Single.just(jwt));
+        when(revokedTokenService.isRevoked("token-id")).thenReturn(true);
+
+        TestObserver<Token> testObserver = tokenService.getAccessToken("token", client).test();
+        testObserver.assertComplete();
+        testObserver.assertNoValues();
+
+        verify(accessTokenRepository, never()).findByToken(any());
+    }
+
+    @Test
+    public void shouldCreate_opaque() {
+        OAuth2Request oAuth2Request = new OAuth2Request();
+        oAuth2Request.setScopes(Collections.singleton("read"));
+
+        Client client = new Client();
+        client.setClientId("my-client-id");
+        client.setTokenFormat(TokenFormat.OPAQUE.format());
+
+        ArgumentCaptor<io.gravitee.am.repository.oauth2.model.AccessToken> accessTokenCaptor = ArgumentCaptor.forClass(io.gravitee.am.repository.oauth2.model.AccessToken.class);
+        ArgumentCaptor<Single> pendingTokenCaptor = ArgumentCaptor.forClass(Single.class);
+
+        when(accessTokenRepository.create(accessTokenCaptor.capture())).thenAnswer(invocation -> Single.just(invocation.getArguments()[0]));
+        when(tokenEnhancer.enhance(pendingTokenCaptor.capture(), any(), any(), any())).thenReturn(Single.just(new AccessToken("token-id")));
+
+        TestObserver<Token> testObserver = tokenService.create(oAuth2Request, client, null).test();
+        testObserver.assertComplete();
+        testObserver.assertNoErrors();
+
+        io.gravitee.am.repository.oauth2.model.AccessToken storedToken = accessTokenCaptor.getValue();
+        Assert.assertTrue(OpaqueTokenUtils.isOpaque(storedToken.getToken()));
+        Assert.assertEquals(Collections.singleton("read"), storedToken.getScopes());
+
+        TestObserver<Token> pendingTokenObserver = ((Single<Token>) pendingTokenCaptor.getValue()).test();
+        pendingTokenObserver.assertValue(token -> storedToken.getToken().equals(token.getValue()));
+        verify(jwtService, never()).encode(any(), any(Client.class));
+    }
+
+    @Test
+    public void shouldGetAccessToken_opaque() {
+        String opaqueToken = OpaqueTokenUtils.generate();
+        io.gravitee.am.repository.oauth2.model.AccessToken storedToken = new io.gravitee.am.repository.oauth2.model.AccessToken();
+        storedToken.setToken(opaqueToken);
+        storedToken.setClient("my-client-id");
+        storedToken.setScopes(Collections.singleton("read"));
+        storedToken.setCreatedAt(new Date());
+        storedToken.setExpireAt(new Date(System.currentTimeMillis() + 60000));
+
+        when(accessTokenRepository.findByToken(opaqueToken)).thenReturn(Maybe.just(storedToken));
+
+        TestObserver<Token> testObserver = tokenService.introspect(opaqueToken).test();
+        testObserver.assertComplete();
+        testObserver.assertValue(token -> opaqueToken.equals(token.getValue())
+                && "my-client-id".equals(token.getClientId()) && "read".equals(token.getScope()) && token.getExpiresIn() > 0);
+
+        verify(jwtService, never()).decode(any(ParsedJwt.class));
+        verify(jwtService, never()).decodeAndVerify(any(ParsedJwt.class), any());
+    }
+
+    @Test
+    public void shouldIntrospect_batch() {
+        Client client = new Client();
+        client.setClientId("my-client-id");
+        JWT jwt = new JWT();
+        jwt.setJti("my-jti");
+        jwt.setAud("my-client-id");
+        jwt.setDomain("my-domain");
+        jwt.setIat(System.currentTimeMillis() / 1000);
+        jwt.setExp(System.currentTimeMillis() / 1000 + 60);
+        ParsedJwt jwtToken = new ParsedJwt("header.payload.signature", null);
+
+        String opaqueToken = OpaqueTokenUtils.generate();
+        ParsedJwt parsedOpaqueToken = new ParsedJwt(opaqueToken, null);
+        ParsedJwt unknownOpaqueToken = new ParsedJwt(OpaqueTokenUtils.generate(), null);
+
+        io.gravitee.am.repository.oauth2.model.AccessToken storedJwtToken = new io.gravitee.am.repository.oauth2.model.AccessToken();
+        storedJwtToken.setToken("my-jti");
+        io.gravitee.am.repository.oauth2.model.AccessToken storedOpaqueToken = new io.gravitee.am.repository.oauth2.model.AccessToken();
+        storedOpaqueToken.setToken(opaqueToken);
+        storedOpaqueToken.setClient("my-client-id");
+        storedOpaqueToken.setCreatedAt(new Date());
+        storedOpaqueToken.setExpireAt(new Date(System.currentTimeMillis() + 60000));
+
+        when(jwtService.decode(jwtToken)).thenReturn(Single.just(jwt));
+        when(clientService.findByDomainAndClientId("my-domain", "my-client-id")).thenReturn(Maybe.just(client));
+        when(jwtService.decodeAndVerifyAsync(jwtToken, client)).thenReturn(Single.just(jwt));
+        when(accessTokenRepository.findByTokenIn(any())).thenReturn(Observable.just(storedJwtToken, storedOpaqueToken));
+
+        TestObserver<Map<ParsedJwt, Token>> testObserver = tokenService.introspect(Arrays.asList(jwtToken, parsedOpaqueToken, unknownOpaqueToken)).test();
+        testObserver.assertComplete();
+        testObserver.assertValue(tokens -> tokens.size() == 2
+                && "my-jti".equals(tokens.get(jwtToken).getValue())
+                && opaqueToken.equals(tokens.get(parsedOpaqueToken).getValue())
+                && !tokens.containsKey(unknownOpaqueToken));
+
+        verify(accessTokenRepository, times(1)).findByTokenIn(any());
+        verify(accessTokenRepository, never()).findByToken(anyString());
+    }
+
+    @Test
+    public void shouldNotGetAccessToken_opaqueExpired() {
+        String opaqueToken = OpaqueTokenUtils.generate();
+        io.gravitee.am.repository.oauth2.model.AccessToken storedToken = new io.gravitee.am.repository.oauth2.model.AccessToken();
+        storedToken.setToken(opaqueToken);
+        storedToken.setClient("my-client-id");
+        storedToken.setExpireAt(new Date(System.currentTimeMillis() - 1000));
+
+        when(accessTokenRepository.findByToken(opaqueToken)).thenReturn(Maybe.just(storedToken));
+
+        TestObserver<Token> testObserver = tokenService.getAccessToken(opaqueToken, new Client()).test();
+        testObserver.assertComplete();
+        testObserver.assertNoValues();
+    }
+
     @Test
     public void shouldRefresh() {
         String clientId = "client-id";
@@ -111,9 +366,8 @@ public class TokenServiceTest {
         jwt.setAud(clientId);
         jwt.setExp(refreshToken.getExpireAt().getTime() / 1000l);
 
-        when(jwtService.decodeAndVerify(any(), any())).thenReturn(Single.just(jwt));
-        when(refreshTokenRepository.findByToken(any())).thenReturn(Maybe.just(refreshToken));
-        when(refreshTokenRepository.delete(anyString())).thenReturn(Completable.complete());
+        when(jwtService.decodeAndVerify(any(ParsedJwt.class), any())).thenReturn(Single.just(jwt));
+        when(refreshTokenRepository.consume(any())).thenReturn(Maybe.just(refreshToken));
         when(accessTokenRepository.create(any())).thenReturn(Single.just(new io.gravitee.am.repository.oauth2.model.AccessToken()));
         when(tokenEnhancer.enhance(any(), any(), any(), any())).thenReturn(Single.just(new AccessToken("token-id")));
 
@@ -121,8 +375,9 @@ public class TokenServiceTest {
         testObserver.assertComplete();
         testObserver.assertNoErrors();
 
-        verify(refreshTokenRepository, times(1)).findByToken(any());
-        verify(refreshTokenRepository, times(1)).delete(anyString());
+        verify(refreshTokenRepository, times(1)).consume(token);
+        verify(refreshTokenRepository, never()).findByToken(any());
+        verify(refreshTokenRepository, never()).delete(anyString());
     }
 
     @Test
@@ -145,15 +400,14 @@ public class TokenServiceTest {
         jwt.setAud(clientId);
         jwt.setExp(refreshToken.getExpireAt().getTime() / 1000l);
 
-        when(jwtService.decodeAndVerify(any(), any())).thenReturn(Single.just(jwt));
-        when(refreshTokenRepository.findByToken(any())).thenReturn(Maybe.empty());
+        when(jwtService.decodeAndVerify(any(ParsedJwt.class), any())).thenReturn(Single.just(jwt));
+        when(refreshTokenRepository.consume(any())).thenReturn(Maybe.empty());
 
-        TestObserver<Token> testObserver = tokenService.refresh(any(), tokenRequest, any()).test();
+        TestObserver<Token> testObserver = tokenService.refresh(token, tokenRequest, client).test();
         testObserver.assertNotComplete();
         testObserver.assertError(InvalidGrantException.class);
 
-        verify(refreshTokenRepository, times(1)).findByToken(any());
-        verify(refreshTokenRepository, never()).delete(anyString());
+        verify(refreshTokenRepository, times(1)).consume(token);
         verify(accessTokenRepository, never()).create(any());
     }
 
@@ -177,15 +431,12 @@ public class TokenServiceTest {
         jwt.setAud(clientId);
         jwt.setExp(refreshToken.getExpireAt().getTime() / 1000l);
 
-        when(jwtService.decodeAndVerify(any(), any())).thenReturn(Single.just(jwt));
-        when(refreshTokenRepository.findByToken(any())).thenReturn(Maybe.just(refreshToken));
-
-        TestObserver<Token> testObserver = tokenService.refresh(refreshToken.getToken(), any(), any()).test();
+        when(jwtService.decodeAndVerify(any(ParsedJwt.class), any())).thenReturn(Single.just(jwt));
+        TestObserver<Token> testObserver = tokenService.refresh(refreshToken.getToken(), tokenRequest, client).test();
         testObserver.assertNotComplete();
         testObserver.assertError(InvalidGrantException.class);
 
-        verify(refreshTokenRepository, times(1)).findByToken(any());
-        verify(refreshTokenRepository, never()).delete(anyString());
+        verify(refreshTokenRepository, never()).consume(any());
         verify(accessTokenRepository, never()).create(any());
     }
 
@@ -209,15 +460,44 @@ public class TokenServiceTest {
         jwt.setAud(clientId);
         jwt.setExp(refreshToken.getExpireAt().getTime() / 1000l);
 
-        when(jwtService.decodeAndVerify(any(), any())).thenReturn(Single.just(jwt));
-        when(refreshTokenRepository.findByToken(any())).thenReturn(Maybe.just(refreshToken));
-
+        when(jwtService.decodeAndVerify(any(ParsedJwt.class), any())).thenReturn(Single.just(jwt));
         TestObserver<Token> testObserver = tokenService.refresh(refreshToken.getToken(), tokenRequest, client).test();
         testObserver.assertNotComplete();
         testObserver.assertError(InvalidGrantException.class);
 
-        verify(refreshTokenRepository, times(1)).findByToken(any());
-        verify(refreshTokenRepository, never()).delete(anyString());
+        verify(refreshTokenRepository, never()).consume(any());
         verify(accessTokenRepository, never()).create(any());
     }
+
+    @Test
+    public void shouldRevokeByAuthorizationCode() {
+        when(accessTokenRepository.deleteByAuthorizationCode("my-code")).thenReturn(Completable.complete());
+        when(refreshTokenRepository.deleteByAuthorizationCode("my-code")).thenReturn(Completable.complete());
+
+        TestObserver testObserver = tokenService.revokeByAuthorizationCode("my-code").test();
+        testObserver.awaitTerminalEvent();
+
+        testObserver.assertComplete();
+        testObserver.assertNoErrors();
+
+        verify(accessTokenRepository, times(1)).deleteByAuthorizationCode("my-code");
+        verify(refreshTokenRepository, times(1)).deleteByAuthorizationCode("my-code");
+        verify(accessTokenRepository, never()).delete(anyString());
+        verify(refreshTokenRepository, never()).delete(anyString());
+    }
+
+    @Test
+    public void shouldRevokeByClientAndSubject() {
+        when(accessTokenRepository.deleteByDomainAndClientIdAndSubject("domain-id", "client-id", "user-id")).thenReturn(Completable.complete());
+        when(refreshTokenRepository.deleteByDomainAndClientIdAndSubject("domain-id", "client-id", "user-id")).thenReturn(Completable.complete());
+
+        TestObserver testObserver = tokenService.revokeByClientAndSubject("domain-id", "client-id", "user-id").test();
+        testObserver.awaitTerminalEvent();
+
+        testObserver.assertComplete();
+        testObserver.assertNoErrors();
+
+        verify(accessTokenRepository, times(1)).deleteByDomainAndClientIdAndSubject("domain-id", "client-id", "user-id");
+        verify(refreshTokenRepository, times(1)).deleteByDomainAndClientIdAndSubject("domain-id", "client-id", "user-id");
+    }
 }
@@ -0,0 +1,123 @@
+/**
+ * Copyright (C) 2015 The Gravitee team (http://gravitee.io)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.gravitee.am.gateway.handler.oidc.claims;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.gravitee.am.common.oidc.StandardClaims;
+import io.gravitee.am.gateway.handler.oidc.claims.impl.ClaimsProjectionServiceImpl;
+import io.gravitee.am.model.Client;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+
+import static java.util.Arrays.asList;
+
+/**
+ * @author GraviteeSource Team
+ */
+public class ClaimsProjectionServiceTest {
+
+    private ClaimsProjectionServiceImpl claimsProjectionService = new ClaimsProjectionServiceImpl(new ObjectMapper(), 100);
+
+    private Map<String, Object> attributes;
+
+    @Before
+    public void init() {
+        claimsProjectionService.afterPropertiesSet();
+
+        attributes = new HashMap<>();
+        attributes.put(StandardClaims.SUB, "idp-sub");
+        attributes.put(StandardClaims.NAME, "John Doe");
+        attributes.put(StandardClaims.EMAIL, "john.doe@gravitee.io");
+        attributes.put(StandardClaims.PHONE_NUMBER, "+33 6 00 00 00 00");
+        attributes.put("department", "R&D");
+    }
+
+    @Test
+    public void shouldProjectUserInfo_scopes() {
+        ClaimsProjection projection = claimsProjectionService.userInfo("openid profile email", null);
+
+        Assert.assertTrue(projection.isSpecific());
+        Map<String, Object> claims = projection.project(attributes);
+        Assert.assertEquals(2, claims.size());
+        Assert.assertEquals("John Doe", claims.get(StandardClaims.NAME));
+        Assert.assertEquals("john.doe@gravitee.io", claims.get(StandardClaims.EMAIL));
+    }
+
+    @Test
+    public void shouldProjectUserInfo_scopes_and_claimsRequest() {
+        ClaimsProjection projection = claimsProjectionService.userInfo("openid email", "{\"userinfo\":{\"department\":{\"essential\":true}}}");
+
+        Map<String, Object> claims = projection.project(attributes);
+        Assert.assertEquals(2, claims.size());
+        Assert.assertEquals("john.doe@gravitee.io", claims.get(StandardClaims.EMAIL));
+        Assert.assertEquals("R&D", claims.get("department"));
+    }
+
+    @Test
+    public void shouldProjectUserInfo_allClaims() {
+        Assert.assertFalse(claimsProjectionService.userInfo("openid", null).isSpecific());
+        // claims request without userinfo member
+        Assert.assertFalse(claimsProjectionService.userInfo("openid email", "{\"id_token\":{\"name\":null}}").isSpecific());
+        // invalid claims request
+        Assert.assertFalse(claimsProjectionService.userInfo("openid email", "not-json").isSpecific());
+
+        Assert.assertEquals(attributes, claimsProjectionService.userInfo("openid", null).project(attributes));
+    }
+
+    @Test
+    public void shouldCompileOnce() {
+        ClaimsProjection projection = claimsProjectionService.userInfo("openid profile", null);
+        Assert.assertSame(projection, claimsProjectionService.userInfo("openid profile", null));
+        Assert.assertSame(projection, claimsProjectionService.userInfo("profile  openid", null));
+
+        Client client = new Client();
+        client.setClientId("client-id");
+        ClaimsProjection idTokenProjection = claimsProjectionService.idToken(client, new HashSet<>(asList("openid", "profile")), null);
+        Assert.assertSame(idTokenProjection, claimsProjectionService.idToken(client, new HashSet<>(asList("profile", "openid")), null));
+        Assert.assertNotSame(projection, idTokenProjection);
+    }
+
+    @Test
+    public void shouldProjectIDToken_customClaims() {
+        Client client = new Client();
+        client.setClientId("client-id");
+        client.setIdTokenCustomClaims(Collections.singletonMap("dept", "department"));
+
+        Map<String, Object> claims = claimsProjectionService.idToken(client, Collections.singleton("openid"), null).project(attributes);
+        Assert.assertEquals(Collections.singletonMap("dept", "R&D"), claims);
+
+        // the client has been updated
+        client.setIdTokenCustomClaims(Collections.singletonMap("mail", StandardClaims.EMAIL));
+        claims = claimsProjectionService.idToken(client, Collections.singleton("openid"), null).project(attributes);
+        Assert.assertEquals(Collections.singletonMap("mail", "john.doe@gravitee.io"), claims);
+    }
+
+    @Test
+    public void shouldProjectIDToken_claimsRequest_ignoreCustomClaims() {
+        Client client = new Client();
+        client.setClientId("client-id");
+        client.setIdTokenCustomClaims(Collections.singletonMap("dept", "department"));
+
+        Map<String, Object> claims = claimsProjectionService.idToken(client, Collections.singleton("openid"), "{\"id_token\":{\"phone_number\":null}}").project(attributes);
+        Assert.assertEquals(Collections.singletonMap(StandardClaims.PHONE_NUMBER, "+33 6 00 00 00 00"), claims);
+    }
+}
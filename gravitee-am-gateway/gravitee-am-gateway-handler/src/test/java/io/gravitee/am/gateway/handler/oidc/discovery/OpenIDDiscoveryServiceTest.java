@@ -0,0 +1,66 @@
+/**
+ * Copyright (C) 2015 The Gravitee team (http://gravitee.io)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.gravitee.am.gateway.handler.oidc.discovery;
+
+import io.gravitee.am.gateway.handler.certificate.CertificateManager;
+import io.gravitee.am.gateway.handler.certificate.CertificateProvider;
+import io.gravitee.am.gateway.handler.jwt.JwsAlgorithm;
+import io.gravitee.am.gateway.handler.oidc.discovery.impl.OpenIDDiscoveryServiceImpl;
+import io.gravitee.am.model.Domain;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.runners.MockitoJUnitRunner;
+
+import java.util.Arrays;
+
+import static org.junit.Assert.assertEquals;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+/**
+ * @author GraviteeSource Team
+ */
+@RunWith(MockitoJUnitRunner.class)
+public class OpenIDDiscoveryServiceTest {
+
+    @InjectMocks
+    private OpenIDDiscoveryService openIDDiscoveryService = new OpenIDDiscoveryServiceImpl();
+
+    @Mock
+    private Domain domain;
+
+    @Mock
+    private CertificateManager certificateManager;
+
+    @Test
+    public void shouldAdvertiseCertificatesSigningAlgorithms() {
+        when(certificateManager.providers()).thenReturn(Arrays.asList(
+                certificateProvider(JwsAlgorithm.RS256), certificateProvider(JwsAlgorithm.ES256), certificateProvider(JwsAlgorithm.RS256)));
+        when(certificateManager.defaultCertificateProvider()).thenReturn(certificateProvider(JwsAlgorithm.HS256));
+
+        OpenIDProviderMetadata openIDProviderMetadata = openIDDiscoveryService.getConfiguration("/");
+
+        assertEquals(Arrays.asList("HS256", "RS256", "ES256"), openIDProviderMetadata.getIdTokenSigningAlgValuesSupported());
+    }
+
+    private static CertificateProvider certificateProvider(JwsAlgorithm signatureAlgorithm) {
+        CertificateProvider certificateProvider = new CertificateProvider(mock(io.gravitee.am.certificate.api.CertificateProvider.class));
+        certificateProvider.setSignatureAlgorithm(signatureAlgorithm);
+        return certificateProvider;
+    }
+}
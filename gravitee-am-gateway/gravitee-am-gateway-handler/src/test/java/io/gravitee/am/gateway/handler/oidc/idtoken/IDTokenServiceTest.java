@@ -22,6 +22,8 @@ import io.gravitee.am.common.oidc.StandardClaims;
 import io.gravitee.am.gateway.handler.jwt.JwtService;
 import io.gravitee.am.gateway.handler.certificate.CertificateManager;
 import io.gravitee.am.gateway.handler.oauth2.request.OAuth2Request;
+import io.gravitee.am.gateway.handler.oidc.claims.ClaimsProjectionService;
+import io.gravitee.am.gateway.handler.oidc.claims.impl.ClaimsProjectionServiceImpl;
 import io.gravitee.am.gateway.handler.oidc.idtoken.impl.IDTokenServiceImpl;
 import io.gravitee.am.model.Client;
 import io.gravitee.am.model.User;
@@ -35,6 +37,7 @@ import org.junit.Test;
 import org.junit.runner.RunWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
+import org.mockito.Spy;
 import org.mockito.runners.MockitoJUnitRunner;
 
 import java.util.*;
@@ -64,7 +67,8 @@ public class IDTokenServiceTest {
     @Mock
     private JwtService jwtService;
 
-    private ObjectMapper objectMapper = new ObjectMapper();
+    @Spy
+    private ClaimsProjectionService claimsProjectionService = new ClaimsProjectionServiceImpl(new ObjectMapper(), 100);
 
     @Test
     public void shouldCreateIDToken_clientOnly_clientCertificate() {
@@ -141,7 +145,6 @@ public class IDTokenServiceTest {
         when(certificateManager.defaultCertificateProvider()).thenReturn(new io.gravitee.am.gateway.handler.certificate.CertificateProvider(defaultCertificateProvider));
         when(certificateManager.get(anyString())).thenReturn(Maybe.just(new io.gravitee.am.gateway.handler.certificate.CertificateProvider(certificateProvider)));
         when(jwtService.encode(any(), any(io.gravitee.am.gateway.handler.certificate.CertificateProvider.class))).thenReturn(Single.just("test"));
-        ((IDTokenServiceImpl) idTokenService).setObjectMapper(objectMapper);
 
         TestObserver<String> testObserver = idTokenService.create(oAuth2Request, client, user).test();
 
@@ -300,7 +303,6 @@ public class IDTokenServiceTest {
         when(certificateManager.defaultCertificateProvider()).thenReturn(new io.gravitee.am.gateway.handler.certificate.CertificateProvider(defaultCertificateProvider));
         when(certificateManager.get(anyString())).thenReturn(Maybe.just(new io.gravitee.am.gateway.handler.certificate.CertificateProvider(certificateProvider)));
         when(jwtService.encode(any(), any(io.gravitee.am.gateway.handler.certificate.CertificateProvider.class))).thenReturn(Single.just("test"));
-        ((IDTokenServiceImpl) idTokenService).setObjectMapper(objectMapper);
 
         TestObserver<String> testObserver = idTokenService.create(oAuth2Request, client, user).test();
 
@@ -88,6 +88,37 @@ public class JWKSetServiceTest {
         testObserver.assertValue(jwkSet -> jwkSet.getKeys().size() == 2);
     }
 
+    @Test
+    public void shouldGetJWKSet_ellipticCurveKeys() {
+        io.gravitee.am.model.jose.ECKey key = new io.gravitee.am.model.jose.ECKey();
+        key.setKty("EC");
+        key.setKid("my-ec-key");
+        key.setCrv("P-256");
+        key.setX("x-coordinate");
+        key.setY("y-coordinate");
+        io.gravitee.am.model.jose.OKPKey key2 = new io.gravitee.am.model.jose.OKPKey();
+        key2.setKty("OKP");
+        key2.setKid("my-okp-key");
+        key2.setCrv("Ed25519");
+        key2.setX("public-key");
+
+        CertificateProvider certificateProvider = mock(CertificateProvider.class);
+        when(certificateProvider.keys()).thenReturn(Flowable.just(key, key2));
+
+        when(certificateManager.providers()).thenReturn(Collections.singletonList(new io.gravitee.am.gateway.handler.certificate.CertificateProvider(certificateProvider)));
+
+        TestObserver<JWKSet> testObserver = jwkSetService.getKeys().test();
+
+        testObserver.assertComplete();
+        testObserver.assertNoErrors();
+        testObserver.assertValue(jwkSet -> {
+            ECKey ecKey = (ECKey) jwkSet.getKeys().get(0);
+            OKPKey okpKey = (OKPKey) jwkSet.getKeys().get(1);
+            return "my-ec-key".equals(ecKey.getKid()) && "P-256".equals(ecKey.getCrv()) && "y-coordinate".equals(ecKey.getY())
+                    && "my-okp-key".equals(okpKey.getKid()) && "Ed25519".equals(okpKey.getCrv()) && "public-key".equals(okpKey.getX());
+        });
+    }
+
     @Test
     public void shouldGetJWKSet_noCertificateProvider() {
         when(certificateManager.providers()).thenReturn(Collections.emptySet());
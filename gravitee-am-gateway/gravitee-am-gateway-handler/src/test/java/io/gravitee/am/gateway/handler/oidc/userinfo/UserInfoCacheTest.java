@@ -0,0 +1,112 @@
+/**
+ * Copyright (C) 2015 The Gravitee team (http://gravitee.io)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.gravitee.am.gateway.handler.oidc.userinfo;
+
+import io.gravitee.am.common.oidc.StandardClaims;
+import io.gravitee.am.gateway.core.event.UserEvent;
+import io.gravitee.am.gateway.handler.oauth2.exception.InvalidRequestException;
+import io.gravitee.am.gateway.handler.oidc.claims.ClaimsProjection;
+import io.gravitee.am.gateway.handler.oidc.userinfo.impl.UserInfoCacheImpl;
+import io.gravitee.am.gateway.service.UserService;
+import io.gravitee.am.model.Domain;
+import io.gravitee.am.model.User;
+import io.gravitee.am.model.common.event.Action;
+import io.gravitee.am.model.common.event.Payload;
+import io.gravitee.common.event.impl.SimpleEvent;
+import io.reactivex.Maybe;
+import io.reactivex.observers.TestObserver;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.runners.MockitoJUnitRunner;
+
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+
+import static org.mockito.Mockito.*;
+
+/**
+ * @author GraviteeSource Team
+ */
+@RunWith(MockitoJUnitRunner.class)
+public class UserInfoCacheTest {
+
+    @InjectMocks
+    private UserInfoCacheImpl userInfoCache = new UserInfoCacheImpl(true, 100, 60);
+
+    @Mock
+    private UserService userService;
+
+    @Mock
+    private Domain domain;
+
+    @Before
+    public void init() {
+        userInfoCache.afterPropertiesSet();
+        when(domain.getId()).thenReturn("my-domain");
+    }
+
+    @Test
+    public void shouldEvict_userEvent() {
+        when(userService.findById("my-subject")).thenReturn(Maybe.just(createUser()));
+
+        get("my-subject").assertValueCount(1);
+        get("my-subject").assertValueCount(1);
+        verify(userService, times(1)).findById("my-subject");
+
+        // event of another domain
+        userInfoCache.onEvent(new SimpleEvent<>(UserEvent.UPDATE, new Payload("my-subject", "other-domain", Action.UPDATE)));
+        get("my-subject").assertValueCount(1);
+        verify(userService, times(1)).findById("my-subject");
+
+        userInfoCache.onEvent(new SimpleEvent<>(UserEvent.UPDATE, new Payload("my-subject", "my-domain", Action.UPDATE)));
+        get("my-subject").assertValueCount(1);
+        verify(userService, times(2)).findById("my-subject");
+    }
+
+    @Test
+    public void shouldNotCache_missingSubClaim() {
+        User user = new User();
+        user.setAdditionalInformation(Collections.singletonMap(StandardClaims.NAME, "John Doe"));
+        when(userService.findById("my-subject")).thenReturn(Maybe.just(user));
+
+        get("my-subject").assertError(InvalidRequestException.class);
+        get("my-subject").assertError(InvalidRequestException.class);
+
+        verify(userService, times(2)).findById("my-subject");
+        Assert.assertEquals(0, userInfoCache.size());
+    }
+
+    private TestObserver<UserInfo> get(String subject) {
+        TestObserver<UserInfo> testObserver = userInfoCache.get(subject, ClaimsProjection.ALL).test();
+        testObserver.awaitTerminalEvent();
+        return testObserver;
+    }
+
+    private User createUser() {
+        Map<String, Object> additionalInformation = new HashMap<>();
+        additionalInformation.put(StandardClaims.SUB, "idp-sub");
+        additionalInformation.put(StandardClaims.NAME, "John Doe");
+        User user = new User();
+        user.setId("my-subject");
+        user.setAdditionalInformation(additionalInformation);
+        return user;
+    }
+}
@@ -0,0 +1,162 @@
+/**
+ * Copyright (C) 2015 The Gravitee team (http://gravitee.io)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.gravitee.am.gateway.handler.vertx.endpoint;
+
+import io.gravitee.am.gateway.handler.oauth2.introspection.IntrospectionRequest;
+import io.gravitee.am.gateway.handler.oauth2.introspection.IntrospectionResponse;
+import io.gravitee.am.gateway.handler.oauth2.introspection.IntrospectionService;
+import io.gravitee.am.gateway.handler.vertx.RxWebTestBase;
+import io.gravitee.am.gateway.handler.vertx.auth.user.Client;
+import io.gravitee.am.gateway.handler.vertx.handler.ExceptionHandler;
+import io.gravitee.am.gateway.handler.vertx.handler.oauth2.endpoint.introspection.BatchIntrospectionEndpointHandler;
+import io.gravitee.common.http.HttpStatusCode;
+import io.reactivex.Single;
+import io.vertx.core.http.HttpMethod;
+import io.vertx.reactivex.core.http.HttpClientRequest;
+import io.vertx.reactivex.ext.auth.User;
+import io.vertx.reactivex.ext.web.handler.BodyHandler;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.runners.MockitoJUnitRunner;
+
+import java.util.Arrays;
+import java.util.List;
+
+import static org.mockito.Matchers.anyListOf;
+import static org.mockito.Mockito.*;
+
+/**
+ * @author GraviteeSource Team
+ */
+@RunWith(MockitoJUnitRunner.class)
+public class BatchIntrospectionEndpointHandlerTest extends RxWebTestBase {
+
+    @Mock
+    private IntrospectionService introspectionService;
+
+    @Override
+    public void setUp() throws Exception {
+        super.setUp();
+
+        router.route().handler(BodyHandler.create());
+        router.route(HttpMethod.POST, "/oauth/introspect/batch")
+                .handler(new BatchIntrospectionEndpointHandler(introspectionService, 2));
+        router.route().failureHandler(new ExceptionHandler());
+    }
+
+    @Test
+    public void shouldNotInvokeEndpoint_noClient() throws Exception {
+        testRequest(
+                HttpMethod.POST, "/oauth/introspect/batch",
+                HttpStatusCode.UNAUTHORIZED_401, "Unauthorized");
+    }
+
+    @Test
+    public void shouldReturnInvalidRequest_noTokenProvided() throws Exception {
+        authenticate();
+
+        testRequest(
+                HttpMethod.POST,
+                "/oauth/introspect/batch",
+                HttpStatusCode.BAD_REQUEST_400, "Bad Request");
+    }
+
+    @Test
+    public void shouldReturnInvalidRequest_tooManyTokens() throws Exception {
+        authenticate();
+
+        testRequest(
+                HttpMethod.POST,
+                "/oauth/introspect/batch",
+                req -> form(req, "token=a&token=b&token=c"),
+                HttpStatusCode.BAD_REQUEST_400, "Bad Request", null);
+        verify(introspectionService, never()).introspect(anyListOf(IntrospectionRequest.class));
+    }
+
+    @Test
+    public void shouldReturnInvalidRequest_queryStringToken() throws Exception {
+        authenticate();
+
+        testRequest(
+                HttpMethod.POST,
+                "/oauth/introspect/batch?token=a",
+                req -> form(req, "client_id=my-client-id"),
+                HttpStatusCode.BAD_REQUEST_400, "Bad Request", null);
+        verify(introspectionService, never()).introspect(anyListOf(IntrospectionRequest.class));
+    }
+
+    @Test
+    public void shouldIntrospect_form() throws Exception {
+        authenticate();
+        when(introspectionService.introspect(anyListOf(IntrospectionRequest.class)))
+                .thenReturn(Single.just(Arrays.asList(new IntrospectionResponse(), new IntrospectionResponse())));
+
+        testRequest(
+                HttpMethod.POST,
+                "/oauth/introspect/batch",
+                req -> form(req, "token=token-1&token=token-2"),
+                HttpStatusCode.OK_200, "OK", null);
+
+        ArgumentCaptor<List> captor = ArgumentCaptor.forClass(List.class);
+        verify(introspectionService).introspect((List<IntrospectionRequest>) captor.capture());
+        List<IntrospectionRequest> requests = captor.getValue();
+        assertEquals(2, requests.size());
+        assertEquals("token-2", requests.get(1).getToken());
+    }
+
+    @Test
+    public void shouldIntrospect_jsonArray() throws Exception {
+        authenticate();
+        when(introspectionService.introspect(anyListOf(IntrospectionRequest.class)))
+                .thenReturn(Single.just(Arrays.asList(new IntrospectionResponse(), new IntrospectionResponse())));
+
+        testRequest(
+                HttpMethod.POST,
+                "/oauth/introspect/batch",
+                req -> {
+                    String body = "[\"token-1\", \"token-2\"]";
+                    req.putHeader("content-type", "application/json");
+                    req.putHeader("content-length", String.valueOf(body.length()));
+                    req.write(body);
+                },
+                HttpStatusCode.OK_200, "OK", null);
+
+        ArgumentCaptor<List> captor = ArgumentCaptor.forClass(List.class);
+        verify(introspectionService).introspect((List<IntrospectionRequest>) captor.capture());
+        List<IntrospectionRequest> requests = captor.getValue();
+        assertEquals(2, requests.size());
+        assertEquals("token-1", requests.get(0).getToken());
+        assertEquals("my-client-id", requests.get(1).getClientId());
+    }
+
+    private static void form(HttpClientRequest req, String body) {
+        req.putHeader("content-type", "application/x-www-form-urlencoded");
+        req.putHeader("content-length", String.valueOf(body.length()));
+        req.write(body);
+    }
+
+    private void authenticate() {
+        io.gravitee.am.model.Client client = new io.gravitee.am.model.Client();
+        client.setClientId("my-client-id");
+
+        router.route().order(-1).handler(routingContext -> {
+            routingContext.setUser(new User(new Client(client)));
+            routingContext.next();
+        });
+    }
+}
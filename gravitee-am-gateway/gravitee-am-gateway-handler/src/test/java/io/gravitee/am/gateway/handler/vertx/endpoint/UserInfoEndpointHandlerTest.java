@@ -15,16 +15,22 @@
  */
 package io.gravitee.am.gateway.handler.vertx.endpoint;
 
+import com.fasterxml.jackson.databind.ObjectMapper;
 import io.gravitee.am.common.jwt.Claims;
 import io.gravitee.am.common.jwt.JWT;
 import io.gravitee.am.common.oidc.StandardClaims;
 import io.gravitee.am.gateway.handler.jwt.JwtService;
+import io.gravitee.am.gateway.handler.jwt.ParsedJwt;
 import io.gravitee.am.gateway.handler.oauth2.client.ClientService;
 import io.gravitee.am.gateway.handler.oauth2.exception.InvalidTokenException;
 import io.gravitee.am.gateway.handler.oauth2.exception.ServerErrorException;
 import io.gravitee.am.gateway.handler.oauth2.token.Token;
 import io.gravitee.am.gateway.handler.oauth2.token.TokenService;
 import io.gravitee.am.gateway.handler.oauth2.token.impl.AccessToken;
+import io.gravitee.am.gateway.handler.oauth2.utils.OpaqueTokenUtils;
+import io.gravitee.am.gateway.handler.oidc.claims.ClaimsProjectionService;
+import io.gravitee.am.gateway.handler.oidc.claims.impl.ClaimsProjectionServiceImpl;
+import io.gravitee.am.gateway.handler.oidc.userinfo.impl.UserInfoCacheImpl;
 import io.gravitee.am.gateway.handler.vertx.RxWebTestBase;
 import io.gravitee.am.gateway.handler.vertx.handler.ExceptionHandler;
 import io.gravitee.am.gateway.handler.vertx.handler.oidc.endpoint.UserInfoEndpoint;
@@ -42,14 +48,19 @@ import org.junit.Test;
 import org.junit.runner.RunWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
+import org.mockito.Spy;
 import org.mockito.runners.MockitoJUnitRunner;
 
 import java.util.Collections;
 import java.util.HashMap;
 import java.util.Map;
+import java.util.concurrent.atomic.AtomicReference;
 
 import static org.mockito.Matchers.any;
 import static org.mockito.Matchers.anyString;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
 /**
@@ -60,7 +71,7 @@ import static org.mockito.Mockito.when;
 public class UserInfoEndpointHandlerTest extends RxWebTestBase {
 
     @InjectMocks
-    private UserInfoEndpoint userInfoEndpoint = new UserInfoEndpoint();
+    private UserInfoCacheImpl userInfoCache = new UserInfoCacheImpl(true, 100, 60);
 
     @InjectMocks
     private UserInfoRequestParseHandler userInfoRequestParseHandler = new UserInfoRequestParseHandler();
@@ -77,10 +88,16 @@ public class UserInfoEndpointHandlerTest extends RxWebTestBase {
     @Mock
     private ClientService clientService;
 
+    @Spy
+    private ClaimsProjectionService claimsProjectionService = new ClaimsProjectionServiceImpl(new ObjectMapper(), 100);
+
     @Override
     public void setUp() throws Exception {
         super.setUp();
 
+        userInfoCache.afterPropertiesSet();
+        UserInfoEndpoint userInfoEndpoint = new UserInfoEndpoint(userInfoCache, claimsProjectionService);
+
         router.route(HttpMethod.GET, "/userinfo")
                 .handler(userInfoRequestParseHandler)
                 .handler(userInfoEndpoint);
@@ -103,9 +120,9 @@ public class UserInfoEndpointHandlerTest extends RxWebTestBase {
 
     @Test
     public void shouldNotInvokeUserEndpoint_invalidToken_jwtDecode() throws Exception {
-        when(jwtService.decode(anyString())).thenReturn(Single.error(new ServerErrorException()));
+        when(jwtService.decode(any(ParsedJwt.class))).thenReturn(Single.error(new ServerErrorException()));
         when(clientService.findByClientId(anyString())).thenReturn(Maybe.just(new Client()));
-        when(tokenService.getAccessToken(anyString(), any())).thenReturn(Maybe.empty());
+        when(tokenService.getAccessToken(any(ParsedJwt.class), any())).thenReturn(Maybe.empty());
 
         testRequest(
                 HttpMethod.GET, "/userinfo", req -> req.putHeader(HttpHeaders.AUTHORIZATION, "Bearer test-token"),
@@ -114,9 +131,9 @@ public class UserInfoEndpointHandlerTest extends RxWebTestBase {
 
     @Test
     public void shouldNotInvokeUserEndpoint_invalidToken_noClient() throws Exception {
-        when(jwtService.decode(anyString())).thenReturn(Single.just(new JWT()));
+        when(jwtService.decode(any(ParsedJwt.class))).thenReturn(Single.just(new JWT()));
         when(clientService.findByClientId(anyString())).thenReturn(Maybe.empty());
-        when(tokenService.getAccessToken(anyString(), any())).thenReturn(Maybe.empty());
+        when(tokenService.getAccessToken(any(ParsedJwt.class), any())).thenReturn(Maybe.empty());
 
         testRequest(
                 HttpMethod.GET, "/userinfo", req -> req.putHeader(HttpHeaders.AUTHORIZATION, "Bearer test-token"),
@@ -125,9 +142,9 @@ public class UserInfoEndpointHandlerTest extends RxWebTestBase {
 
     @Test
     public void shouldNotInvokeUserEndpoint_unknownToken() throws Exception {
-        when(jwtService.decode(anyString())).thenReturn(Single.just(new JWT()));
+        when(jwtService.decode(any(ParsedJwt.class))).thenReturn(Single.just(new JWT()));
         when(clientService.findByClientId(anyString())).thenReturn(Maybe.just(new Client()));
-        when(tokenService.getAccessToken(anyString(), any())).thenReturn(Maybe.empty());
+        when(tokenService.getAccessToken(any(ParsedJwt.class), any())).thenReturn(Maybe.empty());
 
         testRequest(
                 HttpMethod.GET, "/userinfo", req -> req.putHeader(HttpHeaders.AUTHORIZATION, "Bearer test-token"),
@@ -136,9 +153,9 @@ public class UserInfoEndpointHandlerTest extends RxWebTestBase {
 
     @Test
     public void shouldNotInvokeUserEndpoint_expiredToken() throws Exception {
-        when(jwtService.decode(anyString())).thenReturn(Single.just(new JWT()));
+        when(jwtService.decode(any(ParsedJwt.class))).thenReturn(Single.just(new JWT()));
         when(clientService.findByClientId(anyString())).thenReturn(Maybe.just(new Client()));
-        when(tokenService.getAccessToken(anyString(), any())).thenReturn(Maybe.error(new InvalidTokenException("Token expired")));
+        when(tokenService.getAccessToken(any(ParsedJwt.class), any())).thenReturn(Maybe.error(new InvalidTokenException("Token expired")));
 
         testRequest(
                 HttpMethod.GET, "/userinfo", req -> req.putHeader(HttpHeaders.AUTHORIZATION, "Bearer test-token"),
@@ -153,9 +170,9 @@ public class UserInfoEndpointHandlerTest extends RxWebTestBase {
         Token token = new AccessToken("id-token");
         token.setSubject("id-client");
 
-        when(jwtService.decode(anyString())).thenReturn(Single.just(new JWT()));
+        when(jwtService.decode(any(ParsedJwt.class))).thenReturn(Single.just(new JWT()));
         when(clientService.findByClientId(anyString())).thenReturn(Maybe.just(client));
-        when(tokenService.getAccessToken(anyString(), any())).thenReturn(Maybe.just(token));
+        when(tokenService.getAccessToken(any(ParsedJwt.class), any())).thenReturn(Maybe.just(token));
 
         testRequest(
                 HttpMethod.GET, "/userinfo", req -> req.putHeader(HttpHeaders.AUTHORIZATION, "Bearer test-token"),
@@ -169,9 +186,9 @@ public class UserInfoEndpointHandlerTest extends RxWebTestBase {
         token.setExpiresIn(100);
         token.setScope("openid");
 
-        when(jwtService.decode(anyString())).thenReturn(Single.just(new JWT()));
+        when(jwtService.decode(any(ParsedJwt.class))).thenReturn(Single.just(new JWT()));
         when(clientService.findByClientId(anyString())).thenReturn(Maybe.just(new Client()));
-        when(tokenService.getAccessToken(anyString(), any())).thenReturn(Maybe.just(token));
+        when(tokenService.getAccessToken(any(ParsedJwt.class), any())).thenReturn(Maybe.just(token));
         when(userService.findById(anyString())).thenReturn(Maybe.empty());
 
         testRequest(
@@ -188,9 +205,9 @@ public class UserInfoEndpointHandlerTest extends RxWebTestBase {
         User user = new User();
         user.setAdditionalInformation(Collections.singletonMap("sub", "user"));
 
-        when(jwtService.decode(anyString())).thenReturn(Single.just(new JWT()));
+        when(jwtService.decode(any(ParsedJwt.class))).thenReturn(Single.just(new JWT()));
         when(clientService.findByClientId(anyString())).thenReturn(Maybe.just(new Client()));
-        when(tokenService.getAccessToken(anyString(), any())).thenReturn(Maybe.just(token));
+        when(tokenService.getAccessToken(any(ParsedJwt.class), any())).thenReturn(Maybe.just(token));
         when(userService.findById(anyString())).thenReturn(Maybe.just(user));
 
         testRequest(
@@ -208,9 +225,9 @@ public class UserInfoEndpointHandlerTest extends RxWebTestBase {
         User user = new User();
         user.setAdditionalInformation(Collections.singletonMap("sub", "user"));
 
-        when(jwtService.decode(anyString())).thenReturn(Single.just(new JWT()));
+        when(jwtService.decode(any(ParsedJwt.class))).thenReturn(Single.just(new JWT()));
         when(clientService.findByClientId(anyString())).thenReturn(Maybe.just(new Client()));
-        when(tokenService.getAccessToken(anyString(), any())).thenReturn(Maybe.just(token));
+        when(tokenService.getAccessToken(any(ParsedJwt.class), any())).thenReturn(Maybe.just(token));
         when(userService.findById(anyString())).thenReturn(Maybe.just(user));
 
 
@@ -229,9 +246,9 @@ public class UserInfoEndpointHandlerTest extends RxWebTestBase {
         User user = new User();
         user.setAdditionalInformation(Collections.singletonMap("sub", "user"));
 
-        when(jwtService.decode(anyString())).thenReturn(Single.just(new JWT()));
+        when(jwtService.decode(any(ParsedJwt.class))).thenReturn(Single.just(new JWT()));
         when(clientService.findByClientId(anyString())).thenReturn(Maybe.just(new Client()));
-        when(tokenService.getAccessToken(anyString(), any())).thenReturn(Maybe.just(token));
+        when(tokenService.getAccessToken(any(ParsedJwt.class), any())).thenReturn(Maybe.just(token));
         when(userService.findById(anyString())).thenReturn(Maybe.just(user));
 
         testRequest(
@@ -239,6 +256,29 @@ public class UserInfoEndpointHandlerTest extends RxWebTestBase {
                 HttpStatusCode.OK_200, "OK", null);
     }
 
+    @Test
+    public void shouldInvokeUserEndpoint_opaqueToken() throws Exception {
+        String opaqueToken = OpaqueTokenUtils.generate();
+        Token token = new AccessToken(opaqueToken);
+        token.setClientId("client-id");
+        token.setSubject("id-subject");
+        token.setExpiresIn(100);
+        token.setScope("openid");
+
+        User user = new User();
+        user.setAdditionalInformation(Collections.singletonMap("sub", "user"));
+
+        when(tokenService.introspect(opaqueToken)).thenReturn(Maybe.just(token));
+        when(clientService.findByClientId("client-id")).thenReturn(Maybe.just(new Client()));
+        when(userService.findById(anyString())).thenReturn(Maybe.just(user));
+
+        testRequest(
+                HttpMethod.GET, "/userinfo", req -> req.putHeader(HttpHeaders.AUTHORIZATION, "Bearer " + opaqueToken),
+                HttpStatusCode.OK_200, "OK", null);
+
+        verify(jwtService, never()).decode(anyString());
+    }
+
     @Test
     public void shouldInvokeUserEndpoint_claimsRequest() throws Exception {
         Token token = new AccessToken("id-token");
@@ -249,9 +289,9 @@ public class UserInfoEndpointHandlerTest extends RxWebTestBase {
 
         User user = createUser();
 
-        when(jwtService.decode(anyString())).thenReturn(Single.just(new JWT()));
+        when(jwtService.decode(any(ParsedJwt.class))).thenReturn(Single.just(new JWT()));
         when(clientService.findByClientId(anyString())).thenReturn(Maybe.just(new Client()));
-        when(tokenService.getAccessToken(anyString(), any())).thenReturn(Maybe.just(token));
+        when(tokenService.getAccessToken(any(ParsedJwt.class), any())).thenReturn(Maybe.just(token));
         when(userService.findById(anyString())).thenReturn(Maybe.just(user));
 
         testRequest(
@@ -276,9 +316,9 @@ public class UserInfoEndpointHandlerTest extends RxWebTestBase {
 
         User user = createUser();
 
-        when(jwtService.decode(anyString())).thenReturn(Single.just(new JWT()));
+        when(jwtService.decode(any(ParsedJwt.class))).thenReturn(Single.just(new JWT()));
         when(clientService.findByClientId(anyString())).thenReturn(Maybe.just(new Client()));
-        when(tokenService.getAccessToken(anyString(), any())).thenReturn(Maybe.just(token));
+        when(tokenService.getAccessToken(any(ParsedJwt.class), any())).thenReturn(Maybe.just(token));
         when(userService.findById(anyString())).thenReturn(Maybe.just(user));
 
         testRequest(
@@ -302,9 +342,9 @@ public class UserInfoEndpointHandlerTest extends RxWebTestBase {
 
         User user = createUser();
 
-        when(jwtService.decode(anyString())).thenReturn(Single.just(new JWT()));
+        when(jwtService.decode(any(ParsedJwt.class))).thenReturn(Single.just(new JWT()));
         when(clientService.findByClientId(anyString())).thenReturn(Maybe.just(new Client()));
-        when(tokenService.getAccessToken(anyString(), any())).thenReturn(Maybe.just(token));
+        when(tokenService.getAccessToken(any(ParsedJwt.class), any())).thenReturn(Maybe.just(token));
         when(userService.findById(anyString())).thenReturn(Maybe.just(user));
 
         testRequest(
@@ -330,9 +370,9 @@ public class UserInfoEndpointHandlerTest extends RxWebTestBase {
 
         User user = createUser();
 
-        when(jwtService.decode(anyString())).thenReturn(Single.just(new JWT()));
+        when(jwtService.decode(any(ParsedJwt.class))).thenReturn(Single.just(new JWT()));
         when(clientService.findByClientId(anyString())).thenReturn(Maybe.just(new Client()));
-        when(tokenService.getAccessToken(anyString(), any())).thenReturn(Maybe.just(token));
+        when(tokenService.getAccessToken(any(ParsedJwt.class), any())).thenReturn(Maybe.just(token));
         when(userService.findById(anyString())).thenReturn(Maybe.just(user));
 
         testRequest(
@@ -360,9 +400,9 @@ public class UserInfoEndpointHandlerTest extends RxWebTestBase {
 
         User user = createUser();
 
-        when(jwtService.decode(anyString())).thenReturn(Single.just(new JWT()));
+        when(jwtService.decode(any(ParsedJwt.class))).thenReturn(Single.just(new JWT()));
         when(clientService.findByClientId(anyString())).thenReturn(Maybe.just(new Client()));
-        when(tokenService.getAccessToken(anyString(), any())).thenReturn(Maybe.just(token));
+        when(tokenService.getAccessToken(any(ParsedJwt.class), any())).thenReturn(Maybe.just(token));
         when(userService.findById(anyString())).thenReturn(Maybe.just(user));
 
         testRequest(
@@ -381,6 +421,80 @@ public class UserInfoEndpointHandlerTest extends RxWebTestBase {
                 HttpStatusCode.OK_200, "OK", null);
     }
 
+    @Test
+    public void shouldInvokeUserEndpoint_notModified() throws Exception {
+        Token token = new AccessToken("id-token");
+        token.setSubject("id-subject");
+        token.setExpiresIn(100);
+        token.setScope("openid email");
+
+        User user = createUser();
+
+        when(jwtService.decode(any(ParsedJwt.class))).thenReturn(Single.just(new JWT()));
+        when(clientService.findByClientId(anyString())).thenReturn(Maybe.just(new Client()));
+        when(tokenService.getAccessToken(any(ParsedJwt.class), any())).thenReturn(Maybe.just(token));
+        when(userService.findById(anyString())).thenReturn(Maybe.just(user));
+
+        AtomicReference<String> etag = new AtomicReference<>();
+        testRequest(
+                HttpMethod.GET,
+                "/userinfo",
+                req -> req.putHeader(HttpHeaders.AUTHORIZATION, "Bearer test-token"),
+                resp -> {
+                    etag.set(resp.getHeader(HttpHeaders.ETAG));
+                    assertNotNull(etag.get());
+                },
+                HttpStatusCode.OK_200, "OK", null);
+
+        testRequest(
+                HttpMethod.GET,
+                "/userinfo",
+                req -> req.putHeader(HttpHeaders.AUTHORIZATION, "Bearer test-token").putHeader(HttpHeaders.IF_NONE_MATCH, etag.get()),
+                resp -> assertEquals(etag.get(), resp.getHeader(HttpHeaders.ETAG)),
+                HttpStatusCode.NOT_MODIFIED_304, "Not Modified", null);
+
+        // the end-user has been read once
+        verify(userService, times(1)).findById(anyString());
+    }
+
+    @Test
+    public void shouldInvokeUserEndpoint_userUpdated() throws Exception {
+        Token token = new AccessToken("id-token");
+        token.setSubject("id-subject");
+        token.setExpiresIn(100);
+        token.setScope("openid email");
+
+        User user = createUser();
+
+        when(jwtService.decode(any(ParsedJwt.class))).thenReturn(Single.just(new JWT()));
+        when(clientService.findByClientId(anyString())).thenReturn(Maybe.just(new Client()));
+        when(tokenService.getAccessToken(any(ParsedJwt.class), any())).thenReturn(Maybe.just(token));
+        when(userService.findById(anyString())).thenReturn(Maybe.just(user));
+
+        AtomicReference<String> etag = new AtomicReference<>();
+        testRequest(
+                HttpMethod.GET,
+                "/userinfo",
+                req -> req.putHeader(HttpHeaders.AUTHORIZATION, "Bearer test-token"),
+                resp -> etag.set(resp.getHeader(HttpHeaders.ETAG)),
+                HttpStatusCode.OK_200, "OK", null);
+
+        user.getAdditionalInformation().put(StandardClaims.EMAIL, "jane.doe@graviteesource.com");
+        userInfoCache.evict("id-subject");
+
+        testRequest(
+                HttpMethod.GET,
+                "/userinfo",
+                req -> req.putHeader(HttpHeaders.AUTHORIZATION, "Bearer test-token").putHeader(HttpHeaders.IF_NONE_MATCH, etag.get()),
+                resp -> resp.bodyHandler(body -> {
+                    final Map<String, Object> claims = Json.decodeValue(body.toString(), Map.class);
+                    assertEquals("jane.doe@graviteesource.com", claims.get(StandardClaims.EMAIL));
+                }),
+                HttpStatusCode.OK_200, "OK", null);
+
+        verify(userService, times(2)).findById(anyString());
+    }
+
     private User createUser() {
         User user = new User();
         Map<String, Object> additionalInformation  = new HashMap<>();
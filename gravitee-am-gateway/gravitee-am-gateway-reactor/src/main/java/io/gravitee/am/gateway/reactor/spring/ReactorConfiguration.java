@@ -16,6 +16,14 @@
 package io.gravitee.am.gateway.reactor.spring;
 
 import io.gravitee.am.gateway.handler.SecurityDomainRouterFactory;
+import io.gravitee.am.gateway.handler.certificate.CertificateRegistry;
+import io.gravitee.am.gateway.handler.certificate.impl.CertificateRegistryImpl;
+import io.gravitee.am.gateway.handler.crypto.CryptoExecutor;
+import io.gravitee.am.gateway.handler.crypto.impl.CryptoExecutorImpl;
+import io.gravitee.am.gateway.handler.oauth2.client.ClientServiceRegistry;
+import io.gravitee.am.gateway.handler.oauth2.client.impl.ClientServiceRegistryImpl;
+import io.gravitee.am.gateway.handler.oauth2.code.AuthorizationCodeStore;
+import io.gravitee.am.gateway.handler.oauth2.code.impl.AuthorizationCodeStoreImpl;
 import io.gravitee.am.gateway.reactor.Reactor;
 import io.gravitee.am.gateway.reactor.SecurityDomainHandlerRegistry;
 import io.gravitee.am.gateway.reactor.impl.DefaultReactor;
@@ -44,4 +52,24 @@ public class ReactorConfiguration {
     public SecurityDomainRouterFactory securityDomainRouterFactory() {
         return new SecurityDomainRouterFactory();
     }
+
+    @Bean
+    public CryptoExecutor cryptoExecutor() {
+        return new CryptoExecutorImpl();
+    }
+
+    @Bean
+    public AuthorizationCodeStore authorizationCodeStore() {
+        return new AuthorizationCodeStoreImpl();
+    }
+
+    @Bean
+    public ClientServiceRegistry clientServiceRegistry() {
+        return new ClientServiceRegistryImpl();
+    }
+
+    @Bean
+    public CertificateRegistry certificateRegistry() {
+        return new CertificateRegistryImpl();
+    }
 }
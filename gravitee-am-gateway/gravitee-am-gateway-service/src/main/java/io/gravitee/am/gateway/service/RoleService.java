@@ -16,16 +16,34 @@
 package io.gravitee.am.gateway.service;
 
 import io.gravitee.am.model.Role;
+import io.gravitee.common.service.Service;
 import io.reactivex.Single;
 
 import java.util.List;
 import java.util.Set;
+import java.util.function.BiFunction;
 
 /**
  * @author Titouan COMPIEGNE (titouan.compiegne at graviteesource.com)
  * @author GraviteeSource Team
  */
-public interface RoleService {
+public interface RoleService extends Service {
 
+    /**
+     * Resolve role ids to the roles of the domain.
+     * The same combination of role ids returns the same unmodifiable set until a role of the domain changes.
+     */
     Single<Set<Role>> findByIdIn(List<String> roles);
+
+    /**
+     * Resolve role ids to the union of the permissions they grant.
+     * The same combination of role ids returns the same unmodifiable set until a role of the domain changes.
+     */
+    Single<Set<String>> findPermissionsByIdIn(List<String> roles);
+
+    /**
+     * Resolve role ids to the roles of the domain and the union of the permissions they grant, with a single
+     * repository lookup while the roles of the domain are not loaded.
+     */
+    <T> Single<T> findByIdIn(List<String> roles, BiFunction<Set<Role>, Set<String>, T> mapper);
 }
@@ -15,28 +15,221 @@
  */
 package io.gravitee.am.gateway.service.impl;
 
+import io.gravitee.am.gateway.core.event.DomainEvent;
+import io.gravitee.am.gateway.core.event.RoleEvent;
 import io.gravitee.am.gateway.service.RoleService;
+import io.gravitee.am.model.Domain;
 import io.gravitee.am.model.Role;
+import io.gravitee.am.model.common.event.Payload;
 import io.gravitee.am.repository.management.api.RoleRepository;
+import io.gravitee.common.event.Event;
+import io.gravitee.common.event.EventListener;
+import io.gravitee.common.event.EventManager;
+import io.gravitee.common.service.AbstractService;
 import io.reactivex.Single;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.InitializingBean;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Component;
 
+import java.util.Collections;
+import java.util.HashSet;
 import java.util.List;
 import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.BiFunction;
+import java.util.stream.Collectors;
 
 /**
+ * Roles of the domain are kept in memory, updated through role events and reloaded on each synchronization of the
+ * domain, in case its role event has been overwritten. They are also reloaded in the background once
+ * <code>roles.cache.ttl</code> has elapsed, so that a missed role change is not applied to tokens indefinitely. Each combination of role ids a user can
+ * hold is resolved once to its roles and permissions, and the resolved combinations are dropped on any role change.
+ *
+ * Until the roles of the domain are loaded, lookups are delegated to the repository.
+ *
  * @author Titouan COMPIEGNE (titouan.compiegne at graviteesource.com)
  * @author GraviteeSource Team
  */
 @Component
-public class RoleServiceImpl implements RoleService {
+public class RoleServiceImpl extends AbstractService implements RoleService, InitializingBean, EventListener<RoleEvent, Payload> {
+
+    private static final Logger logger = LoggerFactory.getLogger(RoleServiceImpl.class);
+    private static final int MAX_COMBINATIONS = 1000;
+
+    private final ConcurrentMap<String, Role> roles = new ConcurrentHashMap<>();
+    private volatile ConcurrentMap<String, RoleCombination> combinations = new ConcurrentHashMap<>();
+    private final AtomicLong loadedAt = new AtomicLong();
+    private volatile boolean initialized;
+
+    @Value("${roles.cache.ttl:60}")
+    private long ttl = 60;
 
     @Autowired
     private RoleRepository roleRepository;
 
+    @Autowired
+    private Domain domain;
+
+    @Autowired
+    private EventManager eventManager;
+
+    public RoleServiceImpl() { }
+
+    public RoleServiceImpl(long ttl) {
+        this.ttl = ttl;
+    }
+
     @Override
     public Single<Set<Role>> findByIdIn(List<String> roles) {
-        return roleRepository.findByIdIn(roles);
+        return findByIdIn(roles, (resolvedRoles, permissions) -> resolvedRoles);
+    }
+
+    @Override
+    public Single<Set<String>> findPermissionsByIdIn(List<String> roles) {
+        return findByIdIn(roles, (resolvedRoles, permissions) -> permissions);
+    }
+
+    @Override
+    public <T> Single<T> findByIdIn(List<String> roles, BiFunction<Set<Role>, Set<String>, T> mapper) {
+        if (!initialized) {
+            return roleRepository.findByIdIn(roles).map(resolvedRoles -> mapper.apply(resolvedRoles, permissions(resolvedRoles)));
+        }
+        reloadIfExpired();
+        RoleCombination combination = combination(roles);
+        return Single.just(mapper.apply(combination.roles, combination.permissions));
+    }
+
+    @Override
+    public void afterPropertiesSet() {
+        logger.info("Initializing roles for domain {}", domain.getName());
+        loadRoles();
+    }
+
+    @Override
+    protected void doStart() throws Exception {
+        super.doStart();
+
+        logger.info("Register event listener for role events");
+        eventManager.subscribeForEvents(this, RoleEvent.class);
+        EventListener<DomainEvent, Domain> domainEventListener = this::onDomainEvent;
+        eventManager.subscribeForEvents(domainEventListener, DomainEvent.class);
+    }
+
+    public void onDomainEvent(Event<DomainEvent, Domain> event) {
+        if (event.type() == DomainEvent.SYNC && domain.getId().equals(event.content().getId())) {
+            logger.debug("Domain {} has been synchronized, reload roles", domain.getName());
+            loadRoles();
+        }
+    }
+
+    @Override
+    public void onEvent(Event<RoleEvent, Payload> event) {
+        if (!domain.getId().equals(event.content().getDomain())) {
+            return;
+        }
+
+        switch (event.type()) {
+            case DEPLOY:
+            case UPDATE:
+                updateRole(event.content().getId(), event.type());
+                break;
+            case UNDEPLOY:
+                removeRole(event.content().getId());
+                break;
+        }
+    }
+
+    private void reloadIfExpired() {
+        long loaded = loadedAt.get();
+        long now = System.currentTimeMillis();
+        // the current roles are still used while they are reloaded
+        if (ttl > 0 && now - loaded >= TimeUnit.SECONDS.toMillis(ttl) && loadedAt.compareAndSet(loaded, now)) {
+            logger.debug("Roles of domain {} have expired, reload roles", domain.getName());
+            loadRoles();
+        }
+    }
+
+    private void loadRoles() {
+        loadedAt.set(System.currentTimeMillis());
+        roleRepository.findByDomain(domain.getId())
+                .subscribe(
+                        domainRoles -> {
+                            Set<String> ids = domainRoles.stream().map(Role::getId).collect(Collectors.toSet());
+                            roles.keySet().retainAll(ids);
+                            domainRoles.forEach(role -> roles.put(role.getId(), role));
+                            invalidate();
+                            initialized = true;
+                            logger.info("Roles loaded for domain {}", domain.getName());
+                        },
+                        error -> logger.error("Unable to load roles for domain {}", domain.getName(), error));
+    }
+
+    private void updateRole(String roleId, RoleEvent roleEvent) {
+        final String eventType = roleEvent.toString().toLowerCase();
+        logger.info("Domain {} has received {} role event for {}", domain.getName(), eventType, roleId);
+        roleRepository.findById(roleId)
+                .subscribe(
+                        role -> {
+                            roles.put(role.getId(), role);
+                            invalidate();
+                            logger.info("Role {} {}d for domain {}", roleId, eventType, domain.getName());
+                        },
+                        error -> logger.error("Unable to {} role for domain {}", eventType, domain.getName(), error),
+                        () -> logger.error("No role found with id {}", roleId));
+    }
+
+    private void removeRole(String roleId) {
+        logger.info("Domain {} has received role event, delete role {}", domain.getName(), roleId);
+        if (roles.remove(roleId) != null) {
+            invalidate();
+        }
+    }
+
+    private void invalidate() {
+        // combinations being resolved against the previous roles end up in the discarded map
+        combinations = new ConcurrentHashMap<>();
+    }
+
+    private RoleCombination combination(List<String> roleIds) {
+        final ConcurrentMap<String, RoleCombination> current = combinations;
+        final String key = roleIds.size() == 1 ? roleIds.get(0) : roleIds.stream().sorted().distinct().collect(Collectors.joining(","));
+        RoleCombination combination = current.get(key);
+        if (combination == null) {
+            Set<Role> resolvedRoles = roleIds.stream().map(roles::get).filter(role -> role != null).collect(Collectors.toSet());
+            combination = new RoleCombination(Collections.unmodifiableSet(resolvedRoles), Collections.unmodifiableSet(permissions(resolvedRoles)));
+            if (current.size() < MAX_COMBINATIONS) {
+                RoleCombination existing = current.putIfAbsent(key, combination);
+                if (existing != null) {
+                    combination = existing;
+                }
+            }
+        }
+        return combination;
+    }
+
+    private static Set<String> permissions(Set<Role> roles) {
+        Set<String> permissions = new HashSet<>();
+        roles.forEach(role -> {
+            if (role.getPermissions() != null) {
+                permissions.addAll(role.getPermissions());
+            }
+        });
+        return permissions;
+    }
+
+    private static final class RoleCombination {
+        private final Set<Role> roles;
+        private final Set<String> permissions;
+
+        private RoleCombination(Set<Role> roles, Set<String> permissions) {
+            this.roles = roles;
+            this.permissions = permissions;
+        }
     }
 }
@@ -15,12 +15,16 @@
  */
 package io.gravitee.am.gateway.service.impl;
 
+import io.gravitee.am.gateway.core.event.UserEvent;
 import io.gravitee.am.gateway.service.RoleService;
 import io.gravitee.am.gateway.service.UserService;
 import io.gravitee.am.model.Domain;
 import io.gravitee.am.model.User;
+import io.gravitee.am.model.common.event.Action;
+import io.gravitee.am.model.common.event.Payload;
 import io.gravitee.am.repository.management.api.UserRepository;
 import io.gravitee.am.service.exception.UserNotFoundException;
+import io.gravitee.common.event.EventManager;
 import io.reactivex.Maybe;
 import io.reactivex.Single;
 import org.slf4j.Logger;
@@ -52,6 +56,9 @@ public class UserServiceImpl implements UserService {
     @Autowired
     private RoleService roleService;
 
+    @Autowired
+    private EventManager eventManager;
+
     @Override
     public Single<User> findOrCreate(io.gravitee.am.identityprovider.api.User user) {
         return userRepository.findByUsernameAndDomain(domain.getId(), user.getUsername())
@@ -63,7 +70,10 @@ public class UserServiceImpl implements UserService {
                     existingUser.setRoles(user.getRoles());
                     Map<String, Object> additionalInformation = user.getAdditionalInformation();
                     extractAdditionalInformation(existingUser, additionalInformation);
-                    return userRepository.update(existingUser);
+                    return userRepository.update(existingUser)
+                            // claims cached by this gateway for the user are no longer valid
+                            .doOnSuccess(updatedUser -> eventManager.publishEvent(UserEvent.UPDATE,
+                                    new Payload(updatedUser.getId(), domain.getId(), Action.UPDATE)));
                 })
                 .onErrorResumeNext(ex -> {
                     if (ex instanceof UserNotFoundException) {
@@ -93,11 +103,11 @@ public class UserServiceImpl implements UserService {
     private Single<User> enhanceUserWithRoles(User user) {
         List<String> userRoles = user.getRoles();
         if (userRoles != null && !userRoles.isEmpty()) {
-            return roleService.findByIdIn(userRoles)
-                    .map(roles -> {
-                        user.setRolesPermissions(roles);
-                        return user;
-                    });
+            return roleService.findByIdIn(userRoles, (roles, permissions) -> {
+                user.setRolesPermissions(roles);
+                user.setPermissions(permissions);
+                return user;
+            });
         }
         return Single.just(user);
     }
@@ -0,0 +1,190 @@
+/**
+ * Copyright (C) 2015 The Gravitee team (http://gravitee.io)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.gravitee.am.gateway.service;
+
+import io.gravitee.am.gateway.core.event.DomainEvent;
+import io.gravitee.am.gateway.core.event.RoleEvent;
+import io.gravitee.am.gateway.service.impl.RoleServiceImpl;
+import io.gravitee.am.model.Domain;
+import io.gravitee.am.model.Role;
+import io.gravitee.am.model.common.event.Action;
+import io.gravitee.am.model.common.event.Payload;
+import io.gravitee.am.repository.management.api.RoleRepository;
+import io.gravitee.common.event.impl.SimpleEvent;
+import io.reactivex.Maybe;
+import io.reactivex.Single;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.runners.MockitoJUnitRunner;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+import static org.mockito.Matchers.anyList;
+import static org.mockito.Mockito.*;
+
+/**
+ * @author GraviteeSource Team
+ */
+@RunWith(MockitoJUnitRunner.class)
+public class RoleServiceTest {
+
+    private static final String DOMAIN = "domain-id";
+
+    @InjectMocks
+    private RoleServiceImpl roleService = new RoleServiceImpl();
+
+    @InjectMocks
+    private RoleServiceImpl notInitializedRoleService = new RoleServiceImpl();
+
+    @InjectMocks
+    private RoleServiceImpl expiringRoleService = new RoleServiceImpl(1);
+
+    @Mock
+    private RoleRepository roleRepository;
+
+    @Mock
+    private Domain domain;
+
+    @Before
+    public void setUp() {
+        when(domain.getId()).thenReturn(DOMAIN);
+        when(roleRepository.findByDomain(DOMAIN)).thenReturn(Single.just(new HashSet<>(Arrays.asList(
+                role("role-1", "read", "write"),
+                role("role-2", "write", "admin")))));
+        roleService.afterPropertiesSet();
+    }
+
+    @Test
+    public void shouldResolveRolesAndPermissionsFromMemory() {
+        List<String> roleIds = Arrays.asList("role-2", "role-1");
+
+        Set<Role> roles = roleService.findByIdIn(roleIds).blockingGet();
+        Set<String> permissions = roleService.findPermissionsByIdIn(roleIds).blockingGet();
+
+        assertEquals(2, roles.size());
+        assertEquals(new HashSet<>(Arrays.asList("read", "write", "admin")), permissions);
+        verify(roleRepository, never()).findByIdIn(anyList());
+    }
+
+    @Test
+    public void shouldShareResolvedCombination() {
+        Set<String> permissions = roleService.findPermissionsByIdIn(Arrays.asList("role-1", "role-2")).blockingGet();
+
+        assertSame(permissions, roleService.findPermissionsByIdIn(Arrays.asList("role-2", "role-1")).blockingGet());
+        assertSame(roleService.findByIdIn(Arrays.asList("role-1", "role-2")).blockingGet(),
+                roleService.findByIdIn(Arrays.asList("role-2", "role-1", "role-2")).blockingGet());
+    }
+
+    @Test
+    public void shouldIgnoreUnknownRole() {
+        Set<String> permissions = roleService.findPermissionsByIdIn(Arrays.asList("role-1", "unknown")).blockingGet();
+
+        assertEquals(new HashSet<>(Arrays.asList("read", "write")), permissions);
+    }
+
+    @Test
+    public void shouldUpdateRole() {
+        Set<String> permissions = roleService.findPermissionsByIdIn(Collections.singletonList("role-1")).blockingGet();
+        when(roleRepository.findById("role-1")).thenReturn(Maybe.just(role("role-1", "read")));
+
+        roleService.onEvent(new SimpleEvent<>(RoleEvent.UPDATE, new Payload("role-1", DOMAIN, Action.UPDATE)));
+
+        assertEquals(new HashSet<>(Arrays.asList("read", "write")), permissions);
+        assertEquals(Collections.singleton("read"), roleService.findPermissionsByIdIn(Collections.singletonList("role-1")).blockingGet());
+    }
+
+    @Test
+    public void shouldRemoveRole() {
+        roleService.onEvent(new SimpleEvent<>(RoleEvent.UNDEPLOY, new Payload("role-2", DOMAIN, Action.DELETE)));
+
+        assertEquals(new HashSet<>(Arrays.asList("read", "write")),
+                roleService.findPermissionsByIdIn(Arrays.asList("role-1", "role-2")).blockingGet());
+    }
+
+    @Test
+    public void shouldReloadRoles_deleteEventOverwritten() {
+        // the role has been deleted but the domain last event is the one of a later client update
+        when(roleRepository.findByDomain(DOMAIN)).thenReturn(Single.just(Collections.singleton(role("role-1", "read", "write"))));
+
+        roleService.onDomainEvent(new SimpleEvent<>(DomainEvent.SYNC, domain));
+
+        assertEquals(new HashSet<>(Arrays.asList("read", "write")),
+                roleService.findPermissionsByIdIn(Arrays.asList("role-1", "role-2")).blockingGet());
+    }
+
+    @Test
+    public void shouldIgnoreOtherDomainEvent() {
+        roleService.onEvent(new SimpleEvent<>(RoleEvent.UNDEPLOY, new Payload("role-2", "other-domain", Action.DELETE)));
+
+        assertTrue(roleService.findPermissionsByIdIn(Collections.singletonList("role-2")).blockingGet().contains("admin"));
+    }
+
+    @Test
+    public void shouldDelegateToRepository_notInitialized() {
+        when(roleRepository.findByIdIn(anyList())).thenReturn(Single.just(Collections.singleton(role("role-1", "read"))));
+
+        assertEquals(Collections.singleton("read"), notInitializedRoleService.findPermissionsByIdIn(Collections.singletonList("role-1")).blockingGet());
+        verify(roleRepository, times(1)).findByIdIn(anyList());
+    }
+
+    @Test
+    public void shouldResolveRolesAndPermissionsWithSingleLookup_notInitialized() {
+        when(roleRepository.findByIdIn(anyList())).thenReturn(Single.just(Collections.singleton(role("role-1", "read"))));
+
+        String resolved = notInitializedRoleService.findByIdIn(Collections.singletonList("role-1"),
+                (roles, permissions) -> roles.size() + ":" + permissions).blockingGet();
+
+        assertEquals("1:[read]", resolved);
+        verify(roleRepository, times(1)).findByIdIn(anyList());
+    }
+
+    @Test
+    public void shouldNotReloadRoles_notExpired() {
+        roleService.findPermissionsByIdIn(Collections.singletonList("role-1")).blockingGet();
+
+        verify(roleRepository, times(1)).findByDomain(DOMAIN);
+    }
+
+    @Test
+    public void shouldReloadRoles_expired() throws InterruptedException {
+        expiringRoleService.afterPropertiesSet();
+        // the permission revocation event has been missed
+        when(roleRepository.findByDomain(DOMAIN)).thenReturn(Single.just(Collections.singleton(role("role-2", "write"))));
+        Thread.sleep(1100);
+
+        expiringRoleService.findPermissionsByIdIn(Collections.singletonList("role-2")).blockingGet();
+
+        assertEquals(Collections.singleton("write"), expiringRoleService.findPermissionsByIdIn(Collections.singletonList("role-2")).blockingGet());
+    }
+
+    private static Role role(String id, String... permissions) {
+        Role role = new Role();
+        role.setId(id);
+        role.setDomain(DOMAIN);
+        role.setPermissions(Arrays.asList(permissions));
+        return role;
+    }
+}
@@ -103,6 +103,10 @@ public class SyncManager {
                             Enum eventType = io.gravitee.am.gateway.core.event.Event.valueOf(lastEvent);
                             Object content = Type.DOMAIN.equals(lastEvent.getType()) ? domain : lastEvent.getPayload();
                             eventManager.publishEvent(eventType, content);
+                            if (!Type.DOMAIN.equals(lastEvent.getType())) {
+                                // other events of the sync period may have been overwritten by the last one
+                                eventManager.publishEvent(DomainEvent.SYNC, domain);
+                            }
 
                             // update local domains map
                             deployedDomains.put(domain.getId(), domain);
@@ -0,0 +1,60 @@
+/**
+ * Copyright (C) 2015 The Gravitee team (http://gravitee.io)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.gravitee.am.gateway.metrics;
+
+import io.gravitee.am.gateway.handler.crypto.CryptoExecutor;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.FunctionTimer;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.TimeGauge;
+import org.springframework.beans.factory.InitializingBean;
+import org.springframework.beans.factory.annotation.Autowired;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Expose crypto worker pool metrics (queue depth, wait time, rejections) through the gateway metrics registry.
+ *
+ * @author GraviteeSource Team
+ */
+public class CryptoExecutorMetrics implements InitializingBean {
+
+    @Autowired
+    private MeterRegistry registry;
+
+    @Autowired
+    private CryptoExecutor cryptoExecutor;
+
+    @Override
+    public void afterPropertiesSet() {
+        Gauge.builder("am.crypto.queue.size", cryptoExecutor, CryptoExecutor::queueSize)
+                .description("Number of tasks waiting in the crypto worker pool queue")
+                .register(registry);
+        Gauge.builder("am.crypto.active", cryptoExecutor, CryptoExecutor::activeCount)
+                .description("Number of crypto worker threads actively running tasks")
+                .register(registry);
+        FunctionCounter.builder("am.crypto.rejected", cryptoExecutor, CryptoExecutor::rejectedCount)
+                .description("Number of tasks rejected because the crypto worker pool queue was full")
+                .register(registry);
+        FunctionTimer.builder("am.crypto.wait", cryptoExecutor, CryptoExecutor::completedCount, CryptoExecutor::totalWaitTime, TimeUnit.NANOSECONDS)
+                .description("Time spent by the tasks in the crypto worker pool queue")
+                .register(registry);
+        TimeGauge.builder("am.crypto.wait.max", cryptoExecutor, TimeUnit.NANOSECONDS, CryptoExecutor::maxWaitTime)
+                .description("Maximum time spent by a task in the crypto worker pool queue")
+                .register(registry);
+    }
+}
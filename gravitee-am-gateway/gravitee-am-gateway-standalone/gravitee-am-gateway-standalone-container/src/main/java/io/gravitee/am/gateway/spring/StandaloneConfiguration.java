@@ -17,6 +17,7 @@ package io.gravitee.am.gateway.spring;
 
 import com.fasterxml.jackson.databind.ObjectMapper;
 import io.gravitee.am.gateway.event.EventManagerImpl;
+import io.gravitee.am.gateway.metrics.CryptoExecutorMetrics;
 import io.gravitee.am.gateway.node.GatewayNode;
 import io.gravitee.am.gateway.reactor.spring.ReactorConfiguration;
 import io.gravitee.am.gateway.vertx.VertxServerConfiguration;
@@ -27,7 +28,10 @@ import io.gravitee.common.event.EventManager;
 import io.gravitee.node.api.Node;
 import io.gravitee.node.vertx.spring.VertxConfiguration;
 import io.gravitee.plugin.core.spring.PluginConfiguration;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.composite.CompositeMeterRegistry;
 import io.vertx.core.Vertx;
+import io.vertx.micrometer.backends.BackendRegistries;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
@@ -68,4 +72,16 @@ public class StandaloneConfiguration {
     public ObjectMapper objectMapper() {
         return new ObjectMapper();
     }
+
+    @Bean
+    public MeterRegistry meterRegistry(@Autowired Vertx vertx) {
+        MeterRegistry registry = vertx.isMetricsEnabled() ? BackendRegistries.getDefaultNow() : null;
+        // an empty composite registry is a no-op registry
+        return registry != null ? registry : new CompositeMeterRegistry();
+    }
+
+    @Bean
+    public CryptoExecutorMetrics cryptoExecutorMetrics() {
+        return new CryptoExecutorMetrics();
+    }
 }
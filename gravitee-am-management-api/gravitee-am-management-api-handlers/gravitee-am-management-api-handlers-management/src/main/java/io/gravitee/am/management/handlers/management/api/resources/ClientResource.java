@@ -18,6 +18,7 @@ package io.gravitee.am.management.handlers.management.api.resources;
 import io.gravitee.am.model.Client;
 import io.gravitee.am.service.ClientService;
 import io.gravitee.am.service.DomainService;
+import io.gravitee.am.service.TokenService;
 import io.gravitee.am.service.exception.ClientNotFoundException;
 import io.gravitee.am.service.exception.DomainNotFoundException;
 import io.gravitee.am.service.model.UpdateClient;
@@ -49,6 +50,9 @@ public class ClientResource extends AbstractResource {
     @Autowired
     private DomainService domainService;
 
+    @Autowired
+    private TokenService tokenService;
+
     @GET
     @Produces(MediaType.APPLICATION_JSON)
     @ApiOperation(value = "Get a client")
@@ -108,4 +112,32 @@ public class ClientResource extends AbstractResource {
                         () -> response.resume(Response.noContent().build()),
                         error -> response.resume(error));
     }
+
+    @DELETE
+    @Path("tokens")
+    @ApiOperation(value = "Revoke the tokens of a client",
+            notes = "Revoke all the access and refresh tokens issued to the client, or only those of an end-user if the subject is provided")
+    @ApiResponses({
+            @ApiResponse(code = 204, message = "Tokens successfully revoked"),
+            @ApiResponse(code = 500, message = "Internal server error")})
+    public void revokeTokens(@PathParam("domain") String domain,
+                             @PathParam("client") String client,
+                             @QueryParam("subject") String subject,
+                             @Suspended final AsyncResponse response) {
+        domainService.findById(domain)
+                .switchIfEmpty(Maybe.error(new DomainNotFoundException(domain)))
+                .flatMap(irrelevant -> clientService.findById(client))
+                .switchIfEmpty(Maybe.error(new ClientNotFoundException(client)))
+                .flatMapCompletable(client1 -> {
+                    if (!client1.getDomain().equalsIgnoreCase(domain)) {
+                        throw new BadRequestException("Client does not belong to domain");
+                    }
+                    return subject == null ?
+                            tokenService.revokeByClient(client1.getDomain(), client1.getClientId()) :
+                            tokenService.revokeByClientAndSubject(client1.getDomain(), client1.getClientId(), subject);
+                })
+                .subscribe(
+                        () -> response.resume(Response.noContent().build()),
+                        error -> response.resume(error));
+    }
 }
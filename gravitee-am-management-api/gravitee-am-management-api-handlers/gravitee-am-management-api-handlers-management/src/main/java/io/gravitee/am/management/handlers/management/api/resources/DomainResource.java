@@ -17,6 +17,7 @@ package io.gravitee.am.management.handlers.management.api.resources;
 
 import io.gravitee.am.model.Domain;
 import io.gravitee.am.service.DomainService;
+import io.gravitee.am.service.TokenService;
 import io.gravitee.am.service.exception.DomainNotFoundException;
 import io.gravitee.am.service.model.UpdateDomain;
 import io.gravitee.common.http.MediaType;
@@ -47,6 +48,9 @@ public class DomainResource extends AbstractResource {
     @Autowired
     private DomainService domainService;
 
+    @Autowired
+    private TokenService tokenService;
+
     @Context
     private ResourceContext resourceContext;
 
@@ -96,6 +100,22 @@ public class DomainResource extends AbstractResource {
                         error -> response.resume(error));
     }
 
+    @DELETE
+    @Path("tokens")
+    @ApiOperation(value = "Revoke all the tokens of the security domain")
+    @ApiResponses({
+            @ApiResponse(code = 204, message = "Tokens successfully revoked"),
+            @ApiResponse(code = 500, message = "Internal server error")})
+    public void revokeTokens(@PathParam("domain") String domain,
+                             @Suspended final AsyncResponse response) {
+        domainService.findById(domain)
+                .switchIfEmpty(Maybe.error(new DomainNotFoundException(domain)))
+                .flatMapCompletable(irrelevant -> tokenService.revokeByDomain(domain))
+                .subscribe(
+                        () -> response.resume(Response.noContent().build()),
+                        error -> response.resume(error));
+    }
+
     @Path("clients")
     public ClientsResource getClientsResource() {
         return resourceContext.getResource(ClientsResource.class);
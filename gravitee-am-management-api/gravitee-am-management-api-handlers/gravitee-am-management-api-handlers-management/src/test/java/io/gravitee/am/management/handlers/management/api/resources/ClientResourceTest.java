@@ -18,14 +18,21 @@ package io.gravitee.am.management.handlers.management.api.resources;
 import io.gravitee.am.management.handlers.management.api.JerseySpringTest;
 import io.gravitee.am.model.Client;
 import io.gravitee.am.model.Domain;
+import io.gravitee.am.service.model.UpdateClient;
 import io.gravitee.common.http.HttpStatusCode;
+import io.reactivex.Completable;
 import io.reactivex.Maybe;
 import org.junit.Test;
 
+import javax.ws.rs.client.Entity;
 import javax.ws.rs.core.Response;
 
 import static org.junit.Assert.assertEquals;
+import static org.mockito.Matchers.any;
+import static org.mockito.Matchers.anyString;
 import static org.mockito.Mockito.doReturn;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
 
 /**
  * @author Titouan COMPIEGNE (titouan.compiegne at graviteesource.com)
@@ -101,4 +108,77 @@ public class ClientResourceTest extends JerseySpringTest {
         final Response response = target("domains").path(domainId).path("clients").path(clientId).request().get();
         assertEquals(HttpStatusCode.BAD_REQUEST_400, response.getStatus());
     }
+
+    @Test
+    public void shouldRevokeTokens() {
+        final String domainId = "domain-id";
+        final Domain mockDomain = new Domain();
+        mockDomain.setId(domainId);
+
+        final String clientId = "client-id";
+        final Client mockClient = new Client();
+        mockClient.setId(clientId);
+        mockClient.setClientId("client-name");
+        mockClient.setDomain(domainId);
+
+        doReturn(Maybe.just(mockDomain)).when(domainService).findById(domainId);
+        doReturn(Maybe.just(mockClient)).when(clientService).findById(clientId);
+        doReturn(Completable.complete()).when(tokenService).revokeByClient(domainId, "client-name");
+
+        final Response response = target("domains").path(domainId).path("clients").path(clientId).path("tokens").request().delete();
+        assertEquals(HttpStatusCode.NO_CONTENT_204, response.getStatus());
+        verify(tokenService).revokeByClient(domainId, "client-name");
+    }
+
+    @Test
+    public void shouldRevokeTokens_subject() {
+        final String domainId = "domain-id";
+        final Domain mockDomain = new Domain();
+        mockDomain.setId(domainId);
+
+        final String clientId = "client-id";
+        final Client mockClient = new Client();
+        mockClient.setId(clientId);
+        mockClient.setClientId("client-name");
+        mockClient.setDomain(domainId);
+
+        doReturn(Maybe.just(mockDomain)).when(domainService).findById(domainId);
+        doReturn(Maybe.just(mockClient)).when(clientService).findById(clientId);
+        doReturn(Completable.complete()).when(tokenService).revokeByClientAndSubject(domainId, "client-name", "user-id");
+
+        final Response response = target("domains").path(domainId).path("clients").path(clientId).path("tokens")
+                .queryParam("subject", "user-id").request().delete();
+        assertEquals(HttpStatusCode.NO_CONTENT_204, response.getStatus());
+        verify(tokenService).revokeByClientAndSubject(domainId, "client-name", "user-id");
+    }
+
+    @Test
+    public void shouldRevokeTokens_wrongDomain() {
+        final String domainId = "domain-id";
+        final Domain mockDomain = new Domain();
+        mockDomain.setId(domainId);
+
+        final String clientId = "client-id";
+        final Client mockClient = new Client();
+        mockClient.setId(clientId);
+        mockClient.setClientId("client-name");
+        mockClient.setDomain("wrong-domain");
+
+        doReturn(Maybe.just(mockDomain)).when(domainService).findById(domainId);
+        doReturn(Maybe.just(mockClient)).when(clientService).findById(clientId);
+
+        final Response response = target("domains").path(domainId).path("clients").path(clientId).path("tokens").request().delete();
+        assertEquals(HttpStatusCode.BAD_REQUEST_400, response.getStatus());
+    }
+
+    @Test
+    public void shouldNotUpdate_invalidTokenFormat() {
+        UpdateClient updateClient = new UpdateClient();
+        updateClient.setTokenFormat("reference");
+
+        final Response response = target("domains").path("domain-id").path("clients").path("client-id")
+                .request().put(Entity.json(updateClient));
+        assertEquals(HttpStatusCode.BAD_REQUEST_400, response.getStatus());
+        verify(clientService, never()).update(anyString(), anyString(), any(UpdateClient.class));
+    }
 }
@@ -19,6 +19,7 @@ import io.gravitee.am.management.handlers.management.api.JerseySpringTest;
 import io.gravitee.am.model.Domain;
 import io.gravitee.am.service.exception.TechnicalManagementException;
 import io.gravitee.common.http.HttpStatusCode;
+import io.reactivex.Completable;
 import io.reactivex.Maybe;
 import org.junit.Test;
 
@@ -66,4 +67,27 @@ public class DomainResourceTest extends JerseySpringTest {
         final Response response = target("domains").path(domainId).request().get();
         assertEquals(HttpStatusCode.INTERNAL_SERVER_ERROR_500, response.getStatus());
     }
+
+    @Test
+    public void shouldRevokeTokens() {
+        final String domainId = "domain-id";
+        final Domain mockDomain = new Domain();
+        mockDomain.setId(domainId);
+
+        doReturn(Maybe.just(mockDomain)).when(domainService).findById(domainId);
+        doReturn(Completable.complete()).when(tokenService).revokeByDomain(domainId);
+
+        final Response response = target("domains").path(domainId).path("tokens").request().delete();
+        assertEquals(HttpStatusCode.NO_CONTENT_204, response.getStatus());
+    }
+
+    @Test
+    public void shouldRevokeTokens_domainNotFound() {
+        final String domainId = "domain-id";
+
+        doReturn(Maybe.empty()).when(domainService).findById(domainId);
+
+        final Response response = target("domains").path(domainId).path("tokens").request().delete();
+        assertEquals(HttpStatusCode.NOT_FOUND_404, response.getStatus());
+    }
 }
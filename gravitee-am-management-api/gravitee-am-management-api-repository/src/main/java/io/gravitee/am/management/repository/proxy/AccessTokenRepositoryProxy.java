@@ -23,6 +23,8 @@ import io.reactivex.Observable;
 import io.reactivex.Single;
 import org.springframework.stereotype.Component;
 
+import java.util.Collection;
+
 /**
  * @author David BRASSELY (david.brassely at graviteesource.com)
  * @author GraviteeSource Team
@@ -35,6 +37,11 @@ public class AccessTokenRepositoryProxy extends AbstractProxy<AccessTokenReposit
         return target.findByToken(token);
     }
 
+    @Override
+    public Observable<AccessToken> findByTokenIn(Collection<String> tokens) {
+        return target.findByTokenIn(tokens);
+    }
+
     @Override
     public Single<AccessToken> create(AccessToken accessToken) {
         return target.create(accessToken);
@@ -65,4 +72,29 @@ public class AccessTokenRepositoryProxy extends AbstractProxy<AccessTokenReposit
         return target.countByClientId(clientId);
     }
 
+    @Override
+    public Completable deleteByAuthorizationCode(String authorizationCode) {
+        return target.deleteByAuthorizationCode(authorizationCode);
+    }
+
+    @Override
+    public Completable deleteByDomainAndClientIdAndSubject(String domain, String clientId, String subject) {
+        return target.deleteByDomainAndClientIdAndSubject(domain, clientId, subject);
+    }
+
+    @Override
+    public Completable deleteByDomainAndClientId(String domain, String clientId) {
+        return target.deleteByDomainAndClientId(domain, clientId);
+    }
+
+    @Override
+    public Completable deleteByDomain(String domain) {
+        return target.deleteByDomain(domain);
+    }
+
+    @Override
+    public Completable migrate() {
+        return target.migrate();
+    }
+
 }
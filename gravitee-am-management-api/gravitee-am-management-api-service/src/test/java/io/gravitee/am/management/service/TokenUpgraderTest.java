@@ -0,0 +1,60 @@
+/**
+ * Copyright (C) 2015 The Gravitee team (http://gravitee.io)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.gravitee.am.management.service;
+
+import io.gravitee.am.management.service.impl.upgrades.TokenUpgrader;
+import io.gravitee.am.service.TokenService;
+import io.gravitee.am.service.exception.TechnicalManagementException;
+import io.reactivex.Completable;
+import org.junit.Assert;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.runners.MockitoJUnitRunner;
+
+import static org.mockito.Mockito.*;
+
+/**
+ * @author GraviteeSource Team
+ */
+@RunWith(MockitoJUnitRunner.class)
+public class TokenUpgraderTest {
+
+    @InjectMocks
+    private TokenUpgrader tokenUpgrader = new TokenUpgrader();
+
+    @Mock
+    private TokenService tokenService;
+
+    @Test
+    public void shouldMigrateTokens() {
+        when(tokenService.migrate()).thenReturn(Completable.complete());
+
+        Assert.assertTrue(tokenUpgrader.upgrade());
+
+        verify(tokenService, times(1)).migrate();
+    }
+
+    @Test
+    public void shouldNotFailUpgrade_migrationError() {
+        when(tokenService.migrate()).thenReturn(Completable.error(new TechnicalManagementException("error")));
+
+        Assert.assertTrue(tokenUpgrader.upgrade());
+
+        verify(tokenService, times(1)).migrate();
+    }
+}
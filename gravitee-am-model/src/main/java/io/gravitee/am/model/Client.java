@@ -81,6 +81,21 @@ public class Client {
 
     private boolean enhanceScopesWithUserPermissions;
 
+    /**
+     * Access tokens are self-contained signed JWT which are not stored in the OAuth 2.0 repository.
+     */
+    private boolean statelessAccessToken;
+
+    /**
+     * Access token format, see {@link TokenFormat}
+     */
+    private String tokenFormat = TokenFormat.JWT.format();
+
+    /**
+     * Client credentials requests return the access token previously issued for the same scopes while it is still valid.
+     */
+    private boolean reuseClientCredentialsToken;
+
     public String getId() {
         return id;
     }
@@ -233,6 +248,30 @@ public class Client {
         this.enhanceScopesWithUserPermissions = enhanceScopesWithUserPermissions;
     }
 
+    public boolean isStatelessAccessToken() {
+        return statelessAccessToken;
+    }
+
+    public void setStatelessAccessToken(boolean statelessAccessToken) {
+        this.statelessAccessToken = statelessAccessToken;
+    }
+
+    public String getTokenFormat() {
+        return tokenFormat;
+    }
+
+    public void setTokenFormat(String tokenFormat) {
+        this.tokenFormat = tokenFormat;
+    }
+
+    public boolean isReuseClientCredentialsToken() {
+        return reuseClientCredentialsToken;
+    }
+
+    public void setReuseClientCredentialsToken(boolean reuseClientCredentialsToken) {
+        this.reuseClientCredentialsToken = reuseClientCredentialsToken;
+    }
+
     @Override
     public boolean equals(Object o) {
         if (this == o) return true;
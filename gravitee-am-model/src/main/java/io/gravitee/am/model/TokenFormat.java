@@ -0,0 +1,43 @@
+/**
+ * Copyright (C) 2015 The Gravitee team (http://gravitee.io)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.gravitee.am.model;
+
+/**
+ * Format of the access tokens issued to a client.
+ *
+ * @author GraviteeSource Team
+ */
+public enum TokenFormat {
+
+    /**
+     * Signed JWT (default)
+     */
+    JWT("jwt"),
+    /**
+     * Random reference handle resolved against the OAuth 2.0 repository, can not be combined with stateless access tokens
+     */
+    OPAQUE("opaque");
+
+    private String name;
+
+    TokenFormat(String name) {
+        this.name = name;
+    }
+
+    public String format() {
+        return this.name;
+    }
+}
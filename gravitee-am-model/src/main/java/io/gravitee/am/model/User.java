@@ -63,6 +63,11 @@ public class User {
 
     private Set<Role> rolesPermissions;
 
+    /**
+     * Union of the permissions granted by {@link #rolesPermissions}, resolved once by the gateway
+     */
+    private Set<String> permissions;
+
     private Map<String, Object> additionalInformation;
 
     private Date createdAt;
@@ -205,6 +210,14 @@ public class User {
         this.rolesPermissions = rolesPermissions;
     }
 
+    public Set<String> getPermissions() {
+        return permissions;
+    }
+
+    public void setPermissions(Set<String> permissions) {
+        this.permissions = permissions;
+    }
+
     public Map<String, Object> getAdditionalInformation() {
         return additionalInformation;
     }
@@ -0,0 +1,53 @@
+/**
+ * Copyright (C) 2015 The Gravitee team (http://gravitee.io)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.gravitee.am.model.jose;
+
+/**
+ * See <a href="https://tools.ietf.org/html/rfc8037#section-2">2. Key Type "OKP"</a>
+ *
+ *  The required members for an octet key pair public key, in lexicographic order, are:
+ *    - "crv"
+ *    - "kty"
+ *    - "x"
+ * @author GraviteeSource Team
+ */
+public class OKPKey extends JWK {
+
+    /**
+     * The subtype of the key (Ed25519, Ed448, ...).
+     */
+    private String crv;
+    /**
+     * The public key.
+     */
+    private String x;
+
+    public String getCrv() {
+        return crv;
+    }
+
+    public void setCrv(String crv) {
+        this.crv = crv;
+    }
+
+    public String getX() {
+        return x;
+    }
+
+    public void setX(String x) {
+        this.x = x;
+    }
+}
@@ -21,6 +21,8 @@ import io.reactivex.Maybe;
 import io.reactivex.Observable;
 import io.reactivex.Single;
 
+import java.util.Collection;
+
 /**
  * @author David BRASSELY (david.brassely at graviteesource.com)
  * @author GraviteeSource Team
@@ -29,6 +31,14 @@ public interface AccessTokenRepository {
 
     Maybe<AccessToken> findByToken(String token);
 
+    /**
+     * Retrieve the access tokens stored with the provided values, with a single query.
+     *
+     * @param tokens the token values to search
+     * @return the access tokens found, in no particular order
+     */
+    Observable<AccessToken> findByTokenIn(Collection<String> tokens);
+
     Single<AccessToken> create(AccessToken accessToken);
 
     Completable delete(String token);
@@ -65,4 +75,47 @@ public interface AccessTokenRepository {
      * @return the number of access tokens
      */
     Single<Long> countByClientId(String clientId);
+
+    /**
+     * Delete the access tokens issued with the provided authorization code.
+     *
+     * @param authorizationCode the authorization code
+     * @return acknowledge of the operation
+     */
+    Completable deleteByAuthorizationCode(String authorizationCode);
+
+    /**
+     * Delete the access tokens of an end-user for the provided client id of a security domain.
+     *
+     * @param domain the security domain the client belongs to
+     * @param clientId the client id
+     * @param subject the end-user technical identifier
+     * @return acknowledge of the operation
+     */
+    Completable deleteByDomainAndClientIdAndSubject(String domain, String clientId, String subject);
+
+    /**
+     * Delete the access tokens of the provided client id of a security domain.
+     *
+     * @param domain the security domain the client belongs to
+     * @param clientId the client id
+     * @return acknowledge of the operation
+     */
+    Completable deleteByDomainAndClientId(String domain, String clientId);
+
+    /**
+     * Delete the access tokens of the provided security domain.
+     *
+     * @param domain the security domain
+     * @return acknowledge of the operation
+     */
+    Completable deleteByDomain(String domain);
+
+    /**
+     * Rewrite the access tokens stored in a previous storage format and drop the indexes which are no longer used.
+     * The operation can be interrupted and resumed, the tokens remain readable during the migration.
+     *
+     * @return acknowledge of the operation
+     */
+    Completable migrate();
 }
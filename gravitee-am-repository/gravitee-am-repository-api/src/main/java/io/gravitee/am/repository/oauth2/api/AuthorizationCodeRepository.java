@@ -48,4 +48,13 @@ public interface AuthorizationCodeRepository {
      * @return
      */
     Maybe<AuthorizationCode> findByCode(String code);
+
+    /**
+     * Find an {@link AuthorizationCode} by its code and delete it in a single atomic operation, so that a code can
+     * only be redeemed once.
+     *
+     * @param code The authorization code.
+     * @return the deleted authorization code or empty if the code does not exist (or has already been consumed)
+     */
+    Maybe<AuthorizationCode> consume(String code);
 }
@@ -31,4 +31,55 @@ public interface RefreshTokenRepository {
     Single<RefreshToken> create(RefreshToken refreshToken);
 
     Completable delete(String token);
+
+    /**
+     * Find a refresh token and delete it in a single atomic operation, so that a refresh token can only be used once.
+     *
+     * @param token the refresh token
+     * @return the deleted refresh token or empty if the token does not exist (or has already been consumed)
+     */
+    Maybe<RefreshToken> consume(String token);
+
+    /**
+     * Delete the refresh tokens issued with the provided authorization code.
+     *
+     * @param authorizationCode the authorization code
+     * @return acknowledge of the operation
+     */
+    Completable deleteByAuthorizationCode(String authorizationCode);
+
+    /**
+     * Delete the refresh tokens of an end-user for the provided client id of a security domain.
+     *
+     * @param domain the security domain the client belongs to
+     * @param clientId the client id
+     * @param subject the end-user technical identifier
+     * @return acknowledge of the operation
+     */
+    Completable deleteByDomainAndClientIdAndSubject(String domain, String clientId, String subject);
+
+    /**
+     * Delete the refresh tokens of the provided client id of a security domain.
+     *
+     * @param domain the security domain the client belongs to
+     * @param clientId the client id
+     * @return acknowledge of the operation
+     */
+    Completable deleteByDomainAndClientId(String domain, String clientId);
+
+    /**
+     * Delete the refresh tokens of the provided security domain.
+     *
+     * @param domain the security domain
+     * @return acknowledge of the operation
+     */
+    Completable deleteByDomain(String domain);
+
+    /**
+     * Rewrite the refresh tokens stored in a previous storage format and drop the indexes which are no longer used.
+     * The operation can be interrupted and resumed, the tokens remain readable during the migration.
+     *
+     * @return acknowledge of the operation
+     */
+    Completable migrate();
 }
@@ -15,6 +15,8 @@
  */
 package io.gravitee.am.repository.oauth2.model;
 
+import java.util.Set;
+
 /**
  * @author David BRASSELY (david.brassely at graviteesource.com)
  * @author GraviteeSource Team
@@ -33,6 +35,18 @@ public class AccessToken extends Token {
      */
     private String authorizationCode;
 
+    /**
+     * Scopes granted to the access token.
+     * Only kept for opaque access tokens, JWT access tokens carry them in their claims
+     */
+    private Set<String> scopes;
+
+    /**
+     * Claims request parameter (OpenID Connect) of the authorization request.
+     * Only kept for opaque access tokens, JWT access tokens carry it in their claims
+     */
+    private String claims;
+
     public String getRefreshToken() {
         return refreshToken;
     }
@@ -48,4 +62,20 @@ public class AccessToken extends Token {
     public void setAuthorizationCode(String authorizationCode) {
         this.authorizationCode = authorizationCode;
     }
+
+    public Set<String> getScopes() {
+        return scopes;
+    }
+
+    public void setScopes(Set<String> scopes) {
+        this.scopes = scopes;
+    }
+
+    public String getClaims() {
+        return claims;
+    }
+
+    public void setClaims(String claims) {
+        this.claims = claims;
+    }
 }
@@ -0,0 +1,104 @@
+/**
+ * Copyright (C) 2015 The Gravitee team (http://gravitee.io)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.gravitee.am.repository.oauth2.model;
+
+import java.util.Date;
+
+/**
+ * Trace of a revoked self-contained access token, kept until the token expires.
+ *
+ * @author GraviteeSource Team
+ */
+public class RevokedToken {
+
+    /**
+     * Technical ID
+     */
+    private String id;
+
+    /**
+     * Token identifier (jti claim)
+     */
+    private String token;
+
+    /**
+     * Token domain
+     */
+    private String domain;
+
+    /**
+     * Technical identifier of the client the token was issued to
+     */
+    private String client;
+
+    /**
+     * Revocation date
+     */
+    private Date createdAt;
+
+    /**
+     * Expiration date of the revoked token, the trace can be dropped afterwards
+     */
+    private Date expireAt;
+
+    public String getId() {
+        return id;
+    }
+
+    public void setId(String id) {
+        this.id = id;
+    }
+
+    public String getToken() {
+        return token;
+    }
+
+    public void setToken(String token) {
+        this.token = token;
+    }
+
+    public String getDomain() {
+        return domain;
+    }
+
+    public void setDomain(String domain) {
+        this.domain = domain;
+    }
+
+    public String getClient() {
+        return client;
+    }
+
+    public void setClient(String client) {
+        this.client = client;
+    }
+
+    public Date getCreatedAt() {
+        return createdAt;
+    }
+
+    public void setCreatedAt(Date createdAt) {
+        this.createdAt = createdAt;
+    }
+
+    public Date getExpireAt() {
+        return expireAt;
+    }
+
+    public void setExpireAt(Date expireAt) {
+        this.expireAt = expireAt;
+    }
+}
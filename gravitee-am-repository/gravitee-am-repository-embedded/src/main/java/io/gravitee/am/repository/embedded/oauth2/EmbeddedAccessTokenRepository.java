@@ -0,0 +1,132 @@
+/**
+ * Copyright (C) 2015 The Gravitee team (http://gravitee.io)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.gravitee.am.repository.embedded.oauth2;
+
+import io.gravitee.am.repository.embedded.oauth2.codec.AccessTokenCodec;
+import io.gravitee.am.repository.embedded.store.EmbeddedStore;
+import io.gravitee.am.repository.oauth2.api.AccessTokenRepository;
+import io.gravitee.am.repository.oauth2.model.AccessToken;
+import io.reactivex.Completable;
+import io.reactivex.Maybe;
+import io.reactivex.Observable;
+import io.reactivex.Single;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+import javax.annotation.PostConstruct;
+import java.util.Collection;
+import java.util.Objects;
+import java.util.stream.Collectors;
+
+/**
+ * @author GraviteeSource Team
+ */
+@Component
+public class EmbeddedAccessTokenRepository implements AccessTokenRepository {
+
+    private static final String INDEX_CLIENT = "client";
+    private static final String INDEX_CLIENT_SUBJECT = "client_subject";
+    private static final String INDEX_AUTHORIZATION_CODE = "authorization_code";
+    private static final String INDEX_DOMAIN = "domain";
+
+    @Autowired
+    private EmbeddedStoreFactory embeddedStoreFactory;
+
+    private EmbeddedStore<AccessToken> accessTokens;
+
+    @PostConstruct
+    public void init() {
+        accessTokens = embeddedStoreFactory.create("access_tokens", new AccessTokenCodec(), AccessToken::getToken, AccessToken::getExpireAt)
+                .index(INDEX_CLIENT, AccessToken::getClient)
+                .index(INDEX_CLIENT_SUBJECT, accessToken -> accessToken.getSubject() == null ? null : accessToken.getClient() + '|' + accessToken.getSubject())
+                .index(INDEX_AUTHORIZATION_CODE, AccessToken::getAuthorizationCode)
+                .index(INDEX_DOMAIN, AccessToken::getDomain)
+                .load();
+    }
+
+    @Override
+    public Maybe<AccessToken> findByToken(String token) {
+        return Maybe.fromCallable(() -> accessTokens.get(token));
+    }
+
+    @Override
+    public Observable<AccessToken> findByTokenIn(Collection<String> tokens) {
+        // in-memory lookups, nothing to gain from a dedicated query
+        return Observable.defer(() -> Observable.fromIterable(tokens.stream()
+                .map(accessTokens::get)
+                .filter(Objects::nonNull)
+                .collect(Collectors.toList())));
+    }
+
+    @Override
+    public Single<AccessToken> create(AccessToken accessToken) {
+        return Single.fromCallable(() -> {
+            accessTokens.put(accessToken);
+            return accessToken;
+        });
+    }
+
+    @Override
+    public Completable delete(String token) {
+        return Completable.fromAction(() -> accessTokens.remove(token));
+    }
+
+    @Override
+    public Observable<AccessToken> findByClientIdAndSubject(String clientId, String subject) {
+        return Observable.defer(() -> Observable.fromIterable(accessTokens.findBy(INDEX_CLIENT_SUBJECT, clientId + '|' + subject)));
+    }
+
+    @Override
+    public Observable<AccessToken> findByClientId(String clientId) {
+        return Observable.defer(() -> Observable.fromIterable(accessTokens.findBy(INDEX_CLIENT, clientId)));
+    }
+
+    @Override
+    public Observable<AccessToken> findByAuthorizationCode(String authorizationCode) {
+        return Observable.defer(() -> Observable.fromIterable(accessTokens.findBy(INDEX_AUTHORIZATION_CODE, authorizationCode)));
+    }
+
+    @Override
+    public Single<Long> countByClientId(String clientId) {
+        return Single.fromCallable(() -> accessTokens.countBy(INDEX_CLIENT, clientId));
+    }
+
+    @Override
+    public Completable deleteByAuthorizationCode(String authorizationCode) {
+        return Completable.fromAction(() -> accessTokens.removeBy(INDEX_AUTHORIZATION_CODE, authorizationCode));
+    }
+
+    @Override
+    public Completable deleteByDomainAndClientIdAndSubject(String domain, String clientId, String subject) {
+        return Completable.fromAction(() -> accessTokens.removeBy(INDEX_CLIENT_SUBJECT, clientId + '|' + subject, token -> domain.equals(token.getDomain())));
+    }
+
+    @Override
+    public Completable deleteByDomainAndClientId(String domain, String clientId) {
+        return Completable.fromAction(() -> accessTokens.removeBy(INDEX_CLIENT, clientId, token -> domain.equals(token.getDomain())));
+    }
+
+    @Override
+    public Completable deleteByDomain(String domain) {
+        return Completable.fromAction(() -> accessTokens.removeBy(INDEX_DOMAIN, domain));
+    }
+
+    @Override
+    public Completable migrate() {
+        // nothing to migrate, the store has a single format
+        return Completable.complete();
+    }
+}
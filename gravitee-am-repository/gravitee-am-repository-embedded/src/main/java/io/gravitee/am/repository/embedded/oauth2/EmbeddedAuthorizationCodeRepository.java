@@ -0,0 +1,79 @@
+/**
+ * Copyright (C) 2015 The Gravitee team (http://gravitee.io)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.gravitee.am.repository.embedded.oauth2;
+
+import io.gravitee.am.repository.embedded.oauth2.codec.AuthorizationCodeCodec;
+import io.gravitee.am.repository.embedded.store.EmbeddedStore;
+import io.gravitee.am.repository.oauth2.api.AuthorizationCodeRepository;
+import io.gravitee.am.repository.oauth2.model.AuthorizationCode;
+import io.reactivex.Maybe;
+import io.reactivex.Single;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+import javax.annotation.PostConstruct;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * @author GraviteeSource Team
+ */
+@Component
+public class EmbeddedAuthorizationCodeRepository implements AuthorizationCodeRepository {
+
+    private static final String INDEX_ID = "id";
+
+    @Autowired
+    private EmbeddedStoreFactory embeddedStoreFactory;
+
+    private EmbeddedStore<AuthorizationCode> authorizationCodes;
+
+    @PostConstruct
+    public void init() {
+        authorizationCodes = embeddedStoreFactory.create("authorization_codes", new AuthorizationCodeCodec(), AuthorizationCode::getCode, AuthorizationCode::getExpireAt)
+                .index(INDEX_ID, AuthorizationCode::getId)
+                .load();
+    }
+
+    @Override
+    public Single<AuthorizationCode> create(AuthorizationCode authorizationCode) {
+        return Single.fromCallable(() -> {
+            if (authorizationCode.getId() == null) {
+                authorizationCode.setId(UUID.randomUUID().toString());
+            }
+            authorizationCodes.put(authorizationCode);
+            return authorizationCode;
+        });
+    }
+
+    @Override
+    public Maybe<AuthorizationCode> delete(String id) {
+        return Maybe.fromCallable(() -> {
+            List<AuthorizationCode> codes = authorizationCodes.findBy(INDEX_ID, id);
+            return codes.isEmpty() ? null : authorizationCodes.remove(codes.get(0).getCode());
+        });
+    }
+
+    @Override
+    public Maybe<AuthorizationCode> findByCode(String code) {
+        return Maybe.fromCallable(() -> authorizationCodes.get(code));
+    }
+
+    @Override
+    public Maybe<AuthorizationCode> consume(String code) {
+        return Maybe.fromCallable(() -> authorizationCodes.remove(code));
+    }
+}
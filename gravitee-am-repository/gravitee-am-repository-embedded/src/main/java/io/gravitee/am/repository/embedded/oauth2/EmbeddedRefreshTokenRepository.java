@@ -0,0 +1,108 @@
+/**
+ * Copyright (C) 2015 The Gravitee team (http://gravitee.io)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.gravitee.am.repository.embedded.oauth2;
+
+import io.gravitee.am.repository.embedded.oauth2.codec.RefreshTokenCodec;
+import io.gravitee.am.repository.embedded.store.EmbeddedStore;
+import io.gravitee.am.repository.oauth2.api.RefreshTokenRepository;
+import io.gravitee.am.repository.oauth2.model.RefreshToken;
+import io.reactivex.Completable;
+import io.reactivex.Maybe;
+import io.reactivex.Single;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+import javax.annotation.PostConstruct;
+import java.util.UUID;
+
+/**
+ * @author GraviteeSource Team
+ */
+@Component
+public class EmbeddedRefreshTokenRepository implements RefreshTokenRepository {
+
+    private static final String INDEX_CLIENT = "client";
+    private static final String INDEX_CLIENT_SUBJECT = "client_subject";
+    private static final String INDEX_AUTHORIZATION_CODE = "authorization_code";
+    private static final String INDEX_DOMAIN = "domain";
+
+    @Autowired
+    private EmbeddedStoreFactory embeddedStoreFactory;
+
+    private EmbeddedStore<RefreshToken> refreshTokens;
+
+    @PostConstruct
+    public void init() {
+        refreshTokens = embeddedStoreFactory.create("refresh_tokens", new RefreshTokenCodec(), RefreshToken::getToken, RefreshToken::getExpireAt)
+                .index(INDEX_CLIENT, RefreshToken::getClient)
+                .index(INDEX_CLIENT_SUBJECT, refreshToken -> refreshToken.getSubject() == null ? null : refreshToken.getClient() + '|' + refreshToken.getSubject())
+                .index(INDEX_AUTHORIZATION_CODE, RefreshToken::getAuthorizationCode)
+                .index(INDEX_DOMAIN, RefreshToken::getDomain)
+                .load();
+    }
+
+    @Override
+    public Maybe<RefreshToken> findByToken(String token) {
+        return Maybe.fromCallable(() -> refreshTokens.get(token));
+    }
+
+    @Override
+    public Single<RefreshToken> create(RefreshToken refreshToken) {
+        return Single.fromCallable(() -> {
+            if (refreshToken.getId() == null) {
+                refreshToken.setId(UUID.randomUUID().toString());
+            }
+            refreshTokens.put(refreshToken);
+            return refreshToken;
+        });
+    }
+
+    @Override
+    public Completable delete(String token) {
+        return Completable.fromAction(() -> refreshTokens.remove(token));
+    }
+
+    @Override
+    public Maybe<RefreshToken> consume(String token) {
+        return Maybe.fromCallable(() -> refreshTokens.remove(token));
+    }
+
+    @Override
+    public Completable deleteByAuthorizationCode(String authorizationCode) {
+        return Completable.fromAction(() -> refreshTokens.removeBy(INDEX_AUTHORIZATION_CODE, authorizationCode));
+    }
+
+    @Override
+    public Completable deleteByDomainAndClientIdAndSubject(String domain, String clientId, String subject) {
+        return Completable.fromAction(() -> refreshTokens.removeBy(INDEX_CLIENT_SUBJECT, clientId + '|' + subject, token -> domain.equals(token.getDomain())));
+    }
+
+    @Override
+    public Completable deleteByDomainAndClientId(String domain, String clientId) {
+        return Completable.fromAction(() -> refreshTokens.removeBy(INDEX_CLIENT, clientId, token -> domain.equals(token.getDomain())));
+    }
+
+    @Override
+    public Completable deleteByDomain(String domain) {
+        return Completable.fromAction(() -> refreshTokens.removeBy(INDEX_DOMAIN, domain));
+    }
+
+    @Override
+    public Completable migrate() {
+        // nothing to migrate, the store has a single format
+        return Completable.complete();
+    }
+}
@@ -0,0 +1,67 @@
+/**
+ * Copyright (C) 2015 The Gravitee team (http://gravitee.io)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.gravitee.am.repository.embedded.oauth2;
+
+import io.gravitee.am.repository.embedded.oauth2.codec.RevokedTokenCodec;
+import io.gravitee.am.repository.embedded.store.EmbeddedStore;
+import io.gravitee.am.repository.oauth2.api.RevokedTokenRepository;
+import io.gravitee.am.repository.oauth2.model.RevokedToken;
+import io.reactivex.Observable;
+import io.reactivex.Single;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+import javax.annotation.PostConstruct;
+import java.util.Date;
+import java.util.UUID;
+
+/**
+ * @author GraviteeSource Team
+ */
+@Component
+public class EmbeddedRevokedTokenRepository implements RevokedTokenRepository {
+
+    private static final String INDEX_DOMAIN = "domain";
+
+    @Autowired
+    private EmbeddedStoreFactory embeddedStoreFactory;
+
+    private EmbeddedStore<RevokedToken> revokedTokens;
+
+    @PostConstruct
+    public void init() {
+        revokedTokens = embeddedStoreFactory.create("revoked_tokens", new RevokedTokenCodec(), RevokedToken::getId, RevokedToken::getExpireAt)
+                .index(INDEX_DOMAIN, RevokedToken::getDomain)
+                .load();
+    }
+
+    @Override
+    public Single<RevokedToken> create(RevokedToken revokedToken) {
+        return Single.fromCallable(() -> {
+            if (revokedToken.getId() == null) {
+                revokedToken.setId(UUID.randomUUID().toString());
+            }
+            revokedTokens.put(revokedToken);
+            return revokedToken;
+        });
+    }
+
+    @Override
+    public Observable<RevokedToken> findByDomainAndCreatedAtAfter(String domain, Date since) {
+        return Observable.defer(() -> Observable.fromIterable(revokedTokens.findBy(INDEX_DOMAIN, domain)))
+                .filter(revokedToken -> revokedToken.getCreatedAt() != null && !revokedToken.getCreatedAt().before(since));
+    }
+}
@@ -0,0 +1,104 @@
+/**
+ * Copyright (C) 2015 The Gravitee team (http://gravitee.io)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.gravitee.am.repository.embedded.oauth2;
+
+import io.gravitee.am.model.oauth2.ScopeApproval;
+import io.gravitee.am.repository.embedded.oauth2.codec.ScopeApprovalCodec;
+import io.gravitee.am.repository.embedded.store.EmbeddedStore;
+import io.gravitee.am.repository.oauth2.api.ScopeApprovalRepository;
+import io.reactivex.Completable;
+import io.reactivex.Maybe;
+import io.reactivex.Single;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+import javax.annotation.PostConstruct;
+import java.util.Date;
+import java.util.HashSet;
+import java.util.Set;
+
+/**
+ * Scope approvals are identified by their domain, client, user and scope.
+ *
+ * @author GraviteeSource Team
+ */
+@Component
+public class EmbeddedScopeApprovalRepository implements ScopeApprovalRepository {
+
+    private static final String INDEX_DOMAIN_USER_CLIENT = "domain_user_client";
+    private static final String INDEX_DOMAIN_SCOPE = "domain_scope";
+
+    @Autowired
+    private EmbeddedStoreFactory embeddedStoreFactory;
+
+    private EmbeddedStore<ScopeApproval> scopeApprovals;
+
+    @PostConstruct
+    public void init() {
+        scopeApprovals = embeddedStoreFactory.create("scope_approvals", new ScopeApprovalCodec(), EmbeddedScopeApprovalRepository::key, ScopeApproval::getExpiresAt)
+                .index(INDEX_DOMAIN_USER_CLIENT, scopeApproval -> scopeApproval.getDomain() + '|' + scopeApproval.getUserId() + '|' + scopeApproval.getClientId())
+                .index(INDEX_DOMAIN_SCOPE, scopeApproval -> scopeApproval.getDomain() + '|' + scopeApproval.getScope())
+                .load();
+    }
+
+    @Override
+    public Maybe<ScopeApproval> findById(String s) {
+        throw new IllegalStateException();
+    }
+
+    @Override
+    public Single<ScopeApproval> create(ScopeApproval scopeApproval) {
+        return Single.fromCallable(() -> {
+            scopeApprovals.put(scopeApproval);
+            return scopeApproval;
+        });
+    }
+
+    @Override
+    public Single<ScopeApproval> update(ScopeApproval scopeApproval) {
+        return create(scopeApproval);
+    }
+
+    @Override
+    public Single<ScopeApproval> upsert(ScopeApproval scopeApproval) {
+        return Single.fromCallable(() -> {
+            if (scopeApprovals.get(key(scopeApproval)) != null) {
+                scopeApproval.setUpdatedAt(new Date());
+            }
+            scopeApprovals.put(scopeApproval);
+            return scopeApproval;
+        });
+    }
+
+    @Override
+    public Completable delete(String domain, String scope) {
+        return Completable.fromAction(() -> scopeApprovals.removeBy(INDEX_DOMAIN_SCOPE, domain + '|' + scope));
+    }
+
+    @Override
+    public Completable delete(String id) {
+        return Completable.fromAction(() -> scopeApprovals.remove(id));
+    }
+
+    @Override
+    public Single<Set<ScopeApproval>> findByDomainAndUserAndClient(String domain, String userId, String clientId) {
+        return Single.fromCallable(() -> new HashSet<>(scopeApprovals.findBy(INDEX_DOMAIN_USER_CLIENT, domain + '|' + userId + '|' + clientId)));
+    }
+
+    private static String key(ScopeApproval scopeApproval) {
+        return scopeApproval.getDomain() + '|' + scopeApproval.getClientId() + '|' + scopeApproval.getUserId() + '|' + scopeApproval.getScope();
+    }
+}
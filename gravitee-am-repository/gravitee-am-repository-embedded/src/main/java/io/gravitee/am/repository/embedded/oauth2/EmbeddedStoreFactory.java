@@ -0,0 +1,139 @@
+/**
+ * Copyright (C) 2015 The Gravitee team (http://gravitee.io)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.gravitee.am.repository.embedded.oauth2;
+
+import io.gravitee.am.repository.embedded.store.Codec;
+import io.gravitee.am.repository.embedded.store.EmbeddedStore;
+import io.gravitee.am.repository.embedded.store.MappedHashStore;
+import io.gravitee.am.repository.embedded.store.TimingWheel;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.core.env.Environment;
+import org.springframework.stereotype.Component;
+
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.Date;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+
+/**
+ * Open the stores of the OAuth 2.0 repositories and run their expiration.
+ *
+ * <pre>
+ * oauth2:
+ *   embedded:
+ *     path: ${gravitee.home}/data/oauth2
+ *     initialSize: 16777216
+ *     expiry:
+ *       tickDuration: 1000
+ *       wheelSize: 512
+ * </pre>
+ *
+ * @author GraviteeSource Team
+ */
+@Component
+public class EmbeddedStoreFactory {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(EmbeddedStoreFactory.class);
+    private static final String PROPERTY_PREFIX = "oauth2.embedded.";
+
+    @Autowired
+    private Environment environment;
+
+    private final List<EmbeddedStore<?>> stores = new CopyOnWriteArrayList<>();
+    private Path directory;
+    private int initialSize;
+    private long tickDuration;
+    private TimingWheel timingWheel;
+    private Thread expiryThread;
+    private volatile boolean running;
+
+    @PostConstruct
+    public void init() throws IOException {
+        directory = Paths.get(environment.getProperty(PROPERTY_PREFIX + "path",
+                environment.getProperty("gravitee.home", ".") + "/data/oauth2"));
+        initialSize = environment.getProperty(PROPERTY_PREFIX + "initialSize", Integer.class, 16 * 1024 * 1024);
+        tickDuration = environment.getProperty(PROPERTY_PREFIX + "expiry.tickDuration", Long.class, 1000L);
+        int wheelSize = environment.getProperty(PROPERTY_PREFIX + "expiry.wheelSize", Integer.class, 512);
+        Files.createDirectories(directory);
+        timingWheel = new TimingWheel(tickDuration, TimeUnit.MILLISECONDS, wheelSize, System.currentTimeMillis());
+
+        running = true;
+        expiryThread = new Thread(this::runExpiry, "gio.am-embedded-expiry");
+        expiryThread.setDaemon(true);
+        expiryThread.start();
+        LOGGER.info("Embedded OAuth 2.0 stores located in {}", directory.toAbsolutePath());
+    }
+
+    /**
+     * Open a store, indexes must be declared before loading it.
+     *
+     * @param name name of the store file
+     * @param codec codec of the records
+     * @param keyFunction key of a record
+     * @param expireAtFunction expiration date of a record, <code>null</code> if the record never expires
+     * @return the store
+     */
+    public <T> EmbeddedStore<T> create(String name, Codec<T> codec, Function<T, String> keyFunction, Function<T, Date> expireAtFunction) {
+        try {
+            MappedHashStore mappedHashStore = MappedHashStore.open(directory.resolve(name + ".db"), initialSize);
+            EmbeddedStore<T> store = new EmbeddedStore<>(mappedHashStore, codec, keyFunction, expireAtFunction, timingWheel);
+            stores.add(store);
+            return store;
+        } catch (IOException ioe) {
+            throw new IllegalStateException("Unable to open embedded store " + name, ioe);
+        }
+    }
+
+    @PreDestroy
+    public void destroy() throws InterruptedException {
+        running = false;
+        expiryThread.interrupt();
+        expiryThread.join(tickDuration * 2);
+        for (EmbeddedStore<?> store : stores) {
+            try {
+                store.close();
+            } catch (IOException ioe) {
+                LOGGER.error("Unable to close embedded store", ioe);
+            }
+        }
+    }
+
+    private void runExpiry() {
+        while (running) {
+            try {
+                Thread.sleep(tickDuration);
+                timingWheel.advance(System.currentTimeMillis());
+                for (EmbeddedStore<?> store : stores) {
+                    store.compactIfNeeded();
+                }
+            } catch (InterruptedException ie) {
+                Thread.currentThread().interrupt();
+                return;
+            } catch (Exception ex) {
+                LOGGER.error("An error occurs while expiring embedded records", ex);
+            }
+        }
+    }
+}
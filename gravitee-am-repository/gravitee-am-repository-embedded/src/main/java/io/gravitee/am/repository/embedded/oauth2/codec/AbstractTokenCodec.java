@@ -0,0 +1,52 @@
+/**
+ * Copyright (C) 2015 The Gravitee team (http://gravitee.io)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.gravitee.am.repository.embedded.oauth2.codec;
+
+import io.gravitee.am.repository.embedded.store.Codec;
+import io.gravitee.am.repository.oauth2.model.Token;
+
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+
+import static io.gravitee.am.repository.embedded.store.Codecs.*;
+
+/**
+ * @author GraviteeSource Team
+ */
+public abstract class AbstractTokenCodec<T extends Token> implements Codec<T> {
+
+    protected void writeToken(T token, DataOutput output) throws IOException {
+        writeString(output, token.getId());
+        writeString(output, token.getToken());
+        writeString(output, token.getDomain());
+        writeString(output, token.getClient());
+        writeString(output, token.getSubject());
+        writeDate(output, token.getCreatedAt());
+        writeDate(output, token.getExpireAt());
+    }
+
+    protected T readToken(T token, DataInput input) throws IOException {
+        token.setId(readString(input));
+        token.setToken(readString(input));
+        token.setDomain(readString(input));
+        token.setClient(readString(input));
+        token.setSubject(readString(input));
+        token.setCreatedAt(readDate(input));
+        token.setExpireAt(readDate(input));
+        return token;
+    }
+}
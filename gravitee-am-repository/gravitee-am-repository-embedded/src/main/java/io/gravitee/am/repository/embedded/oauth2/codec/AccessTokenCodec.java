@@ -0,0 +1,49 @@
+/**
+ * Copyright (C) 2015 The Gravitee team (http://gravitee.io)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.gravitee.am.repository.embedded.oauth2.codec;
+
+import io.gravitee.am.repository.oauth2.model.AccessToken;
+
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+
+import static io.gravitee.am.repository.embedded.store.Codecs.*;
+
+/**
+ * @author GraviteeSource Team
+ */
+public class AccessTokenCodec extends AbstractTokenCodec<AccessToken> {
+
+    @Override
+    public void write(AccessToken accessToken, DataOutput output) throws IOException {
+        writeToken(accessToken, output);
+        writeString(output, accessToken.getRefreshToken());
+        writeString(output, accessToken.getAuthorizationCode());
+        writeStrings(output, accessToken.getScopes());
+        writeString(output, accessToken.getClaims());
+    }
+
+    @Override
+    public AccessToken read(DataInput input) throws IOException {
+        AccessToken accessToken = readToken(new AccessToken(), input);
+        accessToken.setRefreshToken(readString(input));
+        accessToken.setAuthorizationCode(readString(input));
+        accessToken.setScopes(readStrings(input));
+        accessToken.setClaims(readString(input));
+        return accessToken;
+    }
+}
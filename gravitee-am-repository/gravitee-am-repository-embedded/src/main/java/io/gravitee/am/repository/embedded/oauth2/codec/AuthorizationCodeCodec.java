@@ -0,0 +1,57 @@
+/**
+ * Copyright (C) 2015 The Gravitee team (http://gravitee.io)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.gravitee.am.repository.embedded.oauth2.codec;
+
+import io.gravitee.am.repository.embedded.store.Codec;
+import io.gravitee.am.repository.oauth2.model.AuthorizationCode;
+
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+
+import static io.gravitee.am.repository.embedded.store.Codecs.*;
+
+/**
+ * @author GraviteeSource Team
+ */
+public class AuthorizationCodeCodec implements Codec<AuthorizationCode> {
+
+    @Override
+    public void write(AuthorizationCode authorizationCode, DataOutput output) throws IOException {
+        writeString(output, authorizationCode.getId());
+        writeString(output, authorizationCode.getCode());
+        writeDate(output, authorizationCode.getCreatedAt());
+        writeDate(output, authorizationCode.getExpireAt());
+        writeString(output, authorizationCode.getClientId());
+        writeString(output, authorizationCode.getSubject());
+        writeStrings(output, authorizationCode.getScopes());
+        writeMultiValueMap(output, authorizationCode.getRequestParameters());
+    }
+
+    @Override
+    public AuthorizationCode read(DataInput input) throws IOException {
+        AuthorizationCode authorizationCode = new AuthorizationCode();
+        authorizationCode.setId(readString(input));
+        authorizationCode.setCode(readString(input));
+        authorizationCode.setCreatedAt(readDate(input));
+        authorizationCode.setExpireAt(readDate(input));
+        authorizationCode.setClientId(readString(input));
+        authorizationCode.setSubject(readString(input));
+        authorizationCode.setScopes(readStrings(input));
+        authorizationCode.setRequestParameters(readMultiValueMap(input));
+        return authorizationCode;
+    }
+}
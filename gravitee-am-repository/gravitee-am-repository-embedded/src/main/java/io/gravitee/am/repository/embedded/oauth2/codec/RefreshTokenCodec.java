@@ -0,0 +1,43 @@
+/**
+ * Copyright (C) 2015 The Gravitee team (http://gravitee.io)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.gravitee.am.repository.embedded.oauth2.codec;
+
+import io.gravitee.am.repository.oauth2.model.RefreshToken;
+
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+
+import static io.gravitee.am.repository.embedded.store.Codecs.*;
+
+/**
+ * @author GraviteeSource Team
+ */
+public class RefreshTokenCodec extends AbstractTokenCodec<RefreshToken> {
+
+    @Override
+    public void write(RefreshToken refreshToken, DataOutput output) throws IOException {
+        writeToken(refreshToken, output);
+        writeString(output, refreshToken.getAuthorizationCode());
+    }
+
+    @Override
+    public RefreshToken read(DataInput input) throws IOException {
+        RefreshToken refreshToken = readToken(new RefreshToken(), input);
+        refreshToken.setAuthorizationCode(readString(input));
+        return refreshToken;
+    }
+}
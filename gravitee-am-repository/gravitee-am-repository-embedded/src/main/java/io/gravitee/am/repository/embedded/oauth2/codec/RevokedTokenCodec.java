@@ -0,0 +1,53 @@
+/**
+ * Copyright (C) 2015 The Gravitee team (http://gravitee.io)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.gravitee.am.repository.embedded.oauth2.codec;
+
+import io.gravitee.am.repository.embedded.store.Codec;
+import io.gravitee.am.repository.oauth2.model.RevokedToken;
+
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+
+import static io.gravitee.am.repository.embedded.store.Codecs.*;
+
+/**
+ * @author GraviteeSource Team
+ */
+public class RevokedTokenCodec implements Codec<RevokedToken> {
+
+    @Override
+    public void write(RevokedToken revokedToken, DataOutput output) throws IOException {
+        writeString(output, revokedToken.getId());
+        writeString(output, revokedToken.getToken());
+        writeString(output, revokedToken.getDomain());
+        writeString(output, revokedToken.getClient());
+        writeDate(output, revokedToken.getCreatedAt());
+        writeDate(output, revokedToken.getExpireAt());
+    }
+
+    @Override
+    public RevokedToken read(DataInput input) throws IOException {
+        RevokedToken revokedToken = new RevokedToken();
+        revokedToken.setId(readString(input));
+        revokedToken.setToken(readString(input));
+        revokedToken.setDomain(readString(input));
+        revokedToken.setClient(readString(input));
+        revokedToken.setCreatedAt(readDate(input));
+        revokedToken.setExpireAt(readDate(input));
+        return revokedToken;
+    }
+}
@@ -0,0 +1,56 @@
+/**
+ * Copyright (C) 2015 The Gravitee team (http://gravitee.io)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.gravitee.am.repository.embedded.oauth2.codec;
+
+import io.gravitee.am.model.oauth2.ScopeApproval;
+import io.gravitee.am.repository.embedded.store.Codec;
+
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+
+import static io.gravitee.am.repository.embedded.store.Codecs.*;
+
+/**
+ * @author GraviteeSource Team
+ */
+public class ScopeApprovalCodec implements Codec<ScopeApproval> {
+
+    @Override
+    public void write(ScopeApproval scopeApproval, DataOutput output) throws IOException {
+        writeString(output, scopeApproval.getDomain());
+        writeString(output, scopeApproval.getClientId());
+        writeString(output, scopeApproval.getUserId());
+        writeString(output, scopeApproval.getScope());
+        writeString(output, scopeApproval.getStatus() == null ? null : scopeApproval.getStatus().name());
+        writeDate(output, scopeApproval.getExpiresAt());
+        writeDate(output, scopeApproval.getUpdatedAt());
+    }
+
+    @Override
+    public ScopeApproval read(DataInput input) throws IOException {
+        ScopeApproval scopeApproval = new ScopeApproval();
+        scopeApproval.setDomain(readString(input));
+        scopeApproval.setClientId(readString(input));
+        scopeApproval.setUserId(readString(input));
+        scopeApproval.setScope(readString(input));
+        String status = readString(input);
+        scopeApproval.setStatus(status == null ? null : ScopeApproval.ApprovalStatus.valueOf(status));
+        scopeApproval.setExpiresAt(readDate(input));
+        scopeApproval.setUpdatedAt(readDate(input));
+        return scopeApproval;
+    }
+}
@@ -0,0 +1,136 @@
+/**
+ * Copyright (C) 2015 The Gravitee team (http://gravitee.io)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.gravitee.am.repository.embedded.store;
+
+import io.gravitee.common.util.LinkedMultiValueMap;
+import io.gravitee.common.util.MultiValueMap;
+
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Helpers to write the fields of the records, all of them handle <code>null</code> values.
+ *
+ * @author GraviteeSource Team
+ */
+public final class Codecs {
+
+    private static final int NULL = -1;
+
+    private Codecs() {
+    }
+
+    public static void writeString(DataOutput output, String value) throws IOException {
+        if (value == null) {
+            output.writeInt(NULL);
+            return;
+        }
+        // DataOutput#writeUTF is limited to 64KB (claims may be larger)
+        byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+        output.writeInt(bytes.length);
+        output.write(bytes);
+    }
+
+    public static String readString(DataInput input) throws IOException {
+        int length = input.readInt();
+        if (length == NULL) {
+            return null;
+        }
+        byte[] bytes = new byte[length];
+        input.readFully(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    public static void writeDate(DataOutput output, Date value) throws IOException {
+        output.writeLong(value == null ? Long.MIN_VALUE : value.getTime());
+    }
+
+    public static Date readDate(DataInput input) throws IOException {
+        long time = input.readLong();
+        return time == Long.MIN_VALUE ? null : new Date(time);
+    }
+
+    public static void writeStrings(DataOutput output, Set<String> values) throws IOException {
+        if (values == null) {
+            output.writeInt(NULL);
+            return;
+        }
+        output.writeInt(values.size());
+        for (String value : values) {
+            writeString(output, value);
+        }
+    }
+
+    public static Set<String> readStrings(DataInput input) throws IOException {
+        int size = input.readInt();
+        if (size == NULL) {
+            return null;
+        }
+        Set<String> values = new HashSet<>(size);
+        for (int i = 0; i < size; i++) {
+            values.add(readString(input));
+        }
+        return values;
+    }
+
+    public static void writeMultiValueMap(DataOutput output, MultiValueMap<String, String> values) throws IOException {
+        if (values == null) {
+            output.writeInt(NULL);
+            return;
+        }
+        output.writeInt(values.size());
+        for (Map.Entry<String, List<String>> entry : values.entrySet()) {
+            writeString(output, entry.getKey());
+            List<String> list = entry.getValue();
+            output.writeInt(list == null ? NULL : list.size());
+            if (list != null) {
+                for (String value : list) {
+                    writeString(output, value);
+                }
+            }
+        }
+    }
+
+    public static MultiValueMap<String, String> readMultiValueMap(DataInput input) throws IOException {
+        int size = input.readInt();
+        if (size == NULL) {
+            return null;
+        }
+        MultiValueMap<String, String> values = new LinkedMultiValueMap<>(size);
+        for (int i = 0; i < size; i++) {
+            String key = readString(input);
+            int length = input.readInt();
+            if (length == NULL) {
+                values.put(key, null);
+            } else {
+                List<String> list = new ArrayList<>(length);
+                for (int j = 0; j < length; j++) {
+                    list.add(readString(input));
+                }
+                values.put(key, list);
+            }
+        }
+        return values;
+    }
+}
@@ -0,0 +1,244 @@
+/**
+ * Copyright (C) 2015 The Gravitee team (http://gravitee.io)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.gravitee.am.repository.embedded.store;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.Closeable;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Function;
+import java.util.function.Predicate;
+
+/**
+ * Typed store of records on top of a {@link MappedHashStore}.
+ *
+ * Records are removed by the {@link TimingWheel} once expired and can be looked up through secondary indexes. The
+ * secondary indexes only hold record keys, they are kept in memory and rebuilt when the store is loaded.
+ *
+ * @author GraviteeSource Team
+ */
+public class EmbeddedStore<T> implements Closeable {
+
+    private final MappedHashStore store;
+    private final Codec<T> codec;
+    private final Function<T, String> keyFunction;
+    private final Function<T, Date> expireAtFunction;
+    private final TimingWheel timingWheel;
+    private final Map<String, Function<T, String>> indexFunctions = new HashMap<>();
+    private final Map<String, Map<String, Set<String>>> indexes = new HashMap<>();
+
+    public EmbeddedStore(MappedHashStore store, Codec<T> codec, Function<T, String> keyFunction,
+                         Function<T, Date> expireAtFunction, TimingWheel timingWheel) {
+        this.store = store;
+        this.codec = codec;
+        this.keyFunction = keyFunction;
+        this.expireAtFunction = expireAtFunction;
+        this.timingWheel = timingWheel;
+    }
+
+    /**
+     * Declare a secondary index, must be called before {@link #load()}.
+     *
+     * @param name name of the index
+     * @param function index value of a record, records with a <code>null</code> value are not indexed
+     * @return the store
+     */
+    public EmbeddedStore<T> index(String name, Function<T, String> function) {
+        indexFunctions.put(name, function);
+        indexes.put(name, new ConcurrentHashMap<>());
+        return this;
+    }
+
+    /**
+     * Build the secondary indexes and schedule the expiration of the records already stored.
+     */
+    public synchronized EmbeddedStore<T> load() {
+        List<String> expired = new ArrayList<>();
+        long now = System.currentTimeMillis();
+        store.forEach((key, value, expireAt) -> {
+            if (expireAt > 0 && expireAt <= now) {
+                expired.add(key);
+            } else {
+                T item = decode(value);
+                addToIndexes(key, item);
+                scheduleExpiration(key, expireAt);
+            }
+        });
+        expired.forEach(store::remove);
+        return this;
+    }
+
+    public T get(String key) {
+        byte[] value = store.get(key);
+        return value == null ? null : decode(value);
+    }
+
+    public synchronized T put(T item) {
+        String key = keyFunction.apply(item);
+        long expireAt = expireAt(item);
+        byte[] previous = store.put(key, encode(item), expireAt);
+        T previousItem = null;
+        if (previous != null) {
+            previousItem = decode(previous);
+            removeFromIndexes(key, previousItem);
+        }
+        addToIndexes(key, item);
+        scheduleExpiration(key, expireAt);
+        return previousItem;
+    }
+
+    public synchronized T remove(String key) {
+        byte[] previous = store.remove(key);
+        if (previous == null) {
+            return null;
+        }
+        T item = decode(previous);
+        removeFromIndexes(key, item);
+        return item;
+    }
+
+    /**
+     * @return the records of the index value, expired records not yet removed are skipped
+     */
+    public List<T> findBy(String index, String value) {
+        Set<String> keys = indexes.get(index).get(value);
+        if (keys == null) {
+            return Collections.emptyList();
+        }
+        List<T> items = new ArrayList<>(keys.size());
+        for (String key : keys) {
+            T item = get(key);
+            if (item != null) {
+                items.add(item);
+            }
+        }
+        return items;
+    }
+
+    public long countBy(String index, String value) {
+        return findBy(index, value).size();
+    }
+
+    /**
+     * @return the number of removed records
+     */
+    public synchronized int removeBy(String index, String value) {
+        return removeBy(index, value, item -> true);
+    }
+
+    /**
+     * @param filter records of the index value to remove
+     * @return the number of removed records
+     */
+    public synchronized int removeBy(String index, String value, Predicate<T> filter) {
+        Set<String> keys = indexes.get(index).get(value);
+        if (keys == null) {
+            return 0;
+        }
+        int removed = 0;
+        for (String key : new ArrayList<>(keys)) {
+            T item = get(key);
+            if (item != null && filter.test(item) && remove(key) != null) {
+                removed++;
+            }
+        }
+        return removed;
+    }
+
+    public int size() {
+        return store.size();
+    }
+
+    /**
+     * Reclaim the space of the removed records.
+     */
+    public void compactIfNeeded() throws IOException {
+        store.compactIfNeeded();
+    }
+
+    @Override
+    public void close() throws IOException {
+        store.close();
+    }
+
+    private synchronized void expire(String key, long expireAt) {
+        byte[] previous = store.expire(key, expireAt);
+        if (previous != null) {
+            removeFromIndexes(key, decode(previous));
+        }
+    }
+
+    private void scheduleExpiration(String key, long expireAt) {
+        if (expireAt > 0) {
+            timingWheel.schedule(expireAt, () -> expire(key, expireAt));
+        }
+    }
+
+    private long expireAt(T item) {
+        Date expireAt = expireAtFunction.apply(item);
+        return expireAt == null ? 0 : expireAt.getTime();
+    }
+
+    private void addToIndexes(String key, T item) {
+        indexFunctions.forEach((name, function) -> {
+            String value = function.apply(item);
+            if (value != null) {
+                indexes.get(name).computeIfAbsent(value, k -> ConcurrentHashMap.newKeySet()).add(key);
+            }
+        });
+    }
+
+    private void removeFromIndexes(String key, T item) {
+        indexFunctions.forEach((name, function) -> {
+            String value = function.apply(item);
+            if (value != null) {
+                indexes.get(name).computeIfPresent(value, (k, keys) -> {
+                    keys.remove(key);
+                    return keys.isEmpty() ? null : keys;
+                });
+            }
+        });
+    }
+
+    private byte[] encode(T item) {
+        try {
+            ByteArrayOutputStream bytes = new ByteArrayOutputStream(256);
+            codec.write(item, new DataOutputStream(bytes));
+            return bytes.toByteArray();
+        } catch (IOException ioe) {
+            throw new UncheckedIOException(ioe);
+        }
+    }
+
+    private T decode(byte[] value) {
+        try {
+            return codec.read(new DataInputStream(new ByteArrayInputStream(value)));
+        } catch (IOException ioe) {
+            throw new UncheckedIOException(ioe);
+        }
+    }
+}
@@ -0,0 +1,525 @@
+/**
+ * Copyright (C) 2015 The Gravitee team (http://gravitee.io)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.gravitee.am.repository.embedded.store;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileLock;
+import java.nio.channels.OverlappingFileLockException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Key/value store backed by a memory-mapped file.
+ *
+ * Records are appended to the file (<code>status | expireAt | key length | value length | key | value</code>) and
+ * deleted records are only flagged, the file is compacted once dead records outweigh live ones. Records are located
+ * through an open-addressing hash table kept off-heap, rebuilt from the file when the store is opened.
+ *
+ * A store file can only be opened by one process at a time.
+ *
+ * @author GraviteeSource Team
+ */
+public class MappedHashStore implements Closeable {
+
+    private static final int MAGIC = 0x47414d45;
+    private static final int VERSION = 1;
+    static final int HEADER_SIZE = 64;
+
+    private static final byte STATUS_FREE = 0;
+    private static final byte STATUS_LIVE = 1;
+    private static final byte STATUS_DELETED = 2;
+    // status (1) + expireAt (8) + key length (4) + value length (4)
+    private static final int RECORD_HEADER_SIZE = 17;
+
+    // hash (4) + record position (4), position 0 is an empty slot, -1 a removed one
+    private static final int SLOT_SIZE = 8;
+    private static final int EMPTY = 0;
+    private static final int TOMBSTONE = -1;
+    private static final int MIN_INDEX_CAPACITY = 1024;
+
+    private static final int MIN_COMPACTION_SIZE = 1024 * 1024;
+
+    private final Path path;
+    private final int initialSize;
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+
+    private FileChannel channel;
+    private FileLock fileLock;
+    private MappedByteBuffer data;
+    private int writePosition;
+    private long liveBytes;
+    private long deadBytes;
+
+    private ByteBuffer index;
+    private int indexCapacity;
+    private int indexSize;
+    private int indexTombstones;
+
+    private MappedHashStore(Path path, int initialSize) {
+        this.path = path;
+        this.initialSize = Math.max(initialSize, HEADER_SIZE + RECORD_HEADER_SIZE);
+    }
+
+    /**
+     * Open (or create) a store.
+     *
+     * @param path the store file
+     * @param initialSize initial size (in bytes) of the file, it is doubled each time the store is full
+     * @return the store, with the records of a previous run if the file exists
+     * @throws IOException if the file can not be opened or is already used by another process
+     */
+    public static MappedHashStore open(Path path, int initialSize) throws IOException {
+        MappedHashStore store = new MappedHashStore(path, initialSize);
+        store.load();
+        return store;
+    }
+
+    /**
+     * @return the value of the key or <code>null</code> if the key does not exist or has expired
+     */
+    public byte[] get(String key) {
+        byte[] keyBytes = key.getBytes(StandardCharsets.UTF_8);
+        lock.readLock().lock();
+        try {
+            int slot = findSlot(keyBytes, hash(keyBytes));
+            if (slot < 0) {
+                return null;
+            }
+            int position = slotPosition(slot);
+            return isExpired(position, System.currentTimeMillis()) ? null : readValue(position);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Store a value.
+     *
+     * @param key the key
+     * @param value the value
+     * @param expireAt expiration time (epoch millis) or 0 if the record never expires
+     * @return the previous value of the key or <code>null</code>
+     */
+    public byte[] put(String key, byte[] value, long expireAt) {
+        byte[] keyBytes = key.getBytes(StandardCharsets.UTF_8);
+        int hash = hash(keyBytes);
+        lock.writeLock().lock();
+        try {
+            int position = append(keyBytes, value, expireAt);
+            int slot = findSlot(keyBytes, hash);
+            if (slot < 0) {
+                insertSlot(hash, position);
+                return null;
+            }
+            int previous = slotPosition(slot);
+            index.putInt(slot * SLOT_SIZE + 4, position);
+            return delete(previous);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Remove a key.
+     *
+     * @return the removed value or <code>null</code> if the key does not exist
+     */
+    public byte[] remove(String key) {
+        return remove(key, -1L);
+    }
+
+    /**
+     * Remove a key only if it expires at the given time, to not remove a record stored again in the meantime.
+     *
+     * @return the removed value or <code>null</code> if the key does not exist or does not expire at this time
+     */
+    public byte[] expire(String key, long expireAt) {
+        return remove(key, expireAt);
+    }
+
+    /**
+     * Visit all the stored records, including the ones which have expired but are not yet removed.
+     */
+    public void forEach(RecordVisitor visitor) {
+        lock.readLock().lock();
+        try {
+            int position = HEADER_SIZE;
+            while (position < writePosition) {
+                if (data.get(position) == STATUS_LIVE) {
+                    visitor.visit(readKey(position), readValue(position), data.getLong(position + 1));
+                }
+                position += recordSize(position);
+            }
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * @return the number of stored records
+     */
+    public int size() {
+        lock.readLock().lock();
+        try {
+            return indexSize;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Rewrite the file without its deleted records if they take more space than the live ones.
+     *
+     * @return <code>true</code> if the file has been compacted
+     */
+    public boolean compactIfNeeded() throws IOException {
+        lock.writeLock().lock();
+        try {
+            if (deadBytes < MIN_COMPACTION_SIZE || deadBytes < liveBytes) {
+                return false;
+            }
+            compact(0);
+            return true;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    @Override
+    public void close() throws IOException {
+        lock.writeLock().lock();
+        try {
+            if (channel != null) {
+                data.force();
+                fileLock.release();
+                channel.close();
+                channel = null;
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    int fileSize() {
+        return data.capacity();
+    }
+
+    private void load() throws IOException {
+        channel = FileChannel.open(path, StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE);
+        try {
+            fileLock = channel.tryLock();
+        } catch (OverlappingFileLockException ofle) {
+            // already opened by this process
+            fileLock = null;
+        }
+        if (fileLock == null) {
+            channel.close();
+            throw new IOException("Store " + path + " is already used by another process");
+        }
+
+        boolean created = channel.size() == 0;
+        data = channel.map(FileChannel.MapMode.READ_WRITE, 0, Math.max(channel.size(), initialSize));
+        if (created) {
+            data.putInt(0, MAGIC);
+            data.putInt(4, VERSION);
+        } else if (data.getInt(0) != MAGIC || data.getInt(4) != VERSION) {
+            close();
+            throw new IOException("File " + path + " is not a store file or has an unsupported version");
+        }
+
+        initIndex(MIN_INDEX_CAPACITY);
+        int position = HEADER_SIZE;
+        while (position + RECORD_HEADER_SIZE <= data.capacity()) {
+            byte status = data.get(position);
+            int keyLength = data.getInt(position + 9);
+            int valueLength = data.getInt(position + 13);
+            // end of the records, a record may have been partially written if the process has been stopped
+            if (status == STATUS_FREE || keyLength <= 0 || valueLength < 0
+                    || (long) position + RECORD_HEADER_SIZE + keyLength + valueLength > data.capacity()) {
+                break;
+            }
+            int size = RECORD_HEADER_SIZE + keyLength + valueLength;
+            if (status == STATUS_LIVE) {
+                liveBytes += size;
+                byte[] keyBytes = readKeyBytes(position);
+                int hash = hash(keyBytes);
+                int slot = findSlot(keyBytes, hash);
+                if (slot < 0) {
+                    insertSlot(hash, position);
+                } else {
+                    // stopped while replacing a record, the last one wins
+                    delete(slotPosition(slot));
+                    index.putInt(slot * SLOT_SIZE + 4, position);
+                }
+            } else {
+                deadBytes += size;
+            }
+            position += size;
+        }
+        writePosition = position;
+    }
+
+    private byte[] remove(String key, long expireAt) {
+        byte[] keyBytes = key.getBytes(StandardCharsets.UTF_8);
+        lock.writeLock().lock();
+        try {
+            int slot = findSlot(keyBytes, hash(keyBytes));
+            if (slot < 0) {
+                return null;
+            }
+            int position = slotPosition(slot);
+            if (expireAt >= 0 && data.getLong(position + 1) != expireAt) {
+                return null;
+            }
+            index.putInt(slot * SLOT_SIZE + 4, TOMBSTONE);
+            indexSize--;
+            indexTombstones++;
+            return delete(position);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    private int append(byte[] key, byte[] value, long expireAt) {
+        int size = RECORD_HEADER_SIZE + key.length + value.length;
+        ensureCapacity(size);
+        int position = writePosition;
+        data.putLong(position + 1, expireAt);
+        data.putInt(position + 9, key.length);
+        data.putInt(position + 13, value.length);
+        ByteBuffer buffer = data.duplicate();
+        buffer.position(position + RECORD_HEADER_SIZE);
+        buffer.put(key);
+        buffer.put(value);
+        // the status is written last, a partially written record is ignored when the file is loaded again
+        data.put(position, STATUS_LIVE);
+        writePosition += size;
+        liveBytes += size;
+        return position;
+    }
+
+    private byte[] delete(int position) {
+        byte[] value = readValue(position);
+        int size = recordSize(position);
+        data.put(position, STATUS_DELETED);
+        liveBytes -= size;
+        deadBytes += size;
+        return value;
+    }
+
+    private void ensureCapacity(int size) {
+        if ((long) writePosition + size <= data.capacity()) {
+            return;
+        }
+        try {
+            long required = HEADER_SIZE + liveBytes + size;
+            if (deadBytes >= liveBytes && required <= data.capacity()) {
+                compact(size);
+            } else {
+                long newSize = Math.max((long) data.capacity() * 2, (long) writePosition + size);
+                if (newSize > Integer.MAX_VALUE) {
+                    if (required > Integer.MAX_VALUE) {
+                        throw new IllegalStateException("Store " + path + " is full");
+                    }
+                    compact(size);
+                } else {
+                    data = channel.map(FileChannel.MapMode.READ_WRITE, 0, newSize);
+                }
+            }
+        } catch (IOException ioe) {
+            throw new IllegalStateException("Unable to extend store " + path, ioe);
+        }
+    }
+
+    /**
+     * Copy the live records into a new file which then replaces the current one.
+     *
+     * @param reserve free space needed after the live records
+     */
+    private void compact(int reserve) throws IOException {
+        Path compactPath = path.resolveSibling(path.getFileName() + ".compact");
+        long required = HEADER_SIZE + liveBytes + reserve;
+        long size = initialSize;
+        while (size < required * 2 && size < Integer.MAX_VALUE) {
+            size *= 2;
+        }
+        size = Math.min(size, Integer.MAX_VALUE);
+
+        FileChannel compactChannel = FileChannel.open(compactPath, StandardOpenOption.CREATE, StandardOpenOption.TRUNCATE_EXISTING,
+                StandardOpenOption.READ, StandardOpenOption.WRITE);
+        FileLock compactLock = compactChannel.lock();
+        MappedByteBuffer compactData = compactChannel.map(FileChannel.MapMode.READ_WRITE, 0, size);
+        compactData.putInt(0, MAGIC);
+        compactData.putInt(4, VERSION);
+
+        // live records are copied in index slot order (not insertion order, nothing relies on it), their position is
+        // updated in place in the index
+        int target = HEADER_SIZE;
+        ByteBuffer source = data.duplicate();
+        ByteBuffer destination = compactData.duplicate();
+        for (int slot = 0; slot < indexCapacity; slot++) {
+            int position = slotPosition(slot);
+            if (position > 0) {
+                int recordSize = recordSize(position);
+                source.limit(position + recordSize).position(position);
+                destination.position(target);
+                destination.put(source);
+                source.limit(source.capacity());
+                index.putInt(slot * SLOT_SIZE + 4, target);
+                target += recordSize;
+            }
+        }
+        compactData.force();
+        Files.move(compactPath, path, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+
+        fileLock.release();
+        channel.close();
+        channel = compactChannel;
+        fileLock = compactLock;
+        data = compactData;
+        writePosition = target;
+        deadBytes = 0;
+        liveBytes = target - HEADER_SIZE;
+    }
+
+    private boolean isExpired(int position, long now) {
+        long expireAt = data.getLong(position + 1);
+        return expireAt > 0 && expireAt <= now;
+    }
+
+    private int recordSize(int position) {
+        return RECORD_HEADER_SIZE + data.getInt(position + 9) + data.getInt(position + 13);
+    }
+
+    private byte[] readKeyBytes(int position) {
+        byte[] key = new byte[data.getInt(position + 9)];
+        ByteBuffer buffer = data.duplicate();
+        buffer.position(position + RECORD_HEADER_SIZE);
+        buffer.get(key);
+        return key;
+    }
+
+    private String readKey(int position) {
+        return new String(readKeyBytes(position), StandardCharsets.UTF_8);
+    }
+
+    private byte[] readValue(int position) {
+        int keyLength = data.getInt(position + 9);
+        byte[] value = new byte[data.getInt(position + 13)];
+        ByteBuffer buffer = data.duplicate();
+        buffer.position(position + RECORD_HEADER_SIZE + keyLength);
+        buffer.get(value);
+        return value;
+    }
+
+    private boolean keyEquals(int position, byte[] key) {
+        if (data.getInt(position + 9) != key.length) {
+            return false;
+        }
+        int offset = position + RECORD_HEADER_SIZE;
+        for (int i = 0; i < key.length; i++) {
+            if (data.get(offset + i) != key[i]) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private void initIndex(int capacity) {
+        indexCapacity = capacity;
+        index = ByteBuffer.allocateDirect(capacity * SLOT_SIZE);
+        indexSize = 0;
+        indexTombstones = 0;
+    }
+
+    private int slotPosition(int slot) {
+        return index.getInt(slot * SLOT_SIZE + 4);
+    }
+
+    private int findSlot(byte[] key, int hash) {
+        int mask = indexCapacity - 1;
+        int slot = hash & mask;
+        while (true) {
+            int position = slotPosition(slot);
+            if (position == EMPTY) {
+                return -1;
+            }
+            if (position != TOMBSTONE && index.getInt(slot * SLOT_SIZE) == hash && keyEquals(position, key)) {
+                return slot;
+            }
+            slot = (slot + 1) & mask;
+        }
+    }
+
+    private void insertSlot(int hash, int position) {
+        if ((indexSize + indexTombstones + 1) > indexCapacity * 3 / 4) {
+            rehash(indexSize + 1 > indexCapacity / 2 ? indexCapacity * 2 : indexCapacity);
+        }
+        int mask = indexCapacity - 1;
+        int slot = hash & mask;
+        while (true) {
+            int current = slotPosition(slot);
+            if (current == EMPTY || current == TOMBSTONE) {
+                if (current == TOMBSTONE) {
+                    indexTombstones--;
+                }
+                index.putInt(slot * SLOT_SIZE, hash);
+                index.putInt(slot * SLOT_SIZE + 4, position);
+                indexSize++;
+                return;
+            }
+            slot = (slot + 1) & mask;
+        }
+    }
+
+    private void rehash(int capacity) {
+        ByteBuffer previous = index;
+        int previousCapacity = indexCapacity;
+        initIndex(capacity);
+        for (int slot = 0; slot < previousCapacity; slot++) {
+            int position = previous.getInt(slot * SLOT_SIZE + 4);
+            if (position > 0) {
+                insertSlot(previous.getInt(slot * SLOT_SIZE), position);
+            }
+        }
+    }
+
+    private static int hash(byte[] key) {
+        // FNV-1a
+        int hash = 0x811c9dc5;
+        for (byte b : key) {
+            hash ^= b;
+            hash *= 0x01000193;
+        }
+        return hash ^ (hash >>> 16);
+    }
+
+    /**
+     * Visitor of the stored records
+     */
+    public interface RecordVisitor {
+
+        void visit(String key, byte[] value, long expireAt);
+    }
+}
@@ -0,0 +1,133 @@
+/**
+ * Copyright (C) 2015 The Gravitee team (http://gravitee.io)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.gravitee.am.repository.embedded.store;
+
+import java.util.Iterator;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Hashed timing wheel used to expire records: scheduling and cancelling a task is O(1), advancing the wheel only
+ * visits the buckets of the elapsed ticks.
+ *
+ * The wheel does not run by itself, {@link #advance(long)} must be called periodically (at least once per tick).
+ *
+ * @author GraviteeSource Team
+ */
+public class TimingWheel {
+
+    private final long tickDuration;
+    private final Queue<Timeout>[] buckets;
+    private final int mask;
+    private final AtomicInteger pending = new AtomicInteger();
+    private volatile long processedTick;
+
+    /**
+     * @param tickDuration duration of a tick (wheel precision)
+     * @param unit unit of the tick duration
+     * @param wheelSize number of buckets, rounded up to a power of two
+     * @param startTime current time (epoch millis)
+     */
+    @SuppressWarnings("unchecked")
+    public TimingWheel(long tickDuration, TimeUnit unit, int wheelSize, long startTime) {
+        this.tickDuration = Math.max(1, unit.toMillis(tickDuration));
+        int size = Integer.highestOneBit(Math.max(wheelSize, 2) - 1) << 1;
+        this.buckets = new Queue[size];
+        for (int i = 0; i < size; i++) {
+            buckets[i] = new ConcurrentLinkedQueue<>();
+        }
+        this.mask = size - 1;
+        this.processedTick = startTime / this.tickDuration;
+    }
+
+    /**
+     * Schedule a task.
+     *
+     * @param deadline time (epoch millis) after which the task is run
+     * @param task the task
+     * @return the scheduled timeout
+     */
+    public Timeout schedule(long deadline, Runnable task) {
+        Timeout timeout = new Timeout(deadline, task);
+        // tasks due in the past are run on the next advance
+        long tick = Math.max((deadline + tickDuration - 1) / tickDuration, processedTick + 1);
+        buckets[(int) (tick & mask)].add(timeout);
+        pending.incrementAndGet();
+        return timeout;
+    }
+
+    /**
+     * Run the tasks which are due.
+     *
+     * @param now current time (epoch millis)
+     * @return the number of tasks run
+     */
+    public synchronized int advance(long now) {
+        long currentTick = now / tickDuration;
+        int run = 0;
+        // no need to visit the same bucket twice
+        long lastTick = Math.min(currentTick, processedTick + buckets.length);
+        for (long tick = processedTick + 1; tick <= lastTick; tick++) {
+            Iterator<Timeout> iterator = buckets[(int) (tick & mask)].iterator();
+            while (iterator.hasNext()) {
+                Timeout timeout = iterator.next();
+                if (timeout.cancelled) {
+                    iterator.remove();
+                    pending.decrementAndGet();
+                } else if (timeout.deadline <= now) {
+                    iterator.remove();
+                    pending.decrementAndGet();
+                    timeout.task.run();
+                    run++;
+                }
+            }
+        }
+        processedTick = Math.max(processedTick, currentTick);
+        return run;
+    }
+
+    /**
+     * @return the number of scheduled tasks not yet run, including the cancelled ones not yet cleaned up
+     */
+    public int pending() {
+        return pending.get();
+    }
+
+    /**
+     * A scheduled task
+     */
+    public static final class Timeout {
+
+        private final long deadline;
+        private final Runnable task;
+        private volatile boolean cancelled;
+
+        private Timeout(long deadline, Runnable task) {
+            this.deadline = deadline;
+            this.task = task;
+        }
+
+        public void cancel() {
+            cancelled = true;
+        }
+
+        public long getDeadline() {
+            return deadline;
+        }
+    }
+}
@@ -0,0 +1,156 @@
+/**
+ * Copyright (C) 2015 The Gravitee team (http://gravitee.io)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.gravitee.am.repository.embedded.store;
+
+import io.gravitee.am.repository.embedded.oauth2.codec.AccessTokenCodec;
+import io.gravitee.am.repository.oauth2.model.AccessToken;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.Collections;
+import java.util.Date;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.Assert.*;
+
+/**
+ * @author GraviteeSource Team
+ */
+public class EmbeddedStoreTest {
+
+    @Rule
+    public TemporaryFolder temporaryFolder = new TemporaryFolder();
+
+    private Path path;
+    private TimingWheel timingWheel;
+    private EmbeddedStore<AccessToken> store;
+
+    @Before
+    public void setUp() throws IOException {
+        path = temporaryFolder.getRoot().toPath().resolve("access_tokens.db");
+        store = open();
+    }
+
+    @After
+    public void tearDown() throws IOException {
+        store.close();
+    }
+
+    @Test
+    public void shouldFindByIndex() {
+        store.put(accessToken("token1", "client1", null));
+        store.put(accessToken("token2", "client1", null));
+        store.put(accessToken("token3", "client2", null));
+
+        assertEquals(2, store.countBy("client", "client1"));
+        assertEquals(1, store.findBy("client", "client2").size());
+        assertTrue(store.findBy("client", "client3").isEmpty());
+    }
+
+    @Test
+    public void shouldUpdateIndexes() {
+        store.put(accessToken("token1", "client1", null));
+        store.put(accessToken("token1", "client2", null));
+
+        assertEquals(0, store.countBy("client", "client1"));
+        assertEquals(1, store.countBy("client", "client2"));
+
+        store.remove("token1");
+
+        assertEquals(0, store.countBy("client", "client2"));
+    }
+
+    @Test
+    public void shouldRemoveByIndex() {
+        store.put(accessToken("token1", "client1", null));
+        store.put(accessToken("token2", "client1", null));
+        store.put(accessToken("token3", "client2", null));
+
+        assertEquals(2, store.removeBy("client", "client1"));
+        assertNull(store.get("token1"));
+        assertNotNull(store.get("token3"));
+        assertEquals(1, store.size());
+    }
+
+    @Test
+    public void shouldRemoveByIndex_filter() {
+        AccessToken otherDomain = accessToken("token2", "client1", null);
+        otherDomain.setDomain("other-domain");
+        store.put(accessToken("token1", "client1", null));
+        store.put(otherDomain);
+
+        assertEquals(1, store.removeBy("client", "client1", accessToken -> "domain".equals(accessToken.getDomain())));
+        assertNull(store.get("token1"));
+        assertNotNull(store.get("token2"));
+        assertEquals(1, store.countBy("client", "client1"));
+    }
+
+    @Test
+    public void shouldExpire() {
+        long now = System.currentTimeMillis();
+        store.put(accessToken("token1", "client1", new Date(now + 50)));
+        store.put(accessToken("token2", "client1", new Date(now + 60_000)));
+
+        timingWheel.advance(now + 1_000);
+
+        assertNull(store.get("token1"));
+        assertEquals(1, store.size());
+        assertEquals(1, store.countBy("client", "client1"));
+    }
+
+    @Test
+    public void shouldReload() throws IOException {
+        AccessToken accessToken = accessToken("token1", "client1", new Date(System.currentTimeMillis() + 60_000));
+        accessToken.setScopes(Collections.singleton("read"));
+        accessToken.setClaims("{\"sub\":\"user\"}");
+        store.put(accessToken);
+        store.put(accessToken("token2", "client1", new Date(System.currentTimeMillis() - 1)));
+        store.close();
+
+        store = open();
+
+        assertEquals(1, store.size());
+        assertEquals(1, store.countBy("client", "client1"));
+        AccessToken reloaded = store.get("token1");
+        assertEquals("client1", reloaded.getClient());
+        assertEquals(accessToken.getExpireAt(), reloaded.getExpireAt());
+        assertEquals(Collections.singleton("read"), reloaded.getScopes());
+        assertEquals("{\"sub\":\"user\"}", reloaded.getClaims());
+        assertNull(reloaded.getRefreshToken());
+    }
+
+    private EmbeddedStore<AccessToken> open() throws IOException {
+        timingWheel = new TimingWheel(10, TimeUnit.MILLISECONDS, 64, System.currentTimeMillis());
+        return new EmbeddedStore<>(MappedHashStore.open(path, 4096), new AccessTokenCodec(), AccessToken::getToken, AccessToken::getExpireAt, timingWheel)
+                .index("client", AccessToken::getClient)
+                .load();
+    }
+
+    private static AccessToken accessToken(String token, String client, Date expireAt) {
+        AccessToken accessToken = new AccessToken();
+        accessToken.setToken(token);
+        accessToken.setClient(client);
+        accessToken.setDomain("domain");
+        accessToken.setCreatedAt(new Date());
+        accessToken.setExpireAt(expireAt);
+        return accessToken;
+    }
+}
@@ -0,0 +1,166 @@
+/**
+ * Copyright (C) 2015 The Gravitee team (http://gravitee.io)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.gravitee.am.repository.embedded.store;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+
+import static org.junit.Assert.*;
+
+/**
+ * @author GraviteeSource Team
+ */
+public class MappedHashStoreTest {
+
+    private static final int INITIAL_SIZE = 4096;
+
+    @Rule
+    public TemporaryFolder temporaryFolder = new TemporaryFolder();
+
+    private Path path;
+    private MappedHashStore store;
+
+    @Before
+    public void setUp() throws IOException {
+        path = temporaryFolder.getRoot().toPath().resolve("tokens.db");
+        store = MappedHashStore.open(path, INITIAL_SIZE);
+    }
+
+    @After
+    public void tearDown() throws IOException {
+        store.close();
+    }
+
+    @Test
+    public void shouldPutAndGet() {
+        assertNull(store.put("key", bytes("value"), 0));
+
+        assertEquals("value", string(store.get("key")));
+        assertNull(store.get("unknown"));
+        assertEquals(1, store.size());
+    }
+
+    @Test
+    public void shouldReplace() {
+        store.put("key", bytes("value"), 0);
+
+        assertEquals("value", string(store.put("key", bytes("value2"), 0)));
+        assertEquals("value2", string(store.get("key")));
+        assertEquals(1, store.size());
+    }
+
+    @Test
+    public void shouldRemove() {
+        store.put("key", bytes("value"), 0);
+
+        assertEquals("value", string(store.remove("key")));
+        assertNull(store.get("key"));
+        assertNull(store.remove("key"));
+        assertEquals(0, store.size());
+    }
+
+    @Test
+    public void shouldNotGetExpired() {
+        store.put("key", bytes("value"), System.currentTimeMillis() - 1);
+
+        assertNull(store.get("key"));
+    }
+
+    @Test
+    public void shouldExpireOnlySameRecord() {
+        store.put("key", bytes("value"), 1000L);
+        store.put("key", bytes("value2"), 2000L);
+
+        assertNull(store.expire("key", 1000L));
+        assertEquals("value2", string(store.expire("key", 2000L)));
+        assertEquals(0, store.size());
+    }
+
+    @Test
+    public void shouldGrow() {
+        for (int i = 0; i < 5000; i++) {
+            store.put("key-" + i, bytes("value-" + i), 0);
+        }
+
+        assertTrue(store.fileSize() > INITIAL_SIZE);
+        assertEquals(5000, store.size());
+        for (int i = 0; i < 5000; i++) {
+            assertEquals("value-" + i, string(store.get("key-" + i)));
+        }
+    }
+
+    @Test
+    public void shouldReloadRecords() throws IOException {
+        store.put("key", bytes("value"), 0);
+        store.put("key2", bytes("value2"), 0);
+        store.put("key", bytes("value3"), 0);
+        store.remove("key2");
+        store.close();
+
+        store = MappedHashStore.open(path, INITIAL_SIZE);
+
+        assertEquals(1, store.size());
+        assertEquals("value3", string(store.get("key")));
+        assertNull(store.get("key2"));
+    }
+
+    @Test(expected = IOException.class)
+    public void shouldNotOpenTwice() throws IOException {
+        MappedHashStore.open(path, INITIAL_SIZE);
+    }
+
+    @Test
+    public void shouldCompact() throws IOException {
+        byte[] value = new byte[1024];
+        for (int i = 0; i < 2048; i++) {
+            store.put("key-" + i, value, 0);
+        }
+        for (int i = 0; i < 2000; i++) {
+            store.remove("key-" + i);
+        }
+        int size = store.fileSize();
+
+        assertTrue(store.compactIfNeeded());
+        assertTrue(store.fileSize() < size);
+        assertFalse(store.compactIfNeeded());
+        assertEquals(48, store.size());
+        assertEquals(1024, store.get("key-2047").length);
+
+        store.put("key", bytes("value"), 0);
+        store.close();
+        store = MappedHashStore.open(path, INITIAL_SIZE);
+
+        assertEquals(49, store.size());
+        assertNull(store.get("key-0"));
+        assertEquals(1024, store.get("key-2000").length);
+        assertEquals("value", string(store.get("key")));
+    }
+
+    private static byte[] bytes(String value) {
+        return value.getBytes(StandardCharsets.UTF_8);
+    }
+
+    private static String string(byte[] value) {
+        return value == null ? null : new String(value, StandardCharsets.UTF_8);
+    }
+}
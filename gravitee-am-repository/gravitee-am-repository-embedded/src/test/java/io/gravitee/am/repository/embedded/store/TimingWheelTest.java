@@ -0,0 +1,79 @@
+/**
+ * Copyright (C) 2015 The Gravitee team (http://gravitee.io)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.gravitee.am.repository.embedded.store;
+
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * @author GraviteeSource Team
+ */
+public class TimingWheelTest {
+
+    @Test
+    public void shouldRunDueTasks() {
+        TimingWheel timingWheel = new TimingWheel(100, TimeUnit.MILLISECONDS, 8, 0);
+        List<String> run = new ArrayList<>();
+        timingWheel.schedule(250, () -> run.add("first"));
+        timingWheel.schedule(450, () -> run.add("second"));
+
+        assertEquals(0, timingWheel.advance(200));
+        assertEquals(1, timingWheel.advance(300));
+        assertEquals(1, timingWheel.advance(500));
+        assertEquals(2, run.size());
+        assertEquals(0, timingWheel.pending());
+    }
+
+    @Test
+    public void shouldKeepTasksOfNextRounds() {
+        TimingWheel timingWheel = new TimingWheel(100, TimeUnit.MILLISECONDS, 4, 0);
+        List<String> run = new ArrayList<>();
+        timingWheel.schedule(1050, () -> run.add("task"));
+
+        assertEquals(0, timingWheel.advance(500));
+        assertEquals(0, timingWheel.advance(1000));
+        assertEquals(1, timingWheel.pending());
+        assertEquals(1, timingWheel.advance(1100));
+        assertEquals(1, run.size());
+    }
+
+    @Test
+    public void shouldRunPastTasksOnNextTick() {
+        TimingWheel timingWheel = new TimingWheel(100, TimeUnit.MILLISECONDS, 8, 1000);
+        List<String> run = new ArrayList<>();
+        timingWheel.schedule(10, () -> run.add("task"));
+
+        assertEquals(1, timingWheel.advance(1100));
+        assertTrue(run.contains("task"));
+    }
+
+    @Test
+    public void shouldNotRunCancelledTasks() {
+        TimingWheel timingWheel = new TimingWheel(100, TimeUnit.MILLISECONDS, 8, 0);
+        List<String> run = new ArrayList<>();
+        timingWheel.schedule(150, () -> run.add("task")).cancel();
+
+        assertEquals(0, timingWheel.advance(300));
+        assertTrue(run.isEmpty());
+        assertEquals(0, timingWheel.pending());
+    }
+}
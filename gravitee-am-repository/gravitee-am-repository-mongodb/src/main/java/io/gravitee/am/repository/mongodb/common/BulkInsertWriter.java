@@ -0,0 +1,185 @@
+/**
+ * Copyright (C) 2015 The Gravitee team (http://gravitee.io)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.gravitee.am.repository.mongodb.common;
+
+import com.mongodb.MongoBulkWriteException;
+import com.mongodb.bulk.BulkWriteError;
+import com.mongodb.client.model.InsertManyOptions;
+import com.mongodb.reactivestreams.client.MongoCollection;
+import io.gravitee.am.repository.exceptions.TechnicalException;
+import io.reactivex.Single;
+import io.reactivex.SingleEmitter;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Coalesce single document inserts into unordered <code>insertMany</code> commands.
+ *
+ * Documents are buffered until the batch is full or the oldest buffered document has waited for the maximum delay.
+ * Each caller gets its own result: a document rejected by the server (e.g. duplicate key) only fails its own insert.
+ *
+ * The number of buffered and in-flight documents is bounded: when MongoDB lags behind, new inserts are rejected
+ * with a {@link TechnicalException} instead of piling up in memory.
+ *
+ * @author GraviteeSource Team
+ */
+public class BulkInsertWriter<T> {
+
+    private static final Logger logger = LoggerFactory.getLogger(BulkInsertWriter.class);
+    private static final InsertManyOptions UNORDERED = new InsertManyOptions().ordered(false);
+
+    private final MongoCollection<T> collection;
+    private final ScheduledExecutorService scheduler;
+    private final int maxBatchSize;
+    private final long maxDelay;
+    private final int maxPending;
+    private final int maxInFlightBatches;
+
+    private final List<PendingInsert<T>> buffer = new ArrayList<>();
+    private int pending;
+    private int inFlightBatches;
+    private ScheduledFuture<?> scheduledFlush;
+
+    /**
+     * @param collection target collection
+     * @param scheduler scheduler used to flush partial batches
+     * @param maxBatchSize maximum number of documents per insertMany command
+     * @param maxDelay maximum time (in milliseconds) a document is buffered before the batch is flushed
+     * @param maxPending maximum number of buffered and in-flight documents
+     * @param maxInFlightBatches maximum number of concurrent insertMany commands
+     */
+    public BulkInsertWriter(MongoCollection<T> collection, ScheduledExecutorService scheduler,
+                            int maxBatchSize, long maxDelay, int maxPending, int maxInFlightBatches) {
+        this.collection = collection;
+        this.scheduler = scheduler;
+        this.maxBatchSize = maxBatchSize;
+        this.maxDelay = maxDelay;
+        this.maxPending = maxPending;
+        this.maxInFlightBatches = maxInFlightBatches;
+    }
+
+    public Single<T> insert(T document) {
+        return Single.create(emitter -> {
+            boolean flushNow = false;
+            synchronized (this) {
+                if (pending >= maxPending) {
+                    emitter.onError(new TechnicalException("Too many pending inserts into " + collection.getNamespace() + ", MongoDB is lagging behind"));
+                    return;
+                }
+                pending++;
+                buffer.add(new PendingInsert<>(document, emitter));
+                if (buffer.size() >= maxBatchSize) {
+                    flushNow = true;
+                } else if (scheduledFlush == null) {
+                    scheduledFlush = scheduler.schedule(this::flush, maxDelay, TimeUnit.MILLISECONDS);
+                }
+            }
+
+            if (flushNow) {
+                flush();
+            }
+        });
+    }
+
+    synchronized int pending() {
+        return pending;
+    }
+
+    private void flush() {
+        final List<PendingInsert<T>> batch;
+        final boolean fullBatchLeft;
+        synchronized (this) {
+            if (scheduledFlush != null) {
+                scheduledFlush.cancel(false);
+                scheduledFlush = null;
+            }
+            // the next batch is sent as soon as one of the running commands completes
+            if (buffer.isEmpty() || inFlightBatches >= maxInFlightBatches) {
+                return;
+            }
+
+            int size = Math.min(buffer.size(), maxBatchSize);
+            List<PendingInsert<T>> head = buffer.subList(0, size);
+            batch = new ArrayList<>(head);
+            head.clear();
+            inFlightBatches++;
+
+            fullBatchLeft = buffer.size() >= maxBatchSize;
+            if (!buffer.isEmpty() && !fullBatchLeft) {
+                scheduledFlush = scheduler.schedule(this::flush, maxDelay, TimeUnit.MILLISECONDS);
+            }
+        }
+
+        List<T> documents = new ArrayList<>(batch.size());
+        batch.forEach(pendingInsert -> documents.add(pendingInsert.document));
+
+        Single.fromPublisher(collection.insertMany(documents, UNORDERED))
+                .subscribe(
+                        success -> complete(batch, null),
+                        error -> complete(batch, error));
+
+        if (fullBatchLeft) {
+            flush();
+        }
+    }
+
+    private void complete(List<PendingInsert<T>> batch, Throwable error) {
+        synchronized (this) {
+            pending -= batch.size();
+            inFlightBatches--;
+        }
+
+        if (error == null) {
+            batch.forEach(pendingInsert -> pendingInsert.emitter.onSuccess(pendingInsert.document));
+        } else if (error instanceof MongoBulkWriteException) {
+            // unordered bulk: only the documents reported in error have not been written
+            Map<Integer, BulkWriteError> errors = new HashMap<>();
+            ((MongoBulkWriteException) error).getWriteErrors().forEach(writeError -> errors.put(writeError.getIndex(), writeError));
+            for (int i = 0; i < batch.size(); i++) {
+                PendingInsert<T> pendingInsert = batch.get(i);
+                BulkWriteError writeError = errors.get(i);
+                if (writeError == null) {
+                    pendingInsert.emitter.onSuccess(pendingInsert.document);
+                } else {
+                    pendingInsert.emitter.onError(new TechnicalException(writeError.getMessage(), error));
+                }
+            }
+        } else {
+            logger.error("Unable to insert {} documents into {}", batch.size(), collection.getNamespace(), error);
+            batch.forEach(pendingInsert -> pendingInsert.emitter.onError(error));
+        }
+
+        flush();
+    }
+
+    private static class PendingInsert<T> {
+        private final T document;
+        private final SingleEmitter<T> emitter;
+
+        PendingInsert(T document, SingleEmitter<T> emitter) {
+            this.document = document;
+            this.emitter = emitter;
+        }
+    }
+}
@@ -15,6 +15,8 @@
  */
 package io.gravitee.am.repository.mongodb.management;
 
+import com.mongodb.client.model.FindOneAndReplaceOptions;
+import com.mongodb.client.model.ReturnDocument;
 import com.mongodb.reactivestreams.client.MongoCollection;
 import io.gravitee.am.model.Certificate;
 import io.gravitee.am.repository.management.api.CertificateRepository;
@@ -77,13 +79,13 @@ public class MongoCertificateRepository extends AbstractManagementMongoRepositor
     public Single<Certificate> create(Certificate item) {
         CertificateMongo certificate = convert(item);
         certificate.setId(certificate.getId() == null ? (String) idGenerator.generate() : certificate.getId());
-        return Single.fromPublisher(certificatesCollection.insertOne(certificate)).flatMap(success -> findById(certificate.getId()).toSingle());
+        return Single.fromPublisher(certificatesCollection.insertOne(certificate)).map(success -> convert(certificate));
     }
 
     @Override
     public Single<Certificate> update(Certificate item) {
         CertificateMongo certificate = convert(item);
-        return Single.fromPublisher(certificatesCollection.replaceOne(eq(FIELD_ID, certificate.getId()), certificate)).flatMap(updateResult -> findById(certificate.getId()).toSingle());
+        return Single.fromPublisher(certificatesCollection.findOneAndReplace(eq(FIELD_ID, certificate.getId()), certificate, new FindOneAndReplaceOptions().returnDocument(ReturnDocument.AFTER))).map(this::convert);
     }
 
     @Override
@@ -15,6 +15,8 @@
  */
 package io.gravitee.am.repository.mongodb.management;
 
+import com.mongodb.client.model.FindOneAndReplaceOptions;
+import com.mongodb.client.model.ReturnDocument;
 import com.mongodb.reactivestreams.client.MongoCollection;
 import io.gravitee.am.model.Client;
 import io.gravitee.am.model.common.Page;
@@ -119,13 +121,13 @@ public class MongoClientRepository extends AbstractManagementMongoRepository imp
     public Single<Client> create(Client item) {
         ClientMongo client = convert(item);
         client.setId(client.getId() == null ? (String) idGenerator.generate() : client.getId());
-        return Single.fromPublisher(clientsCollection.insertOne(client)).flatMap(success -> findById(client.getId()).toSingle());
+        return Single.fromPublisher(clientsCollection.insertOne(client)).map(success -> convert(client));
     }
 
     @Override
     public Single<Client> update(Client item) {
         ClientMongo client = convert(item);
-        return Single.fromPublisher(clientsCollection.replaceOne(eq(FIELD_ID, client.getId()), client)).flatMap(success -> findById(client.getId()).toSingle());
+        return Single.fromPublisher(clientsCollection.findOneAndReplace(eq(FIELD_ID, client.getId()), client, new FindOneAndReplaceOptions().returnDocument(ReturnDocument.AFTER))).map(this::convert);
     }
 
     @Override
@@ -166,6 +168,11 @@ public class MongoClientRepository extends AbstractManagementMongoRepository imp
         client.setIdTokenCustomClaims(clientMongo.getIdTokenCustomClaims());
         client.setCertificate(clientMongo.getCertificate());
         client.setEnhanceScopesWithUserPermissions(clientMongo.isEnhanceScopesWithUserPermissions());
+        client.setStatelessAccessToken(clientMongo.isStatelessAccessToken());
+        client.setReuseClientCredentialsToken(clientMongo.isReuseClientCredentialsToken());
+        if (clientMongo.getTokenFormat() != null) {
+            client.setTokenFormat(clientMongo.getTokenFormat());
+        }
         client.setCreatedAt(clientMongo.getCreatedAt());
         client.setUpdatedAt(clientMongo.getUpdatedAt());
         return client;
@@ -194,6 +201,9 @@ public class MongoClientRepository extends AbstractManagementMongoRepository imp
         clientMongo.setIdTokenCustomClaims(client.getIdTokenCustomClaims() != null ? new Document(client.getIdTokenCustomClaims()) : new Document());
         clientMongo.setCertificate(client.getCertificate());
         clientMongo.setEnhanceScopesWithUserPermissions(client.isEnhanceScopesWithUserPermissions());
+        clientMongo.setStatelessAccessToken(client.isStatelessAccessToken());
+        clientMongo.setReuseClientCredentialsToken(client.isReuseClientCredentialsToken());
+        clientMongo.setTokenFormat(client.getTokenFormat());
         clientMongo.setCreatedAt(client.getCreatedAt());
         clientMongo.setUpdatedAt(client.getUpdatedAt());
         return clientMongo;
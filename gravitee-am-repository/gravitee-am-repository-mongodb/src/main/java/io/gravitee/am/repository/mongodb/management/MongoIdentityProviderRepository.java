@@ -15,6 +15,8 @@
  */
 package io.gravitee.am.repository.mongodb.management;
 
+import com.mongodb.client.model.FindOneAndReplaceOptions;
+import com.mongodb.client.model.ReturnDocument;
 import com.mongodb.reactivestreams.client.MongoCollection;
 import io.gravitee.am.model.IdentityProvider;
 import io.gravitee.am.repository.management.api.IdentityProviderRepository;
@@ -69,13 +71,13 @@ public class MongoIdentityProviderRepository extends AbstractManagementMongoRepo
     public Single<IdentityProvider> create(IdentityProvider item) {
         IdentityProviderMongo identityProvider = convert(item);
         identityProvider.setId(identityProvider.getId() == null ? (String) idGenerator.generate() : identityProvider.getId());
-        return Single.fromPublisher(identitiesCollection.insertOne(identityProvider)).flatMap(success -> findById(identityProvider.getId()).toSingle());
+        return Single.fromPublisher(identitiesCollection.insertOne(identityProvider)).map(success -> convert(identityProvider));
     }
 
     @Override
     public Single<IdentityProvider> update(IdentityProvider item) {
         IdentityProviderMongo identityProvider = convert(item);
-        return Single.fromPublisher(identitiesCollection.replaceOne(eq(FIELD_ID, identityProvider.getId()), identityProvider)).flatMap(updateResult -> findById(identityProvider.getId()).toSingle());
+        return Single.fromPublisher(identitiesCollection.findOneAndReplace(eq(FIELD_ID, identityProvider.getId()), identityProvider, new FindOneAndReplaceOptions().returnDocument(ReturnDocument.AFTER))).map(this::convert);
     }
 
     @Override
@@ -15,6 +15,8 @@
  */
 package io.gravitee.am.repository.mongodb.management;
 
+import com.mongodb.client.model.FindOneAndReplaceOptions;
+import com.mongodb.client.model.ReturnDocument;
 import com.mongodb.reactivestreams.client.MongoCollection;
 import io.gravitee.am.model.User;
 import io.gravitee.am.model.common.Page;
@@ -92,13 +94,13 @@ public class MongoUserRepository extends AbstractManagementMongoRepository imple
     public Single<User> create(User item) {
         UserMongo user = convert(item);
         user.setId(user.getId() == null ? (String) idGenerator.generate() : user.getId());
-        return Single.fromPublisher(usersCollection.insertOne(user)).flatMap(success -> findById(user.getId()).toSingle());
+        return Single.fromPublisher(usersCollection.insertOne(user)).map(success -> convert(user));
     }
 
     @Override
     public Single<User> update(User item) {
         UserMongo user = convert(item);
-        return Single.fromPublisher(usersCollection.replaceOne(eq(FIELD_ID, user.getId()), user)).flatMap(updateResult -> findById(user.getId()).toSingle());
+        return Single.fromPublisher(usersCollection.findOneAndReplace(eq(FIELD_ID, user.getId()), user, new FindOneAndReplaceOptions().returnDocument(ReturnDocument.AFTER))).map(this::convert);
     }
 
     @Override
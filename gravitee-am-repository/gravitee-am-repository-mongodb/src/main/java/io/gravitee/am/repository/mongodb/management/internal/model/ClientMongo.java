@@ -73,8 +73,14 @@ public class ClientMongo extends Auditable {
 
     private boolean enhanceScopesWithUserPermissions;
 
+    private boolean statelessAccessToken;
+
+    private String tokenFormat;
+
     private boolean generateNewTokenPerRequest;
 
+    private boolean reuseClientCredentialsToken;
+
     public String getId() {
         return id;
     }
@@ -211,6 +217,22 @@ public class ClientMongo extends Auditable {
         this.enhanceScopesWithUserPermissions = enhanceScopesWithUserPermissions;
     }
 
+    public boolean isStatelessAccessToken() {
+        return statelessAccessToken;
+    }
+
+    public void setStatelessAccessToken(boolean statelessAccessToken) {
+        this.statelessAccessToken = statelessAccessToken;
+    }
+
+    public String getTokenFormat() {
+        return tokenFormat;
+    }
+
+    public void setTokenFormat(String tokenFormat) {
+        this.tokenFormat = tokenFormat;
+    }
+
     public boolean isGenerateNewTokenPerRequest() {
         return generateNewTokenPerRequest;
     }
@@ -219,6 +241,14 @@ public class ClientMongo extends Auditable {
         this.generateNewTokenPerRequest = generateNewTokenPerRequest;
     }
 
+    public boolean isReuseClientCredentialsToken() {
+        return reuseClientCredentialsToken;
+    }
+
+    public void setReuseClientCredentialsToken(boolean reuseClientCredentialsToken) {
+        this.reuseClientCredentialsToken = reuseClientCredentialsToken;
+    }
+
     @Override
     public boolean equals(Object o) {
         if (this == o) return true;
@@ -0,0 +1,86 @@
+/**
+ * Copyright (C) 2015 The Gravitee team (http://gravitee.io)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.gravitee.am.repository.mongodb.oauth2;
+
+import com.mongodb.reactivestreams.client.MongoCollection;
+import io.gravitee.am.repository.mongodb.common.BulkInsertWriter;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.core.env.Environment;
+import org.springframework.stereotype.Component;
+
+import javax.annotation.PostConstruct;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+
+/**
+ * Create the write-behind writers of the token collections, if enabled by the <code>oauth2.mongodb.bulkWrite</code> settings.
+ *
+ * @author GraviteeSource Team
+ */
+@Component
+public class BulkInsertWriterFactory implements DisposableBean {
+
+    private static final Logger logger = LoggerFactory.getLogger(BulkInsertWriterFactory.class);
+    private static final String PROPERTY_PREFIX = "oauth2.mongodb.bulkWrite.";
+
+    @Autowired
+    private Environment environment;
+
+    private boolean enabled;
+    private int maxBatchSize;
+    private long maxDelay;
+    private int maxPending;
+    private int maxInFlightBatches;
+    private ScheduledExecutorService scheduler;
+
+    @PostConstruct
+    public void init() {
+        enabled = environment.getProperty(PROPERTY_PREFIX + "enabled", Boolean.class, false);
+        maxBatchSize = environment.getProperty(PROPERTY_PREFIX + "maxBatchSize", Integer.class, 100);
+        maxDelay = environment.getProperty(PROPERTY_PREFIX + "maxDelay", Long.class, 2L);
+        maxPending = environment.getProperty(PROPERTY_PREFIX + "maxPending", Integer.class, 10000);
+        maxInFlightBatches = environment.getProperty(PROPERTY_PREFIX + "maxInFlightBatches", Integer.class, 4);
+
+        if (enabled) {
+            logger.info("Token inserts are batched: up to {} documents or {} ms", maxBatchSize, maxDelay);
+            scheduler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+                Thread thread = new Thread(runnable, "gio.am-mongo-bulk-writer");
+                thread.setDaemon(true);
+                return thread;
+            });
+        }
+    }
+
+    /**
+     * @return a writer for the collection or <code>null</code> if token inserts are not batched
+     */
+    public <T> BulkInsertWriter<T> create(MongoCollection<T> collection) {
+        if (!enabled) {
+            return null;
+        }
+        return new BulkInsertWriter<>(collection, scheduler, maxBatchSize, maxDelay, maxPending, maxInFlightBatches);
+    }
+
+    @Override
+    public void destroy() {
+        if (scheduler != null) {
+            scheduler.shutdown();
+        }
+    }
+}
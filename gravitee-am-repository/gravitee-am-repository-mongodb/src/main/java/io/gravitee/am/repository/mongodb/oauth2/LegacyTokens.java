@@ -0,0 +1,185 @@
+/**
+ * Copyright (C) 2015 The Gravitee team (http://gravitee.io)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.gravitee.am.repository.mongodb.oauth2;
+
+import com.mongodb.ErrorCategory;
+import com.mongodb.MongoBulkWriteException;
+import com.mongodb.MongoCommandException;
+import com.mongodb.bulk.BulkWriteError;
+import com.mongodb.client.model.IndexOptions;
+import com.mongodb.client.model.InsertManyOptions;
+import com.mongodb.reactivestreams.client.MongoCollection;
+import com.mongodb.reactivestreams.client.MongoDatabase;
+import io.reactivex.Completable;
+import io.reactivex.Flowable;
+import io.reactivex.Maybe;
+import io.reactivex.Observable;
+import io.reactivex.Single;
+import org.bson.Document;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import static com.mongodb.client.model.Filters.eq;
+import static com.mongodb.client.model.Filters.exists;
+import static com.mongodb.client.model.Filters.in;
+
+/**
+ * Tokens used to be stored with a random <code>_id</code> and their value in an indexed <code>token</code> field, they
+ * are now stored with their value as <code>_id</code>.
+ *
+ * Until the tokens stored in the previous format are migrated (see {@link #migrate(List, List)}), lookups by token value fall
+ * back to the <code>token</code> field. The fallback stops once the migration has dropped the <code>token</code>
+ * index.
+ *
+ * @author GraviteeSource Team
+ */
+class LegacyTokens<T> {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(LegacyTokens.class);
+
+    static final String FIELD_ID = "_id";
+    static final String FIELD_TOKEN = "token";
+    private static final String LEGACY_TOKEN_INDEX = "token_1";
+    private static final long CHECK_INTERVAL = 60_000L;
+    private static final int BATCH_SIZE = 500;
+    private static final int INDEX_NOT_FOUND = 27;
+    private static final int NAMESPACE_NOT_FOUND = 26;
+
+    private final MongoCollection<T> collection;
+    private final MongoCollection<Document> documents;
+    private volatile boolean present = true;
+    private volatile long lastCheck;
+
+    LegacyTokens(MongoDatabase database, String collectionName, Class<T> documentClass) {
+        this.collection = database.getCollection(collectionName, documentClass);
+        this.documents = database.getCollection(collectionName);
+    }
+
+    /**
+     * Find a token stored in the previous format.
+     */
+    Maybe<T> find(String token) {
+        return isPresent().flatMapMaybe(present -> present ?
+                Observable.fromPublisher(collection.find(eq(FIELD_TOKEN, token)).limit(1).first()).firstElement() : Maybe.empty());
+    }
+
+    /**
+     * Find the tokens stored in the previous format, with a single query.
+     */
+    Observable<T> findIn(Collection<String> tokens) {
+        return isPresent().flatMapObservable(present -> present ?
+                Observable.fromPublisher(collection.find(in(FIELD_TOKEN, tokens))) : Observable.empty());
+    }
+
+    /**
+     * Find and delete a token stored in the previous format.
+     */
+    Maybe<T> consume(String token) {
+        return isPresent().flatMapMaybe(present -> present ?
+                Observable.fromPublisher(collection.findOneAndDelete(eq(FIELD_TOKEN, token))).firstElement() : Maybe.empty());
+    }
+
+    /**
+     * Rewrite the tokens stored in the previous format with their value as <code>_id</code>, then drop the indexes
+     * which are no longer used.
+     *
+     * Nothing is done once the legacy token index has been dropped.
+     *
+     * @param obsoleteIndexes indexes to drop once the tokens are migrated (the legacy token index is always dropped)
+     * @param sparseIndexes single field indexes to recreate as sparse indexes
+     */
+    Completable migrate(List<String> obsoleteIndexes, List<String> sparseIndexes) {
+        return hasLegacyIndex().flatMapCompletable(legacyIndex -> {
+            if (!legacyIndex) {
+                // already migrated
+                present = false;
+                return Completable.complete();
+            }
+            return Flowable.fromPublisher(documents.find(exists(FIELD_TOKEN)).batchSize(BATCH_SIZE))
+                    .buffer(BATCH_SIZE)
+                    .concatMapSingle(this::migrate)
+                    .reduce(0L, (total, migrated) -> total + migrated)
+                    .doOnSuccess(total -> LOGGER.info("{} tokens migrated in collection {}", total, documents.getNamespace().getCollectionName()))
+                    .toCompletable()
+                    .andThen(Flowable.fromIterable(sparseIndexes).concatMapCompletable(field ->
+                            dropIndex(field + "_1")
+                                    .andThen(Completable.fromPublisher(documents.createIndex(new Document(field, 1), new IndexOptions().sparse(true))))))
+                    // the legacy token index is dropped last so that an interrupted migration is resumed on next run
+                    .andThen(Flowable.fromIterable(obsoleteIndexes).concatMapCompletable(this::dropIndex))
+                    .andThen(dropIndex(LEGACY_TOKEN_INDEX))
+                    .doOnComplete(() -> present = false);
+        });
+    }
+
+    private Single<Long> migrate(List<Document> batch) {
+        List<Document> migrated = batch.stream().map(document -> {
+            Document token = new Document(document);
+            token.put(FIELD_ID, token.remove(FIELD_TOKEN));
+            return token;
+        }).collect(Collectors.toList());
+        List<Object> legacyIds = batch.stream().map(document -> document.get(FIELD_ID)).collect(Collectors.toList());
+
+        return Completable.fromPublisher(documents.insertMany(migrated, new InsertManyOptions().ordered(false)))
+                // already migrated by a previous (interrupted) run
+                .onErrorComplete(LegacyTokens::isDuplicateKeyOnly)
+                .andThen(Single.fromPublisher(documents.deleteMany(in(FIELD_ID, legacyIds))))
+                .map(deleteResult -> (long) batch.size());
+    }
+
+    private Completable dropIndex(String indexName) {
+        return Completable.fromPublisher(documents.dropIndex(indexName))
+                .onErrorComplete(ex -> isCommandError(ex, INDEX_NOT_FOUND) || isCommandError(ex, NAMESPACE_NOT_FOUND));
+    }
+
+    private Single<Boolean> isPresent() {
+        if (!present) {
+            return Single.just(false);
+        }
+        long now = System.currentTimeMillis();
+        if (now - lastCheck < CHECK_INTERVAL) {
+            return Single.just(true);
+        }
+        lastCheck = now;
+        return hasLegacyIndex().doOnSuccess(legacyIndex -> present = legacyIndex);
+    }
+
+    private Single<Boolean> hasLegacyIndex() {
+        return Observable.fromPublisher(documents.listIndexes())
+                .any(index -> LEGACY_TOKEN_INDEX.equals(index.getString("name")))
+                // the collection does not exist yet
+                .onErrorResumeNext(ex -> isCommandError(ex, NAMESPACE_NOT_FOUND) ? Single.just(false) : Single.error(ex));
+    }
+
+    private static boolean isCommandError(Throwable throwable, int errorCode) {
+        return throwable instanceof MongoCommandException && ((MongoCommandException) throwable).getErrorCode() == errorCode;
+    }
+
+    private static boolean isDuplicateKeyOnly(Throwable throwable) {
+        if (!(throwable instanceof MongoBulkWriteException)) {
+            return false;
+        }
+        for (BulkWriteError error : ((MongoBulkWriteException) throwable).getWriteErrors()) {
+            if (ErrorCategory.fromErrorCode(error.getCode()) != ErrorCategory.DUPLICATE_KEY) {
+                return false;
+            }
+        }
+        return true;
+    }
+}
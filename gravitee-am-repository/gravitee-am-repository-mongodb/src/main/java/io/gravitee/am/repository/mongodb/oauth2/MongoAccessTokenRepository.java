@@ -17,6 +17,7 @@ package io.gravitee.am.repository.mongodb.oauth2;
 
 import com.mongodb.client.model.IndexOptions;
 import com.mongodb.reactivestreams.client.MongoCollection;
+import io.gravitee.am.repository.mongodb.common.BulkInsertWriter;
 import io.gravitee.am.repository.mongodb.common.LoggableIndexSubscriber;
 import io.gravitee.am.repository.mongodb.oauth2.internal.model.AccessTokenMongo;
 import io.gravitee.am.repository.oauth2.api.AccessTokenRepository;
@@ -26,13 +27,20 @@ import io.reactivex.Maybe;
 import io.reactivex.Observable;
 import io.reactivex.Single;
 import org.bson.Document;
+import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Component;
 
 import javax.annotation.PostConstruct;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+import java.util.Set;
 import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
 
 import static com.mongodb.client.model.Filters.and;
 import static com.mongodb.client.model.Filters.eq;
+import static com.mongodb.client.model.Filters.in;
 
 /**
  * @author David BRASSELY (david.brassely at graviteesource.com)
@@ -42,55 +50,84 @@ import static com.mongodb.client.model.Filters.eq;
 public class MongoAccessTokenRepository extends AbstractOAuth2MongoRepository implements AccessTokenRepository {
 
     private MongoCollection<AccessTokenMongo> accessTokenCollection;
+    private BulkInsertWriter<AccessTokenMongo> accessTokenWriter;
+    private LegacyTokens<AccessTokenMongo> legacyTokens;
 
     private static final String FIELD_ID = "_id";
-    private static final String FIELD_TOKEN = "token";
     private static final String FIELD_RESET_TIME = "expire_at";
+    private static final String FIELD_DOMAIN = "domain";
     private static final String FIELD_CLIENT_ID = "client";
     private static final String FIELD_SUBJECT = "subject";
     private static final String FIELD_AUTHORIZATION_CODE = "authorization_code";
 
+    @Autowired
+    private BulkInsertWriterFactory bulkInsertWriterFactory;
+
     @PostConstruct
     public void init() {
         accessTokenCollection = mongoOperations.getCollection("access_tokens", AccessTokenMongo.class);
+        accessTokenWriter = bulkInsertWriterFactory.create(accessTokenCollection);
+        legacyTokens = new LegacyTokens<>(mongoOperations, "access_tokens", AccessTokenMongo.class);
 
-        // one field index
-        accessTokenCollection.createIndex(new Document(FIELD_TOKEN, 1)).subscribe(new LoggableIndexSubscriber());
-        accessTokenCollection.createIndex(new Document(FIELD_CLIENT_ID, 1)).subscribe(new LoggableIndexSubscriber());
-        accessTokenCollection.createIndex(new Document(FIELD_AUTHORIZATION_CODE, 1)).subscribe(new LoggableIndexSubscriber());
+        // one field index (the token value is the _id)
+        accessTokenCollection.createIndex(new Document(FIELD_DOMAIN, 1)).subscribe(new LoggableIndexSubscriber());
+        accessTokenCollection.createIndex(new Document(FIELD_AUTHORIZATION_CODE, 1), new IndexOptions().sparse(true)).subscribe(new LoggableIndexSubscriber());
 
-        // two fields index
+        // two fields index (also used for the queries by client)
         accessTokenCollection.createIndex(new Document(FIELD_CLIENT_ID, 1).append(FIELD_SUBJECT, 1)).subscribe(new LoggableIndexSubscriber());
 
         // expire after index
         accessTokenCollection.createIndex(new Document(FIELD_RESET_TIME, 1), new IndexOptions().expireAfter(0L, TimeUnit.SECONDS)).subscribe(new LoggableIndexSubscriber());
     }
 
-    private Maybe<AccessToken> findById(String id) {
+    @Override
+    public Maybe<AccessToken> findByToken(String token) {
         return Observable
-                .fromPublisher(accessTokenCollection.find(eq(FIELD_ID, id)).limit(1).first())
+                .fromPublisher(accessTokenCollection.find(eq(FIELD_ID, token)).limit(1).first())
                 .firstElement()
+                .switchIfEmpty(legacyTokens.find(token))
                 .map(this::convert);
     }
 
     @Override
-    public Maybe<AccessToken> findByToken(String token) {
+    public Observable<AccessToken> findByTokenIn(Collection<String> tokens) {
+        if (tokens.isEmpty()) {
+            return Observable.empty();
+        }
         return Observable
-                .fromPublisher(accessTokenCollection.find(eq(FIELD_TOKEN, token)).limit(1).first())
-                .firstElement()
+                .fromPublisher(accessTokenCollection.find(in(FIELD_ID, tokens)))
+                .toList()
+                .flatMapObservable(accessTokens -> {
+                    if (accessTokens.size() == tokens.size()) {
+                        return Observable.fromIterable(accessTokens);
+                    }
+                    // look up the remaining tokens in the previous format with a second query
+                    Set<String> found = accessTokens.stream().map(AccessTokenMongo::getId).collect(Collectors.toSet());
+                    List<String> remaining = tokens.stream().filter(token -> !found.contains(token)).collect(Collectors.toList());
+                    return Observable.fromIterable(accessTokens).concatWith(legacyTokens.findIn(remaining));
+                })
                 .map(this::convert);
     }
 
     @Override
     public Single<AccessToken> create(AccessToken accessToken) {
+        if (accessTokenWriter != null) {
+            return accessTokenWriter.insert(convert(accessToken)).map(this::convert);
+        }
+
+        AccessTokenMongo accessTokenMongo = convert(accessToken);
         return Single
-                .fromPublisher(accessTokenCollection.insertOne(convert(accessToken)))
-                .flatMap(success -> findById(accessToken.getId()).toSingle());
+                .fromPublisher(accessTokenCollection.insertOne(accessTokenMongo))
+                .map(success -> convert(accessTokenMongo));
     }
 
     @Override
     public Completable delete(String token) {
-        return Completable.fromPublisher(accessTokenCollection.findOneAndDelete(eq(FIELD_TOKEN, token)));
+        return Observable
+                .fromPublisher(accessTokenCollection.findOneAndDelete(eq(FIELD_ID, token)))
+                .firstElement()
+                .switchIfEmpty(legacyTokens.consume(token))
+                .ignoreElement();
     }
 
     @Override
@@ -119,14 +156,38 @@ public class MongoAccessTokenRepository extends AbstractOAuth2MongoRepository im
         return Single.fromPublisher(accessTokenCollection.count(eq(FIELD_CLIENT_ID, clientId)));
     }
 
+    @Override
+    public Completable deleteByAuthorizationCode(String authorizationCode) {
+        return Completable.fromPublisher(accessTokenCollection.deleteMany(eq(FIELD_AUTHORIZATION_CODE, authorizationCode)));
+    }
+
+    @Override
+    public Completable deleteByDomainAndClientIdAndSubject(String domain, String clientId, String subject) {
+        return Completable.fromPublisher(accessTokenCollection.deleteMany(and(eq(FIELD_DOMAIN, domain), eq(FIELD_CLIENT_ID, clientId), eq(FIELD_SUBJECT, subject))));
+    }
+
+    @Override
+    public Completable deleteByDomainAndClientId(String domain, String clientId) {
+        return Completable.fromPublisher(accessTokenCollection.deleteMany(and(eq(FIELD_DOMAIN, domain), eq(FIELD_CLIENT_ID, clientId))));
+    }
+
+    @Override
+    public Completable deleteByDomain(String domain) {
+        return Completable.fromPublisher(accessTokenCollection.deleteMany(eq(FIELD_DOMAIN, domain)));
+    }
+
+    @Override
+    public Completable migrate() {
+        return legacyTokens.migrate(Collections.singletonList("client_1"), Collections.singletonList(FIELD_AUTHORIZATION_CODE));
+    }
+
     private AccessTokenMongo convert(AccessToken accessToken) {
         if (accessToken == null) {
             return null;
         }
 
         AccessTokenMongo accessTokenMongo = new AccessTokenMongo();
-        accessTokenMongo.setId(accessToken.getId());
-        accessTokenMongo.setToken(accessToken.getToken());
+        accessTokenMongo.setId(accessToken.getToken());
         accessTokenMongo.setDomain(accessToken.getDomain());
         accessTokenMongo.setClient(accessToken.getClient());
         accessTokenMongo.setSubject(accessToken.getSubject());
@@ -134,6 +195,8 @@ public class MongoAccessTokenRepository extends AbstractOAuth2MongoRepository im
         accessTokenMongo.setRefreshToken(accessToken.getRefreshToken());
         accessTokenMongo.setCreatedAt(accessToken.getCreatedAt());
         accessTokenMongo.setExpireAt(accessToken.getExpireAt());
+        accessTokenMongo.setScopes(accessToken.getScopes());
+        accessTokenMongo.setClaims(accessToken.getClaims());
 
         return accessTokenMongo;
     }
@@ -145,7 +208,7 @@ public class MongoAccessTokenRepository extends AbstractOAuth2MongoRepository im
 
         AccessToken accessToken = new AccessToken();
         accessToken.setId(accessTokenMongo.getId());
-        accessToken.setToken(accessTokenMongo.getToken());
+        accessToken.setToken(accessTokenMongo.getToken() != null ? accessTokenMongo.getToken() : accessTokenMongo.getId());
         accessToken.setDomain(accessTokenMongo.getDomain());
         accessToken.setClient(accessTokenMongo.getClient());
         accessToken.setSubject(accessTokenMongo.getSubject());
@@ -153,6 +216,8 @@ public class MongoAccessTokenRepository extends AbstractOAuth2MongoRepository im
         accessToken.setRefreshToken(accessTokenMongo.getRefreshToken());
         accessToken.setCreatedAt(accessTokenMongo.getCreatedAt());
         accessToken.setExpireAt(accessTokenMongo.getExpireAt());
+        accessToken.setScopes(accessTokenMongo.getScopes());
+        accessToken.setClaims(accessTokenMongo.getClaims());
 
         return accessToken;
     }
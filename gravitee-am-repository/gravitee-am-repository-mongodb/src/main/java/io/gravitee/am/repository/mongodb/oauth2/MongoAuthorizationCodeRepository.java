@@ -59,22 +59,16 @@ public class MongoAuthorizationCodeRepository extends AbstractOAuth2MongoReposit
         authorizationCodeCollection.createIndex(new Document(FIELD_RESET_TIME, 1), new IndexOptions().expireAfter(0l, TimeUnit.SECONDS)).subscribe(new LoggableIndexSubscriber());
     }
 
-    private Maybe<AuthorizationCode> findById(String id) {
-        return Observable
-                .fromPublisher(authorizationCodeCollection.find(eq(FIELD_ID, id)).first())
-                .firstElement()
-                .map(this::convert);
-    }
-
     @Override
     public Single<AuthorizationCode> create(AuthorizationCode authorizationCode) {
         if (authorizationCode.getId() == null) {
             authorizationCode.setId((String) idGenerator.generate());
         }
 
+        AuthorizationCodeMongo authorizationCodeMongo = convert(authorizationCode);
         return Single
-                .fromPublisher(authorizationCodeCollection.insertOne(convert(authorizationCode)))
-                .flatMap(success -> findById(authorizationCode.getId()).toSingle());
+                .fromPublisher(authorizationCodeCollection.insertOne(authorizationCodeMongo))
+                .map(success -> convert(authorizationCodeMongo));
     }
 
     @Override
@@ -87,6 +81,11 @@ public class MongoAuthorizationCodeRepository extends AbstractOAuth2MongoReposit
         return Observable.fromPublisher(authorizationCodeCollection.find(eq(FIELD_CODE, code)).first()).firstElement().map(this::convert);
     }
 
+    @Override
+    public Maybe<AuthorizationCode> consume(String code) {
+        return Observable.fromPublisher(authorizationCodeCollection.findOneAndDelete(eq(FIELD_CODE, code))).firstElement().map(this::convert);
+    }
+
     private AuthorizationCode convert(AuthorizationCodeMongo authorizationCodeMongo) {
         if (authorizationCodeMongo == null) {
             return null;
@@ -17,7 +17,7 @@ package io.gravitee.am.repository.mongodb.oauth2;
 
 import com.mongodb.client.model.IndexOptions;
 import com.mongodb.reactivestreams.client.MongoCollection;
-import io.gravitee.am.repository.mongodb.common.IdGenerator;
+import io.gravitee.am.repository.mongodb.common.BulkInsertWriter;
 import io.gravitee.am.repository.mongodb.common.LoggableIndexSubscriber;
 import io.gravitee.am.repository.mongodb.oauth2.internal.model.RefreshTokenMongo;
 import io.gravitee.am.repository.oauth2.api.RefreshTokenRepository;
@@ -31,8 +31,10 @@ import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Component;
 
 import javax.annotation.PostConstruct;
+import java.util.Collections;
 import java.util.concurrent.TimeUnit;
 
+import static com.mongodb.client.model.Filters.and;
 import static com.mongodb.client.model.Filters.eq;
 
 /**
@@ -43,50 +45,88 @@ import static com.mongodb.client.model.Filters.eq;
 public class MongoRefreshTokenRepository extends AbstractOAuth2MongoRepository implements RefreshTokenRepository {
 
     private MongoCollection<RefreshTokenMongo> refreshTokenCollection;
-    private static final String FIELD_ID = "_id";
+    private BulkInsertWriter<RefreshTokenMongo> refreshTokenWriter;
+    private LegacyTokens<RefreshTokenMongo> legacyTokens;
     private static final String FIELD_RESET_TIME = "expire_at";
-    private static final String FIELD_TOKEN = "token";
+    private static final String FIELD_ID = "_id";
+    private static final String FIELD_DOMAIN = "domain";
+    private static final String FIELD_CLIENT_ID = "client";
+    private static final String FIELD_SUBJECT = "subject";
+    private static final String FIELD_AUTHORIZATION_CODE = "authorization_code";
 
     @Autowired
-    private IdGenerator idGenerator;
+    private BulkInsertWriterFactory bulkInsertWriterFactory;
 
     @PostConstruct
     public void init() {
         refreshTokenCollection = mongoOperations.getCollection("refresh_tokens", RefreshTokenMongo.class);
-        refreshTokenCollection.createIndex(new Document(FIELD_TOKEN, 1)).subscribe(new LoggableIndexSubscriber());
+        refreshTokenWriter = bulkInsertWriterFactory.create(refreshTokenCollection);
+        legacyTokens = new LegacyTokens<>(mongoOperations, "refresh_tokens", RefreshTokenMongo.class);
+        refreshTokenCollection.createIndex(new Document(FIELD_DOMAIN, 1)).subscribe(new LoggableIndexSubscriber());
+        refreshTokenCollection.createIndex(new Document(FIELD_AUTHORIZATION_CODE, 1), new IndexOptions().sparse(true)).subscribe(new LoggableIndexSubscriber());
+        refreshTokenCollection.createIndex(new Document(FIELD_CLIENT_ID, 1).append(FIELD_SUBJECT, 1)).subscribe(new LoggableIndexSubscriber());
         refreshTokenCollection.createIndex(new Document(FIELD_RESET_TIME, 1), new IndexOptions().expireAfter(0L, TimeUnit.SECONDS)).subscribe(new LoggableIndexSubscriber());
     }
 
-    private Maybe<RefreshToken> findById(String id) {
-        return Observable
-                .fromPublisher(refreshTokenCollection.find(eq(FIELD_ID, id)).first())
-                .firstElement()
-                .map(this::convert);
-    }
-
 
     @Override
     public Maybe<RefreshToken> findByToken(String token) {
         return Observable
-                .fromPublisher(refreshTokenCollection.find(eq(FIELD_TOKEN, token)).first())
+                .fromPublisher(refreshTokenCollection.find(eq(FIELD_ID, token)).first())
                 .firstElement()
+                .switchIfEmpty(legacyTokens.find(token))
                 .map(this::convert);
     }
 
     @Override
     public Single<RefreshToken> create(RefreshToken refreshToken) {
-        if (refreshToken.getId() == null) {
-            refreshToken.setId((String) idGenerator.generate());
+        if (refreshTokenWriter != null) {
+            return refreshTokenWriter.insert(convert(refreshToken)).map(this::convert);
         }
 
+        RefreshTokenMongo refreshTokenMongo = convert(refreshToken);
         return Single
-                .fromPublisher(refreshTokenCollection.insertOne(convert(refreshToken)))
-                .flatMap(success -> findById(refreshToken.getId()).toSingle());
+                .fromPublisher(refreshTokenCollection.insertOne(refreshTokenMongo))
+                .map(success -> convert(refreshTokenMongo));
     }
 
     @Override
     public Completable delete(String token) {
-        return Completable.fromPublisher(refreshTokenCollection.deleteOne(eq(FIELD_TOKEN, token)));
+        return consume(token).ignoreElement();
+    }
+
+    @Override
+    public Maybe<RefreshToken> consume(String token) {
+        return Observable
+                .fromPublisher(refreshTokenCollection.findOneAndDelete(eq(FIELD_ID, token)))
+                .firstElement()
+                .switchIfEmpty(legacyTokens.consume(token))
+                .map(this::convert);
+    }
+
+    @Override
+    public Completable deleteByAuthorizationCode(String authorizationCode) {
+        return Completable.fromPublisher(refreshTokenCollection.deleteMany(eq(FIELD_AUTHORIZATION_CODE, authorizationCode)));
+    }
+
+    @Override
+    public Completable deleteByDomainAndClientIdAndSubject(String domain, String clientId, String subject) {
+        return Completable.fromPublisher(refreshTokenCollection.deleteMany(and(eq(FIELD_DOMAIN, domain), eq(FIELD_CLIENT_ID, clientId), eq(FIELD_SUBJECT, subject))));
+    }
+
+    @Override
+    public Completable deleteByDomainAndClientId(String domain, String clientId) {
+        return Completable.fromPublisher(refreshTokenCollection.deleteMany(and(eq(FIELD_DOMAIN, domain), eq(FIELD_CLIENT_ID, clientId))));
+    }
+
+    @Override
+    public Completable deleteByDomain(String domain) {
+        return Completable.fromPublisher(refreshTokenCollection.deleteMany(eq(FIELD_DOMAIN, domain)));
+    }
+
+    @Override
+    public Completable migrate() {
+        return legacyTokens.migrate(Collections.emptyList(), Collections.singletonList(FIELD_AUTHORIZATION_CODE));
     }
 
     private RefreshTokenMongo convert(RefreshToken refreshToken) {
@@ -95,13 +135,13 @@ public class MongoRefreshTokenRepository extends AbstractOAuth2MongoRepository i
         }
 
         RefreshTokenMongo refreshTokenMongo = new RefreshTokenMongo();
-        refreshTokenMongo.setId(refreshToken.getId());
-        refreshTokenMongo.setToken(refreshToken.getToken());
+        refreshTokenMongo.setId(refreshToken.getToken());
         refreshTokenMongo.setDomain(refreshToken.getDomain());
         refreshTokenMongo.setClient(refreshToken.getClient());
         refreshTokenMongo.setSubject(refreshToken.getSubject());
         refreshTokenMongo.setCreatedAt(refreshToken.getCreatedAt());
         refreshTokenMongo.setExpireAt(refreshToken.getExpireAt());
+        refreshTokenMongo.setAuthorizationCode(refreshToken.getAuthorizationCode());
 
         return refreshTokenMongo;
     }
@@ -113,12 +153,13 @@ public class MongoRefreshTokenRepository extends AbstractOAuth2MongoRepository i
 
         RefreshToken refreshToken = new RefreshToken();
         refreshToken.setId(refreshTokenMongo.getId());
-        refreshToken.setToken(refreshTokenMongo.getToken());
+        refreshToken.setToken(refreshTokenMongo.getToken() != null ? refreshTokenMongo.getToken() : refreshTokenMongo.getId());
         refreshToken.setDomain(refreshTokenMongo.getDomain());
         refreshToken.setClient(refreshTokenMongo.getClient());
         refreshToken.setSubject(refreshTokenMongo.getSubject());
         refreshToken.setCreatedAt(refreshTokenMongo.getCreatedAt());
         refreshToken.setExpireAt(refreshTokenMongo.getExpireAt());
+        refreshToken.setAuthorizationCode(refreshTokenMongo.getAuthorizationCode());
 
         return refreshToken;
     }
@@ -0,0 +1,105 @@
+/**
+ * Copyright (C) 2015 The Gravitee team (http://gravitee.io)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.gravitee.am.repository.mongodb.oauth2;
+
+import com.mongodb.client.model.IndexOptions;
+import com.mongodb.reactivestreams.client.MongoCollection;
+import io.gravitee.am.repository.mongodb.common.LoggableIndexSubscriber;
+import io.gravitee.am.repository.mongodb.oauth2.internal.model.RevokedTokenMongo;
+import io.gravitee.am.repository.oauth2.api.RevokedTokenRepository;
+import io.gravitee.am.repository.oauth2.model.RevokedToken;
+import io.reactivex.Observable;
+import io.reactivex.Single;
+import org.bson.Document;
+import org.springframework.stereotype.Component;
+
+import javax.annotation.PostConstruct;
+import java.util.Date;
+import java.util.concurrent.TimeUnit;
+
+import static com.mongodb.client.model.Filters.and;
+import static com.mongodb.client.model.Filters.eq;
+import static com.mongodb.client.model.Filters.gte;
+
+/**
+ * @author GraviteeSource Team
+ */
+@Component
+public class MongoRevokedTokenRepository extends AbstractOAuth2MongoRepository implements RevokedTokenRepository {
+
+    private MongoCollection<RevokedTokenMongo> revokedTokenCollection;
+
+    private static final String FIELD_DOMAIN = "domain";
+    private static final String FIELD_CREATED_AT = "created_at";
+    private static final String FIELD_RESET_TIME = "expire_at";
+
+    @PostConstruct
+    public void init() {
+        revokedTokenCollection = mongoOperations.getCollection("revoked_tokens", RevokedTokenMongo.class);
+
+        // two fields index
+        revokedTokenCollection.createIndex(new Document(FIELD_DOMAIN, 1).append(FIELD_CREATED_AT, 1)).subscribe(new LoggableIndexSubscriber());
+
+        // expire after index
+        revokedTokenCollection.createIndex(new Document(FIELD_RESET_TIME, 1), new IndexOptions().expireAfter(0L, TimeUnit.SECONDS)).subscribe(new LoggableIndexSubscriber());
+    }
+
+    @Override
+    public Single<RevokedToken> create(RevokedToken revokedToken) {
+        return Single
+                .fromPublisher(revokedTokenCollection.insertOne(convert(revokedToken)))
+                .map(success -> revokedToken);
+    }
+
+    @Override
+    public Observable<RevokedToken> findByDomainAndCreatedAtAfter(String domain, Date since) {
+        return Observable
+                .fromPublisher(revokedTokenCollection.find(and(eq(FIELD_DOMAIN, domain), gte(FIELD_CREATED_AT, since))))
+                .map(this::convert);
+    }
+
+    private RevokedTokenMongo convert(RevokedToken revokedToken) {
+        if (revokedToken == null) {
+            return null;
+        }
+
+        RevokedTokenMongo revokedTokenMongo = new RevokedTokenMongo();
+        revokedTokenMongo.setId(revokedToken.getId());
+        revokedTokenMongo.setToken(revokedToken.getToken());
+        revokedTokenMongo.setDomain(revokedToken.getDomain());
+        revokedTokenMongo.setClient(revokedToken.getClient());
+        revokedTokenMongo.setCreatedAt(revokedToken.getCreatedAt());
+        revokedTokenMongo.setExpireAt(revokedToken.getExpireAt());
+
+        return revokedTokenMongo;
+    }
+
+    private RevokedToken convert(RevokedTokenMongo revokedTokenMongo) {
+        if (revokedTokenMongo == null) {
+            return null;
+        }
+
+        RevokedToken revokedToken = new RevokedToken();
+        revokedToken.setId(revokedTokenMongo.getId());
+        revokedToken.setToken(revokedTokenMongo.getToken());
+        revokedToken.setDomain(revokedTokenMongo.getDomain());
+        revokedToken.setClient(revokedTokenMongo.getClient());
+        revokedToken.setCreatedAt(revokedTokenMongo.getCreatedAt());
+        revokedToken.setExpireAt(revokedTokenMongo.getExpireAt());
+
+        return revokedToken;
+    }
+}
@@ -19,6 +19,7 @@ import org.bson.codecs.pojo.annotations.BsonId;
 import org.bson.codecs.pojo.annotations.BsonProperty;
 
 import java.util.Date;
+import java.util.Set;
 
 /**
  * @author David BRASSELY (david.brassely at graviteesource.com)
@@ -26,9 +27,15 @@ import java.util.Date;
  */
 public class AccessTokenMongo {
 
+    /**
+     * The token value.
+     */
     @BsonId
     private String id;
 
+    /**
+     * The token value of a token stored before the value became the <code>_id</code>, <code>null</code> otherwise.
+     */
     private String token;
 
     @BsonProperty("created_at")
@@ -50,6 +57,10 @@ public class AccessTokenMongo {
     @BsonProperty("refresh_token")
     private String refreshToken;
 
+    private Set<String> scopes;
+
+    private String claims;
+
     public String getId() {
         return id;
     }
@@ -136,4 +147,20 @@ public class AccessTokenMongo {
     public int hashCode() {
         return id.hashCode();
     }
+
+    public Set<String> getScopes() {
+        return scopes;
+    }
+
+    public void setScopes(Set<String> scopes) {
+        this.scopes = scopes;
+    }
+
+    public String getClaims() {
+        return claims;
+    }
+
+    public void setClaims(String claims) {
+        this.claims = claims;
+    }
 }
@@ -26,9 +26,15 @@ import java.util.Date;
  */
 public class RefreshTokenMongo {
 
+    /**
+     * The token value.
+     */
     @BsonId
     private String id;
 
+    /**
+     * The token value of a token stored before the value became the <code>_id</code>, <code>null</code> otherwise.
+     */
     private String token;
 
     private String domain;
@@ -44,6 +50,9 @@ public class RefreshTokenMongo {
     @BsonProperty("expire_at")
     private Date expireAt;
 
+    @BsonProperty("authorization_code")
+    private String authorizationCode;
+
     public String getId() {
         return id;
     }
@@ -99,4 +108,12 @@ public class RefreshTokenMongo {
     public void setExpireAt(Date expireAt) {
         this.expireAt = expireAt;
     }
+
+    public String getAuthorizationCode() {
+        return authorizationCode;
+    }
+
+    public void setAuthorizationCode(String authorizationCode) {
+        this.authorizationCode = authorizationCode;
+    }
 }
@@ -0,0 +1,57 @@
+/**
+ * Copyright (C) 2015 The Gravitee team (http://gravitee.io)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.gravitee.am.repository.mongodb;
+
+import com.mongodb.event.CommandFailedEvent;
+import com.mongodb.event.CommandListener;
+import com.mongodb.event.CommandStartedEvent;
+import com.mongodb.event.CommandSucceededEvent;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Count the commands sent to the server, by command name (insert, find, findAndModify, ...)
+ *
+ * @author GraviteeSource Team
+ */
+public class CommandCounter implements CommandListener {
+
+    private final Map<String, AtomicInteger> commands = new ConcurrentHashMap<>();
+
+    @Override
+    public void commandStarted(CommandStartedEvent event) {
+        commands.computeIfAbsent(event.getCommandName(), key -> new AtomicInteger()).incrementAndGet();
+    }
+
+    @Override
+    public void commandSucceeded(CommandSucceededEvent event) {
+    }
+
+    @Override
+    public void commandFailed(CommandFailedEvent event) {
+    }
+
+    public int count(String commandName) {
+        AtomicInteger counter = commands.get(commandName);
+        return counter == null ? 0 : counter.get();
+    }
+
+    public void reset() {
+        commands.clear();
+    }
+}
@@ -50,6 +50,7 @@ public class EmbeddedClient implements InitializingBean, DisposableBean {
     private String databaseName;
     private MongoClient mongoClient;
     private MongoDatabase mongoDatabase;
+    private final CommandCounter commandCounter = new CommandCounter();
 
     public EmbeddedClient(String databaseName) {
         this.databaseName = databaseName;
@@ -71,7 +72,7 @@ public class EmbeddedClient implements InitializingBean, DisposableBean {
         CodecRegistry pojoCodecRegistry = fromRegistries(MongoClients.getDefaultCodecRegistry(),
                 fromProviders(PojoCodecProvider.builder().automatic(true).build()));
 
-        MongoClientSettings settings = MongoClientSettings.builder().clusterSettings(clusterSettings).codecRegistry(pojoCodecRegistry).writeConcern(WriteConcern.ACKNOWLEDGED).build();
+        MongoClientSettings settings = MongoClientSettings.builder().clusterSettings(clusterSettings).codecRegistry(pojoCodecRegistry).writeConcern(WriteConcern.ACKNOWLEDGED).addCommandListener(commandCounter).build();
         mongoClient = MongoClients.create(settings);
         mongoDatabase = mongoClient.getDatabase(databaseName);
     }
@@ -93,4 +94,8 @@ public class EmbeddedClient implements InitializingBean, DisposableBean {
     public MongoDatabase mongoDatabase() {
         return mongoDatabase;
     }
+
+    public CommandCounter commandCounter() {
+        return commandCounter;
+    }
 }
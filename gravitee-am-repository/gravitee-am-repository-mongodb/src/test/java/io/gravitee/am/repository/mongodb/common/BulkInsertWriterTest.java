@@ -0,0 +1,135 @@
+/**
+ * Copyright (C) 2015 The Gravitee team (http://gravitee.io)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.gravitee.am.repository.mongodb.common;
+
+import com.mongodb.MongoBulkWriteException;
+import com.mongodb.MongoNamespace;
+import com.mongodb.ServerAddress;
+import com.mongodb.bulk.BulkWriteError;
+import com.mongodb.bulk.BulkWriteResult;
+import com.mongodb.client.model.InsertManyOptions;
+import com.mongodb.reactivestreams.client.MongoCollection;
+import com.mongodb.reactivestreams.client.Success;
+import io.gravitee.am.repository.exceptions.TechnicalException;
+import io.reactivex.Flowable;
+import io.reactivex.observers.TestObserver;
+import org.bson.BsonDocument;
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.runners.MockitoJUnitRunner;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+import static org.mockito.Matchers.any;
+import static org.mockito.Matchers.anyList;
+import static org.mockito.Mockito.*;
+
+/**
+ * @author GraviteeSource Team
+ */
+@RunWith(MockitoJUnitRunner.class)
+public class BulkInsertWriterTest {
+
+    @Mock
+    private MongoCollection<String> collection;
+
+    private ScheduledExecutorService scheduler;
+
+    @Before
+    public void init() {
+        scheduler = Executors.newSingleThreadScheduledExecutor();
+        when(collection.getNamespace()).thenReturn(new MongoNamespace("test.tokens"));
+    }
+
+    @After
+    public void shutdown() {
+        scheduler.shutdownNow();
+    }
+
+    @Test
+    public void shouldFlush_fullBatch() {
+        when(collection.insertMany(anyList(), any(InsertManyOptions.class))).thenReturn(Flowable.just(Success.SUCCESS));
+        BulkInsertWriter<String> writer = new BulkInsertWriter<>(collection, scheduler, 3, 60000, 100, 1);
+
+        TestObserver<String> observer1 = writer.insert("doc1").test();
+        TestObserver<String> observer2 = writer.insert("doc2").test();
+        TestObserver<String> observer3 = writer.insert("doc3").test();
+
+        observer1.awaitTerminalEvent(1, TimeUnit.SECONDS);
+        observer1.assertValue("doc1");
+        observer2.assertValue("doc2");
+        observer3.assertValue("doc3");
+
+        ArgumentCaptor<List> documentsCaptor = ArgumentCaptor.forClass(List.class);
+        verify(collection, times(1)).insertMany(documentsCaptor.capture(), any(InsertManyOptions.class));
+        Assert.assertEquals(Arrays.asList("doc1", "doc2", "doc3"), documentsCaptor.getValue());
+        Assert.assertEquals(0, writer.pending());
+    }
+
+    @Test
+    public void shouldFlush_afterDelay() {
+        when(collection.insertMany(anyList(), any(InsertManyOptions.class))).thenReturn(Flowable.just(Success.SUCCESS));
+        BulkInsertWriter<String> writer = new BulkInsertWriter<>(collection, scheduler, 100, 5, 100, 1);
+
+        TestObserver<String> observer = writer.insert("doc1").test();
+
+        observer.awaitTerminalEvent(1, TimeUnit.SECONDS);
+        observer.assertValue("doc1");
+        verify(collection, times(1)).insertMany(eq(Collections.singletonList("doc1")), any(InsertManyOptions.class));
+    }
+
+    @Test
+    public void shouldFailOnlyRejectedDocument() {
+        MongoBulkWriteException bulkWriteException = new MongoBulkWriteException(BulkWriteResult.unacknowledged(),
+                Collections.singletonList(new BulkWriteError(11000, "duplicate key", new BsonDocument(), 1)),
+                null, new ServerAddress());
+        when(collection.insertMany(anyList(), any(InsertManyOptions.class))).thenReturn(Flowable.error(bulkWriteException));
+        BulkInsertWriter<String> writer = new BulkInsertWriter<>(collection, scheduler, 2, 60000, 100, 1);
+
+        TestObserver<String> observer1 = writer.insert("doc1").test();
+        TestObserver<String> observer2 = writer.insert("doc2").test();
+
+        observer2.awaitTerminalEvent(1, TimeUnit.SECONDS);
+        observer1.assertValue("doc1");
+        observer2.assertError(TechnicalException.class);
+    }
+
+    @Test
+    public void shouldReject_tooManyPendingInserts() {
+        when(collection.insertMany(anyList(), any(InsertManyOptions.class))).thenReturn(Flowable.never());
+        BulkInsertWriter<String> writer = new BulkInsertWriter<>(collection, scheduler, 1, 60000, 2, 1);
+
+        TestObserver<String> observer1 = writer.insert("doc1").test();
+        TestObserver<String> observer2 = writer.insert("doc2").test();
+        TestObserver<String> observer3 = writer.insert("doc3").test();
+
+        observer1.assertNotTerminated();
+        observer2.assertNotTerminated();
+        observer3.assertError(TechnicalException.class);
+        // the second batch waits for the first one to complete
+        verify(collection, times(1)).insertMany(anyList(), any(InsertManyOptions.class));
+    }
+}
@@ -16,6 +16,7 @@
 package io.gravitee.am.repository.mongodb.management;
 
 import com.mongodb.reactivestreams.client.MongoDatabase;
+import io.gravitee.am.repository.mongodb.CommandCounter;
 import io.gravitee.am.repository.mongodb.EmbeddedClient;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.ComponentScan;
@@ -39,4 +40,9 @@ public class ManagementRepositoryTestConfiguration {
         return embeddedClient().mongoDatabase();
     }
 
+    @Bean
+    public CommandCounter commandCounter() {
+        return embeddedClient().commandCounter();
+    }
+
 }
@@ -19,13 +19,17 @@ import io.gravitee.am.model.Client;
 import io.gravitee.am.model.common.Page;
 import io.gravitee.am.repository.exceptions.TechnicalException;
 import io.gravitee.am.repository.management.api.ClientRepository;
+import io.gravitee.am.repository.mongodb.CommandCounter;
 import io.reactivex.observers.TestObserver;
 import org.junit.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 
 import java.util.Collections;
+import java.util.NoSuchElementException;
 import java.util.Set;
 
+import static org.junit.Assert.assertEquals;
+
 /**
  * @author Titouan COMPIEGNE (titouan.compiegne at graviteesource.com)
  * @author GraviteeSource Team
@@ -35,6 +39,9 @@ public class MongoClientRepositoryTest extends AbstractManagementRepositoryTest
     @Autowired
     private ClientRepository clientRepository;
 
+    @Autowired
+    private CommandCounter commandCounter;
+
     @Override
     public String collectionName() {
         return "clients";
@@ -134,6 +141,49 @@ public class MongoClientRepositoryTest extends AbstractManagementRepositoryTest
         testObserver.assertValue(c -> c.getClientId().equals(updatedClient.getClientId()));
     }
 
+    @Test
+    public void testCreate_singleCommand() throws TechnicalException {
+        Client client = new Client();
+        client.setClientId("testClientId");
+
+        commandCounter.reset();
+        Client clientCreated = clientRepository.create(client).blockingGet();
+
+        assertEquals("testClientId", clientCreated.getClientId());
+        assertEquals(1, commandCounter.count("insert"));
+        assertEquals(0, commandCounter.count("find"));
+    }
+
+    @Test
+    public void testUpdate_singleCommand() throws TechnicalException {
+        Client client = new Client();
+        client.setClientId("testClientId");
+        Client clientCreated = clientRepository.create(client).blockingGet();
+
+        Client updatedClient = new Client();
+        updatedClient.setId(clientCreated.getId());
+        updatedClient.setClientId("testUpdatedClientId");
+
+        commandCounter.reset();
+        Client clientUpdated = clientRepository.update(updatedClient).blockingGet();
+
+        assertEquals("testUpdatedClientId", clientUpdated.getClientId());
+        assertEquals(1, commandCounter.count("findAndModify"));
+        assertEquals(0, commandCounter.count("find"));
+    }
+
+    @Test
+    public void testUpdate_notFound() throws TechnicalException {
+        Client updatedClient = new Client();
+        updatedClient.setId("unknown");
+        updatedClient.setClientId("testUpdatedClientId");
+
+        TestObserver<Client> testObserver = clientRepository.update(updatedClient).test();
+        testObserver.awaitTerminalEvent();
+
+        testObserver.assertError(NoSuchElementException.class);
+    }
+
     @Test
     public void testDelete() throws TechnicalException {
         // create client
@@ -32,7 +32,7 @@ import org.springframework.test.context.support.AnnotationConfigContextLoader;
 public abstract class AbstractOAuth2RepositoryTest extends TestCase {
 
     @Autowired
-    private MongoDatabase mongoDatabase;
+    protected MongoDatabase mongoDatabase;
 
     @Before
     public void before() throws InterruptedException {
@@ -15,14 +15,23 @@
  */
 package io.gravitee.am.repository.mongodb.oauth2;
 
+import io.gravitee.am.repository.mongodb.CommandCounter;
+import io.gravitee.am.repository.mongodb.oauth2.internal.model.AccessTokenMongo;
 import io.gravitee.am.repository.oauth2.api.AccessTokenRepository;
 import io.gravitee.am.repository.oauth2.model.AccessToken;
+import io.reactivex.Completable;
+import io.reactivex.Observable;
 import io.reactivex.observers.TestObserver;
+import org.bson.Document;
 import org.junit.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 
+import java.util.Arrays;
 import java.util.UUID;
 
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+
 /**
  * @author David BRASSELY (david.brassely at graviteesource.com)
  * @author GraviteeSource Team
@@ -32,6 +41,9 @@ public class MongoAccessTokenRepositoryTest extends AbstractOAuth2RepositoryTest
     @Autowired
     private AccessTokenRepository accessTokenRepository;
 
+    @Autowired
+    private CommandCounter commandCounter;
+
     @Override
     public String collectionName() {
         return "access_tokens";
@@ -67,6 +79,43 @@ public class MongoAccessTokenRepositoryTest extends AbstractOAuth2RepositoryTest
         observer.assertNoErrors();
     }
 
+    @Test
+    public void shouldFindTokenIn() {
+        AccessToken token = new AccessToken();
+        token.setId(UUID.randomUUID().toString());
+        token.setToken("my-token");
+        AccessToken token2 = new AccessToken();
+        token2.setId(UUID.randomUUID().toString());
+        token2.setToken("my-token2");
+
+        TestObserver<AccessToken> observer = accessTokenRepository
+                .create(token)
+                .flatMap(created -> accessTokenRepository.create(token2))
+                .toCompletable()
+                .andThen(accessTokenRepository.findByTokenIn(Arrays.asList("my-token", "my-token2", "unknown-token")))
+                .test();
+
+        observer.awaitTerminalEvent();
+
+        observer.assertComplete();
+        observer.assertValueCount(2);
+        observer.assertNoErrors();
+    }
+
+    @Test
+    public void shouldCreateWithSingleCommand() {
+        AccessToken token = new AccessToken();
+        token.setId(UUID.randomUUID().toString());
+        token.setToken("my-token");
+
+        commandCounter.reset();
+        AccessToken createdToken = accessTokenRepository.create(token).blockingGet();
+
+        assertEquals("my-token", createdToken.getToken());
+        assertEquals(1, commandCounter.count("insert"));
+        assertEquals(0, commandCounter.count("find"));
+    }
+
     @Test
     public void shouldFindByClientIdAndSubject() {
         AccessToken token = new AccessToken();
@@ -123,4 +172,127 @@ public class MongoAccessTokenRepositoryTest extends AbstractOAuth2RepositoryTest
         observer.assertNoErrors();
         observer.assertValue(new Long(1));
     }
+
+    @Test
+    public void shouldDeleteByClientIdAndSubject() {
+        AccessToken token = new AccessToken();
+        token.setId(UUID.randomUUID().toString());
+        token.setToken("my-token");
+        token.setDomain("my-domain");
+        token.setClient("my-client-id-delete");
+        token.setSubject("my-subject");
+
+        AccessToken token2 = new AccessToken();
+        token2.setId(UUID.randomUUID().toString());
+        token2.setToken("my-token-2");
+        token2.setDomain("my-domain");
+        token2.setClient("my-client-id-delete");
+        token2.setSubject("my-subject");
+
+        AccessToken token3 = new AccessToken();
+        token3.setId(UUID.randomUUID().toString());
+        token3.setToken("my-token-3");
+        token3.setDomain("my-domain");
+        token3.setClient("my-client-id-delete");
+        token3.setSubject("my-other-subject");
+
+        accessTokenRepository.create(token).blockingGet();
+        accessTokenRepository.create(token2).blockingGet();
+        accessTokenRepository.create(token3).blockingGet();
+
+        commandCounter.reset();
+        accessTokenRepository.deleteByDomainAndClientIdAndSubject("my-domain", "my-client-id-delete", "my-subject").blockingAwait();
+        assertEquals(1, commandCounter.count("delete"));
+
+        TestObserver<Long> observer = accessTokenRepository.countByClientId("my-client-id-delete").test();
+        observer.awaitTerminalEvent();
+        observer.assertComplete();
+        observer.assertNoErrors();
+        observer.assertValue(new Long(1));
+    }
+
+    @Test
+    public void shouldDeleteByDomainAndClientId_sameClientIdInOtherDomain() {
+        AccessToken token = new AccessToken();
+        token.setId(UUID.randomUUID().toString());
+        token.setToken("my-token");
+        token.setDomain("my-domain");
+        token.setClient("my-shared-client-id");
+
+        AccessToken token2 = new AccessToken();
+        token2.setId(UUID.randomUUID().toString());
+        token2.setToken("my-token-2");
+        token2.setDomain("my-other-domain");
+        token2.setClient("my-shared-client-id");
+
+        accessTokenRepository.create(token).blockingGet();
+        accessTokenRepository.create(token2).blockingGet();
+
+        accessTokenRepository.deleteByDomainAndClientId("my-domain", "my-shared-client-id").blockingAwait();
+
+        TestObserver<AccessToken> observer = accessTokenRepository.findByClientId("my-shared-client-id").test();
+        observer.awaitTerminalEvent();
+        observer.assertComplete();
+        observer.assertNoErrors();
+        observer.assertValueCount(1);
+        observer.assertValue(accessToken -> "my-other-domain".equals(accessToken.getDomain()));
+    }
+
+    @Test
+    public void shouldDeleteByAuthorizationCode() {
+        AccessToken token = new AccessToken();
+        token.setId(UUID.randomUUID().toString());
+        token.setToken("my-token");
+        token.setAuthorizationCode("my-code");
+
+        TestObserver<AccessToken> observer = accessTokenRepository.create(token)
+                .toCompletable()
+                .andThen(accessTokenRepository.deleteByAuthorizationCode("my-code"))
+                .andThen(accessTokenRepository.findByAuthorizationCode("my-code"))
+                .test();
+
+        observer.awaitTerminalEvent();
+        observer.assertComplete();
+        observer.assertNoErrors();
+        observer.assertNoValues();
+    }
+
+    @Test
+    public void shouldStoreTokenValueAsId() {
+        AccessToken token = new AccessToken();
+        token.setToken("my-token");
+
+        accessTokenRepository.create(token).blockingGet();
+
+        Document document = Observable.fromPublisher(mongoDatabase.getCollection(collectionName()).find().first()).blockingFirst();
+        assertEquals("my-token", document.getString("_id"));
+        assertFalse(document.containsKey("token"));
+    }
+
+    @Test
+    public void shouldFindAndMigrateLegacyToken() {
+        Completable.fromPublisher(mongoDatabase.getCollection(collectionName()).createIndex(new Document("token", 1))).blockingAwait();
+        Completable.fromPublisher(mongoDatabase.getCollection(collectionName())
+                .insertOne(new Document("_id", UUID.randomUUID().toString()).append("token", "my-legacy-token").append("client", "my-client-id")))
+                .blockingAwait();
+
+        // the repository may already have seen the collection without the legacy index
+        TestObserver<AccessTokenMongo> legacyObserver = new LegacyTokens<>(mongoDatabase, collectionName(), AccessTokenMongo.class)
+                .find("my-legacy-token").test();
+        legacyObserver.awaitTerminalEvent();
+        legacyObserver.assertValue(accessToken -> "my-legacy-token".equals(accessToken.getToken()));
+
+        accessTokenRepository.migrate().blockingAwait();
+
+        Document document = Observable.fromPublisher(mongoDatabase.getCollection(collectionName()).find().first()).blockingFirst();
+        assertEquals("my-legacy-token", document.getString("_id"));
+        assertEquals("my-client-id", document.getString("client"));
+        assertFalse(document.containsKey("token"));
+        assertFalse(Observable.fromPublisher(mongoDatabase.getCollection(collectionName()).listIndexes())
+                .any(index -> "token_1".equals(index.getString("name"))).blockingGet());
+
+        TestObserver<AccessToken> observer = accessTokenRepository.findByToken("my-legacy-token").test();
+        observer.awaitTerminalEvent();
+        observer.assertValue(accessToken -> "my-client-id".equals(accessToken.getClient()));
+    }
 }
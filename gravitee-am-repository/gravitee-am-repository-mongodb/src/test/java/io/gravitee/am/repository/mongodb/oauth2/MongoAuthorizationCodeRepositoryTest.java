@@ -21,6 +21,8 @@ import io.reactivex.observers.TestObserver;
 import org.junit.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 
+import java.util.concurrent.TimeUnit;
+
 /**
  * @author Titouan COMPIEGNE (titouan.compiegne at graviteesource.com)
  * @author GraviteeSource Team
@@ -71,4 +73,19 @@ public class MongoAuthorizationCodeRepositoryTest extends AbstractOAuth2Reposito
                 .test().assertEmpty();
     }
 
+    @Test
+    public void shouldConsumeCodeOnce() {
+        String code = "consumedCode";
+        AuthorizationCode authorizationCode = new AuthorizationCode();
+        authorizationCode.setCode(code);
+
+        authorizationCodeRepository.create(authorizationCode).blockingGet();
+
+        TestObserver<AuthorizationCode> testObserver = authorizationCodeRepository.consume(code).test();
+        testObserver.awaitTerminalEvent();
+        testObserver.assertValue(authorizationCode1 -> authorizationCode1.getCode().equals(code));
+
+        authorizationCodeRepository.consume(code).test().awaitDone(5, TimeUnit.SECONDS).assertNoValues();
+        authorizationCodeRepository.findByCode(code).test().awaitDone(5, TimeUnit.SECONDS).assertNoValues();
+    }
 }
@@ -21,6 +21,7 @@ import org.junit.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 
 import java.util.UUID;
+import java.util.concurrent.TimeUnit;
 
 /**
  * @author Titouan COMPIEGNE (titouan.compiegne at graviteesource.com)
@@ -80,4 +81,78 @@ public class MongoRefreshTokenRepositoryTest extends AbstractOAuth2RepositoryTes
                 .andThen(refreshTokenRepository.findByToken("my-token"))
                 .test().assertEmpty();
     }
+
+    @Test
+    public void shouldDeleteByAuthorizationCode() {
+        RefreshToken token = new RefreshToken();
+        token.setId(UUID.randomUUID().toString());
+        token.setToken("my-token");
+        token.setAuthorizationCode("my-code");
+
+        refreshTokenRepository
+                .create(token)
+                .toCompletable()
+                .andThen(refreshTokenRepository.deleteByAuthorizationCode("my-code"))
+                .andThen(refreshTokenRepository.findByToken("my-token"))
+                .test().assertEmpty();
+    }
+
+    @Test
+    public void shouldDeleteByDomain() {
+        RefreshToken token = new RefreshToken();
+        token.setId(UUID.randomUUID().toString());
+        token.setToken("my-token");
+        token.setDomain("my-domain");
+
+        refreshTokenRepository
+                .create(token)
+                .toCompletable()
+                .andThen(refreshTokenRepository.deleteByDomain("my-domain"))
+                .andThen(refreshTokenRepository.findByToken("my-token"))
+                .test().assertEmpty();
+    }
+
+    @Test
+    public void shouldDeleteByDomainAndClientId_sameClientIdInOtherDomain() {
+        RefreshToken token = new RefreshToken();
+        token.setId(UUID.randomUUID().toString());
+        token.setToken("my-token");
+        token.setDomain("my-domain");
+        token.setClient("my-shared-client-id");
+
+        RefreshToken token2 = new RefreshToken();
+        token2.setId(UUID.randomUUID().toString());
+        token2.setToken("my-token-2");
+        token2.setDomain("my-other-domain");
+        token2.setClient("my-shared-client-id");
+
+        refreshTokenRepository
+                .create(token)
+                .toCompletable()
+                .andThen(refreshTokenRepository.create(token2))
+                .toCompletable()
+                .andThen(refreshTokenRepository.deleteByDomainAndClientId("my-domain", "my-shared-client-id"))
+                .andThen(refreshTokenRepository.findByToken("my-token"))
+                .test().assertEmpty();
+
+        TestObserver<RefreshToken> observer = refreshTokenRepository.findByToken("my-token-2").test();
+        observer.awaitTerminalEvent();
+        observer.assertValueCount(1);
+    }
+
+    @Test
+    public void shouldConsumeTokenOnce() {
+        RefreshToken token = new RefreshToken();
+        token.setId(UUID.randomUUID().toString());
+        token.setToken("my-consumed-token");
+
+        refreshTokenRepository.create(token).blockingGet();
+
+        TestObserver<RefreshToken> observer = refreshTokenRepository.consume("my-consumed-token").test();
+        observer.awaitTerminalEvent();
+        observer.assertValue(refreshToken -> refreshToken.getToken().equals("my-consumed-token"));
+
+        refreshTokenRepository.consume("my-consumed-token").test().awaitDone(5, TimeUnit.SECONDS).assertNoValues();
+        refreshTokenRepository.findByToken("my-consumed-token").test().awaitDone(5, TimeUnit.SECONDS).assertNoValues();
+    }
 }
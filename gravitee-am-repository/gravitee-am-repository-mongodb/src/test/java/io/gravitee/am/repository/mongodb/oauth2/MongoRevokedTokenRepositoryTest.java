@@ -0,0 +1,81 @@
+/**
+ * Copyright (C) 2015 The Gravitee team (http://gravitee.io)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.gravitee.am.repository.mongodb.oauth2;
+
+import io.gravitee.am.repository.oauth2.api.RevokedTokenRepository;
+import io.gravitee.am.repository.oauth2.model.RevokedToken;
+import io.reactivex.observers.TestObserver;
+import org.junit.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+
+import java.util.Date;
+import java.util.UUID;
+
+/**
+ * @author GraviteeSource Team
+ */
+public class MongoRevokedTokenRepositoryTest extends AbstractOAuth2RepositoryTest {
+
+    @Autowired
+    private RevokedTokenRepository revokedTokenRepository;
+
+    @Override
+    public String collectionName() {
+        return "revoked_tokens";
+    }
+
+    @Test
+    public void shouldFindByDomainAndCreatedAtAfter() {
+        RevokedToken token = new RevokedToken();
+        token.setId(UUID.randomUUID().toString());
+        token.setToken("my-token");
+        token.setDomain("my-domain");
+        token.setCreatedAt(new Date());
+        token.setExpireAt(new Date(System.currentTimeMillis() + 60000));
+
+        TestObserver<RevokedToken> observer = revokedTokenRepository.create(token)
+                .toCompletable()
+                .andThen(revokedTokenRepository.findByDomainAndCreatedAtAfter("my-domain", new Date(System.currentTimeMillis() - 60000)))
+                .test();
+
+        observer.awaitTerminalEvent();
+
+        observer.assertComplete();
+        observer.assertNoErrors();
+        observer.assertValue(revokedToken -> revokedToken.getToken().equals("my-token"));
+    }
+
+    @Test
+    public void shouldNotFindRevokedBeforeDate() {
+        RevokedToken token = new RevokedToken();
+        token.setId(UUID.randomUUID().toString());
+        token.setToken("my-token");
+        token.setDomain("my-domain");
+        token.setCreatedAt(new Date(System.currentTimeMillis() - 60000));
+        token.setExpireAt(new Date(System.currentTimeMillis() + 60000));
+
+        TestObserver<RevokedToken> observer = revokedTokenRepository.create(token)
+                .toCompletable()
+                .andThen(revokedTokenRepository.findByDomainAndCreatedAtAfter("my-domain", new Date()))
+                .test();
+
+        observer.awaitTerminalEvent();
+
+        observer.assertComplete();
+        observer.assertNoErrors();
+        observer.assertValueCount(0);
+    }
+}
@@ -16,6 +16,7 @@
 package io.gravitee.am.service;
 
 import io.gravitee.am.service.model.TotalToken;
+import io.reactivex.Completable;
 import io.reactivex.Single;
 
 /**
@@ -27,4 +28,38 @@ public interface TokenService {
     Single<TotalToken> findTotalTokensByDomain(String domain);
 
     Single<TotalToken> findTotalTokens();
+
+    /**
+     * Revoke all the access and refresh tokens issued to a client
+     *
+     * @param domain the security domain the client belongs to
+     * @param clientId the client id (OAuth 2.0 client_id)
+     * @return acknowledge of the operation
+     */
+    Completable revokeByClient(String domain, String clientId);
+
+    /**
+     * Revoke all the access and refresh tokens issued to a client on behalf of an end-user
+     *
+     * @param domain the security domain the client belongs to
+     * @param clientId the client id (OAuth 2.0 client_id)
+     * @param subject the end-user technical identifier
+     * @return acknowledge of the operation
+     */
+    Completable revokeByClientAndSubject(String domain, String clientId, String subject);
+
+    /**
+     * Revoke all the access and refresh tokens of a security domain
+     *
+     * @param domain the security domain
+     * @return acknowledge of the operation
+     */
+    Completable revokeByDomain(String domain);
+
+    /**
+     * Migrate the access and refresh tokens stored in a previous storage format
+     *
+     * @return acknowledge of the operation
+     */
+    Completable migrate();
 }
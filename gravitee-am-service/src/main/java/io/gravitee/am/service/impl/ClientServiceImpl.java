@@ -16,6 +16,7 @@
 package io.gravitee.am.service.impl;
 
 import io.gravitee.am.model.Client;
+import io.gravitee.am.model.TokenFormat;
 import io.gravitee.am.model.common.Page;
 import io.gravitee.am.model.common.event.Action;
 import io.gravitee.am.model.common.event.Event;
@@ -29,6 +30,7 @@ import io.gravitee.am.service.IdentityProviderService;
 import io.gravitee.am.service.exception.AbstractManagementException;
 import io.gravitee.am.service.exception.ClientAlreadyExistsException;
 import io.gravitee.am.service.exception.ClientNotFoundException;
+import io.gravitee.am.service.exception.InvalidClientMetadataException;
 import io.gravitee.am.service.exception.TechnicalManagementException;
 import io.gravitee.am.service.model.NewClient;
 import io.gravitee.am.service.model.TopClient;
@@ -317,6 +319,15 @@ public class ClientServiceImpl implements ClientService {
                     client.setIdTokenCustomClaims(updateClient.getIdTokenCustomClaims());
                     client.setCertificate(updateClient.getCertificate());
                     client.setEnhanceScopesWithUserPermissions(updateClient.isEnhanceScopesWithUserPermissions());
+                    client.setStatelessAccessToken(updateClient.isStatelessAccessToken());
+                    client.setReuseClientCredentialsToken(updateClient.isReuseClientCredentialsToken());
+                    if (updateClient.getTokenFormat() != null) {
+                        client.setTokenFormat(updateClient.getTokenFormat());
+                    }
+                    // opaque access tokens are references to the stored access tokens
+                    if (client.isStatelessAccessToken() && TokenFormat.OPAQUE.format().equals(client.getTokenFormat())) {
+                        throw new InvalidClientMetadataException("Opaque access tokens are stored, they can not be stateless");
+                    }
                     client.setUpdatedAt(new Date());
 
                     return clientRepository.update(client)
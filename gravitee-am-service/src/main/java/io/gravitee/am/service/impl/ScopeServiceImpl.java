@@ -15,10 +15,15 @@
  */
 package io.gravitee.am.service.impl;
 
+import io.gravitee.am.model.common.event.Action;
+import io.gravitee.am.model.common.event.Event;
+import io.gravitee.am.model.common.event.Payload;
+import io.gravitee.am.model.common.event.Type;
 import io.gravitee.am.model.oauth2.Scope;
 import io.gravitee.am.repository.management.api.ScopeRepository;
 import io.gravitee.am.repository.oauth2.api.ScopeApprovalRepository;
 import io.gravitee.am.service.ClientService;
+import io.gravitee.am.service.DomainService;
 import io.gravitee.am.service.RoleService;
 import io.gravitee.am.service.ScopeService;
 import io.gravitee.am.service.exception.*;
@@ -62,6 +67,9 @@ public class ScopeServiceImpl implements ScopeService {
     @Autowired
     private ClientService clientService;
 
+    @Autowired
+    private DomainService domainService;
+
     @Override
     public Maybe<Scope> findById(String id) {
         LOGGER.debug("Find scope by ID: {}", id);
@@ -94,6 +102,11 @@ public class ScopeServiceImpl implements ScopeService {
 
                         return scopeRepository.create(scope);
                     })
+                .flatMap(scope -> {
+                    // Reload domain to take care about scope creation
+                    Event event = new Event(Type.SCOPE, new Payload(scope.getId(), scope.getDomain(), Action.CREATE));
+                    return domainService.reload(domain, event).flatMap(domain1 -> Single.just(scope));
+                })
                 .onErrorResumeNext(ex -> {
                     if (ex instanceof AbstractManagementException) {
                         return Single.error(ex);
@@ -126,6 +139,11 @@ public class ScopeServiceImpl implements ScopeService {
                     scope.setUpdatedAt(new Date());
                     return scopeRepository.create(scope);
                 })
+                .flatMap(scope -> {
+                    // Reload domain to take care about scope creation
+                    Event event = new Event(Type.SCOPE, new Payload(scope.getId(), scope.getDomain(), Action.CREATE));
+                    return domainService.reload(domain, event).flatMap(domain1 -> Single.just(scope));
+                })
                 .onErrorResumeNext(ex -> {
                     if (ex instanceof AbstractManagementException) {
                         return Single.error(ex);
@@ -147,6 +165,11 @@ public class ScopeServiceImpl implements ScopeService {
 
                     return scopeRepository.update(scope);
                 })
+                .flatMap(scope -> {
+                    // Reload domain to take care about scope update
+                    Event event = new Event(Type.SCOPE, new Payload(scope.getId(), scope.getDomain(), Action.UPDATE));
+                    return domainService.reload(domain, event).flatMap(domain1 -> Single.just(scope));
+                })
                 .onErrorResumeNext(ex -> {
                     if (ex instanceof AbstractManagementException) {
                         return Single.error(ex);
@@ -169,6 +192,11 @@ public class ScopeServiceImpl implements ScopeService {
                     scope.setClaims(updateScope.getClaims());
                     return scopeRepository.update(scope);
                 })
+                .flatMap(scope -> {
+                    // Reload domain to take care about scope update
+                    Event event = new Event(Type.SCOPE, new Payload(scope.getId(), scope.getDomain(), Action.UPDATE));
+                    return domainService.reload(domain, event).flatMap(domain1 -> Single.just(scope));
+                })
                 .onErrorResumeNext(ex -> {
                     if (ex instanceof AbstractManagementException) {
                         return Single.error(ex);
@@ -236,7 +264,10 @@ public class ScopeServiceImpl implements ScopeService {
                                 // 3_ Remove scopes from scope_approvals
                                 .andThen(scopeApprovalRepository.delete(scope.getDomain(), scope.getKey()))
                                 // 4_ Delete scope
-                                .andThen(scopeRepository.delete(scopeId)))
+                                .andThen(scopeRepository.delete(scopeId))
+                                // 5_ Reload domain to take care about scope deletion
+                                .andThen(Completable.defer(() -> domainService.reload(scope.getDomain(),
+                                        new Event(Type.SCOPE, new Payload(scope.getId(), scope.getDomain(), Action.DELETE))).toCompletable())))
                                 .onErrorResumeNext(ex -> {
                                     if (ex instanceof AbstractManagementException) {
                                         return Completable.error(ex);
@@ -16,10 +16,12 @@
 package io.gravitee.am.service.impl;
 
 import io.gravitee.am.repository.oauth2.api.AccessTokenRepository;
+import io.gravitee.am.repository.oauth2.api.RefreshTokenRepository;
 import io.gravitee.am.service.ClientService;
 import io.gravitee.am.service.TokenService;
 import io.gravitee.am.service.exception.TechnicalManagementException;
 import io.gravitee.am.service.model.TotalToken;
+import io.reactivex.Completable;
 import io.reactivex.Observable;
 import io.reactivex.Single;
 import org.slf4j.Logger;
@@ -42,6 +44,9 @@ public class TokenServiceImpl implements TokenService {
     @Autowired
     private AccessTokenRepository accessTokenRepository;
 
+    @Autowired
+    private RefreshTokenRepository refreshTokenRepository;
+
     @Override
     public Single<TotalToken> findTotalTokensByDomain(String domain) {
         LOGGER.debug("Find total tokens by domain: {}", domain);
@@ -78,4 +83,54 @@ public class TokenServiceImpl implements TokenService {
                     return Single.error(new TechnicalManagementException("An error occurs while trying to find total tokens", ex));
                 });
     }
+
+    @Override
+    public Completable revokeByClient(String domain, String clientId) {
+        LOGGER.debug("Revoke tokens by domain: {} and client: {}", domain, clientId);
+        return Completable.mergeArray(
+                accessTokenRepository.deleteByDomainAndClientId(domain, clientId),
+                refreshTokenRepository.deleteByDomainAndClientId(domain, clientId))
+                .onErrorResumeNext(ex -> {
+                    LOGGER.error("An error occurs while trying to revoke tokens by client: {}", clientId, ex);
+                    return Completable.error(new TechnicalManagementException(
+                            String.format("An error occurs while trying to revoke tokens by client: %s", clientId), ex));
+                });
+    }
+
+    @Override
+    public Completable revokeByClientAndSubject(String domain, String clientId, String subject) {
+        LOGGER.debug("Revoke tokens by domain: {}, client: {} and subject: {}", domain, clientId, subject);
+        return Completable.mergeArray(
+                accessTokenRepository.deleteByDomainAndClientIdAndSubject(domain, clientId, subject),
+                refreshTokenRepository.deleteByDomainAndClientIdAndSubject(domain, clientId, subject))
+                .onErrorResumeNext(ex -> {
+                    LOGGER.error("An error occurs while trying to revoke tokens by client: {} and subject: {}", clientId, subject, ex);
+                    return Completable.error(new TechnicalManagementException(
+                            String.format("An error occurs while trying to revoke tokens by client: %s and subject: %s", clientId, subject), ex));
+                });
+    }
+
+    @Override
+    public Completable revokeByDomain(String domain) {
+        LOGGER.debug("Revoke tokens by domain: {}", domain);
+        return Completable.mergeArray(
+                accessTokenRepository.deleteByDomain(domain),
+                refreshTokenRepository.deleteByDomain(domain))
+                .onErrorResumeNext(ex -> {
+                    LOGGER.error("An error occurs while trying to revoke tokens by domain: {}", domain, ex);
+                    return Completable.error(new TechnicalManagementException(
+                            String.format("An error occurs while trying to revoke tokens by domain: %s", domain), ex));
+                });
+    }
+
+    @Override
+    public Completable migrate() {
+        LOGGER.debug("Migrate tokens");
+        return accessTokenRepository.migrate()
+                .andThen(refreshTokenRepository.migrate())
+                .onErrorResumeNext(ex -> {
+                    LOGGER.error("An error occurs while trying to migrate tokens", ex);
+                    return Completable.error(new TechnicalManagementException("An error occurs while trying to migrate tokens", ex));
+                });
+    }
 }
@@ -15,6 +15,7 @@
  */
 package io.gravitee.am.service.model;
 
+import javax.validation.constraints.Pattern;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
@@ -51,6 +52,13 @@ public class UpdateClient {
 
     private boolean enhanceScopesWithUserPermissions;
 
+    private boolean statelessAccessToken;
+
+    @Pattern(regexp = "jwt|opaque")
+    private String tokenFormat;
+
+    private boolean reuseClientCredentialsToken;
+
     public List<String> getRedirectUris() {
         return redirectUris;
     }
@@ -154,4 +162,28 @@ public class UpdateClient {
     public void setEnhanceScopesWithUserPermissions(boolean enhanceScopesWithUserPermissions) {
         this.enhanceScopesWithUserPermissions = enhanceScopesWithUserPermissions;
     }
+
+    public boolean isStatelessAccessToken() {
+        return statelessAccessToken;
+    }
+
+    public void setStatelessAccessToken(boolean statelessAccessToken) {
+        this.statelessAccessToken = statelessAccessToken;
+    }
+
+    public String getTokenFormat() {
+        return tokenFormat;
+    }
+
+    public void setTokenFormat(String tokenFormat) {
+        this.tokenFormat = tokenFormat;
+    }
+
+    public boolean isReuseClientCredentialsToken() {
+        return reuseClientCredentialsToken;
+    }
+
+    public void setReuseClientCredentialsToken(boolean reuseClientCredentialsToken) {
+        this.reuseClientCredentialsToken = reuseClientCredentialsToken;
+    }
 }
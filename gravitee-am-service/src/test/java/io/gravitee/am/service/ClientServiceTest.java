@@ -18,11 +18,13 @@ package io.gravitee.am.service;
 import io.gravitee.am.model.Client;
 import io.gravitee.am.model.Domain;
 import io.gravitee.am.model.IdentityProvider;
+import io.gravitee.am.model.TokenFormat;
 import io.gravitee.am.model.common.Page;
 import io.gravitee.am.repository.exceptions.TechnicalException;
 import io.gravitee.am.repository.management.api.ClientRepository;
 import io.gravitee.am.service.exception.ClientAlreadyExistsException;
 import io.gravitee.am.service.exception.ClientNotFoundException;
+import io.gravitee.am.service.exception.InvalidClientMetadataException;
 import io.gravitee.am.service.exception.TechnicalManagementException;
 import io.gravitee.am.service.impl.ClientServiceImpl;
 import io.gravitee.am.service.model.NewClient;
@@ -417,6 +419,20 @@ public class ClientServiceTest {
         verify(clientRepository, times(1)).update(any(Client.class));
     }
 
+    @Test
+    public void shouldNotUpdate_statelessOpaqueAccessToken() {
+        UpdateClient updateClient = new UpdateClient();
+        updateClient.setStatelessAccessToken(true);
+        updateClient.setTokenFormat(TokenFormat.OPAQUE.format());
+        when(clientRepository.findById("my-client")).thenReturn(Maybe.just(new Client()));
+
+        TestObserver testObserver = clientService.update(DOMAIN, "my-client", updateClient).test();
+        testObserver.awaitTerminalEvent();
+
+        testObserver.assertError(InvalidClientMetadataException.class);
+        verify(clientRepository, never()).update(any(Client.class));
+    }
+
     @Test
     public void shouldUpdate_technicalException() {
         UpdateClient updateClient = Mockito.mock(UpdateClient.class);
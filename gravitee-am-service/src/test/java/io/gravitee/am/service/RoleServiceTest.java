@@ -15,6 +15,7 @@
  */
 package io.gravitee.am.service;
 
+import io.gravitee.am.model.Domain;
 import io.gravitee.am.model.Role;
 import io.gravitee.am.repository.exceptions.TechnicalException;
 import io.gravitee.am.repository.management.api.RoleRepository;
@@ -143,6 +144,7 @@ public class RoleServiceTest {
         NewRole newRole = Mockito.mock(NewRole.class);
         when(roleRepository.findByDomain(DOMAIN)).thenReturn(Single.just(Collections.emptySet()));
         when(roleRepository.create(any(Role.class))).thenReturn(Single.just(new Role()));
+        when(domainService.reload(eq(DOMAIN), any())).thenReturn(Single.just(new Domain()));
 
         TestObserver testObserver = roleService.create(DOMAIN, newRole).test();
         testObserver.awaitTerminalEvent();
@@ -152,6 +154,7 @@ public class RoleServiceTest {
 
         verify(roleRepository, times(1)).findByDomain(DOMAIN);
         verify(roleRepository, times(1)).create(any(Role.class));
+        verify(domainService, times(1)).reload(eq(DOMAIN), any());
     }
 
     @Test
@@ -194,6 +197,7 @@ public class RoleServiceTest {
         when(roleRepository.findById("my-role")).thenReturn(Maybe.just(new Role()));
         when(roleRepository.findByDomain(DOMAIN)).thenReturn(Single.just(Collections.emptySet()));
         when(roleRepository.update(any(Role.class))).thenReturn(Single.just(new Role()));
+        when(domainService.reload(eq(DOMAIN), any())).thenReturn(Single.just(new Domain()));
 
         TestObserver testObserver = roleService.update(DOMAIN,"my-role", updateRole).test();
         testObserver.awaitTerminalEvent();
@@ -204,6 +208,7 @@ public class RoleServiceTest {
         verify(roleRepository, times(1)).findById("my-role");
         verify(roleRepository, times(1)).findByDomain(DOMAIN);
         verify(roleRepository, times(1)).update(any(Role.class));
+        verify(domainService, times(1)).reload(eq(DOMAIN), any());
     }
 
     @Test
@@ -283,8 +288,12 @@ public class RoleServiceTest {
 
     @Test
     public void shouldDelete() {
-        when(roleRepository.findById("my-role")).thenReturn(Maybe.just(new Role()));
+        Role role = new Role();
+        role.setId("my-role");
+        role.setDomain(DOMAIN);
+        when(roleRepository.findById("my-role")).thenReturn(Maybe.just(role));
         when(roleRepository.delete("my-role")).thenReturn(Completable.complete());
+        when(domainService.reload(eq(DOMAIN), any())).thenReturn(Single.just(new Domain()));
 
         TestObserver testObserver = roleService.delete( "my-role").test();
         testObserver.awaitTerminalEvent();
@@ -293,5 +302,6 @@ public class RoleServiceTest {
         testObserver.assertNoErrors();
 
         verify(roleRepository, times(1)).delete("my-role");
+        verify(domainService, times(1)).reload(eq(DOMAIN), any());
     }
 }
@@ -16,7 +16,9 @@
 package io.gravitee.am.service;
 
 import io.gravitee.am.model.Client;
+import io.gravitee.am.model.Domain;
 import io.gravitee.am.model.Role;
+import io.gravitee.am.model.common.event.Event;
 import io.gravitee.am.model.oauth2.Scope;
 import io.gravitee.am.repository.exceptions.TechnicalException;
 import io.gravitee.am.repository.management.api.ScopeRepository;
@@ -29,6 +31,7 @@ import io.gravitee.am.service.impl.ScopeServiceImpl;
 import io.gravitee.am.service.model.NewScope;
 import io.gravitee.am.service.model.UpdateClient;
 import io.gravitee.am.service.model.UpdateRole;
+import io.gravitee.am.service.model.UpdateScope;
 import io.reactivex.Completable;
 import io.reactivex.Maybe;
 import io.reactivex.Single;
@@ -72,6 +75,9 @@ public class ScopeServiceTest {
     @Mock
     private ScopeApprovalRepository scopeApprovalRepository;
 
+    @Mock
+    private DomainService domainService;
+
     private final static String DOMAIN = "domain1";
 
     @Test
@@ -132,6 +138,7 @@ public class ScopeServiceTest {
         when(newScope.getKey()).thenReturn("my-scope");
         when(scopeRepository.findByDomainAndKey(DOMAIN, "my-scope")).thenReturn(Maybe.empty());
         when(scopeRepository.create(any(Scope.class))).thenReturn(Single.just(new Scope()));
+        when(domainService.reload(anyString(), any(Event.class))).thenReturn(Single.just(new Domain()));
 
         TestObserver testObserver = scopeService.create(DOMAIN, newScope).test();
         testObserver.awaitTerminalEvent();
@@ -141,6 +148,7 @@ public class ScopeServiceTest {
 
         verify(scopeRepository, times(1)).findByDomainAndKey(anyString(), anyString());
         verify(scopeRepository, times(1)).create(any(Scope.class));
+        verify(domainService, times(1)).reload(eq(DOMAIN), any(Event.class));
     }
 
     @Test
@@ -149,6 +157,7 @@ public class ScopeServiceTest {
         when(newScope.getKey()).thenReturn("MY-SCOPE");
         when(scopeRepository.findByDomainAndKey(DOMAIN, "my-scope")).thenReturn(Maybe.empty());
         when(scopeRepository.create(any(Scope.class))).thenReturn(Single.just(new Scope()));
+        when(domainService.reload(anyString(), any(Event.class))).thenReturn(Single.just(new Domain()));
 
         TestObserver testObserver = scopeService.create(DOMAIN, newScope).test();
         testObserver.awaitTerminalEvent();
@@ -196,6 +205,27 @@ public class ScopeServiceTest {
         verify(scopeRepository, never()).create(any(Scope.class));
     }
 
+    @Test
+    public void shouldUpdate() {
+        Scope scope = new Scope();
+        scope.setId("my-scope");
+        scope.setDomain(DOMAIN);
+        UpdateScope updateScope = new UpdateScope();
+        updateScope.setName("name");
+        when(scopeRepository.findById("my-scope")).thenReturn(Maybe.just(scope));
+        when(scopeRepository.update(any(Scope.class))).thenReturn(Single.just(scope));
+        when(domainService.reload(anyString(), any(Event.class))).thenReturn(Single.just(new Domain()));
+
+        TestObserver testObserver = scopeService.update(DOMAIN, "my-scope", updateScope).test();
+        testObserver.awaitTerminalEvent();
+
+        testObserver.assertComplete();
+        testObserver.assertNoErrors();
+
+        verify(scopeRepository, times(1)).update(any(Scope.class));
+        verify(domainService, times(1)).reload(eq(DOMAIN), any(Event.class));
+    }
+
     @Test
     public void shouldDelete_notExistingScope() {
         when(scopeRepository.findById("my-scope")).thenReturn(Maybe.empty());
@@ -251,6 +281,7 @@ public class ScopeServiceTest {
         when(clientService.findByDomain(DOMAIN)).thenReturn(Single.just(Collections.emptySet()));
         when(scopeRepository.findById("my-scope")).thenReturn(Maybe.just(scope));
         when(scopeRepository.delete("my-scope")).thenReturn(Completable.complete());
+        when(domainService.reload(anyString(), any(Event.class))).thenReturn(Single.just(new Domain()));
         when(scopeApprovalRepository.delete(scope.getDomain(), scope.getKey())).thenReturn(Completable.complete());
 
         TestObserver testObserver = scopeService.delete("my-scope", false).test();
@@ -262,6 +293,7 @@ public class ScopeServiceTest {
         verify(roleService, times(1)).findByDomain(DOMAIN);
         verify(clientService, times(1)).findByDomain(DOMAIN);
         verify(scopeRepository, times(1)).delete("my-scope");
+        verify(domainService, times(1)).reload(eq(DOMAIN), any(Event.class));
     }
 
     @Test
@@ -284,6 +316,7 @@ public class ScopeServiceTest {
         when(clientService.update(anyString(), anyString(), any(UpdateClient.class))).thenReturn(Single.just(new Client()));
         when(scopeRepository.findById("my-scope")).thenReturn(Maybe.just(scope));
         when(scopeRepository.delete("my-scope")).thenReturn(Completable.complete());
+        when(domainService.reload(anyString(), any(Event.class))).thenReturn(Single.just(new Domain()));
         when(scopeApprovalRepository.delete(scope.getDomain(), scope.getKey())).thenReturn(Completable.complete());
 
         TestObserver testObserver = scopeService.delete("my-scope", false).test();
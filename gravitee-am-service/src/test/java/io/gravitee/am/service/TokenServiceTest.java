@@ -18,10 +18,12 @@ package io.gravitee.am.service;
 import io.gravitee.am.model.Client;
 import io.gravitee.am.repository.exceptions.TechnicalException;
 import io.gravitee.am.repository.oauth2.api.AccessTokenRepository;
+import io.gravitee.am.repository.oauth2.api.RefreshTokenRepository;
 import io.gravitee.am.repository.oauth2.model.AccessToken;
 import io.gravitee.am.service.exception.TechnicalManagementException;
 import io.gravitee.am.service.impl.TokenServiceImpl;
 import io.gravitee.am.service.model.TotalToken;
+import io.reactivex.Completable;
 import io.reactivex.Observable;
 import io.reactivex.Single;
 import io.reactivex.observers.TestObserver;
@@ -35,7 +37,7 @@ import java.util.Arrays;
 import java.util.HashSet;
 import java.util.Set;
 
-import static org.mockito.Mockito.when;
+import static org.mockito.Mockito.*;
 
 /**
  * @author Titouan COMPIEGNE (titouan.compiegne at graviteesource.com)
@@ -50,6 +52,9 @@ public class TokenServiceTest {
     @Mock
     private AccessTokenRepository accessTokenRepository;
 
+    @Mock
+    private RefreshTokenRepository refreshTokenRepository;
+
     @Mock
     private ClientService clientService;
 
@@ -149,4 +154,83 @@ public class TokenServiceTest {
         testObserver.assertNotComplete();
     }
 
+    @Test
+    public void shouldRevokeByClient() {
+        when(accessTokenRepository.deleteByDomainAndClientId("domain1", "client1")).thenReturn(Completable.complete());
+        when(refreshTokenRepository.deleteByDomainAndClientId("domain1", "client1")).thenReturn(Completable.complete());
+
+        TestObserver testObserver = tokenService.revokeByClient("domain1", "client1").test();
+        testObserver.awaitTerminalEvent();
+
+        testObserver.assertNoErrors();
+        testObserver.assertComplete();
+        verify(accessTokenRepository, times(1)).deleteByDomainAndClientId("domain1", "client1");
+        verify(refreshTokenRepository, times(1)).deleteByDomainAndClientId("domain1", "client1");
+    }
+
+    @Test
+    public void shouldRevokeByClient_technicalException() {
+        when(accessTokenRepository.deleteByDomainAndClientId("domain1", "client1")).thenReturn(Completable.error(TechnicalException::new));
+        when(refreshTokenRepository.deleteByDomainAndClientId("domain1", "client1")).thenReturn(Completable.complete());
+
+        TestObserver testObserver = tokenService.revokeByClient("domain1", "client1").test();
+
+        testObserver.assertError(TechnicalManagementException.class);
+        testObserver.assertNotComplete();
+    }
+
+    @Test
+    public void shouldRevokeByClientAndSubject() {
+        when(accessTokenRepository.deleteByDomainAndClientIdAndSubject("domain1", "client1", "user1")).thenReturn(Completable.complete());
+        when(refreshTokenRepository.deleteByDomainAndClientIdAndSubject("domain1", "client1", "user1")).thenReturn(Completable.complete());
+
+        TestObserver testObserver = tokenService.revokeByClientAndSubject("domain1", "client1", "user1").test();
+        testObserver.awaitTerminalEvent();
+
+        testObserver.assertNoErrors();
+        testObserver.assertComplete();
+        verify(accessTokenRepository, times(1)).deleteByDomainAndClientIdAndSubject("domain1", "client1", "user1");
+        verify(refreshTokenRepository, times(1)).deleteByDomainAndClientIdAndSubject("domain1", "client1", "user1");
+    }
+
+    @Test
+    public void shouldRevokeByDomain() {
+        when(accessTokenRepository.deleteByDomain(DOMAIN)).thenReturn(Completable.complete());
+        when(refreshTokenRepository.deleteByDomain(DOMAIN)).thenReturn(Completable.complete());
+
+        TestObserver testObserver = tokenService.revokeByDomain(DOMAIN).test();
+        testObserver.awaitTerminalEvent();
+
+        testObserver.assertNoErrors();
+        testObserver.assertComplete();
+        verify(accessTokenRepository, times(1)).deleteByDomain(DOMAIN);
+        verify(refreshTokenRepository, times(1)).deleteByDomain(DOMAIN);
+    }
+
+    @Test
+    public void shouldMigrate() {
+        when(accessTokenRepository.migrate()).thenReturn(Completable.complete());
+        when(refreshTokenRepository.migrate()).thenReturn(Completable.complete());
+
+        TestObserver testObserver = tokenService.migrate().test();
+        testObserver.awaitTerminalEvent();
+
+        testObserver.assertNoErrors();
+        testObserver.assertComplete();
+        verify(accessTokenRepository, times(1)).migrate();
+        verify(refreshTokenRepository, times(1)).migrate();
+    }
+
+    @Test
+    public void shouldMigrate_technicalException() {
+        when(accessTokenRepository.migrate()).thenReturn(Completable.error(TechnicalException::new));
+        when(refreshTokenRepository.migrate()).thenReturn(Completable.complete());
+
+        TestObserver testObserver = tokenService.migrate().test();
+        testObserver.awaitTerminalEvent();
+
+        testObserver.assertError(TechnicalManagementException.class);
+        testObserver.assertNotComplete();
+    }
+
 }
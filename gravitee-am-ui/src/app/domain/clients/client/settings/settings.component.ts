@@ -66,6 +66,7 @@ export class ClientSettingsComponent implements OnInit {
     this.scopes = this.route.snapshot.data['scopes'];
     (!this.client.redirectUris) ? this.client.redirectUris = [] : this.client.redirectUris = this.client.redirectUris;
     (!this.client.scopes) ? this.client.scopes = [] : this.client.scopes = this.client.scopes;
+    (!this.client.tokenFormat) ? this.client.tokenFormat = 'jwt' : this.client.tokenFormat = this.client.tokenFormat;
     this.providerService.findByDomain(this.domainId).map(res => res.json()).subscribe(data => this.identityProviders = data);
     this.certificateService.findByDomain(this.domainId).map(res => res.json()).subscribe(data => this.certificates = data);
     this.initGrantTypes();
@@ -154,6 +155,36 @@ export class ClientSettingsComponent implements OnInit {
     return this.client.enhanceScopesWithUserPermissions;
   }
 
+  enableStatelessAccessToken(event) {
+    this.client.statelessAccessToken = event.checked;
+    this.formChanged = true;
+  }
+
+  isStatelessAccessToken() {
+    return this.client.statelessAccessToken;
+  }
+
+  selectTokenFormat(event) {
+    // opaque access tokens are always stored
+    if (event.value === 'opaque') {
+      this.client.statelessAccessToken = false;
+    }
+    this.formChanged = true;
+  }
+
+  isOpaqueAccessToken() {
+    return this.client.tokenFormat === 'opaque';
+  }
+
+  enableReuseClientCredentialsToken(event) {
+    this.client.reuseClientCredentialsToken = event.checked;
+    this.formChanged = true;
+  }
+
+  isReuseClientCredentialsToken() {
+    return this.client.reuseClientCredentialsToken;
+  }
+
   update() {
     this.client.authorizedGrantTypes = this.selectedGrantTypes.concat(this.selectedCustomGrantTypes);
     this.client.scopes = _.map(this.selectedScopes, scope => scope.key);
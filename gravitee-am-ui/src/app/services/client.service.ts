@@ -50,7 +50,10 @@ export class ClientService {
       'identities': client.identities,
       'oauth2Identities': client.oauth2Identities,
       'certificate': client.certificate,
-      'enhanceScopesWithUserPermissions' : client.enhanceScopesWithUserPermissions
+      'enhanceScopesWithUserPermissions' : client.enhanceScopesWithUserPermissions,
+      'statelessAccessToken' : client.statelessAccessToken,
+      'tokenFormat' : client.tokenFormat,
+      'reuseClientCredentialsToken' : client.reuseClientCredentialsToken
     });
   }
 